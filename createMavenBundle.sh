@@ -76,7 +76,117 @@ echo '<project xmlns="http://maven.apache.org/POM/4.0.0"
 </project>
 ' >> ./xyz/norbjert/jda4spring/${build_version}/jda4spring-${build_version}.pom
 
-for file in ./xyz/norbjert/jda4spring/${build_version}/*; do
+# The annotation processor (jda4spring-processor), built by the same assemble, only needs the JDK
+PROCESSOR_DIR="xyz/norbjert/jda4spring-processor/${build_version}"
+mkdir -p "${PROCESSOR_DIR}/"
+
+cp ../jda4spring-processor/build/libs/jda4spring-processor-${build_version}.jar "${PROCESSOR_DIR}/"
+cp ../jda4spring-processor/build/libs/jda4spring-processor-${build_version}-javadoc.jar "${PROCESSOR_DIR}/"
+cp ../jda4spring-processor/build/libs/jda4spring-processor-${build_version}-sources.jar "${PROCESSOR_DIR}/"
+
+echo '<project xmlns="http://maven.apache.org/POM/4.0.0"
+         xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+         xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd">
+  <modelVersion>4.0.0</modelVersion>
+
+  <groupId>xyz.norbjert</groupId>
+  <artifactId>jda4spring-processor</artifactId>
+         <version>'"${build_version}"'</version>
+  <packaging>jar</packaging>
+
+  <name>JDA4Spring Processor</name>
+  <description>Compile time registry generation for JDA4Spring bot tasks</description>
+  <url>https://github.com/norbjert/JDA4Spring</url>
+
+  <licenses>
+    <license>
+      <name>Apache-2.0</name>
+      <url>https://www.apache.org/licenses/LICENSE-2.0.html</url>
+    </license>
+  </licenses>
+
+  <developers>
+    <developer>
+      <name>norbjert</name>
+      <email>norbert88@protonmail.com</email>
+      <organization>norbjert</organization>
+      <organizationUrl>https://www.norbjert.xyz</organizationUrl>
+    </developer>
+  </developers>
+
+  <scm>
+    <connection>scm:git:git://github.com/norbjert/JDA4Spring.git</connection>
+    <developerConnection>scm:git:ssh://github.com:norbjert/JDA4Spring.git</developerConnection>
+    <url>https://github.com/norbjert/JDA4Spring/tree/main</url>
+  </scm>
+
+</project>
+' >> ./${PROCESSOR_DIR}/jda4spring-processor-${build_version}.pom
+
+# The fake discord of the test fixtures, as a plain artifact so Maven and Gradle builds can use it without gradle module metadata
+FIXTURES_DIR="xyz/norbjert/jda4spring-test-fixtures/${build_version}"
+mkdir -p "${FIXTURES_DIR}/"
+
+cp ./libs/jda4spring-${build_version}-test-fixtures.jar "${FIXTURES_DIR}/jda4spring-test-fixtures-${build_version}.jar"
+cp ./libs/jda4spring-${build_version}-test-fixtures-javadoc.jar "${FIXTURES_DIR}/jda4spring-test-fixtures-${build_version}-javadoc.jar"
+cp ./libs/jda4spring-${build_version}-test-fixtures-sources.jar "${FIXTURES_DIR}/jda4spring-test-fixtures-${build_version}-sources.jar"
+
+echo '<project xmlns="http://maven.apache.org/POM/4.0.0"
+         xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+         xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd">
+  <modelVersion>4.0.0</modelVersion>
+
+  <groupId>xyz.norbjert</groupId>
+  <artifactId>jda4spring-test-fixtures</artifactId>
+         <version>'"${build_version}"'</version>
+  <packaging>jar</packaging>
+
+  <name>JDA4Spring Test Fixtures</name>
+  <description>A fake discord gateway and REST API to load test JDA4Spring bots offline</description>
+  <url>https://github.com/norbjert/JDA4Spring</url>
+
+  <licenses>
+    <license>
+      <name>Apache-2.0</name>
+      <url>https://www.apache.org/licenses/LICENSE-2.0.html</url>
+    </license>
+  </licenses>
+
+  <developers>
+    <developer>
+      <name>norbjert</name>
+      <email>norbert88@protonmail.com</email>
+      <organization>norbjert</organization>
+      <organizationUrl>https://www.norbjert.xyz</organizationUrl>
+    </developer>
+  </developers>
+
+  <scm>
+    <connection>scm:git:git://github.com/norbjert/JDA4Spring.git</connection>
+    <developerConnection>scm:git:ssh://github.com:norbjert/JDA4Spring.git</developerConnection>
+    <url>https://github.com/norbjert/JDA4Spring/tree/main</url>
+  </scm>
+
+  <dependencies>
+
+    <dependency>
+      <groupId>xyz.norbjert</groupId>
+      <artifactId>jda4spring</artifactId>
+           <version>'"${build_version}"'</version>
+    </dependency>
+
+    <dependency>
+      <groupId>net.dv8tion</groupId>
+      <artifactId>JDA</artifactId>
+           <version>'"${jda_version}"'</version>
+    </dependency>
+
+  </dependencies>
+
+</project>
+' >> ./${FIXTURES_DIR}/jda4spring-test-fixtures-${build_version}.pom
+
+for file in ./${OUT_DIR}/* ./${PROCESSOR_DIR}/* ./${FIXTURES_DIR}/*; do
   echo $file
   if [ -f "$file" ] && [[ ! "$file" =~ \.asc$ ]]; then
         md5=$(md5sum "$file" | awk '{print $1}')
@@ -90,7 +200,7 @@ done
 # Create a final ZIP bundle with the full Maven path structure
 ZIP_NAME="jda4spring-${build_version}-maven-bundle.zip"
 rm -f "$ZIP_NAME"
-zip -r "$ZIP_NAME" "xyz/norbjert/jda4spring/${build_version}"
+zip -r "$ZIP_NAME" "${OUT_DIR}" "${PROCESSOR_DIR}" "${FIXTURES_DIR}"
 
 echo "Created bundle: $(pwd)/${ZIP_NAME}"
 
@@ -0,0 +1,18 @@
+package xyz.norbjert.jda4spring.nativetest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * sample application for the native image tests
+ */
+@SpringBootApplication(scanBasePackages = "xyz.norbjert.jda4spring")
+public class NativeTestApplication {
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(NativeTestApplication.class, args);
+    }
+}
@@ -0,0 +1,44 @@
+package xyz.norbjert.jda4spring.nativetest;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+
+/**
+ * a small bot task, its handlers are looked up and called like in any other bot
+ */
+@BotTask("SampleBot")
+public class SampleBot {
+
+    /**
+     * @param event the slash command event
+     */
+    @SlashCommand(command = "ping", description = "replies with pong")
+    public void ping(SlashCommandInteractionEvent event) {
+        event.reply("pong").queue();
+    }
+
+    /**
+     * @param content the content of the message
+     * @return the greeting
+     */
+    @OnChatMessage(ifMsgContains = "hello")
+    public String hello(String content) {
+        return "hi, you said: " + content;
+    }
+
+    /**
+     * @param event the message event
+     */
+    @OnChatMessage(ifMsgContains = "ping")
+    public void pingMessage(MessageReceivedEvent event) {
+        event.getMessage().reply("pong").queue();
+    }
+
+    @OnChatMessage
+    private String echo(String content) {
+        return content;
+    }
+}
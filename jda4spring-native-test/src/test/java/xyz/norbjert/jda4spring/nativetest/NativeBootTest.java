@@ -0,0 +1,136 @@
+package xyz.norbjert.jda4spring.nativetest;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.fake.FakeDiscord;
+import xyz.norbjert.jda4spring.internal.DiscordBot;
+import xyz.norbjert.jda4spring.internal.JDA4SpringMain;
+import xyz.norbjert.jda4spring.internal.SlashCommandDataFactory;
+import xyz.norbjert.jda4spring.internal.invokers.MethodInvoker;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * boots the sample application and goes through the same reflective steps as a running bot,
+ * which is what breaks first in a native image if a hint is missing.
+ * The sample bot also logs into a {@link FakeDiscord} and answers a slash command and a message from it,
+ * so the login and the JDA listeners run in the native image too
+ */
+@SpringBootTest(properties = {
+        "bots.NativeTestBot.token = fake-token",
+        "bots.NativeTestBot.tasks = SampleBot",
+        "bots.NativeTestBot.intents = auto",
+        "jda4spring.commands.sync = overwrite"
+})
+class NativeBootTest {
+
+    private static final String CALLBACK = "POST interactions/{id}/{token}/callback";
+    private static final String MESSAGE = "POST channels/{id}/messages";
+
+    static FakeDiscord discord;
+
+    @DynamicPropertySource
+    static void fakeDiscord(DynamicPropertyRegistry registry) throws IOException {
+        discord = FakeDiscord.start(1);
+        registry.add("jda4spring.discord.rest-url", discord::getRestUrl);
+        registry.add("jda4spring.discord.gateway-url", discord::getGatewayUrl);
+    }
+
+    /**
+     * the fake discord as a bean, so it is closed with the context, after the bot has been shut down
+     */
+    @TestConfiguration
+    static class FakeDiscordConfig {
+        @Bean
+        FakeDiscord fakeDiscord() {
+            return discord;
+        }
+    }
+
+    private static Object sampleBot() {
+        Object bot = JDA4SpringMain.getInstance().getBotTaskBeans().get("SampleBot");
+        assertInstanceOf(SampleBot.class, bot);
+        return bot;
+    }
+
+    private static Method handler(Object bot, Class<? extends Annotation> annotation, String name) {
+        return Arrays.stream(bot.getClass().getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(annotation) && method.getName().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+    //the bots log in in the background once the context has started
+    private static DiscordBot loggedInBot() throws InterruptedException {
+        for (int i = 0; i < 100 && JDA4SpringMain.getBots().isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, JDA4SpringMain.getBots().size(), "the bot did not log into the fake discord");
+        return JDA4SpringMain.getBots().get(0);
+    }
+
+    private static void awaitRequest(String route) throws InterruptedException {
+        for (int i = 0; i < 50 && !discord.getRequestCounts().containsKey(route); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(Long.valueOf(1), discord.getRequestCounts().get(route), route);
+    }
+
+    // -- Tests --
+
+    @Test
+    void findsBotTaskBeans() {
+        assertEquals(1, JDA4SpringMain.getInstance().getBotTaskBeans().size());
+    }
+
+    @Test
+    void callsChatMessageHandlers() {
+        Object bot = sampleBot();
+        Method hello = handler(bot, OnChatMessage.class, "hello");
+
+        assertEquals("content", hello.getParameters()[0].getName());
+        assertEquals("hello", hello.getAnnotation(OnChatMessage.class).ifMsgContains());
+        assertEquals("hi, you said: hello there", MethodInvoker.invoke(hello, bot, "hello there"));
+        assertEquals("echo", MethodInvoker.invoke(handler(bot, OnChatMessage.class, "echo"), bot, "echo"));
+    }
+
+    @Test
+    void buildsSlashCommandData() {
+        SlashCommandData ping = SlashCommandDataFactory.createSlashCommand(handler(sampleBot(), SlashCommand.class, "ping"));
+
+        assertEquals("ping", ping.getName());
+        assertEquals("replies with pong", ping.getDescription());
+    }
+
+    @Test
+    void logsIntoTheFakeDiscord() throws InterruptedException {
+        DiscordBot bot = loggedInBot();
+
+        assertEquals(JDA.Status.CONNECTED, bot.getJda().getStatus());
+        assertEquals(1, bot.getJda().getGuilds().size());
+    }
+
+    @Test
+    void answersSlashCommandsAndMessages() throws InterruptedException {
+        loggedInBot();
+        long guildId = discord.getGuildIds().get(0);
+
+        discord.sendSlashCommand(guildId, "ping");
+        awaitRequest(CALLBACK);
+
+        discord.sendMessage(guildId, "ping");
+        awaitRequest(MESSAGE);
+    }
+}
@@ -0,0 +1,326 @@
+package xyz.norbjert.jda4spring.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code BotTaskRegistry} for every class with {@code @SlashCommand}, {@code @OnChatMessage},
+ * {@code @Button} or {@code @ButtonHandler} methods, so JDA4Spring does not have to scan the class via reflection on startup.
+ * The registry lists the handler methods, calls them directly instead of via reflection,
+ * and contains the slash command data, which is checked at compile time here instead of at startup.
+ * <p>
+ * The annotations are only read by name, so this processor does not depend on JDA4Spring or JDA itself.
+ */
+@SupportedAnnotationTypes({
+        BotTaskRegistryProcessor.SLASH_COMMAND,
+        BotTaskRegistryProcessor.ON_CHAT_MESSAGE,
+        BotTaskRegistryProcessor.BUTTON,
+        BotTaskRegistryProcessor.BUTTON_HANDLER
+})
+public class BotTaskRegistryProcessor extends AbstractProcessor {
+
+    static final String SLASH_COMMAND = "xyz.norbjert.jda4spring.annotations.SlashCommand";
+    static final String ON_CHAT_MESSAGE = "xyz.norbjert.jda4spring.annotations.OnChatMessage";
+    static final String BUTTON = "xyz.norbjert.jda4spring.annotations.Button";
+    static final String BUTTON_HANDLER = "xyz.norbjert.jda4spring.annotations.ButtonHandler";
+
+    /**
+     * has to match {@code BotTaskRegistry.CLASS_NAME_SUFFIX}
+     */
+    static final String REGISTRY_SUFFIX = "_Jda4SpringRegistry";
+
+    private static final String REGISTRY = "xyz.norbjert.jda4spring.registry.BotTaskRegistry";
+    private static final String GENERATED_HANDLER = "xyz.norbjert.jda4spring.registry.GeneratedHandler";
+    //same defaults and limits as the SlashCommandDataFactory
+    private static final String DEFAULT_COMMAND_NAME = "<using method name>";
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> botTaskTypes = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.METHOD) {
+                    botTaskTypes.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (TypeElement type : botTaskTypes) {
+            if (!isAccessible(type)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No registry generated for " + type + ", it is not accessible from its package. It will be scanned via reflection.", type);
+                continue;
+            }
+            try {
+                writeRegistry(type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write the registry for " + type + ": " + e.getMessage(), type);
+            }
+        }
+        //the annotations are not claimed, other processors may look at them as well
+        return false;
+    }
+
+    private void writeRegistry(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String registryName = binaryName + REGISTRY_SUFFIX;
+        String simpleRegistryName = packageName.isEmpty() ? registryName : registryName.substring(packageName.length() + 1);
+        String typeName = type.getQualifiedName().toString();
+
+        List<String> entries = new ArrayList<>();
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) enclosed;
+            Map<String, AnnotationMirror> handlerAnnotations = handlerAnnotations(method);
+            if (handlerAnnotations.isEmpty()) {
+                continue;
+            }
+            String lookup = methodLookup(method);
+            String invoker = invoker(typeName, method);
+
+            AnnotationMirror slashCommand = handlerAnnotations.get(SLASH_COMMAND);
+            if (slashCommand != null) {
+                entries.add(GENERATED_HANDLER + ".slashCommand(" + lookup + ",\n                " + invoker + ",\n                "
+                        + slashCommandEntry(method, slashCommand) + ")");
+            }
+            if (handlerAnnotations.containsKey(ON_CHAT_MESSAGE)) {
+                entries.add(GENERATED_HANDLER + ".chatMessage(" + lookup + ",\n                " + invoker + ")");
+            }
+            if (handlerAnnotations.containsKey(BUTTON) || handlerAnnotations.containsKey(BUTTON_HANDLER)) {
+                entries.add(GENERATED_HANDLER + ".button(" + lookup + ",\n                " + invoker + ")");
+            }
+        }
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(registryName, type);
+        try (Writer writer = file.openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("@javax.annotation.processing.Generated(\"" + BotTaskRegistryProcessor.class.getName() + "\")\n");
+            writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            writer.write("public final class " + simpleRegistryName + " implements " + REGISTRY + " {\n\n");
+            writer.write("    private static final Class<?> TYPE = " + typeName + ".class;\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public Class<?> botTaskType() {\n");
+            writer.write("        return TYPE;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public java.util.List<" + GENERATED_HANDLER + "> handlers() {\n");
+            writer.write("        return java.util.List.of(");
+            for (int i = 0; i < entries.size(); i++) {
+                writer.write(i == 0 ? "\n            " : ",\n            ");
+                writer.write(entries.get(i));
+            }
+            writer.write(");\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    /**
+     * @return the handler annotations of the method, by annotation name
+     */
+    private Map<String, AnnotationMirror> handlerAnnotations(ExecutableElement method) {
+        Map<String, AnnotationMirror> found = new LinkedHashMap<>();
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (name.equals(SLASH_COMMAND) || name.equals(ON_CHAT_MESSAGE) || name.equals(BUTTON) || name.equals(BUTTON_HANDLER)) {
+                found.put(name, mirror);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return an expression looking up the {@code Method} of the handler by its name and parameter types
+     */
+    private String methodLookup(ExecutableElement method) {
+        StringBuilder lookup = new StringBuilder(GENERATED_HANDLER + ".method(TYPE, \"" + method.getSimpleName() + "\"");
+        for (VariableElement parameter : method.getParameters()) {
+            lookup.append(", ").append(erasedName(parameter.asType())).append(".class");
+        }
+        return lookup.append(")").toString();
+    }
+
+    /**
+     * @return a {@code HandlerInvoker} lambda calling the method directly, or {@code "null"} if generated code cannot call it
+     */
+    private String invoker(String typeName, ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE)) {
+            return "null";
+        }
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (VariableElement parameter : parameters) {
+            if (!isAccessible(processingEnv.getTypeUtils().erasure(parameter.asType()))) {
+                return "null";
+            }
+        }
+
+        String indent = "                ";
+        StringBuilder code = new StringBuilder("(target, args) -> {\n");
+        code.append(indent).append("    if (args.length != ").append(parameters.size()).append(") {\n");
+        code.append(indent).append("        throw new IllegalArgumentException(\"wrong number of arguments: \" + args.length + \" expected: ")
+                .append(parameters.size()).append("\");\n");
+        code.append(indent).append("    }\n");
+
+        StringBuilder arguments = new StringBuilder();
+        if (!parameters.isEmpty()) {
+            for (int i = 0; i < parameters.size(); i++) {
+                code.append(indent).append("    final ").append(erasedName(parameters.get(i).asType())).append(" arg").append(i).append(";\n");
+                arguments.append(i == 0 ? "" : ", ").append("arg").append(i);
+            }
+            code.append(indent).append("    try {\n");
+            for (int i = 0; i < parameters.size(); i++) {
+                code.append(indent).append("        arg").append(i).append(" = (")
+                        .append(erasedName(parameters.get(i).asType())).append(") args[").append(i).append("];\n");
+            }
+            code.append(indent).append("    } catch (ClassCastException e) {\n");
+            code.append(indent).append("        throw new IllegalArgumentException(\"argument type mismatch\", e);\n");
+            code.append(indent).append("    }\n");
+        }
+
+        String receiver = method.getModifiers().contains(Modifier.STATIC) ? typeName : "((" + typeName + ") target)";
+        String call = receiver + "." + method.getSimpleName() + "(" + arguments + ")";
+        code.append(indent).append("    try {\n");
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            code.append(indent).append("        ").append(call).append(";\n");
+            code.append(indent).append("        return null;\n");
+        } else {
+            code.append(indent).append("        return ").append(call).append(";\n");
+        }
+        code.append(indent).append("    } catch (Throwable t) {\n");
+        code.append(indent).append("        throw new java.lang.reflect.InvocationTargetException(t);\n");
+        code.append(indent).append("    }\n");
+        code.append(indent).append("}");
+        return code.toString();
+    }
+
+    /**
+     * @return the command name and a supplier for the slash command data, checked the same way the SlashCommandDataFactory does on startup
+     */
+    private String slashCommandEntry(ExecutableElement method, AnnotationMirror slashCommand) {
+        String command = (String) value(slashCommand, "command");
+        if (!command.toLowerCase(Locale.ROOT).equals(command)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Discord does not allow for upper case letters in slash commands, please change " + command + " to lower case",
+                    method, slashCommand);
+        }
+        String name = command.equals(DEFAULT_COMMAND_NAME)
+                ? method.getSimpleName().toString().toLowerCase(Locale.ROOT)
+                : command.toLowerCase(Locale.ROOT);
+
+        String description = (String) value(slashCommand, "description");
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Discord does not allow for descriptions longer than 100 characters, please change the description of " + name + " to be shorter",
+                    method, slashCommand);
+            description = description.substring(0, MAX_DESCRIPTION_LENGTH - 1);
+        }
+
+        StringBuilder data = new StringBuilder(literal(name)).append(",\n                () -> net.dv8tion.jda.api.interactions.commands.build.Commands.slash(")
+                .append(literal(name)).append(", ").append(literal(description)).append(")");
+        @SuppressWarnings("unchecked")
+        List<? extends AnnotationValue> options = (List<? extends AnnotationValue>) value(slashCommand, "options");
+        for (AnnotationValue option : options) {
+            AnnotationMirror arg = (AnnotationMirror) option.getValue();
+            VariableElement optionType = (VariableElement) value(arg, "optionType");
+            data.append("\n                        .addOption(net.dv8tion.jda.api.interactions.commands.OptionType.")
+                    .append(optionType.getSimpleName()).append(", ")
+                    .append(literal((String) value(arg, "name"))).append(", ")
+                    .append(literal((String) value(arg, "description"))).append(")");
+        }
+        return data.toString();
+    }
+
+    /**
+     * @return the value of an annotation attribute, or its default value
+     */
+    private Object value(AnnotationMirror mirror, String attribute) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalStateException("@" + mirror.getAnnotationType() + " has no attribute " + attribute);
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * @return the source name of the erased type, without any type annotations
+     */
+    private String erasedName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return erasedName(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+    }
+
+    private boolean isAccessible(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return isAccessible((TypeElement) ((DeclaredType) type).asElement());
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the type can be referenced from a class in its package, that is if neither it nor a type it is nested in is private
+     */
+    private boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement typeElement) {
+            if (typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS
+                    || typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            current = typeElement.getEnclosingElement();
+        }
+        return true;
+    }
+}
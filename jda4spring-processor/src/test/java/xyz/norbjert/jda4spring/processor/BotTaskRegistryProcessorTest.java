@@ -0,0 +1,196 @@
+package xyz.norbjert.jda4spring.processor;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.norbjert.jda4spring.registry.BotTaskRegistry;
+import xyz.norbjert.jda4spring.registry.GeneratedHandler;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotTaskRegistryProcessorTest {
+
+    private static final String SAMPLE_BOT = """
+            package sample;
+
+            import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+            import xyz.norbjert.jda4spring.annotations.Button;
+            import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+            import xyz.norbjert.jda4spring.annotations.SlashCommand;
+            import xyz.norbjert.jda4spring.annotations.SlashCommandArg;
+
+            import java.util.List;
+
+            public class SampleBot {
+                public Object last;
+
+                @SlashCommand(command = "ping", description = "pong", options = @SlashCommandArg(name = "target", description = "who"))
+                public void ping(SlashCommandInteractionEvent event, List<String> args) {
+                    last = args;
+                }
+
+                @SlashCommand(command = "Shout")
+                public void shout(SlashCommandInteractionEvent event) {
+                }
+
+                @OnChatMessage(ifMsgContains = "hi")
+                String hello(String content) {
+                    last = content;
+                    return "ok";
+                }
+
+                @Button("accept")
+                private void accept() {
+                }
+
+                public void notAHandler() {
+                }
+
+                public static class Nested {
+                    @OnChatMessage
+                    public static void onAll(int count) {
+                        throw new IllegalStateException("boom " + count);
+                    }
+                }
+            }
+            """;
+
+    @TempDir
+    Path output;
+
+    private List<Diagnostic<? extends JavaFileObject>> diagnostics;
+    private ClassLoader compiled;
+
+    @BeforeEach
+    void compileSampleBot() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///sample/SampleBot.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return SAMPLE_BOT;
+            }
+        };
+        List<String> options = List.of("-classpath", classpathOf(BotTaskRegistry.class, SlashCommandInteractionEvent.class),
+                "-d", output.toString(), "-s", output.toString());
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, collector, options, null, List.of(source));
+        task.setProcessors(List.of(new BotTaskRegistryProcessor()));
+        Boolean success = task.call();
+
+        diagnostics = collector.getDiagnostics();
+        assertTrue(success, () -> "compilation failed: " + diagnostics);
+        compiled = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static String classpathOf(Class<?>... types) throws URISyntaxException {
+        StringBuilder classpath = new StringBuilder();
+        for (Class<?> type : types) {
+            classpath.append(Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI())).append(File.pathSeparator);
+        }
+        return classpath.toString();
+    }
+
+    private BotTaskRegistry registry(String botTaskName) throws ReflectiveOperationException {
+        Class<?> registryClass = compiled.loadClass(botTaskName + BotTaskRegistry.CLASS_NAME_SUFFIX);
+        return (BotTaskRegistry) registryClass.getDeclaredConstructor().newInstance();
+    }
+
+    private static GeneratedHandler handler(BotTaskRegistry registry, String methodName) {
+        return registry.handlers().stream()
+                .filter(handler -> handler.method().getName().equals(methodName))
+                .findFirst().orElseThrow();
+    }
+
+    // -- Tests --
+
+    @Test
+    void generatesRegistryWithAllHandlers() throws Exception {
+        BotTaskRegistry registry = registry("sample.SampleBot");
+
+        assertEquals(compiled.loadClass("sample.SampleBot"), registry.botTaskType());
+        assertEquals(List.of("ping", "shout", "hello", "accept"),
+                registry.handlers().stream().map(handler -> handler.method().getName()).toList());
+        assertEquals(GeneratedHandler.Kind.SLASH_COMMAND, handler(registry, "ping").kind());
+        assertEquals(GeneratedHandler.Kind.CHAT_MESSAGE, handler(registry, "hello").kind());
+        assertEquals(GeneratedHandler.Kind.BUTTON, handler(registry, "accept").kind());
+    }
+
+    @Test
+    void generatesRegistryForNestedClass() throws Exception {
+        BotTaskRegistry registry = registry("sample.SampleBot$Nested");
+
+        GeneratedHandler onAll = handler(registry, "onAll");
+        Exception ex = assertThrows(java.lang.reflect.InvocationTargetException.class,
+                () -> onAll.invoker().invoke(null, new Object[]{3}));
+        assertEquals("boom 3", ex.getCause().getMessage());
+    }
+
+    @Test
+    void invokersCallTheMethodsDirectly() throws Exception {
+        BotTaskRegistry registry = registry("sample.SampleBot");
+        Object bot = registry.botTaskType().getDeclaredConstructor().newInstance();
+
+        assertNull(handler(registry, "ping").invoker().invoke(bot, new Object[]{null, List.of("a", "b")}));
+        assertEquals(List.of("a", "b"), bot.getClass().getField("last").get(bot));
+
+        assertEquals("ok", handler(registry, "hello").invoker().invoke(bot, new Object[]{"hi there"}));
+        assertEquals("hi there", bot.getClass().getField("last").get(bot));
+
+        assertThrows(IllegalArgumentException.class, () -> handler(registry, "hello").invoker().invoke(bot, new Object[0]));
+        assertThrows(IllegalArgumentException.class, () -> handler(registry, "hello").invoker().invoke(bot, new Object[]{42}));
+    }
+
+    @Test
+    void privateMethodsHaveNoInvoker() throws Exception {
+        assertNull(handler(registry("sample.SampleBot"), "accept").invoker());
+    }
+
+    @Test
+    void resolvesSlashCommandNamesAndWarnsAboutUpperCase() throws Exception {
+        BotTaskRegistry registry = registry("sample.SampleBot");
+
+        assertEquals("ping", handler(registry, "ping").commandName());
+        assertEquals("shout", handler(registry, "shout").commandName());
+        assertTrue(diagnostics.stream().anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING
+                && diagnostic.getMessage(null).contains("Shout")));
+    }
+
+    @Test
+    void buildsSlashCommandData() throws Exception {
+        SlashCommandData data = handler(registry("sample.SampleBot"), "ping").commandData().get();
+
+        assertEquals("ping", data.getName());
+        assertEquals("pong", data.getDescription());
+        assertEquals(1, data.getOptions().size());
+    }
+
+    @Test
+    void writesReadableSource() throws Exception {
+        Path source = output.resolve("sample/SampleBot" + BotTaskRegistry.CLASS_NAME_SUFFIX + ".java");
+        try (Stream<String> lines = Files.lines(source)) {
+            String content = lines.collect(Collectors.joining("\n"));
+            assertTrue(content.contains("((sample.SampleBot) target).ping(arg0, arg1)"));
+            assertFalse(content.contains("notAHandler"));
+        }
+    }
+}
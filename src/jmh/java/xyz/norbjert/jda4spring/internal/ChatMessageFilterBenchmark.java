@@ -0,0 +1,119 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+import xyz.norbjert.jda4spring.internal.invokers.ChatMessageInteractionInvoker;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the {@code @OnChatMessage} handlers of one message with N handlers: checking every handler's filters with
+ * {@link OnChatMessageFilterProcessor#matchesAllFilters} (how it used to be dispatched), against the
+ * {@link ChatMessageDispatchIndex} the bot dispatches with now.
+ * <p>
+ * run with {@code ./gradlew jmh}, the gc profiler adds the allocated bytes per message ({@code gc.alloc.rate.norm})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMessageFilterBenchmark {
+
+    /**
+     * the handlers of a typical bot, the benchmark uses them round robin until it has N of them
+     */
+    public static class ChatTask {
+
+        @OnChatMessage(ifMsgContains = "!ping")
+        public void a1ping() {
+        }
+
+        @OnChatMessage(ifMsgContains = "!Weather")
+        public void a2weather() {
+        }
+
+        @OnChatMessage(ifMsgContains = "!help", ignoreCase = false)
+        public void a3help() {
+        }
+
+        @OnChatMessage(onServerViaServerId = "125227483518861312")
+        public void a4onServer() {
+        }
+
+        @OnChatMessage(onServerViaServerName = "JDA4Spring", ifMsgContains = "!roll")
+        public void a5rollOnServer() {
+        }
+
+        @OnChatMessage(inChannelViaChannelName = "general")
+        public void a6inGeneral() {
+        }
+
+        @OnChatMessage(inChannelViaChannelId = "123456789012345678")
+        public void a7inOtherChannel() {
+        }
+
+        @OnChatMessage(ignoreBots = true)
+        public void a8everyMessage() {
+        }
+    }
+
+    @Param({"1", "16", "64"})
+    int handlers;
+
+    private OnChatMessage[] filters;
+    private ChatMessageDispatchIndex index;
+    private MessageReceivedEvent event;
+
+    @Setup
+    public void setup() {
+        Method[] methods = Arrays.stream(ChatTask.class.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(OnChatMessage.class))
+                .sorted(Comparator.comparing(Method::getName))
+                .toArray(Method[]::new);
+        ChatTask task = new ChatTask();
+        filters = new OnChatMessage[handlers];
+        List<CompiledHandler<ChatMessageContext>> compiled = new ArrayList<>();
+        for (int i = 0; i < handlers; i++) {
+            Method method = methods[i % methods.length];
+            filters[i] = method.getAnnotation(OnChatMessage.class);
+            compiled.add(ChatMessageInteractionInvoker.compile(method, task));
+        }
+        index = ChatMessageDispatchIndex.build(compiled);
+        event = SyntheticEvents.message("Hey everyone, could somebody tell me how the bot works? I tried typing !Weather Berlin "
+                + "but nothing happened.", true, 1219371593836445706L);
+    }
+
+    @Benchmark
+    public void matchesAllFilters(Blackhole blackhole) {
+        for (OnChatMessage filter : filters) {
+            blackhole.consume(OnChatMessageFilterProcessor.matchesAllFilters(event, filter));
+        }
+    }
+
+    @Benchmark
+    public List<CompiledHandler<ChatMessageContext>> dispatchIndex() {
+        //a new context per message, like DiscordBot.onMessageReceived
+        return index.findMatching(new ChatMessageContext(event));
+    }
+}
@@ -0,0 +1,78 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old way of checking {@code @OnChatMessage(ifMsgContains = ...)} filters, one {@code contains} per handler
+ * (lower-casing content and needle every time, like {@link OnChatMessageFilterProcessor}),
+ * against a single pass of the {@link ContentMatcher} over the content.
+ * <p>
+ * run with {@code ./gradlew jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentMatchingBenchmark {
+
+    private static final String[] WORDS = {"hello", "ping", "help", "roll", "quote", "weather", "play", "skip", "queue", "stats"};
+
+    @Param({"4", "16", "64"})
+    int handlers;
+
+    @Param({"true", "false"})
+    boolean ignoreCase;
+
+    private String[] needles;
+    private ContentMatcher matcher;
+    private String content;
+
+    @Setup
+    public void setup() {
+        List<String> needleList = new ArrayList<>();
+        for (int i = 0; i < handlers; i++) {
+            needleList.add("!" + WORDS[i % WORDS.length] + (i / WORDS.length == 0 ? "" : i / WORDS.length));
+        }
+        needles = needleList.toArray(new String[0]);
+        matcher = ContentMatcher.compile(needleList, ignoreCase);
+        //a typical chat message, with one command somewhere in the middle
+        content = "Hey everyone, could somebody tell me how the bot works? I tried typing !Weather Berlin "
+                + "but nothing happened, and the docs I found are from last year, so maybe things changed since then.";
+    }
+
+    @Benchmark
+    public void perHandlerContains(Blackhole blackhole) {
+        for (String needle : needles) {
+            String text = content;
+            String filter = needle;
+            if (ignoreCase) {
+                text = text.toLowerCase(Locale.ROOT);
+                filter = filter.toLowerCase(Locale.ROOT);
+            }
+            blackhole.consume(text.contains(filter));
+        }
+    }
+
+    @Benchmark
+    public boolean[] singlePassAutomaton() {
+        return matcher.findAll(content);
+    }
+}
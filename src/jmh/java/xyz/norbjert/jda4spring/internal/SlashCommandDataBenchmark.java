@@ -0,0 +1,70 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.annotations.SlashCommandArg;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@link SlashCommandData} of a {@code @SlashCommand} method with {@link SlashCommandDataFactory#createSlashCommand},
+ * which happens for every command on every login (and for the fingerprints of the command sync).
+ * <p>
+ * run with {@code ./gradlew jmh}, the gc profiler adds the allocated bytes per command ({@code gc.alloc.rate.norm})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlashCommandDataBenchmark {
+
+    public static class CommandTask {
+
+        @SlashCommand(command = "ping", description = "checks whether the bot is alive")
+        public void plain() {
+        }
+
+        @SlashCommand(command = "remind", description = "reminds you of something", options = {
+                @SlashCommandArg(name = "text", description = "what to remind you of"),
+                @SlashCommandArg(optionType = OptionType.INTEGER, name = "minutes", description = "in how many minutes"),
+                @SlashCommandArg(optionType = OptionType.BOOLEAN, name = "dm", description = "whether to send it as DM"),
+                @SlashCommandArg(optionType = OptionType.USER, name = "user", description = "who to remind instead of you"),
+                @SlashCommandArg(optionType = OptionType.CHANNEL, name = "channel", description = "where to send it")})
+        public void options() {
+        }
+
+        @SlashCommand(description = "the name is the one of the method")
+        public void derived() {
+        }
+    }
+
+    @Param({"plain", "options", "derived"})
+    String shape;
+
+    private Method method;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        method = CommandTask.class.getMethod(shape);
+    }
+
+    @Benchmark
+    public SlashCommandData createSlashCommand() {
+        return SlashCommandDataFactory.createSlashCommand(method);
+    }
+}
@@ -0,0 +1,232 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds real JDA event objects for the benchmarks, without a connection to discord.
+ * The events are the actual JDA classes, only the entities behind them (message, channel, interaction, ...)
+ * are {@link Proxy} instances that return fixed values. Unlike mocks, the proxies don't record their calls,
+ * so they hardly show up in the allocation numbers of the gc profiler: calls without arguments allocate nothing,
+ * calls with arguments (f.e. {@code getOption(name)}) only their argument array.
+ * <p>
+ * The events are built via the constructors JDA uses itself, found by their parameter types,
+ * so the interaction types (which moved between JDA versions) don't have to be named here.
+ */
+public final class SyntheticEvents {
+
+    public static final long GUILD_ID = 125227483518861312L;
+    public static final long CHANNEL_ID = 381886978205155338L;
+    public static final long USER_ID = 86699011792191488L;
+
+    /**
+     * answers a call depending on its arguments, for the few methods where a fixed value doesn't do
+     */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args);
+    }
+
+    //returned by a proxy method to return the proxy itself
+    private static final Object SELF = new Object();
+
+    //boxed once, so the default answers don't allocate either
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = Map.of(
+            boolean.class, false, long.class, 0L, int.class, 0, double.class, 0.0,
+            float.class, 0.0f, short.class, (short) 0, byte.class, (byte) 0, char.class, '\0');
+
+    private static final JDA JDA_INSTANCE = proxy(JDA.class, Map.of());
+
+    private SyntheticEvents() {
+    }
+
+    /**
+     * @param content the content of the message
+     * @param fromGuild whether the message was sent in a guild text channel, or in a DM
+     * @param messageId the ID of the message
+     * @return a message received event for a message of a (non bot) user
+     */
+    public static MessageReceivedEvent message(String content, boolean fromGuild, long messageId) {
+        Guild guild = proxy(Guild.class, Map.of(
+                "getIdLong", GUILD_ID,
+                "getId", Long.toString(GUILD_ID),
+                "getName", "JDA4Spring"));
+        Map<String, Object> channelAnswers = new HashMap<>();
+        channelAnswers.put("getIdLong", CHANNEL_ID);
+        channelAnswers.put("getId", Long.toString(CHANNEL_ID));
+        channelAnswers.put("getName", "general");
+        channelAnswers.put("getType", fromGuild ? ChannelType.TEXT : ChannelType.PRIVATE);
+        channelAnswers.put("asGuildMessageChannel", SELF);
+        if (fromGuild) {
+            channelAnswers.put("getGuild", guild);
+        }
+        //the event casts guild channels to GuildChannel, so the proxy is both
+        MessageChannelUnion channel = (MessageChannelUnion) proxy(new Class<?>[]{MessageChannelUnion.class, GuildMessageChannel.class},
+                channelAnswers);
+        User author = proxy(User.class, Map.of(
+                "getIdLong", USER_ID,
+                "getId", Long.toString(USER_ID),
+                "getName", "norbjert",
+                "isBot", false));
+        Map<String, Object> messageAnswers = new HashMap<>();
+        messageAnswers.put("getContentRaw", content);
+        messageAnswers.put("getContentDisplay", content);
+        messageAnswers.put("getIdLong", messageId);
+        messageAnswers.put("getId", Long.toString(messageId));
+        messageAnswers.put("getChannel", channel);
+        messageAnswers.put("getChannelType", fromGuild ? ChannelType.TEXT : ChannelType.PRIVATE);
+        messageAnswers.put("isFromGuild", fromGuild);
+        messageAnswers.put("getAuthor", author);
+        if (fromGuild) {
+            messageAnswers.put("getGuild", guild);
+        }
+        return event(MessageReceivedEvent.class, proxy(Message.class, messageAnswers));
+    }
+
+    /**
+     * @param name the name of the command
+     * @param interactionId the ID of the interaction
+     * @param options the options the user filled in
+     * @return a slash command event
+     */
+    public static SlashCommandInteractionEvent slashCommand(String name, long interactionId, List<OptionMapping> options) {
+        Map<String, OptionMapping> byName = new HashMap<>();
+        for (OptionMapping option : options) {
+            byName.put(option.getName(), option);
+        }
+        Map<String, Object> answers = interactionAnswers(interactionId);
+        answers.put("getName", name);
+        answers.put("getFullCommandName", name);
+        answers.put("getOptions", List.copyOf(options));
+        answers.put("getOption", (Answer) args -> byName.get((String) args[0]));
+        return event(SlashCommandInteractionEvent.class, answers);
+    }
+
+    /**
+     * @param componentId the custom ID of the clicked button
+     * @param interactionId the ID of the interaction
+     * @return a button click event
+     */
+    public static ButtonInteractionEvent button(String componentId, long interactionId) {
+        Map<String, Object> answers = interactionAnswers(interactionId);
+        answers.put("getComponentId", componentId);
+        return event(ButtonInteractionEvent.class, answers);
+    }
+
+    /**
+     * @param name the name of the option
+     * @param type the type of the option
+     * @param value the value, as discord sends it
+     * @return the option
+     */
+    public static OptionMapping option(String name, OptionType type, Object value) {
+        DataObject data = DataObject.empty()
+                .put("name", name)
+                .put("type", type.getKey())
+                .put("value", value);
+        try {
+            for (Constructor<?> constructor : OptionMapping.class.getConstructors()) {
+                Class<?>[] types = constructor.getParameterTypes();
+                if (types.length > 0 && types[0] == DataObject.class) {
+                    //the remaining parameters are the resolved entities, the JDA instance and the guild, none of them used for these types
+                    Object[] args = new Object[types.length];
+                    args[0] = data;
+                    for (int i = 1; i < types.length; i++) {
+                        args[i] = types[i].isInterface() ? proxy(types[i], Map.of()) : null;
+                    }
+                    return (OptionMapping) constructor.newInstance(args);
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create option " + name, e);
+        }
+        throw new IllegalStateException("OptionMapping has no constructor that takes a DataObject");
+    }
+
+    private static Map<String, Object> interactionAnswers(long interactionId) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getIdLong", interactionId);
+        answers.put("getId", Long.toString(interactionId));
+        answers.put("getChannelIdLong", CHANNEL_ID);
+        answers.put("isFromGuild", true);
+        answers.put("isAcknowledged", false);
+        answers.put("getUser", proxy(User.class, Map.of("getIdLong", USER_ID, "getId", Long.toString(USER_ID), "getName", "norbjert")));
+        answers.put("getGuild", proxy(Guild.class, Map.of("getIdLong", GUILD_ID, "getId", Long.toString(GUILD_ID), "getName", "JDA4Spring")));
+        return answers;
+    }
+
+    /**
+     * creates an event via its {@code (JDA, long responseNumber, X)} constructor, with a proxy of X
+     */
+    private static <E> E event(Class<E> eventType, Map<String, Object> answers) {
+        for (Constructor<?> constructor : eventType.getConstructors()) {
+            Class<?>[] types = constructor.getParameterTypes();
+            if (types.length == 3 && types[0] == JDA.class && types[1] == long.class && types[2].isInterface()) {
+                return event(eventType, proxy(types[2], answers));
+            }
+        }
+        throw new IllegalStateException(eventType.getSimpleName() + " has no (JDA, long, interaction) constructor");
+    }
+
+    private static <E> E event(Class<E> eventType, Object entity) {
+        for (Constructor<?> constructor : eventType.getConstructors()) {
+            Class<?>[] types = constructor.getParameterTypes();
+            if (types.length == 3 && types[0] == JDA.class && types[1] == long.class && types[2].isInstance(entity)) {
+                try {
+                    return eventType.cast(constructor.newInstance(JDA_INSTANCE, 0L, entity));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not create " + eventType.getSimpleName(), e);
+                }
+            }
+        }
+        throw new IllegalStateException(eventType.getSimpleName() + " has no constructor for " + entity.getClass().getName());
+    }
+
+    private static <T> T proxy(Class<T> type, Map<String, Object> answers) {
+        return type.cast(proxy(new Class<?>[]{type}, answers));
+    }
+
+    private static Object proxy(Class<?>[] types, Map<String, Object> answers) {
+        Map<String, Object> fixedAnswers = Map.copyOf(answers);
+        return Proxy.newProxyInstance(SyntheticEvents.class.getClassLoader(), types, (proxy, method, args) -> {
+            Object answer = fixedAnswers.get(method.getName());
+            if (answer == SELF) {
+                return proxy;
+            }
+            if (answer instanceof Answer dynamicAnswer) {
+                return dynamicAnswer.answer(args);
+            }
+            if (answer != null) {
+                return answer;
+            }
+            return defaultAnswer(proxy, method, args);
+        });
+    }
+
+    private static Object defaultAnswer(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "Synthetic" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            default -> PRIMITIVE_DEFAULTS.get(method.getReturnType());
+        };
+    }
+}
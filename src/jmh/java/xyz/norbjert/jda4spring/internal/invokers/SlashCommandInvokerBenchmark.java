@@ -0,0 +1,107 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.internal.SyntheticEvents;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calling a {@code @SlashCommand} method with different parameter shapes through the {@link CompiledHandler} the bot
+ * dispatches with, once per {@link InvocationStrategy}: reflection is the baseline for the class that
+ * method-handle generates per handler. {@link #reflectiveCall} is plain {@link Method#invoke} with arguments resolved
+ * beforehand, the floor without any argument resolution.
+ * <p>
+ * run with {@code ./gradlew jmh}, the gc profiler adds the allocated bytes per call ({@code gc.alloc.rate.norm})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlashCommandInvokerBenchmark {
+
+    public static class CommandTask {
+        Object last;
+
+        @SlashCommand(description = "no parameters")
+        public void none() {
+            last = null;
+        }
+
+        @SlashCommand(description = "only the event")
+        public void event(SlashCommandInteractionEvent event) {
+            last = event;
+        }
+
+        @SlashCommand(description = "options by parameter name")
+        public void options(String text, long amount, boolean loud) {
+            last = text;
+        }
+
+        @SlashCommand(description = "all string options")
+        public void stringList(List<String> args) {
+            last = args;
+        }
+    }
+
+    @Param({"none", "event", "options", "stringList"})
+    String shape;
+
+    @Param({"reflection", "method-handle"})
+    String strategy;
+
+    private final CommandTask task = new CommandTask();
+    private Method method;
+    private CompiledHandler<SlashCommandInteractionEvent> handler;
+    private SlashCommandInteractionEvent event;
+    private Object[] resolvedArgs;
+
+    @Setup
+    public void setup() {
+        for (Method candidate : CommandTask.class.getDeclaredMethods()) {
+            if (candidate.getName().equals(shape)) {
+                method = candidate;
+            }
+        }
+        MethodInvoker.setStrategy(InvocationStrategy.fromConfigValue(strategy));
+        handler = SlashCommandInteractionInvoker.compile(method, task);
+        event = SyntheticEvents.slashCommand(shape, 1219371593836445706L, List.of(
+                SyntheticEvents.option("text", OptionType.STRING, "hello"),
+                SyntheticEvents.option("amount", OptionType.INTEGER, 42L),
+                SyntheticEvents.option("loud", OptionType.BOOLEAN, true)));
+        resolvedArgs = switch (shape) {
+            case "event" -> new Object[]{event};
+            case "options" -> new Object[]{"hello", 42L, true};
+            case "stringList" -> new Object[]{List.of("hello")};
+            default -> new Object[0];
+        };
+        method.setAccessible(true);
+    }
+
+    @Benchmark
+    public Object reflectiveCall() throws ReflectiveOperationException {
+        return method.invoke(task, resolvedArgs);
+    }
+
+    @Benchmark
+    public CompletableFuture<?> compiledHandler() {
+        return handler.invoke(event);
+    }
+}
@@ -0,0 +1,67 @@
+package xyz.norbjert.jda4spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Limits how many invocations of a handler can run at the same time, so one expensive handler
+ * (f.e. a slash command that generates images) cannot use up all the threads of the bot.
+ * Can be added to any {@link SlashCommand}, {@link OnChatMessage} or {@link Button} method.
+ * Notes:
+ * - Invocations beyond {@link #maxConcurrent()} wait in a queue of up to {@link #queueSize()} entries.
+ * - Once the queue is full as well, {@link #policy()} decides what happens.
+ * - The limit is per bot, and only useful with {@code bots.<name>.dispatch = virtual} or {@code pool},
+ *   since inline handlers run one after the other anyway.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SuppressWarnings("unused")
+public @interface Bulkhead {
+
+    /**
+     * How many invocations of the handler may run at the same time.
+     * Default: 1.
+     * @return the concurrency limit, at least 1
+     */
+    int maxConcurrent() default 1;
+
+    /**
+     * How many invocations may wait for a free slot.
+     * Default: 0 (no queue, saturation is handled by the {@link #policy()} right away).
+     * @return the maximum number of waiting invocations
+     */
+    int queueSize() default 0;
+
+    /**
+     * What to do with an invocation once all slots are taken and the queue is full.
+     * Default: {@link Policy#REJECT}.
+     * @return the saturation policy
+     */
+    Policy policy() default Policy.REJECT;
+
+    /**
+     * The ephemeral reply sent when a slash command or button invocation gets rejected,
+     * so the user is not left with a "the application did not respond" error.
+     * @return the reply for rejected interactions
+     */
+    String busyMessage() default "This is busy right now, please try again in a moment.";
+
+    /**
+     * what to do when a handler is saturated
+     */
+    enum Policy {
+        /**
+         * reject the new invocation
+         */
+        REJECT,
+        /**
+         * reject the oldest waiting invocation and queue the new one instead (behaves like REJECT without a queue)
+         */
+        DROP_OLDEST,
+        /**
+         * run the new invocation right away on the thread that received the event,
+         * which slows down the event processing of the whole bot until the handler catches up
+         */
+        CALLER_RUNS
+    }
+}
@@ -1,5 +1,7 @@
 package xyz.norbjert.jda4spring.annotations;
 
+import org.springframework.aot.hint.annotation.Reflective;
+
 import java.lang.annotation.*;
 
 /**
@@ -8,16 +10,19 @@ import java.lang.annotation.*;
  *  you can use the @ButtonHandler annotation.
  *  When creating a button in an embed, you are required to pass it an ID.
  *  Use that ID in the @Button annotation; once there is an event for that button ID, it will be invoked.
+ *  An ID ending with "*" is a prefix pattern: {@code @Button("page:*")} gets invoked for "page:1", "page:42:user:123" and so on.
+ *  A method for a prefix pattern can take a {@code List<String>} parameter, which receives the rest of the ID
+ *  after the prefix split at every ":" (f.e. ["42", "user", "123"]), so it does not have to parse the ID itself.
  */
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 @SuppressWarnings("unused")
-//@Reflective(AnnotationProcessor.class)//Todo
+@Reflective
 public @interface Button {
 
     /**
-     *  the ID of the button
-     *  @return the ID of the button
+     *  the ID of the button, or a prefix pattern ending with "*"
+     *  @return the ID of the button, or a prefix pattern ending with "*"
      */
     String value();
 
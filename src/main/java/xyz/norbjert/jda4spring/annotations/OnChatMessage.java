@@ -1,5 +1,7 @@
 package xyz.norbjert.jda4spring.annotations;
 
+import org.springframework.aot.hint.annotation.Reflective;
+
 import java.lang.annotation.*;
 
 /**
@@ -14,7 +16,7 @@ import java.lang.annotation.*;
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-//@Reflective(AnnotationProcessor.class)//Todo
+@Reflective
 @SuppressWarnings("unused")
 public @interface OnChatMessage {
 
@@ -0,0 +1,43 @@
+package xyz.norbjert.jda4spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Makes sure the invocations of a handler run one after the other, in the order the events arrived,
+ * for all events of the same channel (or server). Events of different channels still run in parallel.
+ * Useful for handlers that keep state per channel, f.e. a counting game or a moderation state machine.
+ * Can be added to any {@link SlashCommand}, {@link OnChatMessage} or {@link Button} method.
+ * Notes:
+ * - Only has an effect with {@code bots.<name>.dispatch = virtual} or {@code pool},
+ *   inline handlers run one after the other on the JDA event thread anyway.
+ * - If the handler returns a future, stage or publisher, the next invocation waits until it has completed.
+ * - All sequential handlers of the same channel (or server) are ordered together, so two of them never handle
+ *   events of that channel at the same time. Handlers without this annotation are not affected.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SuppressWarnings("unused")
+public @interface Sequential {
+
+    /**
+     * Which events have to be handled in order.
+     * Default: {@link Scope#CHANNEL}.
+     * @return the scope of the ordering
+     */
+    Scope value() default Scope.CHANNEL;
+
+    /**
+     * the scope in which the invocations of a handler are ordered
+     */
+    enum Scope {
+        /**
+         * events of the same channel (including direct message channels) are handled in order
+         */
+        CHANNEL,
+        /**
+         * events of the same server are handled in order, direct messages are ordered per channel
+         */
+        GUILD
+    }
+}
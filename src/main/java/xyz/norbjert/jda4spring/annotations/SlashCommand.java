@@ -1,5 +1,7 @@
 package xyz.norbjert.jda4spring.annotations;
 
+import org.springframework.aot.hint.annotation.Reflective;
+
 import java.lang.annotation.*;
 
 
@@ -29,7 +31,7 @@ import java.lang.annotation.*;
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-//@Reflective(AnnotationProcessor.class)//todo
+@Reflective
 @SuppressWarnings("unused")
 public @interface SlashCommand {
 
@@ -48,5 +50,12 @@ public @interface SlashCommand {
      * @return a short description of the option and what its for
      */
     SlashCommandArg[] options() default {};
+    /**
+     *  registers the command only in these servers instead of globally. Guild commands show up right away,
+     *  while global ones can take a while, f.e. for commands that are still being tested or only meant for some servers.
+     *  An entry can be a guild ID or the name of a guild group from the config ({@code jda4spring.guild-groups.<name> = id1, id2})
+     * @return the guild IDs or guild group names, empty for a global command
+     */
+    String[] guilds() default {};
 
 }
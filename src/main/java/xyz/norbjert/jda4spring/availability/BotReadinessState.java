@@ -0,0 +1,34 @@
+package xyz.norbjert.jda4spring.availability;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityState;
+
+/**
+ * the readiness of the configured bots. The bots log in in the background after the application context has started,
+ * so the rest of the application (f.e. its web endpoints) does not have to wait for them.
+ * The current state can be read via spring's {@link ApplicationAvailability}, f.e.
+ * {@code availability.getState(BotReadinessState.class, BotReadinessState.STARTING)},
+ * or you can listen for {@code AvailabilityChangeEvent<BotReadinessState>}.
+ */
+public enum BotReadinessState implements AvailabilityState {
+
+    /**
+     * the bots are logging in
+     */
+    STARTING,
+
+    /**
+     * all configured bots are logged in and handle events
+     */
+    READY,
+
+    /**
+     * the startup is done, but at least one bot failed to log in (the log says why), the others handle events
+     */
+    DEGRADED,
+
+    /**
+     * the bots have been shut down
+     */
+    STOPPED
+}
@@ -0,0 +1,132 @@
+package xyz.norbjert.jda4spring.context;
+
+import lombok.Getter;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * A received chat message, shared by the filters and all {@code @OnChatMessage} methods that handle it.
+ * JDA4Spring creates one context per {@link MessageReceivedEvent}. Everything that takes some work to get from the event
+ * (the lower-cased content, the display content with resolved mentions, the numeric IDs) is only computed the first time
+ * something asks for it, and then reused for every other filter and handler.
+ * <p>
+ * {@code @OnChatMessage} methods can take it as a parameter instead of (or next to) the event:
+ * <pre>{@code
+ * @OnChatMessage(ifMsgContains = "!roll")
+ * public void roll(ChatMessageContext message) {
+ *     if (message.getLowerCaseContent().contains("d20")) { ... }
+ * }
+ * }</pre>
+ * The cached values are immutable, so handlers running on different threads can share a context.
+ * At worst a value gets computed twice.
+ */
+public final class ChatMessageContext {
+
+    /**
+     * returned by {@link #getGuildIdLong()} for messages that were not sent in a server
+     */
+    public static final long NO_GUILD = 0L;
+
+    @Getter
+    private final MessageReceivedEvent event;
+
+    private String rawContent;
+    private String lowerCaseContent;
+    private String displayContent;
+    //loaded lazily: a channelId of 0 or a guildId of -1 means not loaded yet, a guildId of 0 means "no guild"
+    private volatile long channelId;
+    private volatile long guildId = -1L;
+
+    /**
+     * @param event the received message
+     */
+    public ChatMessageContext(@NotNull MessageReceivedEvent event) {
+        this.event = event;
+    }
+
+    /**
+     * @return the message, same as {@code getEvent().getMessage()}
+     */
+    public Message getMessage() {
+        return event.getMessage();
+    }
+
+    /**
+     * @return the author of the message
+     */
+    public User getAuthor() {
+        return event.getAuthor();
+    }
+
+    /**
+     * @return the content of the message as it was sent, see {@link Message#getContentRaw()}
+     */
+    public String getRawContent() {
+        String content = rawContent;
+        if (content == null) {
+            content = event.getMessage().getContentRaw();
+            rawContent = content;
+        }
+        return content;
+    }
+
+    /**
+     * @return the raw content in lower case ({@link Locale#ROOT})
+     */
+    public String getLowerCaseContent() {
+        String content = lowerCaseContent;
+        if (content == null) {
+            content = getRawContent().toLowerCase(Locale.ROOT);
+            lowerCaseContent = content;
+        }
+        return content;
+    }
+
+    /**
+     * resolving the mentions is comparatively expensive, so this is only done once per message
+     * @return the content of the message as it is displayed in discord, see {@link Message#getContentDisplay()}
+     */
+    public String getDisplayContent() {
+        String content = displayContent;
+        if (content == null) {
+            content = event.getMessage().getContentDisplay();
+            displayContent = content;
+        }
+        return content;
+    }
+
+    /**
+     * @return the ID of the channel the message was sent in
+     */
+    public long getChannelIdLong() {
+        long id = channelId;
+        if (id == 0L) {
+            id = event.getChannel().getIdLong();
+            channelId = id;
+        }
+        return id;
+    }
+
+    /**
+     * @return whether the message was sent in a server, as opposed to f.e. a DM
+     */
+    public boolean isFromGuild() {
+        return getGuildIdLong() != NO_GUILD;
+    }
+
+    /**
+     * @return the ID of the server the message was sent in, or {@link #NO_GUILD}
+     */
+    public long getGuildIdLong() {
+        long id = guildId;
+        if (id == -1L) {
+            id = event.isFromGuild() ? event.getGuild().getIdLong() : NO_GUILD;
+            guildId = id;
+        }
+        return id;
+    }
+}
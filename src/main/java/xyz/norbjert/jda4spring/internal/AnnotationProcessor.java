@@ -2,10 +2,12 @@ package xyz.norbjert.jda4spring.internal;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
 import xyz.norbjert.jda4spring.annotations.Button;
 import xyz.norbjert.jda4spring.annotations.ButtonHandler;
 import xyz.norbjert.jda4spring.annotations.OnChatMessage;
 import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.registry.GeneratedHandler;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -13,11 +15,11 @@ import java.util.List;
 
 
 /**
- * scans a BotTask for all defined @SlashCommand and @OnChatMessage annotations
+ * scans a BotTask for all defined @SlashCommand and @OnChatMessage annotations,
+ * or takes them from the registry generated at compile time for the BotTask class, if there is one (see {@link GeneratedRegistries}).
+ * For a BotTask behind a CGLIB proxy (f.e. because of @Transactional), the class of the bean itself is used, not the proxy class
  */
-public class AnnotationProcessor
-        //extends SimpleReflectiveProcessor implements BeanPostProcessor
-{
+public class AnnotationProcessor {
 
 
     private static final Logger logger = LoggerFactory.getLogger(AnnotationProcessor.class);
@@ -30,37 +32,6 @@ public class AnnotationProcessor
         throw new RuntimeException("AnnotationProcessor is a static class and cannot be instanced");
     }
 
-    //private static final List<Method> slashMethods = new ArrayList<>();
-
-    /*@Override
-    public void registerReflectionHints(@NotNull ReflectionHints hints, @NotNull AnnotatedElement element) {
-
-        if (element.isAnnotationPresent(SlashCommand.class) && element instanceof Method method) {
-            slashMethods.add(method);
-            logger.info("added:"+method.getName());
-        }
-        logger.info("hi");
-        super.registerReflectionHints(hints, element);
-
-    }*/
-
-
-    //uncommented way to get method list mapped to the object who they belong to
-    //public static /*Map<Object,*/List<Method>/*>*/ getSlashCommandMethods(List<Object> botTasks) {
-
-        /*return botTasks.stream()
-                .collect(Collectors
-                        .toMap(Function.identity(),
-                                t -> slashMethods.stream()
-                                .filter(m -> m.getDeclaringClass().equals(t.getClass())).toList()));*/
-/*
-        return botTasks.stream().map(t -> slashMethods.stream()
-                        .filter(m -> m.getDeclaringClass().equals(t.getClass())).toList())
-                .flatMap(Collection::stream)
-                .toList();
-    }
-*/
-
     /**
      * internal helper method for initialisation of the DiscordBot instance
      * @param botTasks the tasks that are to be scanned for @SlashCommand Annotation
@@ -72,7 +43,13 @@ public class AnnotationProcessor
 
         for (Object current : botTasks) {
 
-            for (Method method : current.getClass().getDeclaredMethods()) {
+            List<Method> generated = GeneratedRegistries.findMethods(ClassUtils.getUserClass(current), GeneratedHandler.Kind.SLASH_COMMAND);
+            if (generated != null) {
+                slashCommands.addAll(generated);
+                continue;
+            }
+
+            for (Method method : ClassUtils.getUserClass(current).getDeclaredMethods()) {
 
                 SlashCommand methodAnnotation = method.getAnnotation(SlashCommand.class);
                 if (methodAnnotation != null) {
@@ -95,7 +72,13 @@ public class AnnotationProcessor
 
         for (Object current : botTasks) {
 
-            for (Method method : current.getClass().getDeclaredMethods()) {
+            List<Method> generated = GeneratedRegistries.findMethods(ClassUtils.getUserClass(current), GeneratedHandler.Kind.CHAT_MESSAGE);
+            if (generated != null) {
+                chatMsgAnnotations.addAll(generated);
+                continue;
+            }
+
+            for (Method method : ClassUtils.getUserClass(current).getDeclaredMethods()) {
 
                 OnChatMessage methodAnnotation = method.getAnnotation(OnChatMessage.class);
                 if (methodAnnotation != null) {
@@ -118,7 +101,13 @@ public class AnnotationProcessor
 
         for (Object current : botTasks) {
 
-            for (Method method : current.getClass().getDeclaredMethods()) {
+            List<Method> generated = GeneratedRegistries.findMethods(ClassUtils.getUserClass(current), GeneratedHandler.Kind.BUTTON);
+            if (generated != null) {
+                buttonAnnotations.addAll(generated);
+                continue;
+            }
+
+            for (Method method : ClassUtils.getUserClass(current).getDeclaredMethods()) {
 
                 Button methodAnnotation = method.getAnnotation(Button.class);
                 if (methodAnnotation != null) {
@@ -0,0 +1,76 @@
+package xyz.norbjert.jda4spring.internal;
+
+import xyz.norbjert.jda4spring.internal.commands.SlashCommandSync;
+
+import java.util.Objects;
+
+/**
+ * Everything about a {@link DiscordBot} besides its token, tasks, activity and intents, the way the {@code bots.<name>.*}
+ * and {@code jda4spring.*} entries configure it. Start from {@link #defaults()} and change what you need,
+ * f.e. {@code BotSettings.defaults().withDispatcher(HandlerDispatcher.virtualThreads("bot")).withShards(shards)}.
+ *
+ * @param dispatcher decides on which threads the handler methods run
+ * @param commandSync how the slash commands are published to discord on login
+ * @param shards the shards to run, or {@code null} for a single connection without sharding
+ * @param cacheSettings which members and other entities JDA caches
+ * @param endpoint the REST API and gateway to connect to
+ */
+public record BotSettings(HandlerDispatcher dispatcher, SlashCommandSync commandSync, ShardConfig shards,
+                          CacheSettings cacheSettings, DiscordEndpoint endpoint) {
+
+    public BotSettings {
+        Objects.requireNonNull(dispatcher, "dispatcher");
+        Objects.requireNonNull(commandSync, "commandSync");
+        Objects.requireNonNull(cacheSettings, "cacheSettings");
+        Objects.requireNonNull(endpoint, "endpoint");
+    }
+
+    /**
+     * @return the settings of a bot without any config besides its token: handlers run on the JDA event thread,
+     * diff based command registration, a single connection, the caches of {@code createLight}, and discord itself.
+     * A new instance each time, since the dispatcher belongs to one bot
+     */
+    public static BotSettings defaults() {
+        return new BotSettings(HandlerDispatcher.inline(), SlashCommandSync.defaults(), null, CacheSettings.LIGHT, DiscordEndpoint.DISCORD);
+    }
+
+    /**
+     * @param dispatcher decides on which threads the handler methods run
+     * @return a copy of these settings with the dispatcher
+     */
+    public BotSettings withDispatcher(HandlerDispatcher dispatcher) {
+        return new BotSettings(dispatcher, commandSync, shards, cacheSettings, endpoint);
+    }
+
+    /**
+     * @param commandSync how the slash commands are published to discord on login
+     * @return a copy of these settings with the command sync
+     */
+    public BotSettings withCommandSync(SlashCommandSync commandSync) {
+        return new BotSettings(dispatcher, commandSync, shards, cacheSettings, endpoint);
+    }
+
+    /**
+     * @param shards the shards to run, or {@code null} for a single connection without sharding
+     * @return a copy of these settings with the shards
+     */
+    public BotSettings withShards(ShardConfig shards) {
+        return new BotSettings(dispatcher, commandSync, shards, cacheSettings, endpoint);
+    }
+
+    /**
+     * @param cacheSettings which members and other entities JDA caches
+     * @return a copy of these settings with the caches
+     */
+    public BotSettings withCacheSettings(CacheSettings cacheSettings) {
+        return new BotSettings(dispatcher, commandSync, shards, cacheSettings, endpoint);
+    }
+
+    /**
+     * @param endpoint the REST API and gateway to connect to, f.e. a fake gateway for load tests
+     * @return a copy of these settings with the endpoint
+     */
+    public BotSettings withEndpoint(DiscordEndpoint endpoint) {
+        return new BotSettings(dispatcher, commandSync, shards, cacheSettings, endpoint);
+    }
+}
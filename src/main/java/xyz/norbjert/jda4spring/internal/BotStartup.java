@@ -0,0 +1,92 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * static helper class, logs in the configured bots concurrently instead of one after the other.
+ * A bot that fails to start is logged and left out, the other bots are started anyway.
+ */
+final class BotStartup {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotStartup.class);
+
+    /**
+     * default for jda4spring.startup.parallelism, how many bots log in at the same time
+     */
+    static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * static class, don't instantiate it pls thank you
+     */
+    private BotStartup() {
+        logger.error("static class, not to be instanced");
+        throw new RuntimeException("BotStartup is a static class and cannot be instanced");
+    }
+
+    /**
+     * @param configValue the value of jda4spring.startup.parallelism, or {@code null} if it is not set
+     * @return how many bots may log in at the same time
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    static int parallelismFromConfigValue(String configValue) {
+        if (configValue == null || configValue.isBlank()) {
+            return DEFAULT_PARALLELISM;
+        }
+        try {
+            int parallelism = Integer.parseInt(configValue.trim());
+            if (parallelism > 0) {
+                return parallelism;
+            }
+        } catch (NumberFormatException ignored) {
+            //same error as for negative numbers below
+        }
+        throw new IllegalArgumentException("jda4spring.startup.parallelism has to be a positive number, but was '" + configValue + "'");
+    }
+
+    /**
+     * runs the startups with at most {@code parallelism} of them at the same time, and waits until all of them are done
+     *
+     * @param startups the startup of each bot (f.e. constructing its {@link DiscordBot}), by bot name
+     * @param parallelism how many startups may run at the same time
+     * @param <T> the type of the started bots
+     * @return the bots that started successfully, in the order of {@code startups}
+     * @throws InterruptedException if interrupted while waiting, the startups still running are interrupted as well
+     */
+    static <T> Map<String, T> startAll(Map<String, Callable<T>> startups, int parallelism) throws InterruptedException {
+
+        Map<String, T> started = new LinkedHashMap<>();
+        if (startups.isEmpty()) {
+            return started;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, startups.size()),
+                Thread.ofPlatform().name("jda4spring-startup-", 0).factory());
+        try {
+            Map<String, Future<T>> futures = new LinkedHashMap<>();
+            startups.forEach((botName, startup) -> futures.put(botName, executor.submit(startup)));
+
+            for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+                try {
+                    started.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    logger.error("Failed to start bot '{}', starting the other bots anyway: {}",
+                            entry.getKey(), e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            //only interrupts anything if we got interrupted ourselves, otherwise all startups are done by now
+            executor.shutdownNow();
+        }
+        logger.info("Started {} of {} bot(s)", started.size(), startups.size());
+        return started;
+    }
+}
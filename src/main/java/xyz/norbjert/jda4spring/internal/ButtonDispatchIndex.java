@@ -0,0 +1,116 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import xyz.norbjert.jda4spring.annotations.Button;
+import xyz.norbjert.jda4spring.annotations.ButtonHandler;
+import xyz.norbjert.jda4spring.internal.invokers.ButtonInteractionInvoker;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the handlers for a clicked button without looking at every button method.
+ * The index is built once when a {@link DiscordBot} is created and has three parts:
+ * <ul>
+ *     <li>a hash map for exact {@code @Button("id")} matches</li>
+ *     <li>a prefix trie for {@code @Button("prefix*")} patterns, f.e. {@code @Button("page:*")}</li>
+ *     <li>the list of {@code @ButtonHandler} methods, which get called for every button</li>
+ * </ul>
+ * Looking up a button ID is a single hash lookup plus one walk down the trie, so it costs O(length of the ID).
+ */
+class ButtonDispatchIndex {
+
+    private final Map<String, List<CompiledHandler<ButtonInteractionEvent>>> exactMatches;
+    private final TrieNode prefixMatches;
+    private final List<CompiledHandler<ButtonInteractionEvent>> catchAllHandlers;
+
+    private ButtonDispatchIndex(Map<String, List<CompiledHandler<ButtonInteractionEvent>>> exactMatches,
+                                TrieNode prefixMatches,
+                                List<CompiledHandler<ButtonInteractionEvent>> catchAllHandlers) {
+        this.exactMatches = exactMatches;
+        this.prefixMatches = prefixMatches;
+        this.catchAllHandlers = catchAllHandlers;
+    }
+
+    /**
+     * sorts the given handlers into the index, based on their @Button or @ButtonHandler annotation
+     * @param handlers the compiled @Button and @ButtonHandler methods of a bot
+     * @return the index
+     */
+    static ButtonDispatchIndex build(List<CompiledHandler<ButtonInteractionEvent>> handlers) {
+
+        Map<String, List<CompiledHandler<ButtonInteractionEvent>>> exactMatches = new HashMap<>();
+        TrieNode prefixMatches = new TrieNode();
+        List<CompiledHandler<ButtonInteractionEvent>> catchAllHandlers = new ArrayList<>();
+
+        for (CompiledHandler<ButtonInteractionEvent> handler : handlers) {
+
+            //ButtonHandler -> gets called on every button interaction, so there is no need to index its @Button as well
+            if (handler.getMethod().getAnnotation(ButtonHandler.class) != null) {
+                catchAllHandlers.add(handler);
+                continue;
+            }
+
+            Button button = handler.getMethod().getAnnotation(Button.class);
+            if (button == null) {
+                continue;
+            }
+            String prefix = ButtonInteractionInvoker.getIdPrefix(button);
+            if (prefix == null) {
+                exactMatches.computeIfAbsent(button.value(), id -> new ArrayList<>()).add(handler);
+            } else {
+                prefixMatches.insert(prefix).handlers.add(handler);
+            }
+        }
+        return new ButtonDispatchIndex(exactMatches, prefixMatches, Collections.unmodifiableList(catchAllHandlers));
+    }
+
+    /**
+     * collects every handler that has to be called for a button ID:
+     * first the exact matches, then the prefix matches from the shortest to the longest prefix,
+     * and last the @ButtonHandler methods.
+     * @param componentId the custom ID of the clicked button
+     * @return the matching handlers, in the order they should be invoked
+     */
+    List<CompiledHandler<ButtonInteractionEvent>> find(String componentId) {
+
+        List<CompiledHandler<ButtonInteractionEvent>> matches = new ArrayList<>(catchAllHandlers.size() + 1);
+
+        List<CompiledHandler<ButtonInteractionEvent>> exact = exactMatches.get(componentId);
+        if (exact != null) {
+            matches.addAll(exact);
+        }
+
+        TrieNode node = prefixMatches;
+        matches.addAll(node.handlers);
+        for (int i = 0; i < componentId.length() && node != null; i++) {
+            node = node.children.get(componentId.charAt(i));
+            if (node != null) {
+                matches.addAll(node.handlers);
+            }
+        }
+
+        matches.addAll(catchAllHandlers);
+        return matches;
+    }
+
+    /**
+     * a node in the prefix trie, one level per character of the prefix
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<CompiledHandler<ButtonInteractionEvent>> handlers = new ArrayList<>(1);
+
+        private TrieNode insert(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new TrieNode());
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * A rough estimate of how much memory the JDA caches of a bot take, logged for every bot once it is logged in,
+ * so the cache settings (see {@link CacheSettings}) can be compared. The per entity sizes are ballpark averages
+ * of JDA's entity objects, not a measurement: they are meant to show whether a setting costs kilobytes or gigabytes.
+ *
+ * @param guilds the number of cached guilds
+ * @param channels the number of cached guild channels
+ * @param roles the number of cached roles
+ * @param members the number of members cached right now
+ * @param expectedMembers the number of members cached once chunking is done
+ * @param users the number of cached users
+ * @param memberExtrasBytes the estimated extra bytes per member for the enabled cache flags (activities, voice states, ...)
+ */
+public record CacheFootprint(long guilds, long channels, long roles, long members, long expectedMembers, long users,
+                             long memberExtrasBytes) {
+
+    static final long GUILD_BYTES = 2048;
+    static final long CHANNEL_BYTES = 512;
+    static final long ROLE_BYTES = 256;
+    static final long MEMBER_BYTES = 384;
+    static final long USER_BYTES = 256;
+    /**
+     * per member, for each cache flag that stores something per member
+     */
+    static final long MEMBER_FLAG_BYTES = 128;
+
+    /**
+     * @param shards the JDA instances of the bot, all shards of a sharded one
+     * @param settings the cache settings of the bot
+     * @return the current size of the caches
+     */
+    public static CacheFootprint of(Collection<JDA> shards, CacheSettings settings) {
+        long guilds = 0;
+        long channels = 0;
+        long roles = 0;
+        long members = 0;
+        long expectedMembers = 0;
+        long users = 0;
+        for (JDA shard : shards) {
+            for (Guild guild : shard.getGuildCache()) {
+                guilds++;
+                channels += guild.getChannelCache().size();
+                roles += guild.getRoleCache().size();
+                long cachedMembers = guild.getMemberCache().size();
+                members += cachedMembers;
+                //chunking is still running right after login, but with the all policy every member will end up cached
+                expectedMembers += settings.cachesAllMembers() && settings.chunks(guild.getIdLong())
+                        ? Math.max(cachedMembers, guild.getMemberCount())
+                        : cachedMembers;
+            }
+            users += shard.getUserCache().size();
+        }
+
+        long memberFlags = settings.getCacheFlags().stream().filter(CacheFootprint::isPerMember).count();
+        return new CacheFootprint(guilds, channels, roles, members, expectedMembers, users, memberFlags * MEMBER_FLAG_BYTES);
+    }
+
+    private static boolean isPerMember(CacheFlag flag) {
+        return switch (flag) {
+            case ACTIVITY, VOICE_STATE, CLIENT_STATUS, ONLINE_STATUS -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return the estimated size of the caches in bytes, once chunking is done
+     */
+    public long estimatedBytes() {
+        //every member that is still to be chunked can bring a new user, unless it is already known from another guild
+        long expectedUsers = users + (expectedMembers - members);
+        return guilds * GUILD_BYTES
+                + channels * CHANNEL_BYTES
+                + roles * ROLE_BYTES
+                + expectedMembers * (MEMBER_BYTES + memberExtrasBytes)
+                + expectedUsers * USER_BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d guild(s), %d channel(s), %d role(s), %d of ~%d member(s), %d user(s), ~%.1f MB",
+                guilds, channels, roles, members, expectedMembers, users, estimatedBytes() / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,230 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Which caches of JDA a bot turns back on, configured per bot. By default, bots are built with {@code createLight},
+ * which caches almost nothing: less memory, but more REST requests for f.e. members.
+ * <ul>
+ *     <li>{@code bots.<name>.memberCache}: which members to cache, a comma separated list of
+ *     none (default), all, owner, online, voice, booster, pending or default (voice and owner)</li>
+ *     <li>{@code bots.<name>.chunking}: for which guilds all members are requested on startup,
+ *     none (default), all, or a comma separated list of guild IDs</li>
+ *     <li>{@code bots.<name>.cacheFlags}: the {@link CacheFlag}s to enable, f.e. EMOJI, VOICE_STATE</li>
+ * </ul>
+ * Cache flags the member cache depends on (VOICE_STATE for voice, ONLINE_STATUS for online) are enabled automatically.
+ */
+public final class CacheSettings {
+
+    /**
+     * the caches of {@code createLight}, nothing but the guilds, their channels and roles
+     */
+    public static final CacheSettings LIGHT = new CacheSettings(Set.of(), Set.of(), false, EnumSet.noneOf(CacheFlag.class));
+
+    //lower case names of the member cache policies, empty for none
+    private final Set<String> memberCache;
+    //the guilds to chunk, empty and chunkAll false for none
+    private final Set<Long> chunkedGuilds;
+    private final boolean chunkAll;
+    private final EnumSet<CacheFlag> cacheFlags;
+
+    private CacheSettings(Set<String> memberCache, Set<Long> chunkedGuilds, boolean chunkAll, EnumSet<CacheFlag> cacheFlags) {
+        this.memberCache = memberCache;
+        this.chunkedGuilds = chunkedGuilds;
+        this.chunkAll = chunkAll;
+        this.cacheFlags = cacheFlags;
+    }
+
+    /**
+     * @param memberCache the value of bots.&lt;name&gt;.memberCache, or {@code null}
+     * @param chunking the value of bots.&lt;name&gt;.chunking, or {@code null}
+     * @param cacheFlags the value of bots.&lt;name&gt;.cacheFlags, or {@code null}
+     * @return the cache settings, {@link #LIGHT} if none of the values is set
+     * @throws IllegalArgumentException if a value contains an unknown policy, guild ID or cache flag
+     */
+    public static CacheSettings fromConfigValues(String memberCache, String chunking, String cacheFlags) {
+        Set<String> policies = new LinkedHashSet<>();
+        for (String policy : splitList(memberCache)) {
+            String name = policy.toLowerCase(Locale.ROOT);
+            if (!name.equals("none")) {
+                memberCachePolicy(name);
+                policies.add(name);
+            }
+        }
+
+        Set<Long> chunkedGuilds = new LinkedHashSet<>();
+        boolean chunkAll = false;
+        for (String guild : splitList(chunking)) {
+            if (guild.equalsIgnoreCase("all")) {
+                chunkAll = true;
+            } else if (!guild.equalsIgnoreCase("none")) {
+                try {
+                    chunkedGuilds.add(Long.parseLong(guild));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid chunking value: '" + guild + "', has to be none, all, or guild IDs");
+                }
+            }
+        }
+
+        EnumSet<CacheFlag> flags = EnumSet.noneOf(CacheFlag.class);
+        for (String flag : splitList(cacheFlags)) {
+            String name = flag.toUpperCase(Locale.ROOT).replace("CACHEFLAG.", "");
+            try {
+                flags.add(CacheFlag.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown cache flag: '" + flag + "'");
+            }
+        }
+        //JDA can only tell who is online or in a voice channel with these
+        if (policies.contains("online")) {
+            flags.add(CacheFlag.ONLINE_STATUS);
+        }
+        if (policies.contains("voice") || policies.contains("default")) {
+            flags.add(CacheFlag.VOICE_STATE);
+        }
+
+        if (policies.isEmpty() && chunkedGuilds.isEmpty() && !chunkAll && flags.isEmpty()) {
+            return LIGHT;
+        }
+        return new CacheSettings(policies, chunkedGuilds, chunkAll, flags);
+    }
+
+    private static List<String> splitList(String configValue) {
+        if (configValue == null) {
+            return List.of();
+        }
+        return Stream.of(configValue.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static MemberCachePolicy memberCachePolicy(String name) {
+        return switch (name) {
+            case "all" -> MemberCachePolicy.ALL;
+            case "owner" -> MemberCachePolicy.OWNER;
+            case "online" -> MemberCachePolicy.ONLINE;
+            case "voice" -> MemberCachePolicy.VOICE;
+            case "booster" -> MemberCachePolicy.BOOSTER;
+            case "pending" -> MemberCachePolicy.PENDING;
+            case "default" -> MemberCachePolicy.DEFAULT;
+            default -> throw new IllegalArgumentException("Unknown member cache policy: '" + name + "'");
+        };
+    }
+
+    /**
+     * @return the member cache policy, all configured policies combined
+     */
+    public MemberCachePolicy getMemberCachePolicy() {
+        MemberCachePolicy policy = MemberCachePolicy.NONE;
+        boolean first = true;
+        for (String name : memberCache) {
+            policy = first ? memberCachePolicy(name) : policy.or(memberCachePolicy(name));
+            first = false;
+        }
+        return policy;
+    }
+
+    /**
+     * @return the chunking filter
+     */
+    public ChunkingFilter getChunkingFilter() {
+        if (chunkAll) {
+            return ChunkingFilter.ALL;
+        }
+        if (chunkedGuilds.isEmpty()) {
+            return ChunkingFilter.NONE;
+        }
+        return ChunkingFilter.include(chunkedGuilds.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * @param guildId the ID of a guild
+     * @return whether all members of the guild are requested on startup
+     */
+    public boolean chunks(long guildId) {
+        return chunkAll || chunkedGuilds.contains(guildId);
+    }
+
+    /**
+     * @return whether every member that JDA receives is kept, not only f.e. the ones in voice channels
+     */
+    public boolean cachesAllMembers() {
+        return memberCache.contains("all");
+    }
+
+    /**
+     * @return the enabled cache flags
+     */
+    public Set<CacheFlag> getCacheFlags() {
+        return EnumSet.copyOf(cacheFlags);
+    }
+
+    /**
+     * @return the gateway intents discord only sends the data for these caches with
+     */
+    public Set<GatewayIntent> requiredIntents() {
+        Set<GatewayIntent> intents = EnumSet.noneOf(GatewayIntent.class);
+        if (cachesAllMembers() || chunkAll || !chunkedGuilds.isEmpty()) {
+            intents.add(GatewayIntent.GUILD_MEMBERS);
+        }
+        for (CacheFlag flag : cacheFlags) {
+            if (flag.getRequiredIntent() != null) {
+                intents.add(flag.getRequiredIntent());
+            }
+        }
+        return intents;
+    }
+
+    /**
+     * @param botName the name of the bot, for the error message
+     * @param intents the gateway intents of the bot
+     * @throws IllegalArgumentException if the caches need intents the bot does not have, JDA would either refuse to log in
+     *                                  or silently leave the caches empty
+     */
+    public void checkIntents(String botName, Collection<GatewayIntent> intents) {
+        Set<GatewayIntent> missing = requiredIntents();
+        missing.removeAll(intents);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("The caches of bot '" + botName + "' need the gateway intents " + missing
+                    + ", add them to bots." + botName + ".intents");
+        }
+    }
+
+    /**
+     * @param builder the builder of a bot that is not sharded
+     * @return the same builder, with the caches set
+     */
+    JDABuilder applyTo(JDABuilder builder) {
+        return builder.setMemberCachePolicy(getMemberCachePolicy())
+                .setChunkingFilter(getChunkingFilter())
+                .enableCache(cacheFlags);
+    }
+
+    /**
+     * @param builder the builder of the shard manager of a sharded bot
+     * @return the same builder, with the caches set
+     */
+    DefaultShardManagerBuilder applyTo(DefaultShardManagerBuilder builder) {
+        return builder.setMemberCachePolicy(getMemberCachePolicy())
+                .setChunkingFilter(getChunkingFilter())
+                .enableCache(cacheFlags);
+    }
+
+    @Override
+    public String toString() {
+        return "memberCache=" + (memberCache.isEmpty() ? "none" : String.join("|", memberCache))
+                + ", chunking=" + (chunkAll ? "all" : chunkedGuilds.isEmpty() ? "none" : chunkedGuilds.size() + " guild(s)")
+                + ", cacheFlags=" + cacheFlags;
+    }
+}
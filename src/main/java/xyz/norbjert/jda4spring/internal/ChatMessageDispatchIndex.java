@@ -0,0 +1,216 @@
+package xyz.norbjert.jda4spring.internal;
+
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the {@link OnChatMessage} handlers for a received message without evaluating the filters of every handler.
+ * The index is built once when a {@link DiscordBot} is created. Every handler goes into exactly one bucket:
+ * <ul>
+ *     <li>handlers with a channel ID filter, keyed by that channel ID</li>
+ *     <li>handlers with a server ID filter (and no channel ID filter), keyed by that server ID</li>
+ *     <li>all other handlers, in the global bucket</li>
+ * </ul>
+ * A message only gets checked against the global bucket and the buckets of its own channel and server,
+ * so handlers scoped to other channels or servers cost nothing. Matching handlers are returned in declaration order.
+ * <p>
+ * The {@code ifMsgContains} filters of all handlers are compiled into one {@link ContentMatcher} per ignoreCase mode,
+ * so the content of a message is scanned at most once per mode, no matter how many handlers have a content filter.
+ */
+class ChatMessageDispatchIndex {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final int NO_PATTERN = -1;
+
+    private final LongMap<Entry[]> byChannelId;
+    private final LongMap<Entry[]> byGuildId;
+    private final Entry[] global;
+    private final ContentMatcher caseSensitiveMatcher;
+    private final ContentMatcher ignoreCaseMatcher;
+
+    private ChatMessageDispatchIndex(LongMap<Entry[]> byChannelId, LongMap<Entry[]> byGuildId, Entry[] global,
+                                     ContentMatcher caseSensitiveMatcher, ContentMatcher ignoreCaseMatcher) {
+        this.byChannelId = byChannelId;
+        this.byGuildId = byGuildId;
+        this.global = global;
+        this.caseSensitiveMatcher = caseSensitiveMatcher;
+        this.ignoreCaseMatcher = ignoreCaseMatcher;
+    }
+
+    /**
+     * compiles the filters of the given handlers and sorts them into their buckets
+     * @param handlers the compiled @OnChatMessage methods of a bot, in declaration order
+     * @return the index
+     * @throws IllegalArgumentException if a guild or channel ID filter is not a valid snowflake ID
+     */
+    static ChatMessageDispatchIndex build(List<CompiledHandler<ChatMessageContext>> handlers) {
+
+        Map<Long, List<Entry>> byChannelId = new LinkedHashMap<>();
+        Map<Long, List<Entry>> byGuildId = new LinkedHashMap<>();
+        List<Entry> global = new ArrayList<>();
+        //needle -> pattern ID, handlers with the same needle share the pattern
+        Map<String, Integer> caseSensitiveNeedles = new LinkedHashMap<>();
+        Map<String, Integer> ignoreCaseNeedles = new LinkedHashMap<>();
+
+        int order = 0;
+        for (CompiledHandler<ChatMessageContext> handler : handlers) {
+            OnChatMessage cfg = handler.getMethod().getAnnotation(OnChatMessage.class);
+            if (cfg == null) {
+                continue;
+            }
+            CompiledChatFilter filter = CompiledChatFilter.compile(cfg);
+            int patternId = NO_PATTERN;
+            if (!filter.contentFilter().isEmpty()) {
+                Map<String, Integer> needles = filter.ignoreCase() ? ignoreCaseNeedles : caseSensitiveNeedles;
+                patternId = needles.computeIfAbsent(filter.contentFilter(), needle -> needles.size());
+            }
+            Entry entry = new Entry(order++, filter, patternId, handler);
+
+            if (filter.channelId() != CompiledChatFilter.NO_ID) {
+                byChannelId.computeIfAbsent(filter.channelId(), id -> new ArrayList<>()).add(entry);
+            } else if (filter.guildId() != CompiledChatFilter.NO_ID) {
+                byGuildId.computeIfAbsent(filter.guildId(), id -> new ArrayList<>()).add(entry);
+            } else {
+                global.add(entry);
+            }
+        }
+        return new ChatMessageDispatchIndex(toLongMap(byChannelId), toLongMap(byGuildId), global.toArray(NO_ENTRIES),
+                ContentMatcher.compile(List.copyOf(caseSensitiveNeedles.keySet()), false),
+                ContentMatcher.compile(List.copyOf(ignoreCaseNeedles.keySet()), true));
+    }
+
+    /**
+     * collects every handler whose filters match the message
+     * @param context the received message
+     * @return the matching handlers, in declaration order
+     */
+    List<CompiledHandler<ChatMessageContext>> findMatching(ChatMessageContext context) {
+
+        Entry[] channelEntries = byChannelId.isEmpty() ? NO_ENTRIES : byChannelId.getOrDefault(context.getChannelIdLong(), NO_ENTRIES);
+        Entry[] guildEntries = byGuildId.isEmpty() || !context.isFromGuild() ? NO_ENTRIES : byGuildId.getOrDefault(context.getGuildIdLong(), NO_ENTRIES);
+
+        List<CompiledHandler<ChatMessageContext>> matches = null;
+        //filled lazily, the first time a handler that passed its other filters has a content filter
+        boolean[] caseSensitiveHits = null;
+        boolean[] ignoreCaseHits = null;
+        int c = 0, g = 0, a = 0;
+
+        // merge the three buckets (each sorted by declaration order) so handlers keep their declaration order
+        while (true) {
+            int channelOrder = c < channelEntries.length ? channelEntries[c].order : Integer.MAX_VALUE;
+            int guildOrder = g < guildEntries.length ? guildEntries[g].order : Integer.MAX_VALUE;
+            int globalOrder = a < global.length ? global[a].order : Integer.MAX_VALUE;
+
+            Entry next;
+            if (channelOrder < guildOrder && channelOrder < globalOrder) {
+                next = channelEntries[c++];
+            } else if (guildOrder < globalOrder) {
+                next = guildEntries[g++];
+            } else if (globalOrder != Integer.MAX_VALUE) {
+                next = global[a++];
+            } else {
+                break;
+            }
+
+            if (!next.filter.matchesOrigin(context)) {
+                continue;
+            }
+            if (next.patternId != NO_PATTERN) {
+                boolean[] hits;
+                if (next.filter.ignoreCase()) {
+                    if (ignoreCaseHits == null) {
+                        ignoreCaseHits = ignoreCaseMatcher.findAll(context.getRawContent());
+                    }
+                    hits = ignoreCaseHits;
+                } else {
+                    if (caseSensitiveHits == null) {
+                        caseSensitiveHits = caseSensitiveMatcher.findAll(context.getRawContent());
+                    }
+                    hits = caseSensitiveHits;
+                }
+                if (!hits[next.patternId]) {
+                    continue;
+                }
+            }
+            if (matches == null) {
+                matches = new ArrayList<>(4);
+            }
+            matches.add(next.handler);
+        }
+        return matches == null ? List.of() : matches;
+    }
+
+    private static LongMap<Entry[]> toLongMap(Map<Long, List<Entry>> buckets) {
+        LongMap<Entry[]> map = new LongMap<>(buckets.size());
+        buckets.forEach((id, entries) -> map.put(id, entries.toArray(NO_ENTRIES)));
+        return map;
+    }
+
+    /**
+     * a handler together with its compiled filter
+     * @param order the position of the handler in declaration order
+     * @param filter the compiled filters of the @OnChatMessage annotation
+     * @param patternId the ID of the content filter in the {@link ContentMatcher} of its ignoreCase mode, or {@link #NO_PATTERN}
+     * @param handler the compiled handler method
+     */
+    private record Entry(int order, CompiledChatFilter filter, int patternId, CompiledHandler<ChatMessageContext> handler) {}
+
+    /**
+     * a minimal open addressing hash map with primitive {@code long} keys,
+     * so looking up a snowflake ID does not box it into a {@link Long}.
+     * Only filled on startup, never resized afterwards.
+     * @param <V> the value type
+     */
+    private static final class LongMap<V> {
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+        private int size;
+
+        LongMap(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 2 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void put(long key, V value) {
+            int slot = slot(key);
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        V getOrDefault(long key, V defaultValue) {
+            int slot = slot(key);
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return (V) values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return defaultValue;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
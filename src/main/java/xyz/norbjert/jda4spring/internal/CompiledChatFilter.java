@@ -0,0 +1,130 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+import org.jetbrains.annotations.NotNull;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+
+/**
+ * The filters of an {@link OnChatMessage} annotation, read and prepared once on startup.
+ * Guild and channel IDs are parsed into {@code long} snowflakes, and the content filter is folded up front
+ * if the comparison ignores case. The content filter itself is not checked here: the {@link ChatMessageDispatchIndex}
+ * matches the content filters of all handlers at once with a {@link ContentMatcher}.
+ * Together they behave like {@link OnChatMessageFilterProcessor#matchesAllFilters}, plus the {@link OnChatMessage#ignoreBots()} check.
+ */
+final class CompiledChatFilter {
+
+    /**
+     * used for "no ID filter", discord snowflakes are never 0
+     */
+    static final long NO_ID = 0L;
+
+    private final boolean ignoreBots;
+    private final boolean ignoreCase;
+    private final String contentFilter;
+    private final String guildName;
+    private final long guildId;
+    private final String channelName;
+    private final long channelId;
+
+    private CompiledChatFilter(OnChatMessage cfg) {
+        this.ignoreBots = cfg.ignoreBots();
+        this.ignoreCase = cfg.ignoreCase();
+        this.contentFilter = ignoreCase ? ContentMatcher.fold(cfg.ifMsgContains()) : cfg.ifMsgContains();
+        this.guildName = cfg.onServerViaServerName();
+        this.guildId = parseSnowflake(cfg.onServerViaServerId(), "onServerViaServerId");
+        this.channelName = cfg.inChannelViaChannelName();
+        this.channelId = parseSnowflake(cfg.inChannelViaChannelId(), "inChannelViaChannelId");
+    }
+
+    /**
+     * @param cfg the annotation to compile
+     * @return the compiled filter
+     * @throws IllegalArgumentException if a guild or channel ID filter is not a valid snowflake ID
+     */
+    static CompiledChatFilter compile(@NotNull OnChatMessage cfg) {
+        return new CompiledChatFilter(cfg);
+    }
+
+    /**
+     * @return the guild ID this filter is restricted to, or {@link #NO_ID}
+     */
+    long guildId() {
+        return guildId;
+    }
+
+    /**
+     * @return the channel ID this filter is restricted to, or {@link #NO_ID}
+     */
+    long channelId() {
+        return channelId;
+    }
+
+    /**
+     * @return the content filter, already folded if {@link #ignoreCase()}, or an empty string if there is none
+     */
+    String contentFilter() {
+        return contentFilter;
+    }
+
+    /**
+     * @return whether the content and name filters ignore case
+     */
+    boolean ignoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Checks if a received message passes the author, server and channel filters.
+     * The content filter is left to the caller, see {@link #contentFilter()}.
+     *
+     * @param context The {@link ChatMessageContext} of the message to check against the filters.
+     * @return {@code true} if the message matches all of these filters, {@code false} otherwise.
+     */
+    boolean matchesOrigin(@NotNull ChatMessageContext context) {
+        if (ignoreBots && context.getAuthor().isBot()) {
+            return false;
+        }
+        if (channelId != NO_ID && context.getChannelIdLong() != channelId) {
+            return false;
+        }
+        if (guildId != NO_ID || !guildName.isEmpty() || !channelName.isEmpty()) {
+            // Only applicable to guild channels (DMs and other contexts have no guild or comparable channel name)
+            if (!context.isFromGuild()) {
+                return false;
+            }
+            if (guildId != NO_ID && context.getGuildIdLong() != guildId) {
+                return false;
+            }
+            MessageReceivedEvent event = context.getEvent();
+            if (!guildName.isEmpty() && !equalsName(event.getGuild().getName(), guildName)) {
+                return false;
+            }
+            if (!channelName.isEmpty() && !equalsName(event.getChannel().asGuildMessageChannel().getName(), channelName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsName(String actualName, String expectedName) {
+        return ignoreCase
+                ? actualName.equalsIgnoreCase(expectedName)
+                : actualName.equals(expectedName);
+    }
+
+    private static long parseSnowflake(String id, String attributeName) {
+        if (id.isEmpty()) {
+            return NO_ID;
+        }
+        try {
+            long snowflake = Long.parseLong(id.trim());
+            if (snowflake <= 0) {
+                throw new NumberFormatException("snowflake IDs are positive");
+            }
+            return snowflake;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("@OnChatMessage(" + attributeName + " = \"" + id + "\") is not a valid discord ID", e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package xyz.norbjert.jda4spring.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Finds which of a fixed set of needles occur in a message, in a single pass over the content (Aho-Corasick).
+ * Built once on startup from all {@code ifMsgContains} values of a bot that share the same {@code ignoreCase} mode,
+ * so checking a message no longer scans the content once per handler.
+ * <p>
+ * The automaton is compiled into a dense transition table: every character that appears in a needle gets its own
+ * column, all other characters share column 0 (which always leads back to the start state).
+ * In {@code ignoreCase} mode both the needles and the content are folded char by char with {@link #fold(char)},
+ * so no lower-cased copy of the message gets allocated.
+ */
+final class ContentMatcher {
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    private final boolean ignoreCase;
+    private final int patternCount;
+    private final int alphabetSize;
+    private final int[] asciiColumns;
+    private final char[] otherChars;
+    private final int[] otherColumns;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private ContentMatcher(boolean ignoreCase, int patternCount, int alphabetSize, int[] asciiColumns,
+                           char[] otherChars, int[] otherColumns, int[] transitions, int[][] outputs) {
+        this.ignoreCase = ignoreCase;
+        this.patternCount = patternCount;
+        this.alphabetSize = alphabetSize;
+        this.asciiColumns = asciiColumns;
+        this.otherChars = otherChars;
+        this.otherColumns = otherColumns;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    /**
+     * builds the automaton for the given needles
+     * @param needles the needles to look for, the index of a needle in this list is its pattern ID. Must not be empty strings.
+     * @param ignoreCase whether the needles should match regardless of case
+     * @return the compiled matcher
+     */
+    static ContentMatcher compile(List<String> needles, boolean ignoreCase) {
+
+        List<String> folded = new ArrayList<>(needles.size());
+        for (String needle : needles) {
+            if (needle.isEmpty()) {
+                throw new IllegalArgumentException("ContentMatcher needles must not be empty");
+            }
+            folded.add(ignoreCase ? fold(needle) : needle);
+        }
+
+        //one column per distinct char, column 0 is for chars that are in no needle at all
+        TreeSet<Character> alphabet = new TreeSet<>();
+        folded.forEach(needle -> needle.chars().forEach(c -> alphabet.add((char) c)));
+        int alphabetSize = alphabet.size() + 1;
+
+        int[] asciiColumns = new int[128];
+        List<Character> nonAscii = new ArrayList<>();
+        int column = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiColumns[c] = column;
+            } else {
+                nonAscii.add(c);
+            }
+            column++;
+        }
+        char[] otherChars = new char[nonAscii.size()];
+        int[] otherColumns = new int[nonAscii.size()];
+        for (int i = 0; i < otherChars.length; i++) {
+            otherChars[i] = nonAscii.get(i);
+            otherColumns[i] = alphabet.headSet(otherChars[i]).size() + 1;
+        }
+        if (ignoreCase) {
+            //upper case ascii content chars can use the column of their lower case version directly
+            for (char c = 0; c < 128; c++) {
+                char lower = fold(c);
+                if (lower != c && lower < 128) {
+                    asciiColumns[c] = asciiColumns[lower];
+                }
+            }
+        }
+
+        //build the trie, -1 = no child yet
+        List<int[]> gotos = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        gotos.add(newRow(alphabetSize));
+        outputs.add(new ArrayList<>(1));
+        for (int patternId = 0; patternId < folded.size(); patternId++) {
+            String needle = folded.get(patternId);
+            int state = 0;
+            for (int i = 0; i < needle.length(); i++) {
+                int col = columnOf(needle.charAt(i), asciiColumns, otherChars, otherColumns);
+                if (gotos.get(state)[col] == -1) {
+                    gotos.get(state)[col] = gotos.size();
+                    gotos.add(newRow(alphabetSize));
+                    outputs.add(new ArrayList<>(1));
+                }
+                state = gotos.get(state)[col];
+            }
+            outputs.get(state).add(patternId);
+        }
+
+        //breadth first: compute the failure links and turn the trie into a complete transition table
+        int[] fail = new int[gotos.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = gotos.get(0);
+        for (int col = 0; col < alphabetSize; col++) {
+            if (root[col] == -1) {
+                root[col] = 0;
+            } else {
+                fail[root[col]] = 0;
+                queue.add(root[col]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = gotos.get(state);
+            for (int col = 0; col < alphabetSize; col++) {
+                int child = row[col];
+                int fallback = gotos.get(fail[state])[col];
+                if (child == -1) {
+                    row[col] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    outputs.get(child).addAll(outputs.get(fallback));
+                    queue.add(child);
+                }
+            }
+        }
+
+        int[] transitions = new int[gotos.size() * alphabetSize];
+        int[][] outputArrays = new int[gotos.size()][];
+        for (int state = 0; state < gotos.size(); state++) {
+            System.arraycopy(gotos.get(state), 0, transitions, state * alphabetSize, alphabetSize);
+            List<Integer> out = outputs.get(state);
+            outputArrays[state] = out.isEmpty() ? NO_OUTPUTS : out.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+        return new ContentMatcher(ignoreCase, folded.size(), alphabetSize, asciiColumns, otherChars, otherColumns, transitions, outputArrays);
+    }
+
+    /**
+     * scans the content once and collects every needle that occurs in it.
+     * Stops early once all needles have been found.
+     * @param content the message content
+     * @return an array indexed by pattern ID, {@code true} if that needle occurs in the content
+     */
+    boolean[] findAll(CharSequence content) {
+        boolean[] found = new boolean[patternCount];
+        int remaining = patternCount;
+        int state = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (ignoreCase && c >= 128) {
+                c = fold(c);
+            }
+            state = transitions[state * alphabetSize + columnOf(c, asciiColumns, otherChars, otherColumns)];
+            for (int patternId : outputs[state]) {
+                if (!found[patternId]) {
+                    found[patternId] = true;
+                    if (--remaining == 0) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of needles this matcher was built from
+     */
+    int patternCount() {
+        return patternCount;
+    }
+
+    /**
+     * the case folding used in ignoreCase mode, char by char so it never changes the length of a string
+     * @param c the char to fold
+     * @return the lower case version of the char
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * folds every char of the given string with {@link #fold(char)}
+     * @param s the string to fold
+     * @return the folded string
+     */
+    static String fold(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int columnOf(char c, int[] asciiColumns, char[] otherChars, int[] otherColumns) {
+        if (c < 128) {
+            return asciiColumns[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        return i < 0 ? 0 : otherColumns[i];
+    }
+
+    private static int[] newRow(int alphabetSize) {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -8,26 +8,47 @@ import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEve
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.Interaction;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import okhttp3.OkHttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.annotations.Bulkhead;
 import xyz.norbjert.jda4spring.annotations.Button;
 import xyz.norbjert.jda4spring.annotations.ButtonHandler;
 import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.Sequential;
 import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+import xyz.norbjert.jda4spring.internal.commands.SlashCommandSync;
+import xyz.norbjert.jda4spring.internal.invokers.ButtonInteractionInvoker;
+import xyz.norbjert.jda4spring.internal.invokers.ChatMessageInteractionInvoker;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+import xyz.norbjert.jda4spring.internal.metrics.BotMetrics;
+import xyz.norbjert.jda4spring.internal.metrics.GatewayHealth;
+import xyz.norbjert.jda4spring.internal.recording.GatewayRecorder;
 
-import javax.security.auth.login.LoginException;
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-
-import static xyz.norbjert.jda4spring.internal.OnChatMessageFilterProcessor.matchesAllFilters;
-import static xyz.norbjert.jda4spring.internal.invokers.ButtonInteractionInvoker.invokeButtonInteractionMethod;
-import static xyz.norbjert.jda4spring.internal.invokers.ChatMessageInteractionInvoker.invokeChatInteractionMethod;
-import static xyz.norbjert.jda4spring.internal.invokers.SlashCommandInteractionInvoker.invokeSlashMethod;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a single Discord bot account managed by JDA4Spring.
@@ -39,106 +60,308 @@ import static xyz.norbjert.jda4spring.internal.invokers.SlashCommandInteractionI
 public class DiscordBot extends ListenerAdapter {
 
     private final Logger logger = LoggerFactory.getLogger(DiscordBot.class);
+    private static final long SHARD_LOGIN_POLL_MILLIS = 250;
+    //the shard info of a JDA instance that is not sharded is null, but those never end up in a shard manager
+    private static final Comparator<JDA> SHARD_ORDER = Comparator.comparingInt(shard -> shard.getShardInfo().getShardId());
     @Getter
     private final List<Object> botTasks;
+    private volatile JDA jda;
+    //only set for bots with bots.<name>.shards, those don't have a single jda
+    @Getter
+    private volatile ShardManager shardManager;
+    private volatile boolean shutdown;
+    private final String apiToken;
+    private final ShardConfig shards;
+    private final DiscordEndpoint endpoint;
+    //only set for bots with bots.<name>.record
+    private volatile GatewayRecorder recorder;
+    @Getter
+    private final CacheSettings cacheSettings;
+    private final Activity activity;
+    private final List<GatewayIntent> gatewayIntents;
+    private final SlashCommandSync commandSync;
+    private final SlashCommandRoutingTable slashCommandRoutes;
+    //the guilds each slash command is registered in, empty for global commands
+    private final Map<CompiledHandler<?>, Set<Long>> commandGuilds = new IdentityHashMap<>();
+    private final List<CompiledHandler<ChatMessageContext>> chatHandlers;
+    private final List<CompiledHandler<ButtonInteractionEvent>> buttonHandlers;
+    private final ChatMessageDispatchIndex chatMessageDispatchIndex;
+    private final ButtonDispatchIndex buttonDispatchIndex;
+    @Getter
+    private final HandlerDispatcher dispatcher;
     @Getter
-    private final JDA jda;
-    private final List<Method> slashCommandMethods;
-    private final List<Method> chatInteractionMethods;
-    private final List<Method> buttonInteractionMethods;
+    private final GatewayHealth health = new GatewayHealth(this::getJDAInstances);
+    //only contains the handlers that have a @Bulkhead
+    private final Map<CompiledHandler<?>, HandlerBulkhead> bulkheads = new IdentityHashMap<>();
+    //only contains the handlers that have a @Sequential
+    private final Map<CompiledHandler<?>, Sequential.Scope> orderings = new IdentityHashMap<>();
 
     /**
-     * Constructs a new {@code DiscordBot} instance, initializes the JDA client,
-     * and registers annotated methods for various Discord interactions.
+     * Constructs a new {@code DiscordBot} instance and registers annotated methods for various Discord interactions.
+     * The bot does not connect to Discord until {@link #login()} is called.
      *
      * @param apiToken The API token for the Discord bot.
      * @param botTasks A list of Spring-managed beans (classes annotated with {@code @BotTask})
      *                 that contain methods annotated for Discord interactions.
      * @param activity The {@link Activity} to be displayed for the bot (e.g., "Playing a game").
      * @param gatewayIntents A list of {@link GatewayIntent}s specifying which events the bot should receive.
-     * @throws LoginException If there are issues authenticating with the provided API token.
-     * @throws InterruptedException If the process is interrupted while waiting for the JDA instance to become ready.
+     * @throws IllegalArgumentException If two methods of the bot tasks declare the same slash command,
+     *                                  or a handler method has parameters that cannot be resolved.
      */
-    public DiscordBot(String apiToken, List<Object> botTasks, Activity activity, List<GatewayIntent> gatewayIntents) throws LoginException, InterruptedException {
-        jda = JDABuilder.createLight(apiToken, gatewayIntents)
-                .addEventListeners(this)
-                .setActivity(activity)
-                .build()
-                .awaitReady();
+    public DiscordBot(String apiToken, List<Object> botTasks, Activity activity, List<GatewayIntent> gatewayIntents) {
+        this(apiToken, botTasks, activity, gatewayIntents, BotSettings.defaults());
+    }
 
+    /**
+     * Same as {@link #DiscordBot(String, List, Activity, List)}, but with the given settings instead of the defaults,
+     * f.e. to run the handler methods on other threads than the JDA event thread, or to connect with several shards.
+     * All shards share the handler tables (and dispatcher) of this bot.
+     *
+     * @param apiToken The API token for the Discord bot.
+     * @param botTasks A list of Spring-managed beans (classes annotated with {@code @BotTask})
+     *                 that contain methods annotated for Discord interactions.
+     * @param activity The {@link Activity} to be displayed for the bot (e.g., "Playing a game").
+     * @param gatewayIntents A list of {@link GatewayIntent}s specifying which events the bot should receive.
+     * @param settings The dispatcher, command sync, shards, caches and endpoint of the bot, see {@link BotSettings}.
+     * @throws IllegalArgumentException If two methods of the bot tasks declare the same slash command,
+     *                                  a handler method has parameters that cannot be resolved,
+     *                                  or a slash command targets a guild group that is not configured.
+     */
+    public DiscordBot(String apiToken, List<Object> botTasks, Activity activity, List<GatewayIntent> gatewayIntents,
+                      BotSettings settings) {
+        this.endpoint = settings.endpoint();
+        this.shards = settings.shards();
+        this.cacheSettings = settings.cacheSettings();
+        this.commandSync = settings.commandSync();
+        this.apiToken = apiToken;
+        this.activity = activity;
+        this.gatewayIntents = gatewayIntents;
+        this.dispatcher = settings.dispatcher();
         this.botTasks = botTasks;
-        this.chatInteractionMethods = AnnotationProcessor.findChatMsgAnnotations(botTasks);
-        this.slashCommandMethods = AnnotationProcessor.findSlashCommands(botTasks);
-        this.buttonInteractionMethods = AnnotationProcessor.findButtonAnnotations(botTasks);
+        List<CompiledHandler<ChatMessageContext>> chatInteractionHandlers = new ArrayList<>();
+        List<CompiledHandler<ButtonInteractionEvent>> buttonInteractionHandlers = new ArrayList<>();
+        for (Object botTask : botTasks) {
+            for (Method method : AnnotationProcessor.findChatMsgAnnotations(List.of(botTask))) {
+                chatInteractionHandlers.add(ChatMessageInteractionInvoker.compile(method, botTask));
+            }
+            //a method with both @Button and @ButtonHandler is listed twice, but only needs to be compiled once
+            for (Method method : new LinkedHashSet<>(AnnotationProcessor.findButtonAnnotations(List.of(botTask)))) {
+                buttonInteractionHandlers.add(ButtonInteractionInvoker.compile(method, botTask));
+            }
+        }
+        this.chatHandlers = chatInteractionHandlers;
+        this.buttonHandlers = buttonInteractionHandlers;
+        this.slashCommandRoutes = SlashCommandRoutingTable.build(botTasks);
+        this.buttonDispatchIndex = ButtonDispatchIndex.build(buttonInteractionHandlers);
+        this.chatMessageDispatchIndex = ChatMessageDispatchIndex.build(chatInteractionHandlers);
+
+        registerDispatchSettings(slashCommandRoutes.handlers());
+        registerDispatchSettings(chatInteractionHandlers);
+        registerDispatchSettings(buttonInteractionHandlers);
+
+        //resolved here already, so an unknown guild group is a config error on startup instead of a failed login
+        for (CompiledHandler<SlashCommandInteractionEvent> handler : slashCommandRoutes.handlers()) {
+            commandGuilds.put(handler, commandSync.resolveGuilds(handler.getMethod().getAnnotation(SlashCommand.class).guilds()));
+        }
+    }
+
+    /**
+     * Logs the bot into Discord, waits until it is ready (all of its shards, if it is sharded) and publishes its slash commands.
+     * The bot is only added as event listener here, after all handler tables have been built by the constructor,
+     * so it can handle events right from the first one.
+     *
+     * @throws InterruptedException If interrupted while waiting for the JDA instance to become ready.
+     *                              The JDA instance is shut down again in that case.
+     * @throws IllegalStateException If the bot has already been logged in or shut down,
+     *                               or Discord rejected the login (f.e. because of an invalid token).
+     */
+    public void login() throws InterruptedException {
+        if (jda != null || shardManager != null || shutdown) {
+            throw new IllegalStateException("bot has already been logged in or shut down");
+        }
+        if (shards == null) {
+            connect();
+        } else {
+            connectShards();
+        }
 
         //publishes the slash commands to discord, so they show up in the preview for when you start typing /xyz
-        jda.updateCommands().addCommands(slashCommandMethods.stream().map(SlashCommandDataFactory::createSlashCommand).toList()).queue();
+        List<SlashCommandData> globalCommands = new ArrayList<>();
+        Map<Long, List<SlashCommandData>> guildCommands = new TreeMap<>();
+        for (CompiledHandler<SlashCommandInteractionEvent> handler : slashCommandRoutes.handlers()) {
+            SlashCommandData command = SlashCommandDataFactory.createSlashCommand(handler.getMethod());
+            Set<Long> guilds = commandGuilds.get(handler);
+            if (guilds.isEmpty()) {
+                globalCommands.add(command);
+            }
+            for (Long guildId : guilds) {
+                guildCommands.computeIfAbsent(guildId, id -> new ArrayList<>()).add(command);
+            }
+        }
+        JDA mainJda = getJda();
+        commandSync.sync(mainJda, globalCommands)
+                .exceptionally(error -> {
+                    logger.error("Failed to register the slash commands: {}", error.getMessage(), error);
+                    return null;
+                });
+        //the other applications running this bot (if any) register the commands of their own guilds
+        commandSync.withShards(shards).syncGuilds(mainJda, shardManager == null ? mainJda::getGuildById : shardManager::getGuildById, guildCommands)
+                .exceptionally(error -> {
+                    logger.error("Failed to register the guild slash commands: {}", error.getMessage(), error);
+                    return null;
+                });
     }
 
+    private void connect() throws InterruptedException {
+        JDABuilder builder = endpoint.applyTo(cacheSettings.applyTo(JDABuilder.createLight(apiToken, gatewayIntents)))
+                .addEventListeners(this, health)
+                .setHttpClientBuilder(httpClientBuilder())
+                .setActivity(activity);
+        GatewayRecorder currentRecorder = recorder;
+        if (currentRecorder != null) {
+            builder.setRawEventsEnabled(true).addEventListeners(currentRecorder);
+        }
+        JDA newJda = builder.build();
+        jda = newJda;
+        try {
+            //a shutdown while connecting would otherwise miss the new instance
+            if (shutdown) {
+                throw new IllegalStateException("bot was shut down while logging in");
+            }
+            newJda.awaitReady();
+        } catch (InterruptedException | RuntimeException e) {
+            //the gateway connection should not stay around if the bot is not started
+            newJda.shutdownNow();
+            throw e;
+        }
+    }
+
+    private void connectShards() throws InterruptedException {
+        DefaultShardManagerBuilder builder = endpoint.applyTo(cacheSettings.applyTo(shards.applyTo(DefaultShardManagerBuilder.createLight(apiToken, gatewayIntents))))
+                .addEventListeners(this, health)
+                .setHttpClientBuilder(httpClientBuilder())
+                .setActivity(activity);
+        GatewayRecorder currentRecorder = recorder;
+        if (currentRecorder != null) {
+            builder.setRawEventsEnabled(true).addEventListeners(currentRecorder);
+        }
+        ShardManager newShardManager = builder.build();
+        shardManager = newShardManager;
+        try {
+            //the shard manager logs in one shard after the other (discord only allows a few logins every 5 seconds),
+            //and only creates the JDA instance of a shard once it is its turn
+            while (newShardManager.getShardsQueued() > 0) {
+                if (shutdown) {
+                    throw new IllegalStateException("bot was shut down while logging in");
+                }
+                Thread.sleep(SHARD_LOGIN_POLL_MILLIS);
+            }
+            for (JDA shard : newShardManager.getShards()) {
+                shard.awaitReady();
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            newShardManager.shutdown();
+            throw e;
+        }
+        logger.info("Logged in with {} shard(s), {} in total", newShardManager.getShards().size(), newShardManager.getShardsTotal());
+    }
+
+    //the same client JDA would create, plus the rate limit tracking
+    private OkHttpClient.Builder httpClientBuilder() {
+        return IOUtil.newHttpClientBuilder().addInterceptor(health.rateLimitInterceptor());
+    }
+
+    /**
+     * @return the JDA instance of the bot, or {@code null} if it is not logged in. For a sharded bot, the one of its
+     *         first shard, which can send requests like any other shard, but only knows the guilds of that shard
+     *         (see {@link #getJDAInstances()})
+     */
+    public JDA getJda() {
+        ShardManager currentShards = shardManager;
+        if (currentShards != null) {
+            return currentShards.getShards().stream().min(SHARD_ORDER).orElse(null);
+        }
+        return jda;
+    }
+
+    /**
+     * @return the JDA instances of all shards of the bot, sorted by shard ID, or just the single JDA instance if it is not sharded.
+     *         Empty if the bot is not logged in
+     */
+    public List<JDA> getJDAInstances() {
+        ShardManager currentShards = shardManager;
+        if (currentShards != null) {
+            return currentShards.getShards().stream().sorted(SHARD_ORDER).toList();
+        }
+        JDA current = jda;
+        return current == null ? List.of() : List.of(current);
+    }
+
+    /**
+     * @return an estimate of the memory the JDA caches of the bot take right now (all zero if it is not logged in)
+     */
+    public CacheFootprint getCacheFootprint() {
+        return CacheFootprint.of(getJDAInstances(), cacheSettings);
+    }
+
+    /**
+     * @return the connection status of each shard, by shard ID (0 for a bot that is not sharded), empty if the bot is not logged in
+     */
+    public Map<Integer, JDA.Status> getShardStatus() {
+        Map<Integer, JDA.Status> status = new TreeMap<>();
+        ShardManager currentShards = shardManager;
+        if (currentShards != null) {
+            currentShards.getShards().forEach(shard -> status.put(shard.getShardInfo().getShardId(), shard.getStatus()));
+        } else if (jda != null) {
+            status.put(0, jda.getStatus());
+        }
+        return status;
+    }
 
     /**
      * Handles incoming slash command interactions from Discord.
-     * It iterates through registered methods annotated with {@link SlashCommand}
-     * and invokes the matching method based on the command name.
+     * It looks up the method annotated with {@link SlashCommand} for the command name
+     * in the routing table that was built on startup, and invokes it.
      *
      * @param event The {@link SlashCommandInteractionEvent} received from Discord.
      */
     @Override
     public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        health.eventReceived(event.getIdLong());
         logSlashCommandInteractions(event);
 
-        for (Method slashMethod : slashCommandMethods) {
-
-            //if the incoming slash command matches the command="xyz" variable of the @SlashCommand annotation
-            if (event.getName().equalsIgnoreCase(slashMethod.getAnnotation(SlashCommand.class).command())
-                    //if the incoming slash command matches the java method name, not recommended but works as a secondary option for lazy ppl
-                    || event.getName().equals(slashMethod.getName())) {
-
-                invokeSlashMethod(slashMethod, getDeclaringInstance(slashMethod), event);
-                return;
-            }
+        CompiledHandler<SlashCommandInteractionEvent> handler = slashCommandRoutes.find(event.getName());
+        if (handler == null) {
+            logger.error("SlashCommand {} was called but was never declared properly.", event.getName());
+            return;
         }
-        logger.error("SlashCommand {} was called but was never declared properly.", event.getName());
+        dispatcher.dispatch(handler, event, bulkheads.get(handler), () -> replyBusy(event, handler), orderingKey(handler, event));
     }
 
     /**
      * Handles incoming chat messages received by the bot.
-     * It iterates through registered methods annotated with {@link OnChatMessage},
-     * applies the defined filters, and invokes the matching methods.
+     * It looks up the methods annotated with {@link OnChatMessage} that could apply to the message's channel and server
+     * in the dispatch index that was built on startup, applies their remaining filters, and invokes the matching methods.
+     * The filters and all matching methods share one {@link ChatMessageContext}, so the content and IDs are only read once.
      *
      * @param event The {@link MessageReceivedEvent} received from Discord.
      */
     @Override
     public void onMessageReceived(@NotNull MessageReceivedEvent event) {
-        for (Method method : chatInteractionMethods) {
-            OnChatMessage cfg = method.getAnnotation(OnChatMessage.class);
-            if (cfg == null) {
-                continue;
-            }
-
-            if (cfg.ignoreBots() && event.getAuthor().isBot()) {
-                continue;
-            }
-
-            if (!matchesAllFilters(event, cfg)) {
-                continue;
-            }
-
-            Object declaringInstance = getDeclaringInstance(method);
-            if (declaringInstance == null) {
-                logger.error("Could not resolve declaring instance for method: {}", method.getName());
-                continue;
-            }
-
-            invokeChatInteractionMethod(method, declaringInstance, event);
+        health.eventReceived(event.getMessageIdLong());
+        ChatMessageContext context = new ChatMessageContext(event);
+        for (CompiledHandler<ChatMessageContext> handler : chatMessageDispatchIndex.findMatching(context)) {
+            dispatcher.dispatch(handler, context, bulkheads.get(handler),
+                    () -> logger.debug("{} is busy, skipped message {}", handler.describe(), event.getMessageId()),
+                    orderingKey(handler, context));
         }
     }
 
 
     /**
      * Handles incoming button interaction events from Discord.
-     * It iterates through registered methods annotated with {@link Button} or {@link ButtonHandler}
-     * and invokes the appropriate method based on the button's custom ID.
+     * It looks up the methods annotated with {@link Button} or {@link ButtonHandler} for the button's custom ID
+     * in the dispatch index that was built on startup, and invokes them.
      *
      * @param event The {@link ButtonInteractionEvent} received from Discord.
      */
@@ -146,28 +369,136 @@ public class DiscordBot extends ListenerAdapter {
     public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
 
         logger.debug("eventID: {}", event.getComponentId());
+        health.eventReceived(event.getIdLong());
+
+        for (CompiledHandler<ButtonInteractionEvent> handler : buttonDispatchIndex.find(event.getComponentId())) {
+            dispatcher.dispatch(handler, event, bulkheads.get(handler), () -> replyBusy(event, handler), orderingKey(handler, event));
+        }
+    }
+
+    /**
+     * @return the bulkheads of all handlers of this bot that have a {@link Bulkhead} annotation,
+     *         with their current queue depth and rejection counts
+     */
+    public Collection<HandlerBulkhead> getBulkheads() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
 
-        for (Method buttonMethod : buttonInteractionMethods) {
+    /**
+     * Records the invocations of all handlers and the connection health of this bot in the given metrics.
+     * Has to be called before {@link #login()}, the meters are created once per handler here and not per event.
+     *
+     * @param metrics the metrics of this bot, f.e. from {@link xyz.norbjert.jda4spring.internal.metrics.BotMetricsFactory}
+     */
+    public void bindMetrics(BotMetrics metrics) {
+        health.setObserver(metrics.healthObserver(health));
+        slashCommandRoutes.routes().forEach((name, handler) -> bindMetrics(metrics, BotMetrics.SLASH_COMMAND, handler, name));
+        for (CompiledHandler<ChatMessageContext> handler : chatHandlers) {
+            bindMetrics(metrics, BotMetrics.CHAT_MESSAGE, handler, null);
+        }
+        for (CompiledHandler<ButtonInteractionEvent> handler : buttonHandlers) {
+            bindMetrics(metrics, BotMetrics.BUTTON, handler, null);
+        }
+    }
 
-            //ButtonHandler -> gets called on every button interaction
-            if (buttonMethod.getAnnotation(ButtonHandler.class) != null
-                    //if the button event matches the ID of the @Button annotation
-                    || (buttonMethod.getAnnotation(Button.class) != null &&
-                            event.getComponentId().equals(buttonMethod.getAnnotation(Button.class).value()))) {
+    private void bindMetrics(BotMetrics metrics, String type, CompiledHandler<?> handler, String command) {
+        handler.setObserver(metrics.handlerObserver(type, metricName(handler), command));
+        HandlerBulkhead bulkhead = bulkheads.get(handler);
+        if (bulkhead != null) {
+            metrics.bindBulkhead(type, metricName(handler), command, bulkhead);
+        }
+    }
 
-                try {
+    /**
+     * Records every gateway event the bot receives, see {@link GatewayRecorder}. Has to be called before {@link #login()},
+     * the recording is closed by {@link #shutdown()}.
+     *
+     * @param recorder the recorder of this bot
+     */
+    public void recordGateway(GatewayRecorder recorder) {
+        this.recorder = recorder;
+    }
 
-                    Object declaringInstance = getDeclaringInstance(buttonMethod);
-                    
-                    invokeButtonInteractionMethod(buttonMethod, declaringInstance, event);
+    private static String metricName(CompiledHandler<?> handler) {
+        Method method = handler.getMethod();
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
 
-                } catch (InvocationTargetException ex) {
-                    logger.error("InvocationTargetException:" + ex.getMessage());
-                    throw new RuntimeException(ex);
-                } catch (IllegalAccessException ex) {
-                    logger.error("IllegalAccessException" + ex.getMessage());
-                    throw new RuntimeException(ex);
-                }
+    private void registerDispatchSettings(Collection<? extends CompiledHandler<?>> handlers) {
+        for (CompiledHandler<?> handler : handlers) {
+            Bulkhead cfg = handler.getMethod().getAnnotation(Bulkhead.class);
+            if (cfg != null) {
+                bulkheads.put(handler, new HandlerBulkhead(handler.describe(), cfg));
+            }
+            Sequential sequential = handler.getMethod().getAnnotation(Sequential.class);
+            if (sequential != null) {
+                orderings.put(handler, sequential.value());
+            }
+        }
+    }
+
+    private long orderingKey(CompiledHandler<?> handler, Interaction interaction) {
+        Sequential.Scope scope = orderings.get(handler);
+        if (scope == null) {
+            return HandlerDispatcher.UNORDERED;
+        }
+        long guildId = interaction.isFromGuild() ? interaction.getGuild().getIdLong() : ChatMessageContext.NO_GUILD;
+        return orderingKey(scope, guildId, interaction.getChannelIdLong());
+    }
+
+    private long orderingKey(CompiledHandler<?> handler, ChatMessageContext context) {
+        Sequential.Scope scope = orderings.get(handler);
+        if (scope == null) {
+            return HandlerDispatcher.UNORDERED;
+        }
+        return orderingKey(scope, context.getGuildIdLong(), context.getChannelIdLong());
+    }
+
+    /**
+     * snowflakes are unique across all kinds of entities, so server and channel IDs can share one key space
+     */
+    private static long orderingKey(Sequential.Scope scope, long guildId, long channelId) {
+        if (scope == Sequential.Scope.GUILD && guildId != ChatMessageContext.NO_GUILD) {
+            return guildId;
+        }
+        return channelId;
+    }
+
+    /**
+     * answers a rejected interaction right away, so the user sees the busy message instead of an error
+     */
+    private void replyBusy(IReplyCallback interaction, CompiledHandler<?> handler) {
+        HandlerBulkhead bulkhead = bulkheads.get(handler);
+        if (interaction.isAcknowledged()) {
+            return;
+        }
+        interaction.reply(bulkhead.getBusyMessage()).setEphemeral(true).queue(
+                null, error -> logger.debug("Could not send the busy reply for {}: {}", handler.describe(), error.getMessage()));
+    }
+
+    /**
+     * Disconnects the bot from discord (if it is logged in), and gives handlers that are still running on the dispatcher
+     * a few seconds to finish.
+     *
+     * @throws InterruptedException If interrupted while waiting for the handlers.
+     */
+    public void shutdown() throws InterruptedException {
+        shutdown = true;
+        JDA current = jda;
+        if (current != null) {
+            current.shutdown();
+        }
+        ShardManager currentShards = shardManager;
+        if (currentShards != null) {
+            currentShards.shutdown();
+        }
+        dispatcher.shutdown(10, TimeUnit.SECONDS);
+        GatewayRecorder currentRecorder = recorder;
+        if (currentRecorder != null) {
+            try {
+                currentRecorder.close();
+            } catch (IOException e) {
+                logger.error("Failed to close the gateway recording {}: {}", currentRecorder.getFile(), e.getMessage(), e);
             }
         }
     }
@@ -192,19 +523,4 @@ public class DiscordBot extends ListenerAdapter {
                     + " from user: " + event.getUser().getName());
         }
     }
-
-    /**
-     * helper method to get the botTask that declares the method
-     * @param method the method to get the declaring instance for
-     * @return the botTask that declares the method, or null if not found
-     */
-    private Object getDeclaringInstance(Method method) {
-        Class<?> declaringClass = method.getDeclaringClass();
-        for (Object task : botTasks) {
-            if (task.getClass().equals(declaringClass)) {
-                return task;
-            }
-        }
-        return null;
-    }
 }
@@ -0,0 +1,106 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.ConcurrentSessionController;
+
+/**
+ * Where the bots connect to: discord itself, unless {@code jda4spring.discord.rest-url} and {@code jda4spring.discord.gateway-url}
+ * point them at something else that speaks the discord protocol, f.e. the {@code FakeDiscord} of the test fixtures,
+ * to load test bots without network and without a real bot account.
+ * <p>
+ * Sharded bots ask the REST server for their gateway ({@code GET /gateway/bot}), so there only the REST url matters.
+ *
+ * @param restUrl the base url of the REST API, like "http://localhost:8080/api/v10/", {@code null} for discord
+ * @param gatewayUrl the url of the websocket gateway, like "ws://localhost:8081/", {@code null} for discord
+ */
+public record DiscordEndpoint(String restUrl, String gatewayUrl) {
+
+    /**
+     * discord itself
+     */
+    public static final DiscordEndpoint DISCORD = new DiscordEndpoint(null, null);
+
+    /**
+     * @param restUrl the value of jda4spring.discord.rest-url, or {@code null}
+     * @param gatewayUrl the value of jda4spring.discord.gateway-url, or {@code null}
+     * @return the endpoint, {@link #DISCORD} if neither is set
+     * @throws IllegalArgumentException if only one of them is set, or they are not http(s) and ws(s) urls
+     */
+    public static DiscordEndpoint fromConfigValues(String restUrl, String gatewayUrl) {
+        String rest = restUrl == null || restUrl.isBlank() ? null : restUrl.trim();
+        String gateway = gatewayUrl == null || gatewayUrl.isBlank() ? null : gatewayUrl.trim();
+        if (rest == null && gateway == null) {
+            return DISCORD;
+        }
+        if (rest == null || gateway == null) {
+            throw new IllegalArgumentException("jda4spring.discord.rest-url and jda4spring.discord.gateway-url have to be set together");
+        }
+        if (!rest.startsWith("http://") && !rest.startsWith("https://")) {
+            throw new IllegalArgumentException("Invalid jda4spring.discord.rest-url: '" + rest + "', has to be a http(s) url");
+        }
+        if (!gateway.startsWith("ws://") && !gateway.startsWith("wss://")) {
+            throw new IllegalArgumentException("Invalid jda4spring.discord.gateway-url: '" + gateway + "', has to be a ws(s) url");
+        }
+        //JDA appends the routes to the base url as they are
+        return new DiscordEndpoint(rest.endsWith("/") ? rest : rest + "/", gateway);
+    }
+
+    /**
+     * @return whether this is discord itself
+     */
+    public boolean isDiscord() {
+        return restUrl == null;
+    }
+
+    /**
+     * @param builder the builder of a bot that is not sharded
+     * @return the same builder, connecting to this endpoint
+     */
+    JDABuilder applyTo(JDABuilder builder) {
+        if (isDiscord()) {
+            return builder;
+        }
+        return builder.setRestConfig(new RestConfig().setBaseUrl(restUrl))
+                .setSessionController(new FixedGatewaySessionController(gatewayUrl))
+                //a stand-in does not have to implement zlib-stream
+                .setCompression(Compression.NONE);
+    }
+
+    /**
+     * @param builder the builder of the shard manager of a sharded bot
+     * @return the same builder, connecting to this endpoint
+     */
+    DefaultShardManagerBuilder applyTo(DefaultShardManagerBuilder builder) {
+        if (isDiscord()) {
+            return builder;
+        }
+        return builder.setRestConfig(new RestConfig().setBaseUrl(restUrl))
+                .setSessionController(new FixedGatewaySessionController(gatewayUrl))
+                .setCompression(Compression.NONE);
+    }
+
+    @Override
+    public String toString() {
+        return isDiscord() ? "discord" : restUrl + " and " + gatewayUrl;
+    }
+
+    /**
+     * the default session controller of JDA, only with another gateway
+     */
+    private static final class FixedGatewaySessionController extends ConcurrentSessionController {
+
+        private final String gatewayUrl;
+
+        private FixedGatewaySessionController(String gatewayUrl) {
+            this.gatewayUrl = gatewayUrl;
+        }
+
+        @Override
+        public String getGateway() {
+            return gatewayUrl;
+        }
+    }
+}
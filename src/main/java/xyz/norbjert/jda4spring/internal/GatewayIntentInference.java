@@ -0,0 +1,105 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * static helper class, works out which gateway intents a bot needs for the handlers it actually has,
+ * for {@code bots.<name>.intents = auto}. Discord sends the events of every intent a bot has, whether a handler uses them or not,
+ * so fewer intents mean less traffic, parsing and garbage.
+ * <ul>
+ *     <li>{@code @SlashCommand} and {@code @Button} handlers don't need any intent, interactions are always sent</li>
+ *     <li>{@code @OnChatMessage} needs GUILD_MESSAGES, and DIRECT_MESSAGES unless it is limited to a server.
+ *     MESSAGE_CONTENT only if it filters by content ({@code ifMsgContains}), or has a {@code String content}
+ *     or {@link ChatMessageContext} parameter to read the content from</li>
+ *     <li>plus the intents the configured caches need, see {@link CacheSettings#requiredIntents()}</li>
+ * </ul>
+ */
+final class GatewayIntentInference {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayIntentInference.class);
+
+    /**
+     * static class, don't instantiate it pls thank you
+     */
+    private GatewayIntentInference() {
+        logger.error("static class, not to be instanced");
+        throw new RuntimeException("GatewayIntentInference is a static class and cannot be instanced");
+    }
+
+    /**
+     * @param botTasks the bot tasks of the bot
+     * @param cacheSettings the cache settings of the bot
+     * @return the smallest set of intents all handlers and caches of the bot work with
+     */
+    static Set<GatewayIntent> infer(List<Object> botTasks, CacheSettings cacheSettings) {
+        Set<GatewayIntent> intents = EnumSet.noneOf(GatewayIntent.class);
+        for (Method method : AnnotationProcessor.findChatMsgAnnotations(botTasks)) {
+            intents.addAll(forChatHandler(method));
+        }
+        intents.addAll(cacheSettings.requiredIntents());
+        return intents;
+    }
+
+    /**
+     * @param method a method with {@link OnChatMessage}
+     * @return the intents the handler needs to receive its messages
+     */
+    static Set<GatewayIntent> forChatHandler(Method method) {
+        OnChatMessage annotation = method.getAnnotation(OnChatMessage.class);
+        Set<GatewayIntent> intents = EnumSet.of(GatewayIntent.GUILD_MESSAGES);
+        boolean onlyOnServer = !annotation.onServerViaServerName().isEmpty() || !annotation.onServerViaServerId().isEmpty();
+        if (!onlyOnServer) {
+            intents.add(GatewayIntent.DIRECT_MESSAGES);
+        }
+        if (!annotation.ifMsgContains().isEmpty() || hasContentParameter(method)) {
+            intents.add(GatewayIntent.MESSAGE_CONTENT);
+        }
+        return intents;
+    }
+
+    //same checks as in ChatMessageInteractionInvoker, reading the content is what the ChatMessageContext is for
+    private static boolean hasContentParameter(Method method) {
+        for (Parameter param : method.getParameters()) {
+            if (param.getType() == ChatMessageContext.class
+                    || param.getType().isAssignableFrom(String.class) && param.getName().equals("content")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * logs a warning if the configured intents don't fit the handlers of the bot: either discord sends events
+     * no handler uses, or the handlers miss messages (or their content)
+     *
+     * @param botName the name of the bot
+     * @param configured the intents from bots.&lt;name&gt;.intents (or the default ones)
+     * @param needed the intents from {@link #infer(List, CacheSettings)}
+     */
+    static void warnIfMismatched(String botName, Set<GatewayIntent> configured, Set<GatewayIntent> needed) {
+        Set<GatewayIntent> unneeded = EnumSet.noneOf(GatewayIntent.class);
+        unneeded.addAll(configured);
+        unneeded.removeAll(needed);
+        if (!unneeded.isEmpty()) {
+            logger.warn("Bot '{}' has the gateway intents {}, which none of its handlers need. "
+                    + "Unless you use them via JDA directly, set bots.{}.intents = auto (would be {})", botName, unneeded, botName, needed);
+        }
+        Set<GatewayIntent> missing = EnumSet.noneOf(GatewayIntent.class);
+        missing.addAll(needed);
+        missing.removeAll(configured);
+        if (!missing.isEmpty()) {
+            logger.warn("Bot '{}' has handlers that need the gateway intents {}, which are not in bots.{}.intents, "
+                    + "they won't receive all messages (or their content)", botName, missing, botName);
+        }
+    }
+}
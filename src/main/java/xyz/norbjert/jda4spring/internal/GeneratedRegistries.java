@@ -0,0 +1,125 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.registry.BotTaskRegistry;
+import xyz.norbjert.jda4spring.registry.GeneratedHandler;
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the {@link BotTaskRegistry} generated at compile time for a bot task class, if there is one.
+ * Every class is only looked up once, a registry that cannot be loaded is logged and ignored,
+ * so the bot task gets scanned via reflection instead.
+ */
+public final class GeneratedRegistries {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneratedRegistries.class);
+
+    private static final ClassValue<Registry> registries = new ClassValue<>() {
+        @Override
+        protected Registry computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private GeneratedRegistries() {
+        logger.error("static class, not to be instanced");
+        throw new RuntimeException("GeneratedRegistries is a static class and cannot be instanced");
+    }
+
+    /**
+     * @param botTaskType the class of a bot task
+     * @param kind the kind of handlers to look for
+     * @return the handler methods of that kind listed by the registry of the class, or {@code null} if it has no registry
+     */
+    public static List<Method> findMethods(Class<?> botTaskType, GeneratedHandler.Kind kind) {
+        Registry registry = registries.get(botTaskType);
+        if (registry == null) {
+            return null;
+        }
+        List<Method> methods = new ArrayList<>();
+        for (GeneratedHandler handler : registry.handlers()) {
+            if (handler.kind() == kind) {
+                methods.add(handler.method());
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * @param method a handler method
+     * @return the generated invoker that calls the method directly, or {@code null} if there is none
+     */
+    public static HandlerInvoker findInvoker(Method method) {
+        GeneratedHandler handler = find(method, null);
+        return handler == null ? null : handler.invoker();
+    }
+
+    /**
+     * @param method a handler method
+     * @param kind the kind of handler, or {@code null} for any
+     * @return the registry entry for the method, or {@code null} if there is none
+     */
+    public static GeneratedHandler find(Method method, GeneratedHandler.Kind kind) {
+        Registry registry = registries.get(method.getDeclaringClass());
+        if (registry == null) {
+            return null;
+        }
+        List<GeneratedHandler> handlers = registry.byMethod().get(method);
+        if (handlers == null) {
+            return null;
+        }
+        for (GeneratedHandler handler : handlers) {
+            if (kind == null || handler.kind() == kind) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    private static Registry load(Class<?> type) {
+        String registryName = type.getName() + BotTaskRegistry.CLASS_NAME_SUFFIX;
+        Class<?> registryClass;
+        try {
+            registryClass = Class.forName(registryName, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            logger.debug("no generated registry for {}, scanning it via reflection", type.getName());
+            return null;
+        } catch (LinkageError e) {
+            logger.warn("Generated registry {} could not be loaded, scanning {} via reflection instead: {}",
+                    registryName, type.getName(), e.toString());
+            return null;
+        }
+
+        try {
+            BotTaskRegistry registry = (BotTaskRegistry) registryClass.getDeclaredConstructor().newInstance();
+            if (registry.botTaskType() != type) {
+                throw new IllegalStateException("it was generated for " + registry.botTaskType().getName());
+            }
+            List<GeneratedHandler> handlers = List.copyOf(registry.handlers());
+            Map<Method, List<GeneratedHandler>> byMethod = new HashMap<>();
+            for (GeneratedHandler handler : handlers) {
+                byMethod.computeIfAbsent(handler.method(), m -> new ArrayList<>(1)).add(handler);
+            }
+            logger.debug("using generated registry {} with {} handlers", registryName, handlers.size());
+            return new Registry(handlers, byMethod);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            logger.warn("Generated registry {} is not usable, scanning {} via reflection instead: {}",
+                    registryName, type.getName(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * a loaded registry
+     * @param handlers all entries of the registry
+     * @param byMethod the entries for each handler method
+     */
+    private record Registry(List<GeneratedHandler> handlers, Map<Method, List<GeneratedHandler>> byMethod) {}
+}
@@ -0,0 +1,203 @@
+package xyz.norbjert.jda4spring.internal;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.annotations.Bulkhead;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * The runtime side of a {@link Bulkhead} annotation: counts the running invocations of one handler,
+ * queues the ones beyond the limit, and applies the saturation policy.
+ * A queued invocation is started by the thread that finishes the previous one, so a handler never occupies more than
+ * {@link #getMaxConcurrent()} threads of the dispatcher (except for {@link Bulkhead.Policy#CALLER_RUNS}).
+ * Async handlers keep their slot until their returned future, stage or publisher completes.
+ * <p>
+ * The getters for the current queue depth and the rejection counters can be polled for monitoring.
+ */
+public final class HandlerBulkhead {
+
+    private static final Logger logger = LoggerFactory.getLogger(HandlerBulkhead.class);
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int maxConcurrent;
+    @Getter
+    private final int queueSize;
+    @Getter
+    private final Bulkhead.Policy policy;
+    @Getter
+    private final String busyMessage;
+
+    private final ArrayDeque<Invocation> queue = new ArrayDeque<>();
+    private int running;
+    private long rejectedCount;
+    private long callerRunsCount;
+
+    /**
+     * @param name the name of the handler, used for logging and monitoring
+     * @param cfg the annotation of the handler
+     * @throws IllegalArgumentException if the limits of the annotation are invalid
+     */
+    public HandlerBulkhead(String name, Bulkhead cfg) {
+        if (cfg.maxConcurrent() < 1) {
+            throw new IllegalArgumentException("@Bulkhead(maxConcurrent = " + cfg.maxConcurrent() + ") on " + name + " has to be at least 1");
+        }
+        if (cfg.queueSize() < 0) {
+            throw new IllegalArgumentException("@Bulkhead(queueSize = " + cfg.queueSize() + ") on " + name + " must not be negative");
+        }
+        this.name = name;
+        this.maxConcurrent = cfg.maxConcurrent();
+        this.queueSize = cfg.queueSize();
+        this.policy = cfg.policy();
+        this.busyMessage = cfg.busyMessage();
+    }
+
+    /**
+     * Runs the task on the executor if there is a free slot, otherwise queues or rejects it according to the policy.
+     * The slot is taken until the completion returned by the task is done, so async handlers count as running
+     * until their result completes. Queued tasks are then started on the same executor.
+     *
+     * @param task the handler invocation, returns its completion
+     * @param onRejected called if the task gets rejected (right away, or later when it is dropped from the queue)
+     * @param executor the executor to start the task on
+     */
+    public void submit(Supplier<CompletableFuture<?>> task, Runnable onRejected, Executor executor) {
+        boolean start = false;
+        boolean runOnCaller = false;
+        Runnable reject = null;
+
+        synchronized (this) {
+            if (running < maxConcurrent) {
+                running++;
+                start = true;
+            } else if (queue.size() < queueSize) {
+                queue.addLast(new Invocation(task, onRejected));
+            } else if (policy == Bulkhead.Policy.CALLER_RUNS) {
+                callerRunsCount++;
+                runOnCaller = true;
+            } else if (policy == Bulkhead.Policy.DROP_OLDEST && !queue.isEmpty()) {
+                reject = queue.pollFirst().onRejected();
+                queue.addLast(new Invocation(task, onRejected));
+                rejectedCount++;
+            } else {
+                reject = onRejected;
+                rejectedCount++;
+            }
+        }
+
+        if (reject != null) {
+            logger.debug("{} is saturated, rejected an invocation.", name);
+            reject.run();
+        }
+        if (runOnCaller) {
+            logger.debug("{} is saturated, running an invocation on the calling thread.", name);
+            task.get();
+        }
+        if (start) {
+            try {
+                executor.execute(() -> runAndDrain(task, executor));
+            } catch (RejectedExecutionException ex) {
+                synchronized (this) {
+                    running--;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * runs the task, then keeps running queued tasks on the same thread until the queue is empty,
+     * or until a task returns a completion that is not done yet
+     */
+    private void runAndDrain(Supplier<CompletableFuture<?>> first, Executor executor) {
+        Supplier<CompletableFuture<?>> next = first;
+        while (next != null) {
+            CompletableFuture<?> completion;
+            try {
+                completion = next.get();
+            } catch (RuntimeException ex) {
+                resume(executor);
+                throw ex;
+            }
+            if (!completion.isDone()) {
+                //the slot stays taken until the async result is done, no thread waits for it in the meantime
+                completion.whenComplete((ignored, error) -> resume(executor));
+                return;
+            }
+            next = pollOrRelease();
+        }
+    }
+
+    /**
+     * hands the slot of a finished invocation over to the next queued one, which gets started on the executor
+     */
+    private void resume(Executor executor) {
+        Supplier<CompletableFuture<?>> next = pollOrRelease();
+        if (next == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> runAndDrain(next, executor));
+        } catch (RejectedExecutionException ex) {
+            logger.debug("{} cannot start its queued invocations, the bot is shutting down.", name);
+            synchronized (this) {
+                queue.clear();
+                running--;
+            }
+        }
+    }
+
+    /**
+     * @return the next queued task, keeping the slot, or {@code null} after releasing the slot if the queue is empty
+     */
+    private synchronized Supplier<CompletableFuture<?>> pollOrRelease() {
+        Invocation queued = queue.pollFirst();
+        if (queued == null) {
+            running--;
+            return null;
+        }
+        return queued.task();
+    }
+
+    /**
+     * @return how many invocations are running right now (not counting {@link Bulkhead.Policy#CALLER_RUNS} ones)
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * @return how many invocations are waiting for a free slot right now
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return how many invocations have been rejected or dropped from the queue so far
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return how many invocations had to run on the calling thread so far, because of {@link Bulkhead.Policy#CALLER_RUNS}
+     */
+    public synchronized long getCallerRunsCount() {
+        return callerRunsCount;
+    }
+
+    /**
+     * a queued handler invocation
+     * @param task runs the handler
+     * @param onRejected notifies the user if the invocation gets dropped
+     */
+    private record Invocation(Supplier<CompletableFuture<?>> task, Runnable onRejected) {}
+}
@@ -0,0 +1,287 @@
+package xyz.norbjert.jda4spring.internal;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides on which thread the handler methods of a bot run, configured per bot via {@code bots.<name>.dispatch}:
+ * <ul>
+ *     <li>{@code inline} (default): directly on the JDA event thread, so a slow handler delays every other event of that bot</li>
+ *     <li>{@code virtual}: every handler invocation gets its own virtual thread</li>
+ *     <li>{@code pool} or {@code pool:N}: a fixed pool of N platform threads (default: one per CPU core)</li>
+ * </ul>
+ * Errors thrown by a handler are logged by the {@link xyz.norbjert.jda4spring.internal.invokers.MethodInvoker}
+ * either way. In the inline mode they are also passed on to JDA, like before (unless the handler has a {@link HandlerBulkhead}).
+ * <p>
+ * Handlers that return a future, stage or publisher are done once that completes, not when the method returns.
+ * Their completion is tracked by callbacks, so no dispatch thread is blocked while waiting for it.
+ * <p>
+ * Handlers with an ordering key (see {@link xyz.norbjert.jda4spring.annotations.Sequential}) run on one of a fixed
+ * number of serial lanes on top of the same threads, so events of one channel are handled in order,
+ * while different channels still use all threads.
+ */
+public final class HandlerDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HandlerDispatcher.class);
+
+    /**
+     * the available dispatch modes
+     */
+    public enum Mode {
+        INLINE, VIRTUAL, POOL
+    }
+
+    /**
+     * the ordering key for handlers that may run in any order
+     */
+    public static final long UNORDERED = 0L;
+    /**
+     * the number of serial lanes for {@link xyz.norbjert.jda4spring.annotations.Sequential} handlers,
+     * enough that unrelated channels rarely end up in the same lane
+     */
+    private static final int ORDERED_LANES = 256;
+
+    @Getter
+    private final Mode mode;
+    private final ExecutorService executor;
+    private final StripedExecutor lanes;
+    /**
+     * the handlers whose async result has not completed yet, and the completion counters of all handlers
+     */
+    @Getter
+    private final PendingHandlers pending = new PendingHandlers();
+
+    private HandlerDispatcher(Mode mode, ExecutorService executor) {
+        this.mode = mode;
+        this.executor = executor;
+        this.lanes = executor == null ? null : new StripedExecutor(executor, ORDERED_LANES);
+    }
+
+    /**
+     * @return a dispatcher that runs every handler directly on the calling thread
+     */
+    public static HandlerDispatcher inline() {
+        return new HandlerDispatcher(Mode.INLINE, null);
+    }
+
+    /**
+     * @param botName used to name the threads
+     * @return a dispatcher that runs every handler invocation on its own virtual thread
+     */
+    public static HandlerDispatcher virtualThreads(String botName) {
+        ThreadFactory factory = Thread.ofVirtual().name("jda4spring-" + botName + "-handler-", 0).factory();
+        return new HandlerDispatcher(Mode.VIRTUAL, Executors.newThreadPerTaskExecutor(factory));
+    }
+
+    /**
+     * @param botName used to name the threads
+     * @param threads the number of platform threads in the pool
+     * @return a dispatcher that runs the handlers on a fixed pool of platform threads
+     */
+    public static HandlerDispatcher threadPool(String botName, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "jda4spring-" + botName + "-handler-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new HandlerDispatcher(Mode.POOL, Executors.newFixedThreadPool(threads, factory));
+    }
+
+    /**
+     * Parses the value of a {@code bots.<name>.dispatch} config entry.
+     *
+     * @param botName the name of the bot, used to name the threads
+     * @param value the configured value, f.e. "virtual" or "pool:8". {@code null} or empty means inline.
+     * @return the dispatcher
+     * @throws IllegalArgumentException if the value is not a known dispatch mode
+     */
+    public static HandlerDispatcher fromConfigValue(String botName, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return inline();
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        String threadCount = null;
+        int colon = normalized.indexOf(':');
+        if (colon >= 0) {
+            threadCount = normalized.substring(colon + 1).trim();
+            normalized = normalized.substring(0, colon).trim();
+        }
+
+        switch (normalized) {
+            case "inline":
+                if (threadCount == null) {
+                    return inline();
+                }
+                break;
+            case "virtual":
+                if (threadCount == null) {
+                    return virtualThreads(botName);
+                }
+                break;
+            case "pool":
+                if (threadCount == null) {
+                    return threadPool(botName, Runtime.getRuntime().availableProcessors());
+                }
+                try {
+                    int threads = Integer.parseInt(threadCount);
+                    if (threads > 0) {
+                        return threadPool(botName, threads);
+                    }
+                } catch (NumberFormatException ignored) {
+                    //handled below
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unknown dispatch mode '" + value + "' for bot '" + botName
+                + "', expected one of: inline, virtual, pool, pool:<number of threads>");
+    }
+
+    /**
+     * Runs the handler with the given event, on the thread decided by the dispatch mode.
+     * If the handler returns a future, stage or publisher, it is tracked until it completes.
+     *
+     * @param handler the handler to invoke
+     * @param event the event to invoke it with
+     * @param <E> the type of event
+     * @throws RuntimeException in the inline mode, if the handler fails (it has already been logged at that point)
+     */
+    public <E> void dispatch(CompiledHandler<E> handler, E event) {
+        if (executor == null) {
+            CompletableFuture<?> completion;
+            try {
+                completion = handler.invoke(event);
+            } catch (RuntimeException ex) {
+                pending.countFailure();
+                throw ex;
+            }
+            pending.track(completion);
+            return;
+        }
+        try {
+            executor.execute(() -> invokeQuietly(handler, event));
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Dropped an event for {}, the bot is shutting down.", handler.describe());
+        }
+    }
+
+    /**
+     * Runs the handler with the given event, limited by the given bulkhead.
+     * An async handler keeps its slot in the bulkhead until its result completes.
+     *
+     * @param handler the handler to invoke
+     * @param event the event to invoke it with
+     * @param bulkhead the bulkhead of the handler, or {@code null} to dispatch without limit
+     * @param onRejected called if the bulkhead rejects the invocation, f.e. to tell the user to try again later
+     * @param <E> the type of event
+     */
+    public <E> void dispatch(CompiledHandler<E> handler, E event, HandlerBulkhead bulkhead, Runnable onRejected) {
+        if (bulkhead == null) {
+            dispatch(handler, event);
+            return;
+        }
+        Executor target = executor == null ? Runnable::run : executor;
+        try {
+            bulkhead.submit(() -> invokeQuietly(handler, event), onRejected, target);
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Dropped an event for {}, the bot is shutting down.", handler.describe());
+        }
+    }
+
+    /**
+     * Runs the handler with the given event after all invocations that were dispatched before with the same ordering key
+     * have completed, limited by the given bulkhead. Invocations with different keys still run in parallel.
+     * In the inline mode everything runs in order anyway, so the key is ignored there.
+     *
+     * @param handler the handler to invoke
+     * @param event the event to invoke it with
+     * @param bulkhead the bulkhead of the handler, or {@code null} to dispatch without limit
+     * @param onRejected called if the bulkhead rejects the invocation
+     * @param orderingKey the channel or server ID to order by, or {@link #UNORDERED}
+     * @param <E> the type of event
+     */
+    public <E> void dispatch(CompiledHandler<E> handler, E event, HandlerBulkhead bulkhead, Runnable onRejected, long orderingKey) {
+        if (lanes == null || orderingKey == UNORDERED) {
+            dispatch(handler, event, bulkhead, onRejected);
+            return;
+        }
+        try {
+            if (bulkhead == null) {
+                lanes.submit(orderingKey, () -> invokeQuietly(handler, event));
+            } else {
+                lanes.submit(orderingKey, () -> submitToBulkhead(handler, event, bulkhead, onRejected));
+            }
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Dropped an event for {}, the bot is shutting down.", handler.describe());
+        }
+    }
+
+    /**
+     * passes the invocation on to the bulkhead, and keeps the lane waiting until the bulkhead has run or rejected it,
+     * so invocations that have to wait in the queue of the bulkhead stay in order
+     */
+    private <E> CompletableFuture<?> submitToBulkhead(CompiledHandler<E> handler, E event, HandlerBulkhead bulkhead, Runnable onRejected) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            bulkhead.submit(() -> {
+                CompletableFuture<?> completion = invokeQuietly(handler, event);
+                completion.whenComplete((ignored, error) -> done.complete(null));
+                return completion;
+            }, () -> {
+                done.complete(null);
+                onRejected.run();
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Dropped an event for {}, the bot is shutting down.", handler.describe());
+            done.complete(null);
+        }
+        return done;
+    }
+
+    private <E> CompletableFuture<?> invokeQuietly(CompiledHandler<E> handler, E event) {
+        try {
+            CompletableFuture<?> completion = handler.invoke(event);
+            pending.track(completion);
+            return completion;
+        } catch (RuntimeException ex) {
+            //already logged by the MethodInvoker, there is nobody else to pass it on to
+            logger.trace("{} failed on a {} dispatch thread", handler.describe(), mode, ex);
+            pending.countFailure();
+            return CompiledHandler.DONE;
+        }
+    }
+
+    /**
+     * Stops accepting new handler invocations, and waits up to the given timeout for the running ones to finish,
+     * including the async results of handlers that have already returned.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout, unit)) {
+                logger.warn("Handlers still running after {} {}, interrupting them.", timeout, unit.toString().toLowerCase(Locale.ROOT));
+                executor.shutdownNow();
+            }
+        }
+        pending.awaitCompletion(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+}
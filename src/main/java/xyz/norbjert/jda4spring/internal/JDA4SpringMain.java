@@ -8,14 +8,21 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.ConfigurableEnvironment; // Corrected import
 import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.stereotype.Component;
 import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.availability.BotReadinessState;
+import xyz.norbjert.jda4spring.internal.commands.SlashCommandSync;
+import xyz.norbjert.jda4spring.internal.invokers.InvocationStrategy;
+import xyz.norbjert.jda4spring.internal.invokers.MethodInvoker;
+import xyz.norbjert.jda4spring.internal.metrics.BotMetricsFactory;
+import xyz.norbjert.jda4spring.internal.recording.GatewayRecorder;
 
-import javax.security.auth.login.LoginException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -24,19 +31,25 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 /**
  * Handles the initialization process of individual Discord bot accounts configured in the application.
  * It discovers bot configurations from various property sources (application.properties, jda4spring.properties/yml/yaml)
  * and an optional custom config file, then sets up JDA instances accordingly.
+ * The bots are set up while the application context is created, but only log in once it has started
+ * (see {@link #start()}), in the background, so the context does not wait for the Discord gateways.
  */
 @Component
 @PropertySource(value = {
@@ -44,7 +57,7 @@ import java.util.stream.Stream;
         "classpath:jda4spring.yml",
         "classpath:jda4spring.yaml"
 }, ignoreResourceNotFound = true)
-public class JDA4SpringMain {
+public class JDA4SpringMain implements SmartLifecycle {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final ApplicationContext appContext;
     private final ConfigurableEnvironment environment;
@@ -52,8 +65,17 @@ public class JDA4SpringMain {
     @Value("${jda4spring.configfile:#{null}}")
     private String externalConfigFilePath;
 
+    /**
+     * the bots that are logged in, each bot is added as soon as its own login is done (not once all bots are),
+     * so the order is the order in which they got ready
+     */
     @Getter
-    private static final List<DiscordBot> bots = new ArrayList<>();
+    private static final List<DiscordBot> bots = new CopyOnWriteArrayList<>();
+    //all configured bots, by bot name, including the ones that are not (yet) logged in
+    private final Map<String, DiscordBot> configuredBots = new LinkedHashMap<>();
+    private int startupParallelism;
+    private volatile Thread startupThread;
+    private volatile boolean running;
     @Getter
     private final Map<String, Object> botTaskBeans;
     @Getter
@@ -62,7 +84,7 @@ public class JDA4SpringMain {
     /**
      * Constructor for initializing JDA4Spring. This bean is responsible for:
      * - Discovering bot configurations from Spring's {@link ConfigurableEnvironment} and an optional external file.
-     * - Creating and configuring JDA instances for each discovered bot.
+     * - Creating and configuring a {@link DiscordBot} for each discovered bot, logging in happens in {@link #start()}.
      * - Mapping bot tasks (classes annotated with {@link BotTask}) to their respective bots.
      *
      * @param appContext  The Spring Boot application context.
@@ -80,6 +102,11 @@ public class JDA4SpringMain {
         this.botTaskBeans = appContext.getBeansWithAnnotation(BotTask.class);
 
         try {
+            String invocationStrategy = environment.getProperty("jda4spring.invoker");
+            if (invocationStrategy != null && !invocationStrategy.trim().isEmpty()) {
+                MethodInvoker.setStrategy(InvocationStrategy.fromConfigValue(invocationStrategy));
+            }
+
             // Get consolidated bot config data from all sources
             List<BotConfigProperty> botConfigData = getBotConfigData();
 
@@ -89,7 +116,18 @@ public class JDA4SpringMain {
                 botsGroupedByName.computeIfAbsent(entry.name(), k -> new ArrayList<>()).add(entry);
             }
 
-            // Initialize each bot account
+            SlashCommandSync commandSync = SlashCommandSync.fromConfigValues(
+                    environment.getProperty("jda4spring.commands.sync"), environment.getProperty("jda4spring.commands.state-dir"),
+                    environment.getProperty("jda4spring.commands.guild-requests"))
+                    .withGuildGroups(getGuildGroups());
+
+            DiscordEndpoint endpoint = DiscordEndpoint.fromConfigValues(
+                    environment.getProperty("jda4spring.discord.rest-url"), environment.getProperty("jda4spring.discord.gateway-url"));
+            if (!endpoint.isDiscord()) {
+                logger.warn("The bots connect to {} instead of discord", endpoint);
+            }
+
+            // Set up each bot account, the configs are checked and the handler tables are built before any bot logs in
             for (Map.Entry<String, List<BotConfigProperty>> entry : botsGroupedByName.entrySet()) {
                 String botName = entry.getKey();
                 List<BotConfigProperty> allEntriesForThisBot = entry.getValue();
@@ -107,19 +145,32 @@ public class JDA4SpringMain {
 
                 List<Object> botTasks = getEventListenersForBotAsBotTasks(allEntriesForThisBot);
                 Activity activity = getActivity(allEntriesForThisBot);
-                List<GatewayIntent> gatewayIntents = getGatewayIntents(allEntriesForThisBot);
-
-                DiscordBot newDiscordBotAccountInstance = new DiscordBot(apiToken, botTasks, activity, gatewayIntents);
-                bots.add(newDiscordBotAccountInstance);
+                HandlerDispatcher dispatcher = HandlerDispatcher.fromConfigValue(botName, getConfigValue(allEntriesForThisBot, "dispatch"));
+
+                SlashCommandSync botCommandSync = commandSync.withCommandGuilds(parseGuildIds(getConfigValue(allEntriesForThisBot, "commandGuilds")));
+
+                ShardConfig shards = ShardConfig.fromConfigValue(getConfigValue(allEntriesForThisBot, "shards"));
+                CacheSettings cacheSettings = CacheSettings.fromConfigValues(getConfigValue(allEntriesForThisBot, "memberCache"),
+                        getConfigValue(allEntriesForThisBot, "chunking"), getConfigValue(allEntriesForThisBot, "cacheFlags"));
+                List<GatewayIntent> gatewayIntents = resolveGatewayIntents(botName, allEntriesForThisBot, botTasks, cacheSettings);
+                cacheSettings.checkIntents(botName, gatewayIntents);
+
+                DiscordBot bot = new DiscordBot(apiToken, botTasks, activity, gatewayIntents, BotSettings.defaults()
+                        .withDispatcher(dispatcher)
+                        .withCommandSync(botCommandSync)
+                        .withShards(shards)
+                        .withCacheSettings(cacheSettings)
+                        .withEndpoint(endpoint));
+                bot.bindMetrics(BotMetricsFactory.forBot(appContext, environment.getProperty("jda4spring.metrics.enabled"), botName));
+                GatewayRecorder recorder = GatewayRecorder.fromConfigValue(botName, getConfigValue(allEntriesForThisBot, "record"));
+                if (recorder != null) {
+                    bot.recordGateway(recorder);
+                }
+                configuredBots.put(botName, bot);
             }
 
-        } catch (LoginException e) {
-            logger.error("Failed to log into a Discord bot account. Please check API tokens.", e);
-            System.exit(-1);
-        } catch (InterruptedException e) {
-            logger.error("JDA initialization interrupted.", e);
-            Thread.currentThread().interrupt();
-            System.exit(-1);
+            startupParallelism = BotStartup.parallelismFromConfigValue(environment.getProperty("jda4spring.startup.parallelism"));
+
         } catch (IllegalArgumentException e) {
             logger.error("Configuration Error: {}", e.getMessage(), e);
             System.exit(-1);
@@ -275,6 +326,128 @@ public class JDA4SpringMain {
         }
     }
 
+    /**
+     * Logs in all configured bots in the background, at most jda4spring.startup.parallelism of them at the same time.
+     * Publishes {@link BotReadinessState#STARTING} right away, and {@link BotReadinessState#READY}
+     * (or {@link BotReadinessState#DEGRADED} if a bot failed to log in) once all logins are done.
+     */
+    @Override
+    public void start() {
+        running = true;
+        AvailabilityChangeEvent.publish(appContext, this, BotReadinessState.STARTING);
+        startupThread = Thread.ofPlatform().name("jda4spring-startup").start(this::loginBots);
+    }
+
+    private void loginBots() {
+        // Log in the bot accounts concurrently, a bot that fails to log in is skipped without stopping the others
+        Map<String, Callable<DiscordBot>> logins = new LinkedHashMap<>();
+        configuredBots.forEach((botName, bot) -> logins.put(botName, () -> {
+            try {
+                bot.login();
+                //usable right away, a slow login of another bot doesn't hold this one back
+                bots.add(bot);
+                return bot;
+            } catch (Exception e) {
+                //also closes the gateway recording the bot opened when it was set up
+                bot.shutdown();
+                throw e;
+            }
+        }));
+
+        try {
+            Map<String, DiscordBot> started = BotStartup.startAll(logins, startupParallelism);
+            started.forEach((botName, bot) -> logger.info("Estimated cache of bot '{}' ({}): {}",
+                    botName, bot.getCacheSettings(), bot.getCacheFootprint()));
+            AvailabilityChangeEvent.publish(appContext, this,
+                    started.size() == logins.size() ? BotReadinessState.READY : BotReadinessState.DEGRADED);
+        } catch (InterruptedException e) {
+            logger.info("Bot startup interrupted, the application is shutting down.");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Shuts down all bots when the application context is stopped or closed,
+     * including the ones that are still logging in.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread startup = startupThread;
+        try {
+            if (startup != null) {
+                startup.interrupt();
+                startup.join();
+            }
+            for (DiscordBot bot : configuredBots.values()) {
+                bot.shutdown();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            bots.removeAll(configuredBots.values());
+            AvailabilityChangeEvent.publish(appContext, this, BotReadinessState.STOPPED);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @param allEntriesForCurrentBotAccount A list of {@link BotConfigProperty} entries for the current bot.
+     * @param type the type of the config entry, f.e. "dispatch"
+     * @return the value of the first entry of that type, or {@code null} if there is none
+     */
+    private static String getConfigValue(List<BotConfigProperty> allEntriesForCurrentBotAccount, String type) {
+        return allEntriesForCurrentBotAccount.stream()
+                .filter(t -> type.equals(t.type()))
+                .findFirst()
+                .map(BotConfigProperty::value)
+                .orElse(null);
+    }
+
+    /**
+     * Reads the {@code jda4spring.guild-groups.<name> = id1, id2} entries, which slash commands can use
+     * instead of listing the guild IDs themselves.
+     *
+     * @return the guild IDs of each group, by group name
+     * @throws IllegalArgumentException if a group contains something that is not a guild ID
+     */
+    private Map<String, Set<Long>> getGuildGroups() {
+        Map<String, Set<Long>> guildGroups = new HashMap<>();
+        String prefix = "jda4spring.guild-groups.";
+        environment.getPropertySources().forEach(ps -> {
+            if (ps instanceof EnumerablePropertySource<?> eps) {
+                for (String key : eps.getPropertyNames()) {
+                    //the first property source that has the key wins, like for environment.getProperty
+                    if (key.startsWith(prefix) && !guildGroups.containsKey(key.substring(prefix.length()))) {
+                        guildGroups.put(key.substring(prefix.length()), parseGuildIds(environment.getProperty(key)));
+                    }
+                }
+            }
+        });
+        return guildGroups;
+    }
+
+    /**
+     * @param configValue a comma separated list of guild IDs, or {@code null}
+     * @return the guild IDs, empty if the value is {@code null} or empty
+     * @throws IllegalArgumentException if an entry is not a guild ID
+     */
+    private static Set<Long> parseGuildIds(String configValue) {
+        Set<Long> guildIds = new LinkedHashSet<>();
+        if (configValue != null) {
+            for (String guildId : configValue.split(",")) {
+                if (!guildId.isBlank()) {
+                    guildIds.add(SlashCommandSync.guildIdFromConfigValue(guildId));
+                }
+            }
+        }
+        return guildIds;
+    }
+
     /**
      * Retrieves event listeners for a specific bot as a list of {@link BotTask} beans.
      *
@@ -345,6 +518,31 @@ public class JDA4SpringMain {
         }
     }
 
+    /**
+     * Works out the gateway intents of a bot: with {@code bots.<name>.intents = auto} the ones its handlers and caches need,
+     * otherwise the configured ones (see {@link #getGatewayIntents(List)}), with a warning if those don't fit the handlers.
+     *
+     * @param botName the name of the bot
+     * @param allEntriesForCurrentBotAccount A list of {@link BotConfigProperty} entries for the current bot.
+     * @param botTasks the bot tasks of the bot
+     * @param cacheSettings the cache settings of the bot
+     * @return the gateway intents to log in with
+     */
+    private List<GatewayIntent> resolveGatewayIntents(String botName, List<BotConfigProperty> allEntriesForCurrentBotAccount,
+                                                      List<Object> botTasks, CacheSettings cacheSettings) {
+        Set<GatewayIntent> needed = GatewayIntentInference.infer(botTasks, cacheSettings);
+        String configured = getConfigValue(allEntriesForCurrentBotAccount, "intents");
+        if (configured != null && configured.trim().equalsIgnoreCase("auto")) {
+            logger.info("Bot '{}' uses the gateway intents {} (auto)", botName, needed);
+            return new ArrayList<>(needed);
+        }
+
+        List<GatewayIntent> gatewayIntents = getGatewayIntents(allEntriesForCurrentBotAccount);
+        GatewayIntentInference.warnIfMismatched(botName, gatewayIntents.isEmpty()
+                ? EnumSet.noneOf(GatewayIntent.class) : EnumSet.copyOf(gatewayIntents), needed);
+        return gatewayIntents;
+    }
+
     /**
      * Retrieves the list of {@link GatewayIntent}s for a specific bot from its configuration.
      *
@@ -384,14 +582,15 @@ public class JDA4SpringMain {
      * This allows other parts of the application to get the JDA instance related to their tasks.
      *
      * @param clazz The class of the event listener (BotTask) for which JDA instances are requested.
-     * @return A list of {@link JDA} instances that are configured to use the given listener class, or {@code null} if none found.
+     * @return A list of {@link JDA} instances that are configured to use the given listener class (all shards of a sharded bot),
+     *         or {@code null} if none found.
      */
     public List<JDA> getJDAInstances(Class<?> clazz) {
         List<JDA> foundInstances = new ArrayList<>();
         for (DiscordBot bot : bots) {
             for (Object botTask : bot.getBotTasks()) {
                 if (botTask.getClass().equals(clazz)) {
-                    foundInstances.add(bot.getJda());
+                    foundInstances.addAll(bot.getJDAInstances());
                     break;
                 }
             }
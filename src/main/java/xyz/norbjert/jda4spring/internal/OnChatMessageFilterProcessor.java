@@ -8,6 +8,8 @@ import xyz.norbjert.jda4spring.annotations.OnChatMessage;
  * Utility class for processing and applying filters defined in the {@link OnChatMessage} annotation.
  * This class provides static methods to check if a {@link MessageReceivedEvent} matches the criteria
  * specified by an {@code @OnChatMessage} annotation.
+ * For dispatching events, {@link DiscordBot} uses the pre-parsed {@link CompiledChatFilter} instead,
+ * which applies the same rules.
  */
 public class OnChatMessageFilterProcessor {
 
@@ -0,0 +1,110 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the handlers of a bot whose async result (a returned future, stage or publisher) has not completed yet,
+ * so the bot can wait for them on shutdown. Waiting is done by callbacks on the futures, no thread is parked per handler.
+ * <p>
+ * Only copies of the futures are tracked, the futures themselves belong to the handlers and are never cancelled:
+ * the application may share or cache them, and cancelling the one of {@code RestAction.submit()} cancels the request.
+ * <p>
+ * The counters can be polled for monitoring.
+ */
+public final class PendingHandlers {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingHandlers.class);
+
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * Starts tracking the completion of a handler. Already completed futures are only counted.
+     *
+     * @param completion the completion returned by the handler
+     */
+    public void track(CompletableFuture<?> completion) {
+        if (completion.isDone()) {
+            count(completion.isCompletedExceptionally());
+            return;
+        }
+        CompletableFuture<?> tracked = completion.copy();
+        pending.add(tracked);
+        tracked.whenComplete((ignored, error) -> {
+            pending.remove(tracked);
+            count(error != null);
+        });
+    }
+
+    /**
+     * counts a handler that failed before returning its completion
+     */
+    void countFailure() {
+        failedCount.increment();
+    }
+
+    private void count(boolean failed) {
+        if (failed) {
+            failedCount.increment();
+        } else {
+            completedCount.increment();
+        }
+    }
+
+    /**
+     * Waits up to the given timeout for all tracked handlers to complete, and stops tracking the remaining ones after that
+     * (they are counted as failed). The handlers themselves keep running, see above.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        CompletableFuture<?>[] snapshot = pending.toArray(new CompletableFuture<?>[0]);
+        if (snapshot.length == 0) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(snapshot).get(timeout, unit);
+        } catch (ExecutionException ex) {
+            //the failures have already been logged by the MethodInvoker
+        } catch (TimeoutException ex) {
+            logger.warn("{} async handlers still pending on shutdown, no longer waiting for them.", pending.size());
+            //cancelling the copy only drops it (and counts it as failed), the future of the handler is left alone
+            for (CompletableFuture<?> tracked : pending) {
+                tracked.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return how many async handlers are still running right now
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return how many handlers have completed successfully so far
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * @return how many handlers have failed so far, including async handlers that were still pending on shutdown
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+}
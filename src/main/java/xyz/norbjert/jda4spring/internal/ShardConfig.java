@@ -0,0 +1,105 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+
+/**
+ * Which shards a bot connects with, configured per bot via {@code bots.<name>.shards}:
+ * <ul>
+ *     <li>{@code auto}: as many shards as discord recommends for the bot, all of them in this application</li>
+ *     <li>{@code N}: N shards, all of them in this application</li>
+ *     <li>{@code A-B/N}: only shards A to B (inclusive) of N, f.e. {@code 0-3/8} and {@code 4-7/8}
+ *     to split a bot across two applications</li>
+ * </ul>
+ * Discord requires sharding once a bot is in about 2500 guilds. Without the entry the bot uses a single connection.
+ *
+ * @param total the total number of shards, -1 for auto
+ * @param minShardId the first shard of this application, -1 for auto
+ * @param maxShardId the last shard of this application (inclusive), -1 for auto
+ */
+public record ShardConfig(int total, int minShardId, int maxShardId) {
+
+    /**
+     * as many shards as discord recommends
+     */
+    public static final ShardConfig AUTO = new ShardConfig(-1, -1, -1);
+
+    /**
+     * @param configValue the value of bots.&lt;name&gt;.shards, f.e. "auto", "4" or "0-3/8"
+     * @return the shard config, or {@code null} if the value is {@code null} or empty (a single connection without sharding)
+     * @throws IllegalArgumentException if the value is none of the formats above, or the shard range is not within the total
+     */
+    public static ShardConfig fromConfigValue(String configValue) {
+        if (configValue == null || configValue.isBlank()) {
+            return null;
+        }
+        String value = configValue.trim();
+        if (value.equalsIgnoreCase("auto")) {
+            return AUTO;
+        }
+        try {
+            int slashIndex = value.indexOf('/');
+            if (slashIndex < 0) {
+                int total = Integer.parseInt(value);
+                if (total > 0) {
+                    return new ShardConfig(total, 0, total - 1);
+                }
+            } else {
+                int total = Integer.parseInt(value.substring(slashIndex + 1).trim());
+                String range = value.substring(0, slashIndex);
+                int dashIndex = range.indexOf('-');
+                int min = Integer.parseInt((dashIndex < 0 ? range : range.substring(0, dashIndex)).trim());
+                int max = dashIndex < 0 ? min : Integer.parseInt(range.substring(dashIndex + 1).trim());
+                if (0 <= min && min <= max && max < total) {
+                    return new ShardConfig(total, min, max);
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            //same error as for invalid ranges below
+        }
+        throw new IllegalArgumentException("Invalid shards value: '" + configValue + "', has to be auto, a number of shards, or a range like 0-3/8");
+    }
+
+    /**
+     * @return whether discord decides the number of shards
+     */
+    public boolean isAuto() {
+        return total < 0;
+    }
+
+    /**
+     * @return whether this application only runs some of the shards of the bot
+     */
+    public boolean isPartial() {
+        return !isAuto() && (minShardId > 0 || maxShardId < total - 1);
+    }
+
+    /**
+     * @param guildId the ID of a guild
+     * @return whether the events of the guild arrive at one of the shards of this application
+     */
+    public boolean handlesGuild(long guildId) {
+        if (isAuto()) {
+            return true;
+        }
+        //the formula from the discord docs, the shard of a guild only depends on its creation time
+        long shardId = (guildId >>> 22) % total;
+        return minShardId <= shardId && shardId <= maxShardId;
+    }
+
+    /**
+     * @param builder the builder of the shard manager
+     * @return the same builder, with the shards set
+     */
+    DefaultShardManagerBuilder applyTo(DefaultShardManagerBuilder builder) {
+        builder.setShardsTotal(total);
+        if (isPartial()) {
+            builder.setShards(minShardId, maxShardId);
+        }
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return isAuto() ? "auto" : minShardId + "-" + maxShardId + "/" + total;
+    }
+}
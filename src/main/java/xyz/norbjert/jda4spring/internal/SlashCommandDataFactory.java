@@ -2,6 +2,7 @@ package xyz.norbjert.jda4spring.internal;
 
 import xyz.norbjert.jda4spring.annotations.SlashCommand;
 import xyz.norbjert.jda4spring.annotations.SlashCommandArg;
+import xyz.norbjert.jda4spring.registry.GeneratedHandler;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import org.slf4j.Logger;
@@ -27,10 +28,16 @@ public class SlashCommandDataFactory {
     /**
      * creates a new
      * @param slashMethod a method with the @SlashCommand annotation
-     * @return the SlashCommandData, extracted from the annotation and, if f.e. no command="xyz" has been set, method name
+     * @return the SlashCommandData, extracted from the annotation and, if f.e. no command="xyz" has been set, method name.
+     * If the class of the method has a generated registry, the data prebuilt at compile time is used instead.
      */
     public static SlashCommandData createSlashCommand(Method slashMethod) {
 
+        GeneratedHandler generated = GeneratedRegistries.find(slashMethod, GeneratedHandler.Kind.SLASH_COMMAND);
+        if (generated != null) {
+            return generated.commandData().get();
+        }
+
         SlashCommandData d = Commands.slash(
                 getSlashCommandName(slashMethod),
                 getSlashCommandDescription(slashMethod));
@@ -40,7 +47,17 @@ public class SlashCommandDataFactory {
         return d;
     }
 
-    private static String getSlashCommandName(Method slashMethod) {
+    /**
+     * resolves the name a slash command is registered (and routed) under
+     * @param slashMethod a method with the @SlashCommand annotation
+     * @return the lower case command name, or the lower case method name if no command="xyz" has been set
+     */
+    static String getSlashCommandName(Method slashMethod) {
+
+        GeneratedHandler generated = GeneratedRegistries.find(slashMethod, GeneratedHandler.Kind.SLASH_COMMAND);
+        if (generated != null) {
+            return generated.commandName();
+        }
 
         //checks if the slash command has capital letters in it (which discord does not allow to be used for slash commands)
         if (!slashMethod.getAnnotation(SlashCommand.class).command().toLowerCase().equals(slashMethod.getAnnotation(SlashCommand.class).command())) {
@@ -0,0 +1,87 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+import xyz.norbjert.jda4spring.internal.invokers.SlashCommandInteractionInvoker;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps slash command names to the compiled handler (method, bot task instance and parameter bindings) for them.
+ * The table is built once when a {@link DiscordBot} is created, so routing an incoming
+ * interaction is a single map lookup instead of a scan over every {@code @SlashCommand} method.
+ * Command names that are declared more than once are rejected while building the table.
+ */
+class SlashCommandRoutingTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlashCommandRoutingTable.class);
+
+    private final Map<String, CompiledHandler<SlashCommandInteractionEvent>> routes;
+
+    private SlashCommandRoutingTable(Map<String, CompiledHandler<SlashCommandInteractionEvent>> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * scans the given bot tasks for @SlashCommand methods and builds the routing table for them
+     * @param botTasks the tasks of a single bot
+     * @return the routing table, keyed by the same (lower case) name that gets registered on discord
+     * @throws IllegalArgumentException if two methods declare the same slash command name, or a method has parameters that cannot be resolved
+     */
+    static SlashCommandRoutingTable build(List<Object> botTasks) {
+
+        Map<String, CompiledHandler<SlashCommandInteractionEvent>> routes = new HashMap<>();
+
+        for (Object botTask : botTasks) {
+            for (Method slashMethod : AnnotationProcessor.findSlashCommands(List.of(botTask))) {
+
+                String name = SlashCommandDataFactory.getSlashCommandName(slashMethod);
+                CompiledHandler<SlashCommandInteractionEvent> handler = SlashCommandInteractionInvoker.compile(slashMethod, botTask);
+                CompiledHandler<SlashCommandInteractionEvent> previous = routes.putIfAbsent(name, handler);
+
+                if (previous != null) {
+                    throw new IllegalArgumentException("Slash command '/" + name + "' is declared more than once: by "
+                            + previous.describe() + " and by " + handler.describe());
+                }
+                logger.debug("routing /{} to {}", name, handler.describe());
+            }
+        }
+        return new SlashCommandRoutingTable(Collections.unmodifiableMap(routes));
+    }
+
+    /**
+     * looks up the handler for an incoming slash command
+     * @param commandName the name of the command, as sent by discord
+     * @return the handler for that command, or null if there is none
+     */
+    CompiledHandler<SlashCommandInteractionEvent> find(String commandName) {
+        CompiledHandler<SlashCommandInteractionEvent> handler = routes.get(commandName);
+        if (handler == null) {
+            //discord only ever sends the registered (lower case) name, this is just a fallback for hand-made events
+            handler = routes.get(commandName.toLowerCase(Locale.ROOT));
+        }
+        return handler;
+    }
+
+    /**
+     * @return all handlers in this table
+     */
+    Collection<CompiledHandler<SlashCommandInteractionEvent>> handlers() {
+        return routes.values();
+    }
+
+    /**
+     * @return all handlers in this table, by command name
+     */
+    Map<String, CompiledHandler<SlashCommandInteractionEvent>> routes() {
+        return routes;
+    }
+}
@@ -0,0 +1,135 @@
+package xyz.norbjert.jda4spring.internal;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A fixed number of serial lanes on top of a shared executor. Every key (f.e. a channel ID) is mapped to one lane,
+ * and the tasks of a lane run one after the other in submission order, while different lanes run in parallel.
+ * A lane only occupies a thread of the executor while it has tasks to run, and hands the thread back
+ * while it waits for the async result of a task.
+ * <p>
+ * Keys that are mapped to the same lane are ordered together, that is the price for the bounded memory use.
+ */
+final class StripedExecutor {
+
+    /**
+     * how many tasks a lane runs before giving its thread to the other lanes
+     */
+    private static final int BATCH_SIZE = 32;
+
+    private final Lane[] lanes;
+    private final int mask;
+
+    /**
+     * @param executor the executor the lanes run on
+     * @param stripes the number of lanes, rounded up to a power of two
+     */
+    StripedExecutor(Executor executor, int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.lanes = new Lane[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new Lane(executor);
+        }
+    }
+
+    /**
+     * Runs the task after all tasks submitted before with a key of the same lane have completed.
+     *
+     * @param key the ordering key, f.e. a channel ID
+     * @param task the task, returns its completion. Must not throw.
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    void submit(long key, Supplier<CompletableFuture<?>> task) {
+        lanes[spread(key) & mask].submit(task);
+    }
+
+    /**
+     * snowflakes mostly differ in their upper (timestamp) bits, so they are mixed before taking the lower bits
+     */
+    static int spread(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private static final class Lane {
+        private final Executor executor;
+        private final Queue<Supplier<CompletableFuture<?>>> tasks = new ConcurrentLinkedQueue<>();
+        //true while a drain is scheduled, running, or waiting for an async result
+        private final AtomicBoolean active = new AtomicBoolean();
+
+        Lane(Executor executor) {
+            this.executor = executor;
+        }
+
+        void submit(Supplier<CompletableFuture<?>> task) {
+            tasks.add(task);
+            if (active.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    tasks.remove(task);
+                    active.set(false);
+                    throw ex;
+                }
+            }
+        }
+
+        private void drain() {
+            int ran = 0;
+            while (true) {
+                Supplier<CompletableFuture<?>> task = tasks.poll();
+                if (task == null) {
+                    active.set(false);
+                    //a task may have been added after the poll, but before active was reset
+                    if (!tasks.isEmpty() && active.compareAndSet(false, true)) {
+                        continue;
+                    }
+                    return;
+                }
+                CompletableFuture<?> completion;
+                try {
+                    completion = task.get();
+                } catch (RuntimeException ex) {
+                    //keep the lane going for the tasks behind this one
+                    resume();
+                    throw ex;
+                }
+                if (!completion.isDone()) {
+                    completion.whenComplete((ignored, error) -> resume());
+                    return;
+                }
+                if (++ran == BATCH_SIZE) {
+                    if (reschedule()) {
+                        return;
+                    }
+                    ran = 0;
+                }
+            }
+        }
+
+        /**
+         * continues the lane on another thread of the executor, or right here if it does not take new tasks anymore,
+         * since the tasks that have already been accepted should still run on shutdown
+         */
+        private void resume() {
+            if (!reschedule()) {
+                drain();
+            }
+        }
+
+        private boolean reschedule() {
+            try {
+                executor.execute(this::drain);
+                return true;
+            } catch (RejectedExecutionException ex) {
+                return false;
+            }
+        }
+    }
+}
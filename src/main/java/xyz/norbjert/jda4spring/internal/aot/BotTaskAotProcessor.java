@@ -0,0 +1,55 @@
+package xyz.norbjert.jda4spring.internal.aot;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.util.ClassUtils;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.registry.BotTaskRegistry;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * registers the hints for all @BotTask beans during the AOT processing of the application,
+ * so that the handler methods can still be found and called in a native image
+ */
+public class BotTaskAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+
+        Set<Class<?>> botTaskTypes = new LinkedHashSet<>();
+        for (String beanName : beanFactory.getBeanNamesForAnnotation(BotTask.class)) {
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null) {
+                botTaskTypes.add(ClassUtils.getUserClass(type));
+            }
+        }
+        if (botTaskTypes.isEmpty()) {
+            return null;
+        }
+
+        ClassLoader classLoader = beanFactory.getBeanClassLoader();
+        return (generationContext, beanFactoryInitializationCode) ->
+                registerHints(generationContext.getRuntimeHints(), botTaskTypes, classLoader);
+    }
+
+    /**
+     * @param hints the hints of the native image
+     * @param botTaskTypes the (user) classes of the @BotTask beans
+     * @param classLoader the class loader to look for generated registries with
+     */
+    static void registerHints(RuntimeHints hints, Collection<Class<?>> botTaskTypes, ClassLoader classLoader) {
+        for (Class<?> type : botTaskTypes) {
+            //AnnotationProcessor scans the declared methods, the invokers read their parameters (names) and call them
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_METHODS);
+            //a registry generated at compile time is loaded by name, see GeneratedRegistries
+            hints.reflection().registerTypeIfPresent(classLoader, type.getName() + BotTaskRegistry.CLASS_NAME_SUFFIX,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+    }
+}
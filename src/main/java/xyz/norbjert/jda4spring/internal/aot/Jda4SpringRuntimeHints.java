@@ -0,0 +1,55 @@
+package xyz.norbjert.jda4spring.internal.aot;
+
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.annotations.Bulkhead;
+import xyz.norbjert.jda4spring.annotations.Button;
+import xyz.norbjert.jda4spring.annotations.ButtonHandler;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.Sequential;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.annotations.SlashCommandArg;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * registers the runtime hints JDA4Spring itself needs in a native image: the annotations that are read at runtime,
+ * the classes that are only looked up by name and the config files.
+ * The hints for the BotTask classes of the application come from {@link BotTaskAotProcessor}.
+ */
+public class Jda4SpringRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<? extends Annotation>> ANNOTATIONS = List.of(
+            BotTask.class, SlashCommand.class, SlashCommandArg.class, OnChatMessage.class,
+            Button.class, ButtonHandler.class, Bulkhead.class, Sequential.class);
+
+    static final List<String> CONFIG_FILES = List.of(
+            "jda4spring.properties", "jda4spring.yml", "jda4spring.yaml", "jda4spring.config");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+        //the attributes of the annotations are read via reflection, f.e. by the invokers and the SlashCommandDataFactory
+        for (Class<? extends Annotation> annotation : ANNOTATIONS) {
+            hints.reflection().registerType(annotation, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        //@BotTask aliases the value of @Component, so spring synthesizes it as a proxy
+        hints.proxies().registerJdkProxy(BotTask.class);
+
+        //JDA looks up the onGeneric... methods of the DiscordBot listener via method handles
+        hints.reflection().registerType(ListenerAdapter.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        //only checked for by name, handlers may return a reactive streams Publisher if it is on the classpath
+        hints.reflection()
+                .registerTypeIfPresent(classLoader, "org.reactivestreams.Publisher")
+                .registerTypeIfPresent(classLoader, "org.reactivestreams.FlowAdapters", MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (String configFile : CONFIG_FILES) {
+            hints.resources().registerPattern(configFile);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.SerializableData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * static helper class, computes a hash of each command that only changes if the command changes as discord sees it,
+ * and reads/writes the hashes of the last registered commands
+ */
+public final class CommandFingerprints {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandFingerprints.class);
+
+    private static final String FILE_HEADER = "#slash commands last registered by JDA4Spring, "
+            + "delete this file to make the bot compare its commands with the ones on discord again";
+
+    /**
+     * static class, don't instantiate it pls thank you
+     */
+    private CommandFingerprints() {
+        logger.error("static class, not to be instanced");
+        throw new RuntimeException("CommandFingerprints is a static class and cannot be instanced");
+    }
+
+    /**
+     * @param commands the commands to hash
+     * @return the hash of each command, by command name, sorted by name
+     */
+    public static Map<String, String> of(Collection<? extends CommandData> commands) {
+        Map<String, String> fingerprints = new TreeMap<>();
+        for (CommandData command : commands) {
+            fingerprints.put(command.getName(), of(command));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * @param command the command to hash
+     * @return the hex encoded SHA-256 of the canonical JSON of the command
+     */
+    public static String of(CommandData command) {
+        return sha256(canonicalJson(command.toData().toMap()));
+    }
+
+    /**
+     * @param commands the commands to hash, f.e. all commands of a guild
+     * @return one hash for all the commands together, independent of their order
+     */
+    public static String ofAll(Collection<? extends CommandData> commands) {
+        return sha256(canonicalJson(of(commands)));
+    }
+
+    /**
+     * writes the JSON of a value the same way every time: object keys are sorted, and null values are left out
+     * (JDA only sends some of the optional fields, depending on where the command data came from).
+     * Arrays keep their order, the order of f.e. the options is visible in discord.
+     *
+     * @param value a map, list, string, number, boolean or null, as in {@code DataObject.toMap()}, or JDA data
+     * @return the canonical JSON
+     */
+    static String canonicalJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        appendCanonical(json, value);
+        return json.toString();
+    }
+
+    private static void appendCanonical(StringBuilder json, Object value) {
+        //JDA usually unwraps nested data in toMap(), but not necessarily for data put in as is
+        if (value instanceof SerializableData data) {
+            value = data.toData().toMap();
+        } else if (value instanceof DataArray array) {
+            value = array.toList();
+        }
+
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, entry) -> {
+                if (entry != null) {
+                    sorted.put(String.valueOf(key), entry);
+                }
+            });
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendString(json, entry.getKey());
+                json.append(':');
+                appendCanonical(json, entry.getValue());
+            }
+            json.append('}');
+        } else if (value instanceof Collection<?> list) {
+            json.append('[');
+            boolean first = true;
+            for (Object entry : list) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendCanonical(json, entry);
+            }
+            json.append(']');
+        } else if (value instanceof String || value instanceof Enum<?>) {
+            appendString(json, value.toString());
+        } else {
+            //numbers, booleans and null
+            json.append(value);
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            //every JVM has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param file the file written by {@link #store(Path, Map)}
+     * @return the stored hashes by command name, or {@code null} if there is no (readable) file
+     */
+    public static Map<String, String> load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Could not read the registered slash commands from {}, comparing with discord instead: {}", file, e.getMessage());
+            return null;
+        }
+
+        Map<String, String> fingerprints = new TreeMap<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int eqIndex = line.indexOf('=');
+            if (eqIndex <= 0) {
+                logger.warn("Invalid line '{}' in {}, comparing with discord instead", line, file);
+                return null;
+            }
+            fingerprints.put(line.substring(0, eqIndex).trim(), line.substring(eqIndex + 1).trim());
+        }
+        return fingerprints;
+    }
+
+    /**
+     * writes the hashes to the file, replacing it as a whole so a crash never leaves half a file behind
+     *
+     * @param file the file to write
+     * @param fingerprints the hashes by command name
+     * @throws IOException if the file or its directory could not be written
+     */
+    public static void store(Path file, Map<String, String> fingerprints) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(FILE_HEADER);
+        new TreeMap<>(fingerprints).forEach((name, fingerprint) -> lines.add(name + "=" + fingerprint));
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
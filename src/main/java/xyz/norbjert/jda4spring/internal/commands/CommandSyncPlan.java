@@ -0,0 +1,42 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * what has to be sent to discord so the registered commands match the ones of the bot
+ *
+ * @param upserts the names of the commands that are new or changed
+ * @param deletes the names of the registered commands the bot no longer has
+ */
+public record CommandSyncPlan(List<String> upserts, List<String> deletes) {
+
+    /**
+     * @param wanted the hashes of the commands of the bot, by command name
+     * @param registered the hashes of the commands registered on discord, by command name
+     * @return the commands to upsert and delete, in the order of the given maps
+     */
+    public static CommandSyncPlan compute(Map<String, String> wanted, Map<String, String> registered) {
+        List<String> upserts = new ArrayList<>();
+        wanted.forEach((name, fingerprint) -> {
+            if (!fingerprint.equals(registered.get(name))) {
+                upserts.add(name);
+            }
+        });
+        List<String> deletes = new ArrayList<>();
+        for (String name : registered.keySet()) {
+            if (!wanted.containsKey(name)) {
+                deletes.add(name);
+            }
+        }
+        return new CommandSyncPlan(List.copyOf(upserts), List.copyOf(deletes));
+    }
+
+    /**
+     * @return whether the registered commands already match, and nothing has to be sent
+     */
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletes.isEmpty();
+    }
+}
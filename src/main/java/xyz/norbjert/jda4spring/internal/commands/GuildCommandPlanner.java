@@ -0,0 +1,174 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * static helper class, decides which guilds need their commands replaced and sends those updates.
+ * Each guild is one bulk {@code Guild.updateCommands()} request, and only a few of them are in flight at once,
+ * so a bot in thousands of guilds doesn't flood the JDA request queue (and with it the global rate limit of discord)
+ * with all of them at the same time. The per guild rate limits are handled by JDA itself.
+ */
+final class GuildCommandPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuildCommandPlanner.class);
+
+    /**
+     * default for jda4spring.commands.guild-requests, how many guild updates are sent at the same time
+     */
+    static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    /**
+     * static class, don't instantiate it pls thank you
+     */
+    private GuildCommandPlanner() {
+        logger.error("static class, not to be instanced");
+        throw new RuntimeException("GuildCommandPlanner is a static class and cannot be instanced");
+    }
+
+    /**
+     * @param configValue the value of jda4spring.commands.guild-requests, or {@code null} if it is not set
+     * @return how many guild updates may be sent at the same time
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    static int maxInFlightFromConfigValue(String configValue) {
+        if (configValue == null || configValue.isBlank()) {
+            return DEFAULT_MAX_IN_FLIGHT;
+        }
+        try {
+            int maxInFlight = Integer.parseInt(configValue.trim());
+            if (maxInFlight > 0) {
+                return maxInFlight;
+            }
+        } catch (NumberFormatException ignored) {
+            //same error as for negative numbers below
+        }
+        throw new IllegalArgumentException("jda4spring.commands.guild-requests has to be a positive number, but was '" + configValue + "'");
+    }
+
+    /**
+     * @param wanted the hash of all commands of each guild the bot wants commands in, by guild ID
+     * @param registered the hashes of the last registered commands, by guild ID
+     * @param force whether to update every wanted guild, even if its commands did not change
+     * @return the IDs of the guilds whose commands have to be replaced, sorted. Guilds that are only in
+     *         {@code registered} are included too, their commands have to be cleared
+     */
+    static List<Long> plan(Map<Long, String> wanted, Map<Long, String> registered, boolean force) {
+        TreeSet<Long> guilds = new TreeSet<>();
+        wanted.forEach((guildId, fingerprint) -> {
+            if (force || !fingerprint.equals(registered.get(guildId))) {
+                guilds.add(guildId);
+            }
+        });
+        for (Long guildId : registered.keySet()) {
+            if (!wanted.containsKey(guildId)) {
+                guilds.add(guildId);
+            }
+        }
+        return List.copyOf(guilds);
+    }
+
+    /**
+     * sends the updates, with at most {@code maxInFlight} of them running at the same time.
+     * A failed update does not stop the others.
+     *
+     * @param guildIds the guilds to update, in the order they should be sent
+     * @param maxInFlight how many updates may be running at the same time
+     * @param update sends the update of a guild, completes once discord accepted it
+     * @return completes with the IDs of the guilds that were updated successfully, once all updates are done
+     */
+    static CompletableFuture<List<Long>> execute(List<Long> guildIds, int maxInFlight, Function<Long, CompletableFuture<?>> update) {
+        return new Batch(guildIds, maxInFlight, update).start();
+    }
+
+    private static final class Batch {
+
+        private final List<Long> guildIds;
+        private final int maxInFlight;
+        private final Function<Long, CompletableFuture<?>> update;
+        private final CompletableFuture<List<Long>> result = new CompletableFuture<>();
+        private final ConcurrentLinkedQueue<Long> succeeded = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Long> failed = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger remaining;
+        //number of pending calls to drain(), only the thread that raised it from 0 sends anything
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        //only touched by the draining thread
+        private int next;
+        private volatile Throwable firstError;
+
+        private Batch(List<Long> guildIds, int maxInFlight, Function<Long, CompletableFuture<?>> update) {
+            this.guildIds = guildIds;
+            this.maxInFlight = maxInFlight;
+            this.update = update;
+            this.remaining = new AtomicInteger(guildIds.size());
+        }
+
+        private CompletableFuture<List<Long>> start() {
+            if (guildIds.isEmpty()) {
+                result.complete(List.of());
+            } else {
+                drain();
+            }
+            return result;
+        }
+
+        /**
+         * sends updates until maxInFlight are running. Updates that complete right away call this again from within the loop,
+         * that only counts up drainRequests and the running loop goes another round, instead of recursing once per guild.
+         */
+        private void drain() {
+            if (drainRequests.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (next < guildIds.size() && inFlight.get() < maxInFlight) {
+                    inFlight.incrementAndGet();
+                    send(guildIds.get(next++));
+                }
+            } while (drainRequests.decrementAndGet() != 0);
+        }
+
+        private void send(Long guildId) {
+            CompletableFuture<?> request;
+            try {
+                request = Objects.requireNonNull(update.apply(guildId));
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            request.whenComplete((ignored, error) -> {
+                if (error == null) {
+                    succeeded.add(guildId);
+                } else {
+                    failed.add(guildId);
+                    if (firstError == null) {
+                        firstError = error;
+                    }
+                }
+                inFlight.decrementAndGet();
+                if (remaining.decrementAndGet() == 0) {
+                    finish();
+                } else {
+                    drain();
+                }
+            });
+        }
+
+        private void finish() {
+            if (!failed.isEmpty()) {
+                logger.warn("Failed to update the slash commands of {} guild(s) {}, trying again on the next start: {}",
+                        failed.size(), new TreeSet<>(failed), firstError.getMessage(), firstError);
+            }
+            result.complete(List.copyOf(succeeded));
+        }
+    }
+}
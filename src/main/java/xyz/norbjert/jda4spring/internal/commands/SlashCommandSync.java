@@ -0,0 +1,363 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.internal.ShardConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongFunction;
+
+/**
+ * Publishes the slash commands of a bot to discord, the way {@code jda4spring.commands.sync} is configured.
+ * By default, the hashes of the last registered commands are kept in a local file, so a restart without changes
+ * sends nothing at all. If they differ (or there is no file yet), the commands registered on discord are fetched,
+ * and only the new or changed commands are upserted and the removed ones deleted.
+ * <p>
+ * Guild commands (see {@code SlashCommand.guilds()}) are replaced per guild with one bulk update each,
+ * and only for the guilds whose commands changed since the last registration.
+ * A bot split across several applications (see {@link ShardConfig#isPartial()}) only registers the guild commands
+ * of its own shards, and keeps their hashes in a file of its own.
+ */
+public final class SlashCommandSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlashCommandSync.class);
+
+    /**
+     * where the hashes of the registered commands are kept if {@code jda4spring.commands.state-dir} is not set
+     */
+    static final Path DEFAULT_STATE_DIRECTORY = Path.of(".jda4spring", "commands");
+
+    /**
+     * how the commands are published
+     */
+    public enum Mode {
+        /**
+         * only send the commands that changed since the last registration, see {@link SlashCommandSync}
+         */
+        DIFF,
+        /**
+         * replace all global commands of the bot on every start, with one bulk update
+         */
+        OVERWRITE;
+
+        /**
+         * @param value the configured value, f.e. "diff" or "overwrite"
+         * @return the matching mode
+         * @throws IllegalArgumentException if no mode matches the value
+         */
+        public static Mode fromConfigValue(String value) {
+            String normalized = value.trim().toUpperCase(Locale.ROOT);
+            for (Mode mode : values()) {
+                if (mode.name().equals(normalized)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown slash command sync mode: '" + value + "'");
+        }
+    }
+
+    private final Mode mode;
+    private final Path stateDirectory;
+    private final int maxGuildRequests;
+    private final Map<String, Set<Long>> guildGroups;
+    private final Set<Long> commandGuilds;
+    //null if the bot runs all of its shards (or none) in this application
+    private final ShardConfig shards;
+
+    private SlashCommandSync(Mode mode, Path stateDirectory, int maxGuildRequests,
+                             Map<String, Set<Long>> guildGroups, Set<Long> commandGuilds, ShardConfig shards) {
+        this.mode = mode;
+        this.stateDirectory = stateDirectory;
+        this.maxGuildRequests = maxGuildRequests;
+        this.guildGroups = guildGroups;
+        this.commandGuilds = commandGuilds;
+        this.shards = shards;
+    }
+
+    private SlashCommandSync(Mode mode, Path stateDirectory) {
+        this(mode, stateDirectory, GuildCommandPlanner.DEFAULT_MAX_IN_FLIGHT, Map.of(), Set.of(), null);
+    }
+
+    /**
+     * @return diff based registration, with the hashes kept in .jda4spring/commands in the working directory
+     */
+    public static SlashCommandSync defaults() {
+        return new SlashCommandSync(Mode.DIFF, DEFAULT_STATE_DIRECTORY);
+    }
+
+    /**
+     * @param mode the mode
+     * @param stateDirectory the directory to keep the hashes of the registered commands in
+     * @return a sync with the given settings
+     */
+    public static SlashCommandSync of(Mode mode, Path stateDirectory) {
+        return new SlashCommandSync(mode, stateDirectory);
+    }
+
+    /**
+     * Parses the values of the {@code jda4spring.commands.sync} and {@code jda4spring.commands.state-dir} config entries.
+     *
+     * @param mode "diff" or "overwrite", {@code null} or empty means diff
+     * @param stateDirectory the directory for the hashes, {@code null} or empty means .jda4spring/commands
+     * @return the sync
+     * @throws IllegalArgumentException if the mode is unknown
+     */
+    public static SlashCommandSync fromConfigValues(String mode, String stateDirectory) {
+        return new SlashCommandSync(
+                mode == null || mode.isBlank() ? Mode.DIFF : Mode.fromConfigValue(mode),
+                stateDirectory == null || stateDirectory.isBlank() ? DEFAULT_STATE_DIRECTORY : Path.of(stateDirectory.trim()));
+    }
+
+    /**
+     * Parses the values of the {@code jda4spring.commands.sync}, {@code jda4spring.commands.state-dir}
+     * and {@code jda4spring.commands.guild-requests} config entries.
+     *
+     * @param mode "diff" or "overwrite", {@code null} or empty means diff
+     * @param stateDirectory the directory for the hashes, {@code null} or empty means .jda4spring/commands
+     * @param maxGuildRequests how many guild command updates are sent at the same time, {@code null} or empty means 4
+     * @return the sync
+     * @throws IllegalArgumentException if the mode is unknown or the number of guild requests is not a positive number
+     */
+    public static SlashCommandSync fromConfigValues(String mode, String stateDirectory, String maxGuildRequests) {
+        SlashCommandSync sync = fromConfigValues(mode, stateDirectory);
+        return new SlashCommandSync(sync.mode, sync.stateDirectory,
+                GuildCommandPlanner.maxInFlightFromConfigValue(maxGuildRequests), Map.of(), Set.of(), null);
+    }
+
+    /**
+     * @param guildGroups named lists of guild IDs ({@code jda4spring.guild-groups.<name>}), that can be used
+     *                    instead of the IDs themselves in {@code SlashCommand.guilds()}
+     * @return a copy of this sync that knows the guild groups
+     */
+    public SlashCommandSync withGuildGroups(Map<String, Set<Long>> guildGroups) {
+        return new SlashCommandSync(mode, stateDirectory, maxGuildRequests, Map.copyOf(guildGroups), commandGuilds, shards);
+    }
+
+    /**
+     * @param commandGuilds the guilds to register the commands without {@code SlashCommand.guilds()} in
+     *                      ({@code bots.<name>.commandGuilds}), instead of globally. Guild commands show up right away,
+     *                      which is handy while testing a bot. Empty means global commands
+     * @return a copy of this sync for a bot with these command guilds
+     */
+    public SlashCommandSync withCommandGuilds(Set<Long> commandGuilds) {
+        return new SlashCommandSync(mode, stateDirectory, maxGuildRequests, guildGroups, Set.copyOf(commandGuilds), shards);
+    }
+
+    /**
+     * @param shards the shards of the bot ({@code bots.<name>.shards}), {@code null} for a single connection
+     * @return a copy of this sync that only registers the guild commands of guilds on these shards, if they are only
+     *         some of the shards of the bot. The other applications running the bot register the rest
+     */
+    public SlashCommandSync withShards(ShardConfig shards) {
+        ShardConfig partial = shards != null && shards.isPartial() ? shards : null;
+        return new SlashCommandSync(mode, stateDirectory, maxGuildRequests, guildGroups, commandGuilds, partial);
+    }
+
+    /**
+     * @param guilds the value of {@code SlashCommand.guilds()}: guild IDs or names of guild groups
+     * @return the IDs of the guilds the command is registered in, or an empty set for a global command
+     * @throws IllegalArgumentException if an entry is neither a guild ID nor the name of a guild group
+     */
+    public Set<Long> resolveGuilds(String... guilds) {
+        if (guilds.length == 0) {
+            return commandGuilds;
+        }
+        Set<Long> guildIds = new LinkedHashSet<>();
+        for (String guild : guilds) {
+            String trimmed = guild.trim();
+            Set<Long> group = guildGroups.get(trimmed);
+            if (group != null) {
+                guildIds.addAll(group);
+            } else {
+                guildIds.add(guildIdFromConfigValue(trimmed));
+            }
+        }
+        return guildIds;
+    }
+
+    /**
+     * @param value a guild ID, as in the config or {@code SlashCommand.guilds()}
+     * @return the ID
+     * @throws IllegalArgumentException if the value is not a guild ID (or the name of a guild group, that is not known)
+     */
+    public static long guildIdFromConfigValue(String value) {
+        try {
+            long guildId = Long.parseLong(value.trim());
+            if (guildId > 0) {
+                return guildId;
+            }
+        } catch (NumberFormatException ignored) {
+            //same error as for negative numbers below
+        }
+        throw new IllegalArgumentException("'" + value + "' is neither a guild ID nor the name of a guild group (jda4spring.guild-groups.<name>)");
+    }
+
+    /**
+     * Publishes the commands to discord as global commands of the bot.
+     *
+     * @param jda the logged in bot
+     * @param commands all slash commands of the bot
+     * @return completes once discord accepted all changes, or exceptionally if a request failed
+     */
+    public CompletableFuture<Void> sync(JDA jda, List<SlashCommandData> commands) {
+        if (mode == Mode.OVERWRITE) {
+            return jda.updateCommands().addCommands(commands).submit().thenApply(registered -> null);
+        }
+
+        Map<String, SlashCommandData> wanted = new LinkedHashMap<>();
+        for (SlashCommandData command : commands) {
+            wanted.put(command.getName(), command);
+        }
+        Map<String, String> wantedFingerprints = CommandFingerprints.of(commands);
+
+        Path stateFile = stateFile(jda);
+        if (wantedFingerprints.equals(CommandFingerprints.load(stateFile))) {
+            logger.debug("Slash commands unchanged since the last registration, nothing to send");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return jda.retrieveCommands().submit().thenCompose(registeredCommands -> {
+            Map<String, Command> registered = new LinkedHashMap<>();
+            Map<String, String> registeredFingerprints = new LinkedHashMap<>();
+            for (Command command : registeredCommands) {
+                //context menu commands are not managed by JDA4Spring, leave them alone
+                if (command.getType() == Command.Type.SLASH) {
+                    registered.put(command.getName(), command);
+                    registeredFingerprints.put(command.getName(), CommandFingerprints.of(CommandData.fromCommand(command)));
+                }
+            }
+
+            CommandSyncPlan plan = CommandSyncPlan.compute(wantedFingerprints, registeredFingerprints);
+            List<CompletableFuture<?>> requests = new ArrayList<>();
+            for (String name : plan.upserts()) {
+                requests.add(jda.upsertCommand(wanted.get(name)).submit());
+            }
+            for (String name : plan.deletes()) {
+                requests.add(jda.deleteCommandById(registered.get(name).getIdLong()).submit());
+            }
+            if (!plan.isEmpty()) {
+                logger.info("Registering slash commands, upserting {} and deleting {}", plan.upserts(), plan.deletes());
+            }
+
+            return CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new))
+                    .thenRun(() -> storeFingerprints(stateFile, wantedFingerprints));
+        });
+    }
+
+    /**
+     * Publishes guild commands to discord, replacing all commands of each guild with one bulk update.
+     * Guilds the bot last registered commands in, but that are not in {@code commandsByGuild} anymore, are cleared.
+     *
+     * @param jda the logged in bot
+     * @param commandsByGuild the guild commands of the bot, by guild ID
+     * @return completes once all guild updates are done. A failed update is logged and sent again on the next start,
+     *         it does not fail the future
+     */
+    public CompletableFuture<Void> syncGuilds(JDA jda, Map<Long, List<SlashCommandData>> commandsByGuild) {
+        return syncGuilds(jda, jda::getGuildById, commandsByGuild);
+    }
+
+    /**
+     * Same as {@link #syncGuilds(JDA, Map)}, but looks up the guilds with the given function,
+     * f.e. {@code ShardManager.getGuildById} for a sharded bot, whose guilds are spread over several JDA instances.
+     *
+     * @param jda the logged in bot, or any of its shards
+     * @param guilds finds a guild of the bot by ID, returns {@code null} if the bot is not in it
+     * @param commandsByGuild the guild commands of the bot, by guild ID
+     * @return completes once all guild updates are done
+     */
+    public CompletableFuture<Void> syncGuilds(JDA jda, LongFunction<Guild> guilds, Map<Long, List<SlashCommandData>> commandsByGuild) {
+        Map<Long, String> wanted = new TreeMap<>();
+        commandsByGuild.forEach((guildId, commands) -> {
+            if (handlesGuild(guildId)) {
+                wanted.put(guildId, CommandFingerprints.ofAll(commands));
+            }
+        });
+
+        Path stateFile = guildStateFile(jda);
+        Map<Long, String> registered = new TreeMap<>();
+        Map<String, String> stored = CommandFingerprints.load(stateFile);
+        if (stored != null) {
+            try {
+                stored.forEach((guildId, fingerprint) -> registered.put(Long.parseLong(guildId), fingerprint));
+                //guilds of other shards are registered by the application running them, don't clear them from here
+                registered.keySet().removeIf(guildId -> !handlesGuild(guildId));
+            } catch (NumberFormatException e) {
+                //same as no file, every guild gets its commands sent again
+                logger.warn("Invalid guild ID in {}, registering the commands of all guilds again: {}", stateFile, e.getMessage());
+                registered.clear();
+            }
+        }
+
+        List<Long> guildsToUpdate = GuildCommandPlanner.plan(wanted, registered, mode == Mode.OVERWRITE);
+        if (guildsToUpdate.isEmpty()) {
+            logger.debug("Guild commands unchanged since the last registration, nothing to send");
+            return CompletableFuture.completedFuture(null);
+        }
+        logger.info("Registering the slash commands of {} guild(s)", guildsToUpdate.size());
+
+        return GuildCommandPlanner.execute(guildsToUpdate, maxGuildRequests, guildId -> {
+            Guild guild = guilds.apply(guildId);
+            if (guild == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException("the bot is not a member of guild " + guildId));
+            }
+            return guild.updateCommands().addCommands(commandsByGuild.getOrDefault(guildId, List.of())).submit();
+        }).thenAccept(updated -> {
+            Map<String, String> fingerprints = new TreeMap<>();
+            registered.forEach((guildId, fingerprint) -> fingerprints.put(guildId.toString(), fingerprint));
+            for (Long guildId : updated) {
+                String fingerprint = wanted.get(guildId);
+                if (fingerprint == null) {
+                    fingerprints.remove(guildId.toString());
+                } else {
+                    fingerprints.put(guildId.toString(), fingerprint);
+                }
+            }
+            storeFingerprints(stateFile, fingerprints);
+        });
+    }
+
+    /**
+     * one file per application, so several bots can share the directory
+     */
+    Path stateFile(JDA jda) {
+        return stateDirectory.resolve(jda.getSelfUser().getApplicationIdLong() + ".commands");
+    }
+
+    /**
+     * the hash of all commands of each guild, by guild ID. One file per shard range for a bot split across
+     * several applications, since each of them only knows the guilds of its own shards
+     */
+    Path guildStateFile(JDA jda) {
+        String shardRange = shards == null ? "" : ".shards-" + shards.minShardId() + "-" + shards.maxShardId() + "-of-" + shards.total();
+        return stateDirectory.resolve(jda.getSelfUser().getApplicationIdLong() + shardRange + ".guild-commands");
+    }
+
+    private boolean handlesGuild(long guildId) {
+        return shards == null || shards.handlesGuild(guildId);
+    }
+
+    private static void storeFingerprints(Path stateFile, Map<String, String> fingerprints) {
+        try {
+            CommandFingerprints.store(stateFile, fingerprints);
+        } catch (IOException e) {
+            //not a problem for this run, but the next start has to compare with discord again
+            logger.warn("Could not save the registered slash commands to {}: {}", stateFile, e.getMessage());
+        }
+    }
+}
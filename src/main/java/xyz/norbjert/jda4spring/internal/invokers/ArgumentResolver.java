@@ -0,0 +1,18 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+/**
+ * Produces the value for one parameter of a handler method from the incoming event.
+ * Resolvers are created once per parameter when a handler is compiled,
+ * so all checks on the method signature are already done by the time an event comes in.
+ *
+ * @param <E> the type of event the handler is called with
+ */
+@FunctionalInterface
+public interface ArgumentResolver<E> {
+
+    /**
+     * @param event the event that triggered the handler
+     * @return the argument to pass to the handler method
+     */
+    Object resolve(E event);
+}
@@ -0,0 +1,104 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import org.reactivestreams.FlowAdapters;
+import org.reactivestreams.Publisher;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Turns the return value of a handler method into a {@link CompletableFuture} that completes once the handler is done.
+ * The adapter is picked once per method from its declared return type, so plain {@code void} handlers
+ * do not pay for any of this.
+ * Supported async return types:
+ * - {@link CompletionStage} / {@link CompletableFuture}, f.e. from JDA's {@code RestAction.submit()}
+ * - {@link Flow.Publisher}
+ * - Reactive Streams {@code org.reactivestreams.Publisher} (f.e. a Reactor {@code Mono}), if it is on the classpath
+ */
+enum AsyncResultAdapter {
+
+    /**
+     * the handler is done once the method returns, any return value is ignored (like before)
+     */
+    NONE {
+        @Override
+        CompletableFuture<?> toFuture(Object returnValue) {
+            return CompiledHandler.DONE;
+        }
+    },
+
+    COMPLETION_STAGE {
+        @Override
+        CompletableFuture<?> toFuture(Object returnValue) {
+            if (returnValue == null) {
+                return CompiledHandler.DONE;
+            }
+            return ((CompletionStage<?>) returnValue).toCompletableFuture();
+        }
+    },
+
+    FLOW_PUBLISHER {
+        @Override
+        CompletableFuture<?> toFuture(Object returnValue) {
+            if (returnValue == null) {
+                return CompiledHandler.DONE;
+            }
+            return PublisherCompletion.subscribeTo((Flow.Publisher<?>) returnValue);
+        }
+    },
+
+    REACTIVE_STREAMS_PUBLISHER {
+        @Override
+        CompletableFuture<?> toFuture(Object returnValue) {
+            if (returnValue == null) {
+                return CompiledHandler.DONE;
+            }
+            return PublisherCompletion.subscribeTo(ReactiveStreams.toFlowPublisher(returnValue));
+        }
+    };
+
+    private static final boolean reactiveStreamsPresent =
+            ClassUtils.isPresent("org.reactivestreams.Publisher", AsyncResultAdapter.class.getClassLoader());
+
+    /**
+     * @param returnValue the value returned by the handler method
+     * @return a future that completes (exceptionally, if the async work failed) once the handler is done
+     */
+    abstract CompletableFuture<?> toFuture(Object returnValue);
+
+    /**
+     * @param method the handler method
+     * @return the adapter for the declared return type of the method
+     */
+    static AsyncResultAdapter forMethod(Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            return COMPLETION_STAGE;
+        }
+        if (Flow.Publisher.class.isAssignableFrom(returnType)) {
+            return FLOW_PUBLISHER;
+        }
+        if (reactiveStreamsPresent && ReactiveStreams.isPublisher(returnType)) {
+            return REACTIVE_STREAMS_PUBLISHER;
+        }
+        return NONE;
+    }
+
+    /**
+     * keeps the references to the optional reactive streams classes out of the enum,
+     * so this class is only loaded if they are actually on the classpath
+     */
+    private static final class ReactiveStreams {
+
+        static boolean isPublisher(Class<?> type) {
+            return Publisher.class.isAssignableFrom(type);
+        }
+
+        static Flow.Publisher<?> toFlowPublisher(Object publisher) {
+            return FlowAdapters.toFlowPublisher((Publisher<?>) publisher);
+        }
+    }
+}
@@ -1,41 +1,108 @@
 package xyz.norbjert.jda4spring.internal.invokers;
 
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.annotations.Button;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Handles the invocation of methods annotated with {@code @Button}.
+ * The parameters of a method are analysed once in {@link #compile(Method, Object)},
+ * which produces a fixed {@link ArgumentResolver} per parameter.
  */
 public class ButtonInteractionInvoker {
 
-    private static final Logger logger = LoggerFactory.getLogger(ButtonInteractionInvoker.class);
+    /**
+     * a {@code @Button} value ending with this is a prefix pattern instead of an exact ID
+     */
+    public static final String PREFIX_WILDCARD = "*";
+
+    /**
+     * the separator between the segments of a stateful button ID, like "page:42:user:123"
+     */
+    private static final String SEGMENT_SEPARATOR = ":";
+
+    private static final CompiledHandlerCache<ButtonInteractionEvent> legacyHandlers =
+            new CompiledHandlerCache<>(ButtonInteractionInvoker::compile);
+
+    /**
+     * Analyses the parameters of the given {@code annotatedMethod} and binds it to the {@code declaringClass}.
+     * Supported parameters are the {@link ButtonInteractionEvent} itself, a {@code String}
+     * which receives the custom ID of the clicked button, and for prefix patterns like {@code @Button("page:*")}
+     * a {@code List<String>} which receives the rest of the ID after the prefix, split at every ":"
+     * (f.e. {@code ["42", "user", "123"]} for the ID "page:42:user:123").
+     *
+     * @param annotatedMethod the method to compile
+     * @param declaringClass the class on which the method should be invoked
+     * @return the compiled handler, ready to be invoked with events
+     * @throws IllegalArgumentException if a parameter can never be resolved
+     */
+    public static CompiledHandler<ButtonInteractionEvent> compile(Method annotatedMethod, Object declaringClass) {
+        List<ArgumentResolver<ButtonInteractionEvent>> resolvers = new ArrayList<>();
+        Button button = annotatedMethod.getAnnotation(Button.class);
+        String prefix = button == null ? null : getIdPrefix(button);
+
+        for (Parameter param : annotatedMethod.getParameters()) {
+
+            if (param.getType().isAssignableFrom(ButtonInteractionEvent.class)) {
+                resolvers.add(event -> event);
+            } else if (param.getType().equals(String.class)) {
+                resolvers.add(ButtonInteractionEvent::getComponentId);
+            } else if (prefix != null && isStringList(param)) {
+                int prefixLength = prefix.length();
+                resolvers.add(event -> splitSegments(event.getComponentId(), prefixLength));
+            } else {
+                throw new IllegalArgumentException("Cannot resolve parameter '" + param.getName() + "' of type '"
+                        + param.getType().getName() + "' in " + annotatedMethod.getDeclaringClass().getName() + "."
+                        + annotatedMethod.getName() + "(), @Button and @ButtonHandler methods can only take the ButtonInteractionEvent, a String for the button ID"
+                        + " and, for prefix patterns like @Button(\"page:*\"), a List<String> for the rest of the ID.");
+            }
+        }
+        return new CompiledHandler<>(annotatedMethod, declaringClass, resolvers);
+    }
 
     /**
      * Invokes the given {@code annotatedMethod} on the {@code declaringClass}
+     * The method is compiled on the first call for each {@code declaringClass} and the result is reused afterwards.
      * @param annotatedMethod the method to invoke
      * @param declaringClass the class on which the method should be invoked
      * @param event the event that triggered the method invocation
-     * @throws InvocationTargetException if the method invocation fails
-     * @throws IllegalAccessException if the method cannot be accessed
+     * @throws InvocationTargetException never anymore, kept so existing callers that catch it still compile
+     * @throws IllegalAccessException never anymore, kept so existing callers that catch it still compile
+     * @throws RuntimeException if the method invocation fails, like with the other invokers
      */
     public static void invokeButtonInteractionMethod(Method annotatedMethod, Object declaringClass, ButtonInteractionEvent event) throws InvocationTargetException, IllegalAccessException {
+        legacyHandlers.get(annotatedMethod, declaringClass).invoke(event);
+    }
 
-            switch (annotatedMethod.getParameterCount()) {
-                case 0 -> annotatedMethod.invoke(declaringClass);
-                case 1 -> {
-                    if (annotatedMethod.getParameterTypes()[0].getTypeName().contains("ButtonInteractionEvent")) {
-                        annotatedMethod.invoke(declaringClass, event);
-                    } else {
-                        logger.error("ERROR INVOKING @Button or @ButtonHandler annotation");
-                    }
-                }
-                default ->
-                    //ToDo: smart implementation that automatically maps correct variables to the method
-                        annotatedMethod.invoke(declaringClass, event);
-            }
+    /**
+     * @param button a @Button annotation
+     * @return the prefix, if the button value is a prefix pattern like "page:*", or null if it is an exact ID
+     */
+    public static String getIdPrefix(Button button) {
+        String value = button.value();
+        if (value.endsWith(PREFIX_WILDCARD)) {
+            return value.substring(0, value.length() - PREFIX_WILDCARD.length());
+        }
+        return null;
+    }
+
+    private static boolean isStringList(Parameter param) {
+        return List.class.equals(param.getType())
+                && param.getParameterizedType() instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments().length == 1
+                && parameterizedType.getActualTypeArguments()[0].equals(String.class);
+    }
+
+    private static List<String> splitSegments(String componentId, int prefixLength) {
+        if (componentId.length() <= prefixLength) {
+            return List.of();
+        }
+        return List.of(componentId.substring(prefixLength).split(SEGMENT_SEPARATOR, -1));
     }
 }
@@ -1,6 +1,7 @@
 package xyz.norbjert.jda4spring.internal.invokers;
 
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -9,32 +10,53 @@ import java.util.List;
 
 /**
  * Handles the invocation of methods annotated with {@code @OnChatMessage}.
+ * The parameters of a method are analysed once in {@link #compile(Method, Object)},
+ * which produces a fixed {@link ArgumentResolver} per parameter.
+ * All handlers of a message resolve their arguments from the same {@link ChatMessageContext}.
  */
 public class ChatMessageInteractionInvoker {
 
+    private static final CompiledHandlerCache<ChatMessageContext> legacyHandlers =
+            new CompiledHandlerCache<>(ChatMessageInteractionInvoker::compile);
+
     /**
-     * Invokes the given {@code annotatedMethod} on the {@code declaringClass}
-     * @param annotatedMethod the method to invoke
+     * Analyses the parameters of the given {@code annotatedMethod} and binds it to the {@code declaringClass}.
+     * Supported parameters are the {@link MessageReceivedEvent} itself, the {@link ChatMessageContext} of the message,
+     * and a {@code String content} which receives the displayed content of the message.
+     *
+     * @param annotatedMethod the method to compile
      * @param declaringClass the class on which the method should be invoked
-     * @param event the event that triggered the method invocation
+     * @return the compiled handler, ready to be invoked with events
+     * @throws IllegalArgumentException if a parameter can never be resolved
      */
-    public static void invokeChatInteractionMethod(Method annotatedMethod, Object declaringClass, MessageReceivedEvent event) {
-        List<Object> args = new ArrayList<>();
-        Parameter[] parameters = annotatedMethod.getParameters();
+    public static CompiledHandler<ChatMessageContext> compile(Method annotatedMethod, Object declaringClass) {
+        List<ArgumentResolver<ChatMessageContext>> resolvers = new ArrayList<>();
 
-        for (Parameter param : parameters) {
+        for (Parameter param : annotatedMethod.getParameters()) {
 
             if (param.getType().isAssignableFrom(MessageReceivedEvent.class)) {
-                args.add(event);
+                resolvers.add(ChatMessageContext::getEvent);
+            } else if (param.getType() == ChatMessageContext.class) {
+                resolvers.add(context -> context);
             } else if (param.getType().isAssignableFrom(String.class) && param.getName().equals("content")) { // Example: @OnChatMessage method might want `String content`
-                args.add(event.getMessage().getContentDisplay());
-            }
-
-            else {
-                args.add(null);
+                resolvers.add(ChatMessageContext::getDisplayContent);
+            } else {
+                throw new IllegalArgumentException("Cannot resolve parameter '" + param.getName() + "' of type '"
+                        + param.getType().getName() + "' in " + annotatedMethod.getDeclaringClass().getName() + "."
+                        + annotatedMethod.getName() + "(), @OnChatMessage methods can only take the MessageReceivedEvent, the ChatMessageContext and a 'String content'.");
             }
         }
+        return new CompiledHandler<>(annotatedMethod, declaringClass, resolvers);
+    }
 
-        MethodInvoker.invoke(annotatedMethod, declaringClass, args.toArray());
+    /**
+     * Invokes the given {@code annotatedMethod} on the {@code declaringClass}
+     * The method is compiled on the first call for each {@code declaringClass} and the result is reused afterwards.
+     * @param annotatedMethod the method to invoke
+     * @param declaringClass the class on which the method should be invoked
+     * @param event the event that triggered the method invocation
+     */
+    public static void invokeChatInteractionMethod(Method annotatedMethod, Object declaringClass, MessageReceivedEvent event) {
+        legacyHandlers.get(annotatedMethod, declaringClass).invoke(new ChatMessageContext(event));
     }
-}
\ No newline at end of file
+}
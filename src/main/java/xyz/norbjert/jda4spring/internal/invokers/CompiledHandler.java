@@ -0,0 +1,138 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import lombok.Getter;
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A handler method bound to its bot task instance, together with everything needed to call it:
+ * the compiled {@link HandlerInvoker} and one {@link ArgumentResolver} per method parameter.
+ * Instances are created by the {@code compile} methods of the interaction invokers on startup.
+ * Handlers may return a {@link java.util.concurrent.CompletionStage} or a publisher instead of {@code void},
+ * see {@link AsyncResultAdapter} for the supported types.
+ *
+ * @param <E> the type of event the handler is called with
+ */
+public final class CompiledHandler<E> {
+
+    /**
+     * the completion returned for handlers that are done once the method returns
+     */
+    public static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    @Getter
+    private final Method method;
+    @Getter
+    private final Object target;
+    private final HandlerInvoker invoker;
+    private final ArgumentResolver<E>[] resolvers;
+    private final AsyncResultAdapter resultAdapter;
+    //told about every finished invocation, set once while the bot is set up
+    private volatile HandlerObserver observer = HandlerObserver.NONE;
+
+    @SuppressWarnings("unchecked")
+    CompiledHandler(Method method, Object target, List<ArgumentResolver<E>> resolvers) {
+        this.method = method;
+        this.target = target;
+        this.invoker = MethodInvoker.compile(method);
+        this.resolvers = resolvers.toArray(new ArgumentResolver[0]);
+        this.resultAdapter = AsyncResultAdapter.forMethod(method);
+    }
+
+    /**
+     * Resolves all arguments from the event and invokes the handler method.
+     * Every exception thrown from here has already been logged by the {@link MethodInvoker},
+     * and so has every error the returned future completes with.
+     *
+     * @param event the event that triggered the handler
+     * @return {@link #DONE} for synchronous handlers, otherwise a future that completes once the
+     * async result of the handler does. Cancelling it cancels the subscription to a returned publisher.
+     * @throws IllegalArgumentException if a required argument cannot be resolved from the event
+     * @throws RuntimeException if the method invocation fails
+     */
+    public CompletableFuture<?> invoke(E event) {
+        long start = System.nanoTime();
+        HandlerObserver currentObserver = observer;
+        Object result;
+        try {
+            result = call(event);
+        } catch (RuntimeException ex) {
+            currentObserver.invocationFinished(System.nanoTime() - start, ex);
+            throw ex;
+        }
+        if (resultAdapter == AsyncResultAdapter.NONE) {
+            currentObserver.invocationFinished(System.nanoTime() - start, null);
+            return DONE;
+        }
+        CompletableFuture<?> completion = resultAdapter.toFuture(result);
+        if (completion != DONE) {
+            completion.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    MethodInvoker.asyncInvocationFailed(method, error);
+                }
+                currentObserver.invocationFinished(System.nanoTime() - start, error);
+            });
+        } else {
+            currentObserver.invocationFinished(System.nanoTime() - start, null);
+        }
+        return completion;
+    }
+
+    //resolves the arguments and calls the method, without an argument array for the usual handlers with few parameters
+    private Object call(E event) {
+        int arity = resolvers.length;
+        Object arg0 = null;
+        Object arg1 = null;
+        Object arg2 = null;
+        Object[] args = null;
+        try {
+            if (arity > HandlerInvoker.MAX_FIXED_ARITY) {
+                args = new Object[arity];
+                for (int i = 0; i < arity; i++) {
+                    args[i] = resolvers[i].resolve(event);
+                }
+            } else {
+                if (arity > 0) {
+                    arg0 = resolvers[0].resolve(event);
+                }
+                if (arity > 1) {
+                    arg1 = resolvers[1].resolve(event);
+                }
+                if (arity > 2) {
+                    arg2 = resolvers[2].resolve(event);
+                }
+            }
+        } catch (RuntimeException ex) {
+            throw MethodInvoker.argumentResolutionFailed(method, ex);
+        }
+        try {
+            return switch (arity) {
+                case 0 -> invoker.invoke0(target);
+                case 1 -> invoker.invoke1(target, arg0);
+                case 2 -> invoker.invoke2(target, arg0, arg1);
+                case 3 -> invoker.invoke3(target, arg0, arg1, arg2);
+                default -> invoker.invoke(target, args);
+            };
+        } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException ex) {
+            throw MethodInvoker.invocationFailed(method, ex);
+        }
+    }
+
+    /**
+     * @param observer gets told about every invocation of this handler from now on, {@link HandlerObserver#NONE} for nobody
+     */
+    public void setObserver(HandlerObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * @return a readable name for logging, like "ExampleBot.ping()"
+     */
+    public String describe() {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+    }
+}
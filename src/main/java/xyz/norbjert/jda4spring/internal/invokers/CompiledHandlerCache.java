@@ -0,0 +1,47 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * The handlers compiled for the {@code invoke...Method} entry points of the interaction invokers, which get the method
+ * and target on every call. Each pair is compiled once, so those calls don't analyse the parameters again every time.
+ * Targets are compared by identity, and held for as long as the cache lives (they are bot tasks, which live as long anyway).
+ *
+ * @param <E> the type of event the handlers are called with
+ */
+final class CompiledHandlerCache<E> {
+
+    private final Map<Key, CompiledHandler<E>> handlers = new ConcurrentHashMap<>();
+    private final BiFunction<Method, Object, CompiledHandler<E>> compiler;
+
+    /**
+     * @param compiler the compile method of the invoker, f.e. {@code ButtonInteractionInvoker::compile}
+     */
+    CompiledHandlerCache(BiFunction<Method, Object, CompiledHandler<E>> compiler) {
+        this.compiler = compiler;
+    }
+
+    /**
+     * @return the handler compiled for the method and target, compiling it on first use
+     * @throws IllegalArgumentException if a parameter of the method can never be resolved
+     */
+    CompiledHandler<E> get(Method method, Object target) {
+        return handlers.computeIfAbsent(new Key(method, target), key -> compiler.apply(key.method(), key.target()));
+    }
+
+    private record Key(Method method, Object target) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.method.equals(method) && key.target == target;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + System.identityHashCode(target);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+/**
+ * Gets told about every finished invocation of a {@link CompiledHandler}, f.e. to record metrics.
+ * Called on whatever thread the invocation finished on, so implementations have to be thread safe and fast.
+ */
+@FunctionalInterface
+public interface HandlerObserver {
+
+    /**
+     * the observer of handlers nobody is interested in
+     */
+    HandlerObserver NONE = (durationNanos, error) -> { };
+
+    /**
+     * @param durationNanos the time from the start of the invocation until the method returned,
+     *                      or until its async result completed
+     * @param error what the invocation failed with, or {@code null} if it succeeded
+     */
+    void invocationFinished(long durationNanos, Throwable error);
+}
@@ -0,0 +1,126 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import org.springframework.core.NativeDetector;
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+
+/**
+ * The backends that can be used to turn a handler {@link Method} into a {@link HandlerInvoker}.
+ * The work (access checks, method handle lookup and adaption) is done once per method,
+ * the resulting invoker is then reused for every event.
+ */
+public enum InvocationStrategy {
+
+    /**
+     * Plain {@link Method#invoke(Object, Object...)}, the access check is done once on compilation.
+     * Always works, and is used as the fallback if another strategy cannot handle a method.
+     */
+    REFLECTION {
+        @Override
+        public HandlerInvoker compile(Method method) {
+            if (!method.trySetAccessible()) {
+                throw new IllegalStateException("Method " + method.getName() + " in class "
+                        + method.getDeclaringClass().getName() + " is not accessible.");
+            }
+            return (target, args) -> {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException ex) {
+                    //errors are not handler failures, let them through like the other strategies do
+                    if (ex.getTargetException() instanceof Error error) {
+                        throw error;
+                    }
+                    throw ex;
+                }
+            };
+        }
+    },
+
+    /**
+     * Instance methods with up to {@link HandlerInvoker#MAX_FIXED_ARITY} parameters get a class generated by
+     * {@link java.lang.invoke.LambdaMetafactory} that calls them directly, see {@link LambdaInvoker}.
+     * Other methods get a {@link MethodHandle} that is adapted once to a fixed {@code (Object, Object[])Object} shape.
+     * Either way, a target or argument that doesn't fit is an {@link IllegalArgumentException} like with reflection
+     * (the handle checks them up front, the generated class only once its cast failed), and {@link Error}s are not wrapped.
+     */
+    METHOD_HANDLE {
+        @Override
+        public HandlerInvoker compile(Method method) {
+            MethodHandles.Lookup lookup;
+            MethodHandle handle;
+            try {
+                lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+                handle = lookup.unreflect(method);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Method " + method.getName() + " in class "
+                        + method.getDeclaringClass().getName() + " is not accessible.", e);
+            }
+
+            int parameterCount = method.getParameterCount();
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            //a native image cannot define classes at runtime, there the generated registries replace the lambdas anyway
+            if (!isStatic && parameterCount <= HandlerInvoker.MAX_FIXED_ARITY && !NativeDetector.inNativeImage()) {
+                try {
+                    return LambdaInvoker.create(lookup, handle, method);
+                } catch (LambdaConversionException e) {
+                    //f.e. a bot task loaded by another class loader, the spreading handle still works there
+                }
+            }
+
+            if (isStatic) {
+                //static methods have no receiver, add a dummy one so all handlers share the same shape
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            MethodHandle spreader = handle
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+            ParameterTypes parameterTypes = new ParameterTypes(method);
+
+            return (target, args) -> {
+                parameterTypes.checkArguments(target, args);
+                try {
+                    return (Object) spreader.invokeExact(target, args);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    //the checks above make sure the casts of the adapted handle cannot fail, so this came from the method
+                    throw new InvocationTargetException(t);
+                }
+            };
+        }
+    };
+
+    /**
+     * Prepares the given method for repeated invocation.
+     *
+     * @param method The handler method.
+     * @return An invoker for the method.
+     * @throws IllegalStateException If this strategy cannot access the method.
+     */
+    public abstract HandlerInvoker compile(Method method);
+
+    /**
+     * Parses a strategy from a config value like "reflection", "method-handle" or "METHOD_HANDLE".
+     *
+     * @param value The configured value.
+     * @return The matching strategy.
+     * @throws IllegalArgumentException If no strategy matches the value.
+     */
+    public static InvocationStrategy fromConfigValue(String value) {
+        String normalized = value.trim().replace("-", "").replace("_", "").toUpperCase(Locale.ROOT);
+        for (InvocationStrategy strategy : values()) {
+            if (strategy.name().replace("_", "").equals(normalized)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown invocation strategy: '" + value + "'");
+    }
+}
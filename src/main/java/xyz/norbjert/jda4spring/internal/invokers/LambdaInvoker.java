@@ -0,0 +1,267 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A {@link HandlerInvoker} backed by a class that {@link LambdaMetafactory} generates for one handler method.
+ * That class implements one of the call interfaces below and calls the method directly (no method handle, no reflection),
+ * so the JIT can inline the handler into the call.
+ * There is one small invoker class per parameter count and return kind, each holding its call interface in a typed final field
+ * and overriding only its own fixed arity method ({@link #invoke1} etc.), which passes the arguments without an {@code Object[]}.
+ * Only used for instance methods with up to {@link HandlerInvoker#MAX_FIXED_ARITY} parameters.
+ * <p>
+ * The target and arguments are not checked before the call, the generated class casts them to the parameter types anyway.
+ * Only if the call fails they are checked, so a wrong target or argument is reported as an {@link IllegalArgumentException}
+ * like with reflection, instead of as the ClassCastException of that cast.
+ * <p>
+ * The call interfaces have to be public, since the generated class is defined in the package of the bot task.
+ */
+public abstract class LambdaInvoker implements HandlerInvoker {
+
+    public interface Call0 { Object call(Object target); }
+    public interface Call1 { Object call(Object target, Object arg0); }
+    public interface Call2 { Object call(Object target, Object arg0, Object arg1); }
+    public interface Call3 { Object call(Object target, Object arg0, Object arg1, Object arg2); }
+
+    //void methods need their own interfaces, LambdaMetafactory cannot turn "no return value" into null
+    public interface VoidCall0 { void call(Object target); }
+    public interface VoidCall1 { void call(Object target, Object arg0); }
+    public interface VoidCall2 { void call(Object target, Object arg0, Object arg1); }
+    public interface VoidCall3 { void call(Object target, Object arg0, Object arg1, Object arg2); }
+
+    private static final Class<?>[] CALLS = {Call0.class, Call1.class, Call2.class, Call3.class};
+    private static final Class<?>[] VOID_CALLS = {VoidCall0.class, VoidCall1.class, VoidCall2.class, VoidCall3.class};
+
+    private final ParameterTypes parameterTypes;
+
+    private LambdaInvoker(ParameterTypes parameterTypes) {
+        this.parameterTypes = parameterTypes;
+    }
+
+    /**
+     * @param lookup a lookup with full privilege access in the declaring class of the method
+     * @param handle the direct method handle of the method, from {@code lookup}
+     * @param method an instance method with at most {@link HandlerInvoker#MAX_FIXED_ARITY} parameters
+     * @throws LambdaConversionException if the class cannot be generated, f.e. because the lookup lacks module access
+     */
+    static LambdaInvoker create(MethodHandles.Lookup lookup, MethodHandle handle, Method method) throws LambdaConversionException {
+        int parameterCount = method.getParameterCount();
+        boolean isVoid = method.getReturnType() == void.class;
+        Class<?> callType = (isVoid ? VOID_CALLS : CALLS)[parameterCount];
+        MethodType erased = MethodType.genericMethodType(parameterCount + 1);
+        //the casts (and unboxing of primitives) the generated class does before calling the method
+        MethodType instantiated = handle.type().wrap();
+        if (isVoid) {
+            erased = erased.changeReturnType(void.class);
+            instantiated = instantiated.changeReturnType(void.class);
+        } else {
+            instantiated = instantiated.changeReturnType(Object.class);
+        }
+        Object call;
+        try {
+            call = LambdaMetafactory.metafactory(lookup, "call", MethodType.methodType(callType), erased, handle, instantiated)
+                    .getTarget().invoke();
+        } catch (LambdaConversionException ex) {
+            throw ex;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create the invoker for method " + method.getName(), t);
+        }
+        ParameterTypes parameterTypes = new ParameterTypes(method);
+        return switch (parameterCount) {
+            case 0 -> isVoid ? new Void0(parameterTypes, (VoidCall0) call) : new Returning0(parameterTypes, (Call0) call);
+            case 1 -> isVoid ? new Void1(parameterTypes, (VoidCall1) call) : new Returning1(parameterTypes, (Call1) call);
+            case 2 -> isVoid ? new Void2(parameterTypes, (VoidCall2) call) : new Returning2(parameterTypes, (Call2) call);
+            default -> isVoid ? new Void3(parameterTypes, (VoidCall3) call) : new Returning3(parameterTypes, (Call3) call);
+        };
+    }
+
+    /**
+     * Checks the argument count and calls the fixed arity method of this invoker, which is the only one it overrides.
+     * The others keep the default of {@link HandlerInvoker}, which ends up in the count check here.
+     */
+    @Override
+    public Object invoke(Object target, Object[] args) throws InvocationTargetException, IllegalAccessException {
+        parameterTypes.checkCount(args.length);
+        return switch (args.length) {
+            case 0 -> invoke0(target);
+            case 1 -> invoke1(target, args[0]);
+            case 2 -> invoke2(target, args[0], args[1]);
+            default -> invoke3(target, args[0], args[1], args[2]);
+        };
+    }
+
+    /**
+     * Only called once a call failed: if the target or an argument doesn't fit, the cast in the generated class failed
+     * before the method ran, otherwise the exception came from the method itself.
+     *
+     * @throws IllegalArgumentException if the target or an argument doesn't fit the method
+     */
+    final InvocationTargetException failed(Exception ex, Object target, Object... args) {
+        parameterTypes.checkArguments(target, args);
+        return new InvocationTargetException(ex);
+    }
+
+    static final class Returning0 extends LambdaInvoker {
+
+        private final Call0 call;
+
+        Returning0(ParameterTypes parameterTypes, Call0 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke0(Object target) throws InvocationTargetException {
+            try {
+                return call.call(target);
+            } catch (Exception ex) {
+                throw failed(ex, target);
+            }
+        }
+    }
+
+    static final class Returning1 extends LambdaInvoker {
+
+        private final Call1 call;
+
+        Returning1(ParameterTypes parameterTypes, Call1 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke1(Object target, Object arg0) throws InvocationTargetException {
+            try {
+                return call.call(target, arg0);
+            } catch (Exception ex) {
+                throw failed(ex, target, arg0);
+            }
+        }
+    }
+
+    static final class Returning2 extends LambdaInvoker {
+
+        private final Call2 call;
+
+        Returning2(ParameterTypes parameterTypes, Call2 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke2(Object target, Object arg0, Object arg1) throws InvocationTargetException {
+            try {
+                return call.call(target, arg0, arg1);
+            } catch (Exception ex) {
+                throw failed(ex, target, arg0, arg1);
+            }
+        }
+    }
+
+    static final class Returning3 extends LambdaInvoker {
+
+        private final Call3 call;
+
+        Returning3(ParameterTypes parameterTypes, Call3 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke3(Object target, Object arg0, Object arg1, Object arg2) throws InvocationTargetException {
+            try {
+                return call.call(target, arg0, arg1, arg2);
+            } catch (Exception ex) {
+                throw failed(ex, target, arg0, arg1, arg2);
+            }
+        }
+    }
+
+    static final class Void0 extends LambdaInvoker {
+
+        private final VoidCall0 call;
+
+        Void0(ParameterTypes parameterTypes, VoidCall0 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke0(Object target) throws InvocationTargetException {
+            try {
+                call.call(target);
+                return null;
+            } catch (Exception ex) {
+                throw failed(ex, target);
+            }
+        }
+    }
+
+    static final class Void1 extends LambdaInvoker {
+
+        private final VoidCall1 call;
+
+        Void1(ParameterTypes parameterTypes, VoidCall1 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke1(Object target, Object arg0) throws InvocationTargetException {
+            try {
+                call.call(target, arg0);
+                return null;
+            } catch (Exception ex) {
+                throw failed(ex, target, arg0);
+            }
+        }
+    }
+
+    static final class Void2 extends LambdaInvoker {
+
+        private final VoidCall2 call;
+
+        Void2(ParameterTypes parameterTypes, VoidCall2 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke2(Object target, Object arg0, Object arg1) throws InvocationTargetException {
+            try {
+                call.call(target, arg0, arg1);
+                return null;
+            } catch (Exception ex) {
+                throw failed(ex, target, arg0, arg1);
+            }
+        }
+    }
+
+    static final class Void3 extends LambdaInvoker {
+
+        private final VoidCall3 call;
+
+        Void3(ParameterTypes parameterTypes, VoidCall3 call) {
+            super(parameterTypes);
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke3(Object target, Object arg0, Object arg1, Object arg2) throws InvocationTargetException {
+            try {
+                call.call(target, arg0, arg1, arg2);
+                return null;
+            } catch (Exception ex) {
+                throw failed(ex, target, arg0, arg1, arg2);
+            }
+        }
+    }
+}
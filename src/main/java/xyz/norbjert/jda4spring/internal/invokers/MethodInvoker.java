@@ -2,55 +2,162 @@ package xyz.norbjert.jda4spring.internal.invokers;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.internal.GeneratedRegistries;
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class for robust method invocation using reflection.
- * Handles method accessibility and standard reflection-related exceptions,
- * providing a centralized way to invoke methods with dynamic arguments.
+ * Utility class for robust method invocation.
+ * Methods are compiled once into a {@link HandlerInvoker} using the configured {@link InvocationStrategy}
+ * (falling back to plain reflection if the strategy cannot handle a method),
+ * and invocation errors are logged and re-thrown in a centralized way.
  */
 public class MethodInvoker {
     private static final Logger logger = LoggerFactory.getLogger(MethodInvoker.class);
 
+    private static final Map<Method, HandlerInvoker> compiledInvokers = new ConcurrentHashMap<>();
+    private static volatile InvocationStrategy strategy = InvocationStrategy.METHOD_HANDLE;
+
     private MethodInvoker() {
         logger.error("static class, not to be instanced");
         throw new RuntimeException("SlashCommandDataFactory is a static class and cannot be instanced");
     }
 
+    /**
+     * Sets the strategy used to compile methods from now on.
+     * Methods that have already been compiled keep their invoker.
+     *
+     * @param invocationStrategy The {@link InvocationStrategy} to use.
+     */
+    public static void setStrategy(InvocationStrategy invocationStrategy) {
+        strategy = invocationStrategy;
+    }
+
+    /**
+     * Compiles the given method into a {@link HandlerInvoker} with the configured strategy.
+     * If that strategy cannot handle the method, the reflective strategy is used instead.
+     * An invoker generated at compile time (see {@link GeneratedRegistries}) is always preferred, since it calls the method directly.
+     *
+     * @param method The {@link Method} to compile.
+     * @return An invoker for the method.
+     * @throws RuntimeException If the method cannot be accessed by any strategy.
+     */
+    public static HandlerInvoker compile(Method method) {
+        HandlerInvoker generated = GeneratedRegistries.findInvoker(method);
+        if (generated != null) {
+            return generated;
+        }
+        InvocationStrategy configured = strategy;
+        if (configured != InvocationStrategy.REFLECTION) {
+            try {
+                return configured.compile(method);
+            } catch (RuntimeException ex) {
+                logger.debug("{} invoker could not be created for method '{}' in class '{}', falling back to reflection: {}",
+                        configured, method.getName(), method.getDeclaringClass().getName(), ex.getMessage());
+            }
+        }
+        try {
+            return InvocationStrategy.REFLECTION.compile(method);
+        } catch (RuntimeException ex) {
+            logger.error("Method '{}' in class '{}' is not public and Java language access control cannot be suppressed. Cannot invoke.",
+                    method.getName(), method.getDeclaringClass().getName());
+            throw new RuntimeException("Method " + method.getName() + " is not accessible.", ex);
+        }
+    }
+
+    /**
+     * Logs that the arguments of a method could not be resolved from an event, the same way invocation errors are logged.
+     * This way every error of a handler ends up in this log, no matter on which thread the handler runs.
+     *
+     * @param method The {@link Method} whose arguments could not be resolved.
+     * @param ex The exception thrown by the argument resolver.
+     * @return The exception to re-throw.
+     */
+    public static RuntimeException argumentResolutionFailed(Method method, RuntimeException ex) {
+        logger.error("Could not resolve the arguments for method '{}' in class '{}': {}",
+                method.getName(), method.getDeclaringClass().getName(), ex.getMessage(), ex);
+        return ex;
+    }
+
+    /**
+     * Logs that the future, stage or publisher returned by a method has failed, the same way invocation errors are logged.
+     * Cancellations are only logged on debug level, since they happen on purpose (f.e. on shutdown).
+     *
+     * @param method The {@link Method} that returned the failed result.
+     * @param error The error the result completed with.
+     */
+    public static void asyncInvocationFailed(Method method, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            logger.debug("Async result of method '{}' in class '{}' was cancelled.",
+                    method.getName(), method.getDeclaringClass().getName());
+            return;
+        }
+        logger.error("Async result of method '{}' in class '{}' failed: {}",
+                method.getName(), method.getDeclaringClass().getName(), cause.getMessage(), cause);
+    }
+
     /**
      * Invokes a given method on a target object with provided arguments.
-     * This method attempts to make the method accessible if it's not public
-     * and logs/re-throws specific exceptions during invocation.
+     * The method is compiled on first use and the resulting invoker is cached,
+     * so the access check and lookup only happen once per method.
      *
      * @param method The {@link Method} to be invoked.
      * @param target The object instance on which the method should be invoked.
      * @param args An array of arguments to pass to the method. Can be empty if the method takes no arguments.
+     * @return The return value of the method, or {@code null} for {@code void} methods.
      * @throws RuntimeException If the method cannot be accessed, or if an exception occurs during its invocation.
      */
-    public static void invoke(Method method, Object target, Object... args) {
-        if (!method.trySetAccessible()) {
-            logger.error("Method '{}' in class '{}' is not public and Java language access control cannot be suppressed. Cannot invoke.",
-                    method.getName(), method.getDeclaringClass().getName());
-            throw new RuntimeException("Method " + method.getName() + " is not accessible.");
-        }
+    public static Object invoke(Method method, Object target, Object... args) {
+        return invoke(compiledInvokers.computeIfAbsent(method, MethodInvoker::compile), method, target, args);
+    }
 
+    /**
+     * Invokes an already compiled method on a target object with provided arguments,
+     * and logs/re-throws specific exceptions during invocation.
+     *
+     * @param invoker The {@link HandlerInvoker} compiled for {@code method}.
+     * @param method The {@link Method} to be invoked, used for logging.
+     * @param target The object instance on which the method should be invoked.
+     * @param args An array of arguments to pass to the method, one per method parameter.
+     * @return The return value of the method, or {@code null} for {@code void} methods.
+     * @throws RuntimeException If the method cannot be accessed, or if an exception occurs during its invocation.
+     */
+    public static Object invoke(HandlerInvoker invoker, Method method, Object target, Object[] args) {
         try {
-            method.invoke(target, args);
-        } catch (IllegalAccessException ex) {
+            return invoker.invoke(target, args);
+        } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException ex) {
+            throw invocationFailed(method, ex);
+        }
+    }
+
+    /**
+     * Logs an exception thrown by a {@link HandlerInvoker}, for callers that use its fixed arity methods.
+     *
+     * @param method The {@link Method} that was invoked.
+     * @param ex The {@link IllegalAccessException}, {@link InvocationTargetException} or {@link IllegalArgumentException} thrown by the invoker.
+     * @return The exception to re-throw.
+     */
+    static RuntimeException invocationFailed(Method method, Exception ex) {
+        if (ex instanceof IllegalAccessException) {
             logger.error("IllegalAccessException attempting to invoke method '{}' in class '{}': {}",
                     method.getName(), method.getDeclaringClass().getName(), ex.getMessage(), ex);
-            throw new RuntimeException("Failed to access method for invocation.", ex);
-        } catch (InvocationTargetException ex) {
+            return new RuntimeException("Failed to access method for invocation.", ex);
+        }
+        if (ex instanceof InvocationTargetException targetEx) {
             logger.error("Exception thrown by invoked method '{}' in class '{}': {}",
-                    method.getName(), method.getDeclaringClass().getName(), ex.getTargetException().getMessage(), ex.getTargetException());
+                    method.getName(), method.getDeclaringClass().getName(), targetEx.getTargetException().getMessage(), targetEx.getTargetException());
             // Unwrap and re-throw the original exception thrown by the target method
-            throw new RuntimeException("Method invocation failed.", ex.getTargetException());
-        } catch (IllegalArgumentException ex) {
-            logger.error("IllegalArgumentException for method '{}' in class '{}'. Check parameter types and count. Error: {}",
-                    method.getName(), method.getDeclaringClass().getName(), ex.getMessage(), ex);
-            throw new RuntimeException("Argument mismatch for method invocation.", ex);
+            return new RuntimeException("Method invocation failed.", targetEx.getTargetException());
         }
+        logger.error("IllegalArgumentException for method '{}' in class '{}'. Check parameter types and count. Error: {}",
+                method.getName(), method.getDeclaringClass().getName(), ex.getMessage(), ex);
+        return new RuntimeException("Argument mismatch for method invocation.", ex);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The checks {@link Method#invoke(Object, Object...)} does before calling a method, for the invokers that call it without reflection.
+ * Doing them up front means a wrong target or argument is reported as an {@link IllegalArgumentException} like with reflection,
+ * instead of as a ClassCastException or NullPointerException that would look like it was thrown by the handler itself.
+ */
+final class ParameterTypes {
+
+    //null for static methods, which ignore the target
+    private final Class<?> receiverType;
+    //boxed, so isInstance works for primitive parameters too
+    private final Class<?>[] types;
+    private final boolean[] primitive;
+
+    ParameterTypes(Method method) {
+        this.receiverType = Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.types = new Class<?>[parameterTypes.length];
+        this.primitive = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            primitive[i] = parameterTypes[i].isPrimitive();
+            types[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+        }
+    }
+
+    void checkCount(int argumentCount) {
+        if (argumentCount != types.length) {
+            throw new IllegalArgumentException("wrong number of arguments: " + argumentCount + " expected: " + types.length);
+        }
+    }
+
+    void checkTarget(Object target) {
+        if (receiverType != null && !receiverType.isInstance(target)) {
+            throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+    }
+
+    void checkArgument(int index, Object argument) {
+        if (argument == null ? primitive[index] : !types[index].isInstance(argument)) {
+            throw new IllegalArgumentException("argument type mismatch");
+        }
+    }
+
+    void checkArguments(Object target, Object[] args) {
+        checkCount(args.length);
+        checkTarget(target);
+        for (int i = 0; i < args.length; i++) {
+            checkArgument(i, args[i]);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscribes to a publisher returned by a handler, requests everything and ignores the items.
+ * Completes once the publisher signals completion or an error, without blocking any thread while waiting.
+ * Cancelling the future cancels the subscription.
+ */
+final class PublisherCompletion extends CompletableFuture<Void> implements Flow.Subscriber<Object> {
+
+    private volatile Flow.Subscription subscription;
+
+    private PublisherCompletion() {
+    }
+
+    /**
+     * @param publisher the publisher returned by the handler
+     * @return a future that completes together with the publisher
+     */
+    static PublisherCompletion subscribeTo(Flow.Publisher<?> publisher) {
+        PublisherCompletion completion = new PublisherCompletion();
+        try {
+            publisher.subscribe(completion);
+        } catch (RuntimeException ex) {
+            completion.completeExceptionally(ex);
+        }
+        return completion;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        //a subscriber may only be subscribed once, and there is no point in starting after a cancel
+        if (this.subscription != null || isDone()) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(Object item) {
+        //the items are not used, the handler is only waited for
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        complete(null);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+        return super.cancel(mayInterruptIfRunning);
+    }
+}
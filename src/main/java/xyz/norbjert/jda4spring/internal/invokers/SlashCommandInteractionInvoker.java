@@ -1,105 +1,250 @@
 package xyz.norbjert.jda4spring.internal.invokers;
 
+import net.dv8tion.jda.api.entities.IMentionable;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.unions.GuildChannelUnion;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.annotations.SlashCommandArg;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Handles the invocation of methods annotated with {@code @SlashCommand}.
  * It intelligently resolves method parameters based on the {@link SlashCommandInteractionEvent}
  * and the expected types from Discord's slash command options, allowing for flexible method signatures.
+ * The parameters of a method are analysed once in {@link #compile(Method, Object)},
+ * which produces a fixed {@link ArgumentResolver} per parameter.
  */
 public class SlashCommandInteractionInvoker {
 
     private static final Logger logger = LoggerFactory.getLogger(SlashCommandInteractionInvoker.class);
 
+    private static final CompiledHandlerCache<SlashCommandInteractionEvent> legacyHandlers =
+            new CompiledHandlerCache<>(SlashCommandInteractionInvoker::compile);
+
     private SlashCommandInteractionInvoker() {
         // Private constructor to prevent instantiation of utility class
     }
 
     /**
-     * Invokes the given {@code slashMethod} on the {@code declaringInstance}
-     * by intelligently mapping parameters from the {@code event}.
+     * Analyses the parameters of the given {@code slashMethod} and binds it to the {@code declaringInstance}.
      * This method supports:
      * <ul>
      *     <li>Injecting the {@link SlashCommandInteractionEvent} itself.</li>
      *     <li>Injecting a {@code List<String>} which will contain all string options from the command.</li>
-     *     <li>Injecting individual slash command options mapped by their parameter name to the Discord option name.</li>
+     *     <li>Injecting individual slash command options mapped by their parameter name to the Discord option name.
+     *     The expected option type is taken from the matching {@link SlashCommandArg}, or derived from the parameter type
+     *     if the option is not declared on the annotation.</li>
      * </ul>
      *
      * @param slashMethod The {@link Method} annotated with {@code @SlashCommand}.
      * @param declaringInstance The object instance on which the method is declared.
+     * @return The compiled handler, ready to be invoked with events.
+     * @throws IllegalArgumentException if a parameter can never be resolved, f.e. because of an unsupported type.
+     */
+    public static CompiledHandler<SlashCommandInteractionEvent> compile(Method slashMethod, Object declaringInstance) {
+        List<ArgumentResolver<SlashCommandInteractionEvent>> resolvers = new ArrayList<>();
+        for (Parameter parameter : slashMethod.getParameters()) {
+            resolvers.add(createResolver(parameter, slashMethod));
+        }
+        return new CompiledHandler<>(slashMethod, declaringInstance, resolvers);
+    }
+
+    /**
+     * Invokes the given {@code slashMethod} on the {@code declaringInstance}
+     * by intelligently mapping parameters from the {@code event}.
+     * The method is compiled on the first call for each {@code declaringInstance} and the result is reused afterwards.
+     *
+     * @param slashMethod The {@link Method} annotated with {@code @SlashCommand}.
+     * @param declaringInstance The object instance on which the method is declared.
      * @param event The {@link SlashCommandInteractionEvent} containing the command details and options.
      * @throws RuntimeException if the method invocation fails or a required parameter cannot be resolved/converted.
      */
     public static void invokeSlashMethod(Method slashMethod, Object declaringInstance, SlashCommandInteractionEvent event) {
-        Parameter[] methodParameters = slashMethod.getParameters();
-        List<Object> args = new ArrayList<>(methodParameters.length);
-
-        for (Parameter parameter : methodParameters) {
-            Class<?> paramType = parameter.getType();
-            String paramName = parameter.getName(); // Requires compilation with -parameters flag
-
-            if (SlashCommandInteractionEvent.class.isAssignableFrom(paramType)) {
-                args.add(event);
-            } else if (List.class.isAssignableFrom(paramType)) {
-                // Check if it's List<String> specifically (or other List types if needed later)
-                if (parameter.getParameterizedType() instanceof ParameterizedType parameterizedType) {
-                    if (parameterizedType.getActualTypeArguments().length == 1 &&
-                            parameterizedType.getActualTypeArguments()[0].equals(String.class)) {
-                        // This is a List<String>, collect all string options
-                        List<String> allStringOptions = event.getOptions().stream()
-                                .filter(opt -> opt.getType() == OptionType.STRING)
-                                .map(OptionMapping::getAsString)
-                                .collect(Collectors.toList());
-                        args.add(allStringOptions);
-                    } else {
-                        logger.warn("Unsupported Parameterized List type '{}' for method parameter '{}' in {}.{}(). Injected null.",
-                                parameterizedType.getTypeName(), paramName, slashMethod.getDeclaringClass().getName(), slashMethod.getName());
-                        args.add(null);
-                    }
-                } else {
-                    logger.warn("Raw List type (without generics) for method parameter '{}' in {}.{}(). Injected null.",
-                            paramName, slashMethod.getDeclaringClass().getName(), slashMethod.getName());
-                    args.add(null);
-                }
-            } else {
-                // Attempt to resolve based on individual Discord slash command options by name
-                OptionMapping option = event.getOption(paramName);
-
-                if (option == null) {
-                    // Option not provided by Discord. If the method parameter is primitive, this will cause issues.
-                    // For object types, null will be injected.
-                    if (paramType.isPrimitive()) {
-                        throw new IllegalArgumentException(
-                                "Required primitive option '" + paramName + "' not provided for method " +
-                                        slashMethod.getDeclaringClass().getName() + "." + slashMethod.getName() + "()."
-                        );
-                    }
-                    logger.warn("Slash command option '{}' not found for method parameter '{}' in {}.{}(). Injected null.",
-                            paramName, paramName, slashMethod.getDeclaringClass().getName(), slashMethod.getName());
-                    args.add(null);
-                } else {
-                    Object value = convertOptionMappingValue(option, paramType, slashMethod);
-                    args.add(value);
+        legacyHandlers.get(slashMethod, declaringInstance).invoke(event);
+    }
+
+    /**
+     * Creates the resolver for a single method parameter.
+     *
+     * @param parameter The parameter to resolve.
+     * @param slashMethod The method declaring the parameter (for error messages).
+     * @return The resolver for the parameter.
+     * @throws IllegalArgumentException if the parameter can never be resolved.
+     */
+    private static ArgumentResolver<SlashCommandInteractionEvent> createResolver(Parameter parameter, Method slashMethod) {
+        Class<?> paramType = parameter.getType();
+        String paramName = parameter.getName(); // Requires compilation with -parameters flag
+
+        if (SlashCommandInteractionEvent.class.isAssignableFrom(paramType)) {
+            return event -> event;
+        }
+
+        if (List.class.isAssignableFrom(paramType)) {
+            // Only List<String> is supported, it receives all string options of the command
+            if (parameter.getParameterizedType() instanceof ParameterizedType parameterizedType
+                    && parameterizedType.getActualTypeArguments().length == 1
+                    && parameterizedType.getActualTypeArguments()[0].equals(String.class)) {
+                return event -> event.getOptions().stream()
+                        .filter(opt -> opt.getType() == OptionType.STRING)
+                        .map(OptionMapping::getAsString)
+                        .collect(Collectors.toList());
+            }
+            throw new IllegalArgumentException("Unsupported List type '" + parameter.getParameterizedType().getTypeName()
+                    + "' for parameter '" + paramName + "' in " + describe(slashMethod) + ", only List<String> is supported.");
+        }
+
+        // Individual Discord slash command option, resolved by name
+        OptionType optionType = getDeclaredOptionType(slashMethod, paramName);
+        if (optionType == null) {
+            optionType = inferOptionType(paramType);
+            if (optionType == null) {
+                throw new IllegalArgumentException("Cannot resolve parameter '" + paramName + "' of type '" + paramType.getName()
+                        + "' in " + describe(slashMethod) + ", it is neither the event, a List<String> nor a supported option type.");
+            }
+        }
+        Function<OptionMapping, Object> getter = createOptionGetter(optionType, paramType);
+        if (getter == null) {
+            throw new IllegalArgumentException("Option '" + paramName + "' is declared as " + optionType
+                    + " and cannot be converted to parameter type '" + paramType.getName() + "' in " + describe(slashMethod) + ".");
+        }
+
+        OptionType expectedType = optionType;
+        return event -> {
+            OptionMapping option = event.getOption(paramName);
+
+            if (option == null) {
+                // Option not provided by Discord. If the method parameter is primitive, this will cause issues.
+                // For object types, null will be injected.
+                if (paramType.isPrimitive()) {
+                    throw new IllegalArgumentException(
+                            "Required primitive option '" + paramName + "' not provided for method " + describe(slashMethod) + "."
+                    );
                 }
+                logger.debug("Slash command option '{}' not provided for {}. Injected null.", paramName, describe(slashMethod));
+                return null;
+            }
+            if (option.getType() != expectedType) {
+                // The command registered on discord can be out of date with the code, fall back to converting by the actual type
+                return convertOptionMappingValue(option, paramType, slashMethod);
             }
+            try {
+                return getter.apply(option);
+            } catch (RuntimeException e) {
+                logger.error("Error converting OptionMapping '{}' (type: {}) to target type '{}' for method {}. Error: {}",
+                        option.getName(), option.getType(), paramType.getName(), describe(slashMethod), e.getMessage(), e);
+                throw new IllegalArgumentException("Failed to convert option '" + option.getName() + "' to " + paramType.getName(), e);
+            }
+        };
+    }
+
+    /**
+     * @param slashMethod a method with the @SlashCommand annotation
+     * @param optionName the name of the option
+     * @return the option type declared via {@link SlashCommandArg} for that name, or null if it is not declared
+     */
+    private static OptionType getDeclaredOptionType(Method slashMethod, String optionName) {
+        SlashCommand slashCommand = slashMethod.getAnnotation(SlashCommand.class);
+        if (slashCommand == null) {
+            return null;
+        }
+        for (SlashCommandArg arg : slashCommand.options()) {
+            if (arg.name().equals(optionName)) {
+                return arg.optionType();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Derives the Discord option type for a parameter whose option is not declared on the annotation.
+     *
+     * @param paramType the type of the method parameter
+     * @return the matching {@link OptionType}, or null if the type cannot be an option
+     */
+    private static OptionType inferOptionType(Class<?> paramType) {
+        if (paramType == String.class) {
+            return OptionType.STRING;
+        } else if (paramType == long.class || paramType == Long.class || paramType == int.class || paramType == Integer.class) {
+            return OptionType.INTEGER;
+        } else if (paramType == boolean.class || paramType == Boolean.class) {
+            return OptionType.BOOLEAN;
+        } else if (paramType == double.class || paramType == Double.class || paramType == float.class || paramType == Float.class) {
+            return OptionType.NUMBER;
+        } else if (paramType == User.class || paramType == Member.class) {
+            return OptionType.USER;
+        } else if (paramType == Role.class) {
+            return OptionType.ROLE;
+        } else if (paramType == GuildChannel.class || paramType == GuildChannelUnion.class) {
+            return OptionType.CHANNEL;
+        } else if (paramType == Message.Attachment.class) {
+            return OptionType.ATTACHMENT;
+        } else if (paramType == IMentionable.class) {
+            return OptionType.MENTIONABLE;
         }
-        MethodInvoker.invoke(slashMethod, declaringInstance, args.toArray());
+        return null;
+    }
+
+    /**
+     * Selects the typed getter for an option of the given type.
+     *
+     * @param optionType the type of the Discord option
+     * @param targetType the desired Java {@link Class} of the parameter
+     * @return the getter, or null if an option of that type cannot be converted to the target type
+     */
+    private static Function<OptionMapping, Object> createOptionGetter(OptionType optionType, Class<?> targetType) {
+        return switch (optionType) {
+            case STRING -> targetType.isAssignableFrom(String.class) ? OptionMapping::getAsString : null;
+            case INTEGER -> {
+                if (targetType.equals(long.class) || targetType.equals(Long.class)) {
+                    yield OptionMapping::getAsLong;
+                } else if (targetType.equals(int.class) || targetType.equals(Integer.class)) {
+                    yield option -> (int) option.getAsLong(); // JDA stores integer as long
+                }
+                yield null;
+            }
+            case BOOLEAN -> targetType.equals(boolean.class) || targetType.equals(Boolean.class) ? OptionMapping::getAsBoolean : null;
+            case NUMBER -> {
+                if (targetType.equals(double.class) || targetType.equals(Double.class)) {
+                    yield OptionMapping::getAsDouble;
+                } else if (targetType.equals(float.class) || targetType.equals(Float.class)) {
+                    yield option -> (float) option.getAsDouble();
+                }
+                yield null;
+            }
+            case USER -> {
+                if (targetType.equals(Member.class)) {
+                    yield OptionMapping::getAsMember;
+                }
+                yield targetType.isAssignableFrom(User.class) ? OptionMapping::getAsUser : null;
+            }
+            case CHANNEL -> targetType.isAssignableFrom(GuildChannelUnion.class) ? OptionMapping::getAsChannel : null;
+            case ROLE -> targetType.isAssignableFrom(Role.class) ? OptionMapping::getAsRole : null;
+            case MENTIONABLE -> targetType.isAssignableFrom(IMentionable.class) ? OptionMapping::getAsMentionable : null;
+            case ATTACHMENT -> targetType.isAssignableFrom(Message.Attachment.class) ? OptionMapping::getAsAttachment : null;
+            default -> null;
+        };
     }
 
     /**
      * Converts an {@link OptionMapping} value to the specified target Java type.
      * This handles common conversions for Discord's {@link OptionType}s.
+     * Only used if the option type sent by Discord differs from the one the handler was compiled for.
      *
      * @param option The {@link OptionMapping} to convert.
      * @param targetType The desired Java {@link Class} of the parameter.
@@ -107,51 +252,25 @@ public class SlashCommandInteractionInvoker {
      * @return The converted value, or throws an {@link IllegalArgumentException} if conversion is not possible.
      */
     private static Object convertOptionMappingValue(OptionMapping option, Class<?> targetType, Method method) {
+        Function<OptionMapping, Object> getter = createOptionGetter(option.getType(), targetType);
+        if (getter == null) {
+            logger.warn("Unsupported conversion from OptionType '{}' to target type '{}' for option '{}' in method {}.",
+                    option.getType(), targetType.getName(), option.getName(), describe(method));
+            throw new IllegalArgumentException(
+                    "Cannot convert OptionMapping of type " + option.getType() +
+                            " to target type " + targetType.getName() + " for option " + option.getName()
+            );
+        }
         try {
-            switch (option.getType()) {
-                case STRING:
-                    return option.getAsString();
-                case INTEGER:
-                    if (targetType.equals(long.class) || targetType.equals(Long.class)) {
-                        return option.getAsLong();
-                    } else if (targetType.equals(int.class) || targetType.equals(Integer.class)) {
-                        return (int) option.getAsLong(); // JDA stores integer as long
-                    }
-                    break;
-                case BOOLEAN:
-                    return option.getAsBoolean();
-                case USER:
-                    return option.getAsUser();
-                case CHANNEL:
-                    return option.getAsChannel();
-                case ROLE:
-                    return option.getAsRole();
-                case MENTIONABLE:
-                    return option.getAsMentionable();
-                case NUMBER: // Double/Float
-                    if (targetType.equals(double.class) || targetType.equals(Double.class)) {
-                        return option.getAsDouble();
-                    } else if (targetType.equals(float.class) || targetType.equals(Float.class)) {
-                        return (float) option.getAsDouble();
-                    }
-                    break;
-                case ATTACHMENT:
-                    return option.getAsAttachment();
-            }
+            return getter.apply(option);
         } catch (Exception e) {
-            logger.error("Error converting OptionMapping '{}' (type: {}) to target type '{}' for method {}.{}(). Error: {}",
-                    option.getName(), option.getType(), targetType.getName(),
-                    method.getDeclaringClass().getName(), method.getName(), e.getMessage(), e);
+            logger.error("Error converting OptionMapping '{}' (type: {}) to target type '{}' for method {}. Error: {}",
+                    option.getName(), option.getType(), targetType.getName(), describe(method), e.getMessage(), e);
             throw new IllegalArgumentException("Failed to convert option '" + option.getName() + "' to " + targetType.getName(), e);
         }
+    }
 
-        // If we reach here, it means the targetType wasn't matched with the OptionType's typical conversions.
-        logger.warn("Unsupported conversion from OptionType '{}' to target type '{}' for option '{}' in method {}.{}().",
-                option.getType(), targetType.getName(), option.getName(),
-                method.getDeclaringClass().getName(), method.getName());
-        throw new IllegalArgumentException(
-                "Cannot convert OptionMapping of type " + option.getType() +
-                        " to target type " + targetType.getName() + " for option " + option.getName()
-        );
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getName() + "." + method.getName() + "()";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+import xyz.norbjert.jda4spring.internal.HandlerBulkhead;
+import xyz.norbjert.jda4spring.internal.invokers.HandlerObserver;
+
+/**
+ * Where a bot reports its metrics to. Only backed by Micrometer if it is on the classpath and the application
+ * has a {@code MeterRegistry} bean (f.e. via spring-boot-starter-actuator), see {@link BotMetricsFactory}.
+ * Otherwise {@link #NONE} is used, which does nothing.
+ */
+public interface BotMetrics {
+
+    /**
+     * the handler type of {@code @SlashCommand} methods
+     */
+    String SLASH_COMMAND = "slash_command";
+    /**
+     * the handler type of {@code @OnChatMessage} methods
+     */
+    String CHAT_MESSAGE = "chat_message";
+    /**
+     * the handler type of {@code @Button} and {@code @ButtonHandler} methods
+     */
+    String BUTTON = "button";
+
+    /**
+     * metrics of a bot when there is nothing to report them to
+     */
+    BotMetrics NONE = (type, handler, command) -> HandlerObserver.NONE;
+
+    /**
+     * Creates the meters of a handler. Called once per handler on startup, so the tags only ever contain
+     * values known at that point (never f.e. guild or user IDs), and nothing has to be looked up per event.
+     *
+     * @param type the handler type, f.e. {@link #SLASH_COMMAND}
+     * @param handler the handler method, like "ExampleBot.ping"
+     * @param command the slash command name, or {@code null} for other handler types
+     * @return the observer to record the invocations of the handler with
+     */
+    HandlerObserver handlerObserver(String type, String handler, String command);
+
+    /**
+     * Creates the meters of the {@code @Bulkhead} of a handler, with the same tags as the ones of {@link #handlerObserver}.
+     * Called once per handler with a bulkhead on startup, the current values are read from the bulkhead.
+     *
+     * @param type the handler type, f.e. {@link #SLASH_COMMAND}
+     * @param handler the handler method, like "ExampleBot.ping"
+     * @param command the slash command name, or {@code null} for other handler types
+     * @param bulkhead the bulkhead of the handler
+     */
+    default void bindBulkhead(String type, String handler, String command, HandlerBulkhead bulkhead) {
+    }
+
+    /**
+     * Creates the meters of the connection health of the bot. Called once per bot on startup.
+     *
+     * @param health the connection health of the bot, current values like the ping are read from it
+     * @return the observer to record the events, reconnects and rate limits of the bot with
+     */
+    default HealthObserver healthObserver(GatewayHealth health) {
+        return HealthObserver.NONE;
+    }
+}
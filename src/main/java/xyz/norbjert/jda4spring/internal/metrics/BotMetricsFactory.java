@@ -0,0 +1,40 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+
+/**
+ * static helper class, creates the {@link BotMetrics} of a bot. Metrics are enabled automatically if Micrometer
+ * is on the classpath and the application has a {@code MeterRegistry} bean, unless {@code jda4spring.metrics.enabled = false}.
+ */
+public final class BotMetricsFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotMetricsFactory.class);
+
+    private static final boolean MICROMETER_PRESENT =
+            ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", BotMetricsFactory.class.getClassLoader());
+
+    /**
+     * static class, don't instantiate it pls thank you
+     */
+    private BotMetricsFactory() {
+        logger.error("static class, not to be instanced");
+        throw new RuntimeException("BotMetricsFactory is a static class and cannot be instanced");
+    }
+
+    /**
+     * @param appContext the application context, to look up the {@code MeterRegistry} in
+     * @param enabled the value of jda4spring.metrics.enabled, {@code null} means enabled
+     * @param botName the name of the bot, used as tag
+     * @return the metrics of the bot, {@link BotMetrics#NONE} if they are disabled or there is no registry
+     */
+    public static BotMetrics forBot(ApplicationContext appContext, String enabled, String botName) {
+        if (!MICROMETER_PRESENT || (enabled != null && enabled.trim().equalsIgnoreCase("false"))) {
+            return BotMetrics.NONE;
+        }
+        //only referenced here, so the class (and with it micrometer) is only loaded if micrometer is there
+        return MicrometerBotMetrics.fromContext(appContext, botName);
+    }
+}
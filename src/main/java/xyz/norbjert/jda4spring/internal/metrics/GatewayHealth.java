@@ -0,0 +1,217 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
+import net.dv8tion.jda.api.events.session.SessionResumeEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.TimeUtil;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The connection health of a bot, to tell "discord is slow" apart from "the handlers are slow":
+ * <ul>
+ *     <li>gateway ping: the heartbeat round trip of the websocket, the worst one of all shards</li>
+ *     <li>REST ping: the round trip of a REST request, sampled every {@value #REST_PING_INTERVAL_SECONDS} seconds per shard</li>
+ *     <li>the number of connected shards</li>
+ *     <li>reconnects, resumed or with a new session</li>
+ *     <li>rate limits per bucket: requests discord answered with a 429, and buckets that ran out (JDA holds back
+ *     the following requests of those until the bucket resets)</li>
+ *     <li>event lag: the time from when discord created a message or interaction (the timestamp in its snowflake ID)
+ *     until the bot got it. Includes the clock difference between discord and this machine</li>
+ * </ul>
+ * Registered as event listener and REST interceptor of the bot on login, the values are available whether metrics
+ * are enabled or not.
+ */
+public final class GatewayHealth extends ListenerAdapter {
+
+    /**
+     * a request that discord answered with 429 Too Many Requests
+     */
+    public static final String RATE_LIMIT_HIT = "hit";
+    /**
+     * a request that used up the last request of its bucket, the next ones wait until it resets
+     */
+    public static final String RATE_LIMIT_EXHAUSTED = "exhausted";
+    static final long REST_PING_INTERVAL_SECONDS = 30;
+
+    private final Supplier<? extends Collection<JDA>> shards;
+    //by shard ID, 0 for a bot that is not sharded
+    private final Map<Integer, Long> restPings = new ConcurrentHashMap<>();
+    private final AtomicLong resumes = new AtomicLong();
+    private final AtomicLong recreates = new AtomicLong();
+    private final Map<String, LongAdder> rateLimitHits = new ConcurrentHashMap<>();
+    private volatile long lastEventLag = -1;
+    private volatile HealthObserver observer = HealthObserver.NONE;
+
+    /**
+     * @param shards the JDA instances of the bot, f.e. {@code DiscordBot::getJDAInstances}
+     */
+    public GatewayHealth(Supplier<? extends Collection<JDA>> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * @param observer gets told about events, reconnects and rate limits from now on
+     */
+    public void setObserver(HealthObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * @return the heartbeat round trip in milliseconds, of the shard where it is the highest. -1 if the bot is not connected
+     */
+    public long getGatewayPing() {
+        long ping = -1;
+        for (JDA shard : shards.get()) {
+            ping = Math.max(ping, shard.getGatewayPing());
+        }
+        return ping;
+    }
+
+    /**
+     * @return the round trip of the last sampled REST request in milliseconds, of the shard where it is the highest.
+     *         -1 if there is no sample yet
+     */
+    public long getRestPing() {
+        long ping = -1;
+        for (long shardPing : restPings.values()) {
+            ping = Math.max(ping, shardPing);
+        }
+        return ping;
+    }
+
+    /**
+     * @return the number of shards this application runs for the bot, 1 if it is not sharded. 0 before login
+     */
+    public int getShards() {
+        return shards.get().size();
+    }
+
+    /**
+     * @return the number of shards that are connected right now
+     */
+    public int getConnectedShards() {
+        int connected = 0;
+        for (JDA shard : shards.get()) {
+            if (shard.getStatus() == JDA.Status.CONNECTED) {
+                connected++;
+            }
+        }
+        return connected;
+    }
+
+    /**
+     * @return how often a shard reconnected and resumed its session, without missing any events
+     */
+    public long getResumes() {
+        return resumes.get();
+    }
+
+    /**
+     * @return how often a shard reconnected with a new session, events in between are lost
+     */
+    public long getRecreates() {
+        return recreates.get();
+    }
+
+    /**
+     * @return the number of 429 responses by rate limit bucket, sorted
+     */
+    public Map<String, Long> getRateLimitHits() {
+        Map<String, Long> hits = new TreeMap<>();
+        rateLimitHits.forEach((bucket, count) -> hits.put(bucket, count.sum()));
+        return hits;
+    }
+
+    /**
+     * @return the lag of the last message or interaction in milliseconds, -1 if there was none yet
+     */
+    public long getLastEventLag() {
+        return lastEventLag;
+    }
+
+    /**
+     * records the lag of an incoming message or interaction, called before it is dispatched to the handlers
+     *
+     * @param snowflakeId the ID of the message or interaction
+     */
+    public void eventReceived(long snowflakeId) {
+        //clocks are never quite in sync, an event from "the future" just had no noticeable lag
+        long lag = Math.max(0, System.currentTimeMillis() - createdAt(snowflakeId));
+        lastEventLag = lag;
+        observer.eventReceived(lag);
+    }
+
+    static long createdAt(long snowflakeId) {
+        return (snowflakeId >>> 22) + TimeUtil.DISCORD_EPOCH;
+    }
+
+    @Override
+    public void onReady(@NotNull ReadyEvent event) {
+        JDA shard = event.getJDA();
+        int shardId = shardId(shard);
+        //ready only fires once per shard, reconnects are resumes or recreates. The pool goes away with the shard
+        shard.getGatewayPool().scheduleWithFixedDelay(() -> {
+            if (shard.getStatus() == JDA.Status.CONNECTED) {
+                shard.getRestPing().queue(ping -> restPings.put(shardId, ping), ignored -> restPings.remove(shardId));
+            }
+        }, 0, REST_PING_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onSessionResume(@NotNull SessionResumeEvent event) {
+        resumes.incrementAndGet();
+        observer.reconnected(true);
+    }
+
+    @Override
+    public void onSessionRecreate(@NotNull SessionRecreateEvent event) {
+        recreates.incrementAndGet();
+        observer.reconnected(false);
+    }
+
+    private static int shardId(JDA shard) {
+        return shard.getShardInfo() == null ? 0 : shard.getShardInfo().getShardId();
+    }
+
+    /**
+     * @return an interceptor for the http client of the bot, that records the rate limits of its REST requests
+     */
+    public Interceptor rateLimitInterceptor() {
+        return chain -> {
+            Response response = chain.proceed(chain.request());
+            rateLimitHeaders(response.code(), response.header("X-RateLimit-Bucket"), response.header("X-RateLimit-Remaining"),
+                    response.header("X-RateLimit-Scope"));
+            return response;
+        };
+    }
+
+    /**
+     * @param status the status code of a REST response
+     * @param bucket the X-RateLimit-Bucket header, {@code null} if there is none
+     * @param remaining the X-RateLimit-Remaining header, {@code null} if there is none
+     * @param scope the X-RateLimit-Scope header of a 429, {@code null} if there is none
+     */
+    void rateLimitHeaders(int status, String bucket, String remaining, String scope) {
+        if (status == 429) {
+            //global limits are not per bucket, and come without the bucket header
+            String hitBucket = "global".equals(scope) || bucket == null ? "global" : bucket;
+            rateLimitHits.computeIfAbsent(hitBucket, b -> new LongAdder()).increment();
+            observer.rateLimited(hitBucket, RATE_LIMIT_HIT);
+        } else if (bucket != null && "0".equals(remaining)) {
+            observer.rateLimited(bucket, RATE_LIMIT_EXHAUSTED);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+/**
+ * Gets told about the connection events of a bot that are not just a current value (those are read from
+ * {@link GatewayHealth} directly). Called on JDA's threads, so implementations have to be thread safe and fast.
+ */
+public interface HealthObserver {
+
+    /**
+     * the observer of bots nobody is interested in
+     */
+    HealthObserver NONE = new HealthObserver() {
+        @Override
+        public void eventReceived(long lagMillis) {
+        }
+
+        @Override
+        public void reconnected(boolean resumed) {
+        }
+
+        @Override
+        public void rateLimited(String bucket, String type) {
+        }
+    };
+
+    /**
+     * @param lagMillis the time from when discord created the message or interaction until the bot got it
+     */
+    void eventReceived(long lagMillis);
+
+    /**
+     * @param resumed whether the old session was resumed (no events missed), or a new one had to be started
+     */
+    void reconnected(boolean resumed);
+
+    /**
+     * @param bucket the rate limit bucket discord reported, or "global"
+     * @param type {@link GatewayHealth#RATE_LIMIT_HIT} or {@link GatewayHealth#RATE_LIMIT_EXHAUSTED}
+     */
+    void rateLimited(String bucket, String type);
+}
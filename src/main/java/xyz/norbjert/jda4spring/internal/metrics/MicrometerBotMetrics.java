@@ -0,0 +1,173 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationContext;
+import xyz.norbjert.jda4spring.internal.HandlerBulkhead;
+import xyz.norbjert.jda4spring.internal.invokers.HandlerObserver;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link BotMetrics} backed by a Micrometer {@link MeterRegistry}. Only loaded if Micrometer is on the classpath.
+ * <ul>
+ *     <li>{@code jda4spring.handler}: timer of every handler invocation, with a percentile histogram.
+ *     Tagged with bot, type, handler, command (or "none") and outcome (success or error)</li>
+ *     <li>{@code jda4spring.handler.errors}: counter of failed invocations, with the same tags and the exception class
+ *     instead of the outcome</li>
+ *     <li>{@code jda4spring.handler.bulkhead.queue}, {@code jda4spring.handler.bulkhead.rejections}: gauge of the queued
+ *     invocations and counter of the rejected ones, for handlers with a {@code @Bulkhead}. Tagged like the timer, without the outcome</li>
+ *     <li>{@code jda4spring.gateway.ping}, {@code jda4spring.rest.ping}: gauges of the ping in milliseconds, see {@link GatewayHealth}</li>
+ *     <li>{@code jda4spring.gateway.shards}, {@code jda4spring.gateway.shards.connected}: gauges of the shards of the bot</li>
+ *     <li>{@code jda4spring.gateway.reconnects}: counter tagged with type (resume or recreate)</li>
+ *     <li>{@code jda4spring.gateway.event.lag}: timer of the lag of incoming messages and interactions, with a percentile histogram</li>
+ *     <li>{@code jda4spring.rest.ratelimits}: counter tagged with the bucket and type (hit or exhausted)</li>
+ * </ul>
+ * All of them are tagged with the bot.
+ */
+final class MicrometerBotMetrics implements BotMetrics {
+
+    static final String HANDLER_TIMER = "jda4spring.handler";
+    static final String HANDLER_ERRORS = "jda4spring.handler.errors";
+    static final String BULKHEAD_QUEUE = "jda4spring.handler.bulkhead.queue";
+    static final String BULKHEAD_REJECTIONS = "jda4spring.handler.bulkhead.rejections";
+    static final String GATEWAY_PING = "jda4spring.gateway.ping";
+    static final String REST_PING = "jda4spring.rest.ping";
+    static final String SHARDS = "jda4spring.gateway.shards";
+    static final String CONNECTED_SHARDS = "jda4spring.gateway.shards.connected";
+    static final String RECONNECTS = "jda4spring.gateway.reconnects";
+    static final String EVENT_LAG = "jda4spring.gateway.event.lag";
+    static final String RATE_LIMITS = "jda4spring.rest.ratelimits";
+
+    private final MeterRegistry registry;
+    private final String botName;
+
+    MicrometerBotMetrics(MeterRegistry registry, String botName) {
+        this.registry = registry;
+        this.botName = botName;
+    }
+
+    /**
+     * @param appContext the application context
+     * @param botName the name of the bot
+     * @return metrics reported to the {@link MeterRegistry} bean of the application, or {@link BotMetrics#NONE} if there is none
+     */
+    static BotMetrics fromContext(ApplicationContext appContext, String botName) {
+        MeterRegistry registry = appContext.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        return registry == null ? NONE : new MicrometerBotMetrics(registry, botName);
+    }
+
+    @Override
+    public HandlerObserver handlerObserver(String type, String handler, String command) {
+        Tags tags = handlerTags(type, handler, command);
+        Timer succeeded = handlerTimer(tags.and("outcome", "success"));
+        Timer failed = handlerTimer(tags.and("outcome", "error"));
+        return (durationNanos, error) -> {
+            if (error == null) {
+                succeeded.record(durationNanos, TimeUnit.NANOSECONDS);
+            } else {
+                failed.record(durationNanos, TimeUnit.NANOSECONDS);
+                //errors are rare enough to look the counter up each time, the exception classes of a bot are a bounded set
+                registry.counter(HANDLER_ERRORS, tags.and("exception", exceptionName(error))).increment();
+            }
+        };
+    }
+
+    @Override
+    public void bindBulkhead(String type, String handler, String command, HandlerBulkhead bulkhead) {
+        Tags tags = handlerTags(type, handler, command);
+        Gauge.builder(BULKHEAD_QUEUE, bulkhead, HandlerBulkhead::getQueueDepth)
+                .description("Invocations of the handler waiting for a free slot of its bulkhead")
+                .tags(tags)
+                .register(registry);
+        //the bulkhead counts the rejections itself, the counter only reads that count
+        FunctionCounter.builder(BULKHEAD_REJECTIONS, bulkhead, HandlerBulkhead::getRejectedCount)
+                .description("Invocations of the handler rejected or dropped from the queue by its bulkhead")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private Tags handlerTags(String type, String handler, String command) {
+        return Tags.of("bot", botName, "type", type, "handler", handler, "command", command == null ? "none" : command);
+    }
+
+    @Override
+    public HealthObserver healthObserver(GatewayHealth health) {
+        //-1 means there is no value (yet), micrometer leaves NaN out instead of reporting a ping of -1
+        gauge(GATEWAY_PING, health, h -> orNaN(h.getGatewayPing()), "Heartbeat round trip of the websocket, of the slowest shard");
+        gauge(REST_PING, health, h -> orNaN(h.getRestPing()), "Round trip of a REST request, of the slowest shard");
+        gauge(SHARDS, health, GatewayHealth::getShards, "Shards of the bot in this application");
+        gauge(CONNECTED_SHARDS, health, GatewayHealth::getConnectedShards, "Shards of the bot that are connected");
+
+        Counter resumes = reconnectCounter("resume");
+        Counter recreates = reconnectCounter("recreate");
+        Timer eventLag = Timer.builder(EVENT_LAG)
+                .description("Time from when discord created a message or interaction until the bot got it")
+                .tags("bot", botName)
+                .publishPercentileHistogram()
+                .register(registry);
+        return new HealthObserver() {
+            @Override
+            public void eventReceived(long lagMillis) {
+                eventLag.record(lagMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void reconnected(boolean resumed) {
+                (resumed ? resumes : recreates).increment();
+            }
+
+            @Override
+            public void rateLimited(String bucket, String type) {
+                //the buckets are per route (not per channel or guild), so there are only as many as the bot uses routes
+                registry.counter(RATE_LIMITS, "bot", botName, "bucket", bucket, "type", type).increment();
+            }
+        };
+    }
+
+    private <T> void gauge(String name, T obj, ToDoubleFunction<T> value, String description) {
+        Gauge.builder(name, obj, value)
+                .description(description)
+                .tags("bot", botName)
+                .register(registry);
+    }
+
+    private static double orNaN(long value) {
+        return value < 0 ? Double.NaN : value;
+    }
+
+    private Counter reconnectCounter(String type) {
+        return Counter.builder(RECONNECTS)
+                .description("Reconnects of the shards of the bot, resumed or with a new session")
+                .tags("bot", botName, "type", type)
+                .register(registry);
+    }
+
+    private Timer handlerTimer(Tags tags) {
+        return Timer.builder(HANDLER_TIMER)
+                .description("Invocations of the handler methods of JDA4Spring bots, until their async result completed")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * @return the simple class name of the exception the handler threw, without the wrappers around it
+     */
+    static String exceptionName(Throwable error) {
+        Throwable current = error;
+        //MethodInvoker wraps exceptions of the method in a plain RuntimeException, futures in a CompletionException
+        while (current.getCause() != null && (current instanceof CompletionException || current instanceof ExecutionException
+                || current.getClass() == RuntimeException.class)) {
+            current = current.getCause();
+        }
+        return current.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,30 @@
+package xyz.norbjert.jda4spring.internal.recording;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One gateway payload of a recording, see {@link GatewayRecordWriter} for the file format.
+ *
+ * @param offsetNanos when the payload was received, in nanoseconds since the recording started
+ * @param shardId the shard that received it, 0 for bots that are not sharded
+ * @param payload the payload as discord sent it ({@code {"op":0,"t":"MESSAGE_CREATE","s":42,"d":{...}}}), UTF-8 JSON.
+ *                A read-only view into the mapped file, so it is only copied to the heap by {@link #payloadBytes()}
+ */
+public record GatewayRecord(long offsetNanos, int shardId, ByteBuffer payload) {
+
+    /**
+     * @return a copy of the payload
+     */
+    public byte[] payloadBytes() {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "GatewayRecord[" + offsetNanos / 1_000_000 + " ms, shard " + shardId + ", "
+                + new String(payloadBytes(), StandardCharsets.UTF_8) + "]";
+    }
+}
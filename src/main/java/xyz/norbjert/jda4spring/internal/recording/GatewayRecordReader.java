@@ -0,0 +1,131 @@
+package xyz.norbjert.jda4spring.internal.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a recording of {@link GatewayRecordWriter} from start to end. The file is memory mapped in windows of 64 MB,
+ * so a recording of several GB doesn't have to fit in the heap, and the payloads are views into the mapping instead of copies.
+ * A last record that was cut off (the bot crashed while writing it) is treated as the end of the recording.
+ * Not thread safe.
+ */
+public final class GatewayRecordReader implements Closeable {
+
+    static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long windowBytes;
+    private final long size;
+    private final long startEpochMillis;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    private GatewayRecordReader(FileChannel channel, long windowBytes, long size, long startEpochMillis) {
+        this.channel = channel;
+        this.windowBytes = windowBytes;
+        this.size = size;
+        this.startEpochMillis = startEpochMillis;
+        this.position = GatewayRecordWriter.FILE_HEADER_BYTES;
+    }
+
+    /**
+     * @param file a recording
+     * @return a reader positioned at the first record
+     * @throws IOException if the file cannot be read, or is no recording (of this version)
+     */
+    public static GatewayRecordReader open(Path file) throws IOException {
+        return open(file, WINDOW_BYTES);
+    }
+
+    //smaller windows for the tests
+    static GatewayRecordReader open(Path file, long windowBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(GatewayRecordWriter.FILE_HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                //read until the header is complete or the file ends
+            }
+            header.flip();
+            byte[] magic = new byte[GatewayRecordWriter.MAGIC.length];
+            if (header.remaining() < GatewayRecordWriter.FILE_HEADER_BYTES || !Arrays.equals(readMagic(header, magic), GatewayRecordWriter.MAGIC)) {
+                throw new IOException(file + " is not a gateway recording");
+            }
+            int version = header.getInt();
+            if (version != GatewayRecordWriter.VERSION) {
+                throw new IOException(file + " is a gateway recording of version " + version
+                        + ", only version " + GatewayRecordWriter.VERSION + " is supported");
+            }
+            return new GatewayRecordReader(channel, windowBytes, size, header.getLong());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static byte[] readMagic(ByteBuffer header, byte[] magic) {
+        header.get(magic);
+        return magic;
+    }
+
+    /**
+     * @return the next record, or {@code null} at the end of the recording
+     * @throws IOException if reading the file failed
+     */
+    public GatewayRecord next() throws IOException {
+        int headerBytes = GatewayRecordWriter.RECORD_HEADER_BYTES;
+        if (position + headerBytes > size) {
+            return null;
+        }
+        map(position, headerBytes);
+        int at = (int) (position - windowStart);
+        int length = window.getInt(at);
+        long offsetNanos = window.getLong(at + Integer.BYTES);
+        int shardId = window.getInt(at + Integer.BYTES + Long.BYTES);
+        if (length < 0 || position + headerBytes + length > size) {
+            return null;
+        }
+        map(position, headerBytes + length);
+        at = (int) (position - windowStart);
+        ByteBuffer payload = window.slice(at + headerBytes, length).asReadOnlyBuffer();
+        position += headerBytes + length;
+        return new GatewayRecord(offsetNanos, shardId, payload);
+    }
+
+    //makes sure the given range is in the mapped window
+    private void map(long from, int bytes) throws IOException {
+        if (window != null && from >= windowStart && from + bytes <= windowStart + window.capacity()) {
+            return;
+        }
+        long length = Math.min(size - from, Math.max(windowBytes, bytes));
+        window = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        windowStart = from;
+    }
+
+    /**
+     * @return when the recording started, in epoch millis
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * @return the position in the file after the last record read
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,172 @@
+package xyz.norbjert.jda4spring.internal.recording;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends gateway payloads to a recording file. The format is made for streaming writes and memory mapped reads:
+ * <pre>
+ * header:  8 bytes magic "JDA4SGWR", int version (1), long start of the recording (epoch millis)
+ * records: int payload length, long offset (nanoseconds since the start), int shard ID, the payload (UTF-8 JSON)
+ * </pre>
+ * All numbers are big-endian. The records are never rewritten, only appended: opening an existing recording continues it,
+ * with the offsets still counted from its original start, after dropping a last record that was cut off by a crash.
+ * Writes are buffered, a background thread flushes them to the file every second, and so does {@link #close()}.
+ */
+public final class GatewayRecordWriter implements Closeable {
+
+    static final byte[] MAGIC = "JDA4SGWR".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = MAGIC.length + Integer.BYTES + Long.BYTES;
+    static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final Logger logger = LoggerFactory.getLogger(GatewayRecordWriter.class);
+    //one daemon thread flushes all open recordings, so the last records of a quiet gateway don't stay in the buffer
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jda4spring-recording-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path file;
+    private final DataOutputStream out;
+    private final long startEpochMillis;
+    //the offset of the first record written by this writer, the nano time only counts from now on
+    private final long baseOffsetNanos;
+    private final long openedNanos = System.nanoTime();
+    //whether records were appended since the last flush
+    private boolean unflushed;
+    private boolean closed;
+    private ScheduledFuture<?> scheduledFlush;
+
+    private GatewayRecordWriter(Path file, FileChannel channel, long startEpochMillis) {
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES));
+        this.startEpochMillis = startEpochMillis;
+        this.baseOffsetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - startEpochMillis));
+    }
+
+    /**
+     * @param file the recording to write, created if it doesn't exist and continued if it does
+     * @return the writer
+     * @throws IOException if the file cannot be written, or it exists but is no recording
+     */
+    public static GatewayRecordWriter open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long startEpochMillis = System.currentTimeMillis();
+        long validLength = 0;
+        if (Files.exists(file) && Files.size(file) > 0) {
+            try (GatewayRecordReader reader = GatewayRecordReader.open(file)) {
+                startEpochMillis = reader.getStartEpochMillis();
+                while (reader.next() != null) {
+                    //only looking for the end of the last complete record
+                }
+                validLength = reader.position();
+            }
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (validLength == 0) {
+                channel.truncate(0);
+                DataOutputStream header = new DataOutputStream(Channels.newOutputStream(channel));
+                header.write(MAGIC);
+                header.writeInt(VERSION);
+                header.writeLong(startEpochMillis);
+                header.flush();
+            } else {
+                channel.truncate(validLength);
+                channel.position(validLength);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        GatewayRecordWriter writer = new GatewayRecordWriter(file, channel, startEpochMillis);
+        writer.scheduledFlush = FLUSHER.scheduleWithFixedDelay(writer::scheduledFlush,
+                FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        return writer;
+    }
+
+    /**
+     * @param shardId the shard that received the payload
+     * @param payload the payload, UTF-8 JSON
+     * @throws IOException if writing to the file failed
+     */
+    public synchronized void append(int shardId, byte[] payload) throws IOException {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        out.writeInt(payload.length);
+        out.writeLong(baseOffsetNanos + (now - openedNanos));
+        out.writeInt(shardId);
+        out.write(payload);
+        unflushed = true;
+    }
+
+    /**
+     * writes the buffered records to the file
+     *
+     * @throws IOException if writing to the file failed
+     */
+    public synchronized void flush() throws IOException {
+        if (!closed && unflushed) {
+            unflushed = false;
+            out.flush();
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (IOException e) {
+            //the next append most likely fails the same way, and gets logged by the recorder
+            logger.warn("Failed to flush the gateway recording {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * @return when the recording started, in epoch millis
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * @return the recording file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * writes the buffered records and closes the file, payloads appended after that are dropped
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            scheduledFlush.cancel(false);
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package xyz.norbjert.jda4spring.internal.recording;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.RawGatewayEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Records every dispatch a bot receives from the gateway (the raw JSON, before JDA parses it) into a recording file,
+ * for {@code bots.<name>.record}. The recording can be replayed later, f.e. into a bot connected to the
+ * {@code FakeDiscord} of the test fixtures, to reproduce real traffic without discord.
+ * <p>
+ * The payloads are written on the thread that reads the gateway, into a buffer that is flushed once a second,
+ * so recording costs about one copy of each payload. Recordings contain everything the bot sees, messages included:
+ * treat them like the data of your users.
+ */
+public final class GatewayRecorder extends ListenerAdapter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayRecorder.class);
+
+    private final GatewayRecordWriter writer;
+    private volatile boolean failing;
+
+    /**
+     * @param writer the recording to append to
+     */
+    public GatewayRecorder(GatewayRecordWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param botName the name of the bot, for the error message
+     * @param configValue the value of bots.&lt;name&gt;.record, the path of the recording
+     * @return the recorder, or {@code null} if the value is empty
+     * @throws IllegalArgumentException if the recording cannot be opened
+     */
+    public static GatewayRecorder fromConfigValue(String botName, String configValue) {
+        if (configValue == null || configValue.isBlank()) {
+            return null;
+        }
+        Path file = Path.of(configValue.trim());
+        try {
+            GatewayRecordWriter writer = GatewayRecordWriter.open(file);
+            logger.info("Recording the gateway events of bot '{}' to {}", botName, file.toAbsolutePath());
+            return new GatewayRecorder(writer);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid bots." + botName + ".record: cannot write the recording " + file
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onRawGateway(@NotNull RawGatewayEvent event) {
+        //the shard info of a JDA instance that is not sharded is null
+        JDA.ShardInfo shardInfo = event.getJDA().getShardInfo();
+        try {
+            writer.append(shardInfo == null ? 0 : shardInfo.getShardId(), event.getPackage().toJson());
+            failing = false;
+        } catch (IOException e) {
+            //once, not for every event while the disk is full
+            if (!failing) {
+                failing = true;
+                logger.error("Failed to record a gateway event to {}: {}", writer.getFile(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the recording file
+     */
+    public Path getFile() {
+        return writer.getFile();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
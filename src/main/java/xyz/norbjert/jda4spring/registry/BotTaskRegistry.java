@@ -0,0 +1,30 @@
+package xyz.norbjert.jda4spring.registry;
+
+import java.util.List;
+
+/**
+ * Lists the handler methods of one bot task class, so they do not have to be found by scanning the class on startup.
+ * Implementations are generated at compile time by the {@code jda4spring-processor} annotation processor,
+ * one per class with {@code @SlashCommand}, {@code @OnChatMessage}, {@code @Button} or {@code @ButtonHandler} methods.
+ * They are named like the bot task class plus {@link #CLASS_NAME_SUFFIX}, in the same package,
+ * f.e. {@code com.example.ExampleBot_Jda4SpringRegistry}.
+ * <p>
+ * If there is no registry for a bot task (f.e. because the processor is not set up), the bot task is scanned via reflection like before.
+ */
+public interface BotTaskRegistry {
+
+    /**
+     * appended to the binary name of the bot task class to get the name of its registry
+     */
+    String CLASS_NAME_SUFFIX = "_Jda4SpringRegistry";
+
+    /**
+     * @return the bot task class this registry was generated for
+     */
+    Class<?> botTaskType();
+
+    /**
+     * @return the handler methods declared by the bot task class, one entry per kind of handler annotation
+     */
+    List<GeneratedHandler> handlers();
+}
@@ -0,0 +1,84 @@
+package xyz.norbjert.jda4spring.registry;
+
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * A handler method as listed by a generated {@link BotTaskRegistry}.
+ *
+ * @param kind which kind of handler annotation this entry is for
+ * @param method the handler method
+ * @param invoker calls the method directly, or {@code null} if it cannot be called from generated code (f.e. because it is private)
+ * @param commandName the name the slash command is registered under, only for {@link Kind#SLASH_COMMAND}
+ * @param commandData creates the slash command data for discord, only for {@link Kind#SLASH_COMMAND}
+ */
+public record GeneratedHandler(Kind kind, Method method, HandlerInvoker invoker,
+                               String commandName, Supplier<SlashCommandData> commandData) {
+
+    /**
+     * the kinds of handler annotations
+     */
+    public enum Kind {
+        /**
+         * {@code @SlashCommand}
+         */
+        SLASH_COMMAND,
+        /**
+         * {@code @OnChatMessage}
+         */
+        CHAT_MESSAGE,
+        /**
+         * {@code @Button} or {@code @ButtonHandler}
+         */
+        BUTTON
+    }
+
+    /**
+     * @param method the handler method
+     * @param invoker calls the method directly, or {@code null}
+     * @param commandName the (lower case) name of the slash command
+     * @param commandData creates the slash command data
+     * @return an entry for a {@code @SlashCommand} method
+     */
+    public static GeneratedHandler slashCommand(Method method, HandlerInvoker invoker, String commandName, Supplier<SlashCommandData> commandData) {
+        return new GeneratedHandler(Kind.SLASH_COMMAND, method, invoker, commandName, commandData);
+    }
+
+    /**
+     * @param method the handler method
+     * @param invoker calls the method directly, or {@code null}
+     * @return an entry for an {@code @OnChatMessage} method
+     */
+    public static GeneratedHandler chatMessage(Method method, HandlerInvoker invoker) {
+        return new GeneratedHandler(Kind.CHAT_MESSAGE, method, invoker, null, null);
+    }
+
+    /**
+     * @param method the handler method
+     * @param invoker calls the method directly, or {@code null}
+     * @return an entry for a {@code @Button} or {@code @ButtonHandler} method
+     */
+    public static GeneratedHandler button(Method method, HandlerInvoker invoker) {
+        return new GeneratedHandler(Kind.BUTTON, method, invoker, null, null);
+    }
+
+    /**
+     * Used by the generated registries to look up their handler methods, without scanning all methods of the class.
+     *
+     * @param type the bot task class
+     * @param name the name of the method
+     * @param parameterTypes the (erased) parameter types of the method
+     * @return the method
+     * @throws IllegalStateException if the method does not exist (anymore), f.e. because the registry is out of date
+     */
+    public static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getDeclaredMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The generated registry of " + type.getName() + " lists method " + name
+                    + ", which does not exist. Recompile the class to update the registry.", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package xyz.norbjert.jda4spring.registry;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A handler method that has been prepared for invocation once, so calling it does not need to
+ * look anything up or check access again.
+ * Implementations are created by the configured invocation strategy ({@code jda4spring.invoker}),
+ * or generated as lambdas into the {@link BotTaskRegistry} of a bot task by the {@code jda4spring-processor} annotation processor.
+ * <p>
+ * Handlers with up to {@link #MAX_FIXED_ARITY} parameters can also be called through the fixed arity methods, which
+ * invokers that call the method directly override to skip the argument array. By default they just build that array.
+ */
+@FunctionalInterface
+public interface HandlerInvoker {
+
+    /**
+     * the highest parameter count that has a fixed arity invoke method
+     */
+    int MAX_FIXED_ARITY = 3;
+
+    /**
+     * the argument array for methods without parameters, shared since it's empty anyway
+     */
+    Object[] NO_ARGS = new Object[0];
+
+    /**
+     * Invokes the prepared method.
+     *
+     * @param target The object instance on which the method should be invoked.
+     * @param args The arguments for the method, exactly one per method parameter.
+     * @return The return value of the method, or {@code null} for {@code void} methods.
+     * @throws InvocationTargetException If the invoked method itself threw an exception.
+     * @throws IllegalAccessException If the method cannot be accessed.
+     * @throws IllegalArgumentException If the arguments do not fit the method signature.
+     */
+    Object invoke(Object target, Object[] args) throws InvocationTargetException, IllegalAccessException;
+
+    /**
+     * Same as {@link #invoke(Object, Object[])} for a method without parameters.
+     */
+    default Object invoke0(Object target) throws InvocationTargetException, IllegalAccessException {
+        return invoke(target, NO_ARGS);
+    }
+
+    /**
+     * Same as {@link #invoke(Object, Object[])} for a method with one parameter.
+     */
+    default Object invoke1(Object target, Object arg0) throws InvocationTargetException, IllegalAccessException {
+        return invoke(target, new Object[]{arg0});
+    }
+
+    /**
+     * Same as {@link #invoke(Object, Object[])} for a method with two parameters.
+     */
+    default Object invoke2(Object target, Object arg0, Object arg1) throws InvocationTargetException, IllegalAccessException {
+        return invoke(target, new Object[]{arg0, arg1});
+    }
+
+    /**
+     * Same as {@link #invoke(Object, Object[])} for a method with three parameters.
+     */
+    default Object invoke3(Object target, Object arg0, Object arg1, Object arg2) throws InvocationTargetException, IllegalAccessException {
+        return invoke(target, new Object[]{arg0, arg1, arg2});
+    }
+}
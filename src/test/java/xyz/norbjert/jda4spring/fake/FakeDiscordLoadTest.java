@@ -0,0 +1,163 @@
+package xyz.norbjert.jda4spring.fake;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.annotations.Button;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.internal.BotSettings;
+import xyz.norbjert.jda4spring.internal.DiscordBot;
+import xyz.norbjert.jda4spring.internal.DiscordEndpoint;
+import xyz.norbjert.jda4spring.internal.HandlerDispatcher;
+import xyz.norbjert.jda4spring.internal.commands.SlashCommandSync;
+import xyz.norbjert.jda4spring.internal.recording.GatewayRecordWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End to end load test: a real {@link DiscordBot} logs into the {@link FakeDiscord} and answers messages,
+ * slash commands and button clicks at a fixed rate, and a replayed recording. No discord account or network needed.
+ * Run via: ./gradlew loadTest
+ */
+@Tag("load")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FakeDiscordLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeDiscordLoadTest.class);
+    private static final int GUILDS = 8;
+
+    static FakeDiscord discord;
+    static DiscordBot bot;
+    static LoadTestTask task;
+
+    // -- Dummy BotTask classes --
+
+    @BotTask("LoadTestTask")
+    static class LoadTestTask {
+        final AtomicInteger pings = new AtomicInteger();
+
+        @SlashCommand(command = "ping", description = "Replies with pong")
+        public void ping(SlashCommandInteractionEvent event) {
+            pings.incrementAndGet();
+            event.reply("pong").queue();
+        }
+
+        @OnChatMessage(ifMsgContains = "hello")
+        public void hello(MessageReceivedEvent event) {
+            event.getMessage().reply("hi").queue();
+        }
+
+        @Button("vote:*")
+        public void vote(ButtonInteractionEvent event) {
+            event.deferEdit().queue();
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws IOException, InterruptedException {
+        discord = FakeDiscord.start(GUILDS);
+        task = new LoadTestTask();
+        bot = new DiscordBot(
+                "fake-token",
+                List.of(task),
+                null,
+                List.of(GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT),
+                BotSettings.defaults()
+                        .withDispatcher(HandlerDispatcher.virtualThreads("LoadTest"))
+                        .withCommandSync(SlashCommandSync.of(SlashCommandSync.Mode.OVERWRITE, Files.createTempDirectory("jda4spring-load-test")))
+                        .withEndpoint(DiscordEndpoint.fromConfigValues(discord.getRestUrl(), discord.getGatewayUrl()))
+        );
+        bot.login();
+    }
+
+    @AfterAll
+    static void tearDown() throws InterruptedException {
+        if (bot != null) {
+            bot.shutdown();
+        }
+        if (discord != null) {
+            discord.close();
+        }
+    }
+
+    // -- Tests --
+
+    @Test
+    @Order(1)
+    void botLogsIntoTheFakeDiscord() throws InterruptedException {
+        assertEquals(JDA.Status.CONNECTED, bot.getJda().getStatus());
+        assertEquals(GUILDS, bot.getJda().getGuilds().size());
+        assertEquals(1, discord.getConnectedShards());
+
+        //the commands are registered in the background after the login
+        for (int i = 0; i < 50 && discord.getCommandNames().isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(List.of("ping"), discord.getCommandNames());
+    }
+
+    @Test
+    @Order(2)
+    void answersSingleEvents() throws InterruptedException {
+        discord.sendSlashCommand(discord.getGuildIds().get(0), "ping");
+
+        for (int i = 0; i < 50 && !discord.getRequestCounts().containsKey("POST interactions/{id}/{token}/callback"); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, task.pings.get());
+        assertEquals(Long.valueOf(1), discord.getRequestCounts().get("POST interactions/{id}/{token}/callback"));
+    }
+
+    @Test
+    @Order(3)
+    void answersEveryEventUnderLoad() throws InterruptedException {
+        LoadReport report = discord.runLoad(Duration.ofSeconds(10),
+                EventRate.messages(200, "hello there"),
+                EventRate.slashCommands(200, "ping"),
+                EventRate.buttonClicks(100, "vote:42"));
+
+        logger.info("Load test: {}", report);
+        assertTrue(report.sent() > 4000, "sent only " + report.sent());
+        assertEquals(report.sent(), report.acked(), "some events were not answered");
+        assertTrue(report.p99().compareTo(Duration.ofSeconds(1)) < 0, "p99 latency of " + report.p99());
+    }
+
+    @Test
+    @Order(4)
+    void replaysARecordedRaid(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Path recording = tempDir.resolve("raid.rec");
+        try (GatewayRecordWriter writer = GatewayRecordWriter.open(recording)) {
+            for (int i = 0; i < 2000; i++) {
+                long guildId = discord.getGuildIds().get(i % GUILDS);
+                DataObject dispatch = DataObject.empty()
+                        .put("op", 0)
+                        .put("t", "MESSAGE_CREATE")
+                        .put("s", i + 1)
+                        .put("d", Payloads.messageCreate(discord.nextId(), guildId, discord.getChannelId(guildId), "hello everyone"));
+                writer.append(0, dispatch.toJson());
+            }
+        }
+
+        LoadReport report = discord.replay(recording, Double.POSITIVE_INFINITY);
+
+        logger.info("Replay: {}", report);
+        assertEquals(2000, report.sent());
+        assertEquals(2000, report.acked(), "some messages were not answered");
+    }
+}
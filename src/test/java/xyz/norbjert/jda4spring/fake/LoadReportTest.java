@@ -0,0 +1,47 @@
+package xyz.norbjert.jda4spring.fake;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadReportTest {
+
+    // -- Tests --
+
+    @Test
+    void computesNearestRankPercentiles() {
+        long[] latencies = new long[100];
+        for (int i = 0; i < latencies.length; i++) {
+            //1 to 100 ms, in reverse order
+            latencies[i] = Duration.ofMillis(100 - i).toNanos();
+        }
+
+        LoadReport report = LoadReport.of(120, latencies, Duration.ofSeconds(2));
+
+        assertEquals(120, report.sent());
+        assertEquals(100, report.acked());
+        assertEquals(Duration.ofMillis(50), report.p50());
+        assertEquals(Duration.ofMillis(99), report.p99());
+        assertEquals(Duration.ofMillis(100), report.max());
+        assertEquals(50.0, report.throughput(), 0.001);
+    }
+
+    @Test
+    void reportsZeroWithoutAnswers() {
+        LoadReport report = LoadReport.of(10, new long[0], Duration.ofSeconds(1));
+
+        assertEquals(0, report.acked());
+        assertEquals(Duration.ZERO, report.p99());
+        assertEquals(0.0, report.throughput());
+    }
+
+    @Test
+    void rejectsInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> EventRate.messages(0, "hello"));
+        assertThrows(IllegalArgumentException.class, () -> EventRate.slashCommands(Double.NaN, "ping"));
+        assertThrows(IllegalArgumentException.class, () -> EventRate.buttonClicks(10, null));
+        assertEquals(10_000_000, EventRate.messages(100, "hello").periodNanos());
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.norbjert.jda4spring.fake;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketConnectionTest {
+
+    //"Hello" from a client, masked, the example from RFC 6455 section 5.7
+    private static final byte[] MASKED_HELLO = {(byte) 0x81, (byte) 0x85, 0x37, (byte) 0xfa, 0x21, 0x3d, 0x7f, (byte) 0x9f, 0x4d, 0x51, 0x58};
+
+    // -- Tests --
+
+    @Test
+    void computesTheAcceptKey() {
+        //the example from RFC 6455 section 1.3
+        assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", WebSocketConnection.acceptKey("dGhlIHNhbXBsZSBub25jZQ=="));
+    }
+
+    @Test
+    void readsMaskedFrames() throws IOException {
+        WebSocketConnection.Frame frame = WebSocketConnection.readFrame(new ByteArrayInputStream(MASKED_HELLO));
+
+        assertTrue(frame.fin());
+        assertEquals(WebSocketConnection.OP_TEXT, frame.opcode());
+        assertEquals("Hello", new String(frame.payload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writesUnmaskedFrames() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WebSocketConnection.writeFrame(out, WebSocketConnection.OP_TEXT, "Hello".getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(new byte[]{(byte) 0x81, 0x05, 0x48, 0x65, 0x6c, 0x6c, 0x6f}, out.toByteArray());
+    }
+
+    @Test
+    void usesExtendedLengthsForBigPayloads() throws IOException {
+        for (int length : new int[]{125, 126, 256, 65535, 65536, 200_000}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WebSocketConnection.writeFrame(out, WebSocketConnection.OP_BINARY, new byte[length]);
+            byte[] written = out.toByteArray();
+
+            int expectedHeader = length < 126 ? 2 : length <= 0xFFFF ? 4 : 10;
+            assertEquals(expectedHeader + length, written.length, "frame of " + length + " bytes");
+            assertEquals(length, WebSocketConnection.readFrame(new ByteArrayInputStream(written)).payload().length);
+        }
+    }
+}
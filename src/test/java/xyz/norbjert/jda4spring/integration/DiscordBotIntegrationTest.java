@@ -12,7 +12,6 @@ import xyz.norbjert.jda4spring.annotations.OnChatMessage;
 import xyz.norbjert.jda4spring.annotations.SlashCommand;
 import xyz.norbjert.jda4spring.internal.DiscordBot;
 
-import javax.security.auth.login.LoginException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,7 +49,7 @@ class DiscordBotIntegrationTest {
     }
 
     @BeforeAll
-    static void setUp() throws LoginException, InterruptedException {
+    static void setUp() throws InterruptedException {
         String token = System.getenv("DISCORD_TEST_BOT_TOKEN");
         assumeTrue(token != null && !token.isBlank(), "DISCORD_TEST_BOT_TOKEN not set — skipping integration tests");
 
@@ -61,11 +60,12 @@ class DiscordBotIntegrationTest {
                 null,
                 List.of(GatewayIntent.GUILD_MESSAGES, GatewayIntent.DIRECT_MESSAGES, GatewayIntent.MESSAGE_CONTENT)
         );
+        bot.login();
     }
 
     @AfterAll
     static void tearDown() {
-        if (bot != null) {
+        if (bot != null && bot.getJda() != null) {
             bot.getJda().shutdown();
         }
     }
@@ -22,6 +22,10 @@ class AnnotationProcessorTest {
         public void notAnnotated() {}
     }
 
+    //named like the subclasses spring generates for CGLIB proxies, which don't have the annotations of the bean class
+    static class TaskWithSlashCommand$$SpringCGLIB$$0 extends TaskWithSlashCommand {
+    }
+
     static class TaskWithChatMessage {
         @OnChatMessage(ifMsgContains = "hello")
         public void onHello(MessageReceivedEvent event) {}
@@ -58,6 +62,13 @@ class AnnotationProcessorTest {
         assertEquals("ping", methods.get(0).getName());
     }
 
+    @Test
+    void findSlashCommands_scansClassBehindProxy() {
+        List<Method> methods = AnnotationProcessor.findSlashCommands(List.of(new TaskWithSlashCommand$$SpringCGLIB$$0()));
+        assertEquals(1, methods.size());
+        assertEquals("ping", methods.get(0).getName());
+    }
+
     @Test
     void findSlashCommands_ignoresUnannotatedMethods() {
         List<Method> methods = AnnotationProcessor.findSlashCommands(List.of(new TaskWithNoAnnotations()));
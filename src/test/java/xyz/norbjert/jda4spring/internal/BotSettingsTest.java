@@ -0,0 +1,44 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotSettingsTest {
+
+    // -- Tests --
+
+    @Test
+    void defaultsAreALightSingleConnectionToDiscord() {
+        BotSettings settings = BotSettings.defaults();
+
+        assertEquals(HandlerDispatcher.Mode.INLINE, settings.dispatcher().getMode());
+        assertNull(settings.shards());
+        assertSame(CacheSettings.LIGHT, settings.cacheSettings());
+        assertSame(DiscordEndpoint.DISCORD, settings.endpoint());
+    }
+
+    @Test
+    void everyBotGetsItsOwnDispatcher() {
+        assertNotSame(BotSettings.defaults().dispatcher(), BotSettings.defaults().dispatcher());
+    }
+
+    @Test
+    void withMethodsOnlyChangeTheirSetting() {
+        BotSettings defaults = BotSettings.defaults();
+        ShardConfig shards = ShardConfig.fromConfigValue("0-1/4");
+
+        BotSettings sharded = defaults.withShards(shards);
+
+        assertSame(shards, sharded.shards());
+        assertSame(defaults.dispatcher(), sharded.dispatcher());
+        assertSame(defaults.commandSync(), sharded.commandSync());
+        assertNull(defaults.shards());
+    }
+
+    @Test
+    void rejectsMissingSettings() {
+        assertThrows(NullPointerException.class, () -> BotSettings.defaults().withDispatcher(null));
+        assertThrows(NullPointerException.class, () -> BotSettings.defaults().withEndpoint(null));
+    }
+}
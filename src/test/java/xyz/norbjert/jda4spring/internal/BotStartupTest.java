@@ -0,0 +1,89 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotStartupTest {
+
+    // -- Tests --
+
+    @Test
+    void returnsStartedBotsInConfigOrder() throws InterruptedException {
+        Map<String, Callable<String>> startups = new LinkedHashMap<>();
+        startups.put("slow", () -> {
+            Thread.sleep(50);
+            return "slow bot";
+        });
+        startups.put("fast", () -> "fast bot");
+
+        Map<String, String> started = BotStartup.startAll(startups, 2);
+
+        assertEquals(List.of("slow", "fast"), List.copyOf(started.keySet()));
+        assertEquals("slow bot", started.get("slow"));
+    }
+
+    @Test
+    void startsBotsConcurrently() throws InterruptedException {
+        //only gets past the barrier if all three log in at the same time
+        CyclicBarrier allLoggingIn = new CyclicBarrier(3);
+        Map<String, Callable<String>> startups = new LinkedHashMap<>();
+        for (String name : List.of("a", "b", "c")) {
+            startups.put(name, () -> {
+                allLoggingIn.await(5, TimeUnit.SECONDS);
+                return name;
+            });
+        }
+
+        assertEquals(3, BotStartup.startAll(startups, 3).size());
+    }
+
+    @Test
+    void respectsParallelismLimit() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, Callable<Integer>> startups = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            int bot = i;
+            startups.put("bot" + i, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+                return bot;
+            });
+        }
+
+        assertEquals(8, BotStartup.startAll(startups, 2).size());
+        assertTrue(maxRunning.get() <= 2, () -> "ran " + maxRunning.get() + " startups at once");
+    }
+
+    @Test
+    void failingBotDoesNotStopTheOthers() throws InterruptedException {
+        Map<String, Callable<String>> startups = new LinkedHashMap<>();
+        startups.put("broken", () -> {
+            throw new IllegalStateException("invalid token");
+        });
+        startups.put("working", () -> "working bot");
+
+        Map<String, String> started = BotStartup.startAll(startups, 1);
+
+        assertEquals(Map.of("working", "working bot"), started);
+    }
+
+    @Test
+    void parsesParallelism() {
+        assertEquals(BotStartup.DEFAULT_PARALLELISM, BotStartup.parallelismFromConfigValue(null));
+        assertEquals(BotStartup.DEFAULT_PARALLELISM, BotStartup.parallelismFromConfigValue(" "));
+        assertEquals(8, BotStartup.parallelismFromConfigValue(" 8 "));
+        assertThrows(IllegalArgumentException.class, () -> BotStartup.parallelismFromConfigValue("0"));
+        assertThrows(IllegalArgumentException.class, () -> BotStartup.parallelismFromConfigValue("many"));
+    }
+}
@@ -0,0 +1,84 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.annotations.Button;
+import xyz.norbjert.jda4spring.annotations.ButtonHandler;
+import xyz.norbjert.jda4spring.internal.invokers.ButtonInteractionInvoker;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ButtonDispatchIndexTest {
+
+    // -- Dummy BotTask class --
+
+    static class Task {
+        @Button("hello")
+        public void hello(ButtonInteractionEvent event) {}
+
+        @Button("page:*")
+        public void page(ButtonInteractionEvent event) {}
+
+        @Button("page:42:*")
+        public void page42(ButtonInteractionEvent event) {}
+
+        @ButtonHandler
+        public void any(ButtonInteractionEvent event) {}
+
+        @Button("hello")
+        @ButtonHandler
+        public void both(ButtonInteractionEvent event) {}
+    }
+
+    private static ButtonDispatchIndex index() {
+        Task task = new Task();
+        List<CompiledHandler<ButtonInteractionEvent>> handlers = new ArrayList<>();
+        for (Method method : Task.class.getDeclaredMethods()) {
+            handlers.add(ButtonInteractionInvoker.compile(method, task));
+        }
+        return ButtonDispatchIndex.build(handlers);
+    }
+
+    private static List<String> names(List<CompiledHandler<ButtonInteractionEvent>> handlers) {
+        return handlers.stream().map(h -> h.getMethod().getName()).toList();
+    }
+
+    // -- Tests --
+
+    @Test
+    void exactMatchComesBeforeCatchAllHandlers() {
+        List<String> matches = names(index().find("hello"));
+        assertEquals(3, matches.size());
+        assertEquals("hello", matches.get(0));
+        assertTrue(matches.containsAll(List.of("any", "both")));
+    }
+
+    @Test
+    void methodWithButtonAndButtonHandlerIsOnlyCalledOnce() {
+        assertEquals(1, names(index().find("hello")).stream().filter("both"::equals).count());
+    }
+
+    @Test
+    void prefixMatchesFromShortestToLongest() {
+        List<String> matches = names(index().find("page:42:user:123"));
+        assertEquals(List.of("page", "page42"), matches.subList(0, 2));
+    }
+
+    @Test
+    void prefixDoesNotMatchShorterId() {
+        List<String> matches = names(index().find("page"));
+        assertFalse(matches.contains("page"));
+    }
+
+    @Test
+    void unknownIdOnlyReachesCatchAllHandlers() {
+        List<String> matches = names(index().find("unknown"));
+        assertEquals(2, matches.size());
+        assertTrue(matches.containsAll(List.of("any", "both")));
+    }
+}
@@ -0,0 +1,35 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheFootprintTest {
+
+    // -- Tests --
+
+    @Test
+    void emptyWithoutShards() {
+        CacheFootprint footprint = CacheFootprint.of(List.of(), CacheSettings.LIGHT);
+
+        assertEquals(0, footprint.estimatedBytes());
+    }
+
+    @Test
+    void countsMembersStillToBeChunked() {
+        CacheFootprint chunking = new CacheFootprint(1, 10, 5, 100, 1000, 100, 0);
+        CacheFootprint done = new CacheFootprint(1, 10, 5, 1000, 1000, 1000, 0);
+
+        assertEquals(done.estimatedBytes(), chunking.estimatedBytes());
+    }
+
+    @Test
+    void memberCacheFlagsCostPerMember() {
+        CacheFootprint withoutFlags = new CacheFootprint(1, 0, 0, 1000, 1000, 1000, 0);
+        CacheFootprint withFlags = new CacheFootprint(1, 0, 0, 1000, 1000, 1000, CacheFootprint.MEMBER_FLAG_BYTES);
+
+        assertEquals(1000 * CacheFootprint.MEMBER_FLAG_BYTES, withFlags.estimatedBytes() - withoutFlags.estimatedBytes());
+    }
+}
@@ -0,0 +1,62 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSettingsTest {
+
+    // -- Tests --
+
+    @Test
+    void nothingConfiguredMeansLight() {
+        assertSame(CacheSettings.LIGHT, CacheSettings.fromConfigValues(null, null, null));
+        assertSame(CacheSettings.LIGHT, CacheSettings.fromConfigValues("none", " None ", ""));
+        assertEquals(Set.of(), CacheSettings.LIGHT.requiredIntents());
+    }
+
+    @Test
+    void parsesMemberCacheAndChunking() {
+        CacheSettings settings = CacheSettings.fromConfigValues("ALL, owner", "123, 456", null);
+
+        assertTrue(settings.cachesAllMembers());
+        assertTrue(settings.chunks(123L));
+        assertFalse(settings.chunks(789L));
+        assertTrue(CacheSettings.fromConfigValues(null, "all", null).chunks(789L));
+        assertEquals(Set.of(GatewayIntent.GUILD_MEMBERS), settings.requiredIntents());
+    }
+
+    @Test
+    void parsesCacheFlags() {
+        CacheSettings settings = CacheSettings.fromConfigValues(null, null, "emoji, CacheFlag.STICKER");
+
+        assertEquals(EnumSet.of(CacheFlag.EMOJI, CacheFlag.STICKER), settings.getCacheFlags());
+    }
+
+    @Test
+    void enablesFlagsTheMemberCacheDependsOn() {
+        assertTrue(CacheSettings.fromConfigValues("voice", null, null).getCacheFlags().contains(CacheFlag.VOICE_STATE));
+        assertTrue(CacheSettings.fromConfigValues("online", null, null).getCacheFlags().contains(CacheFlag.ONLINE_STATUS));
+    }
+
+    @Test
+    void rejectsUnknownValues() {
+        assertThrows(IllegalArgumentException.class, () -> CacheSettings.fromConfigValues("everyone", null, null));
+        assertThrows(IllegalArgumentException.class, () -> CacheSettings.fromConfigValues(null, "some", null));
+        assertThrows(IllegalArgumentException.class, () -> CacheSettings.fromConfigValues(null, null, "EVERYTHING"));
+    }
+
+    @Test
+    void reportsMissingIntents() {
+        CacheSettings settings = CacheSettings.fromConfigValues("all", "all", null);
+
+        assertThrows(IllegalArgumentException.class, () -> settings.checkIntents("bot", List.of(GatewayIntent.GUILD_MESSAGES)));
+        assertDoesNotThrow(() -> settings.checkIntents("bot", List.of(GatewayIntent.GUILD_MEMBERS)));
+    }
+}
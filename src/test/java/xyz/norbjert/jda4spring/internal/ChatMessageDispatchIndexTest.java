@@ -0,0 +1,147 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+import xyz.norbjert.jda4spring.internal.invokers.ChatMessageInteractionInvoker;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageDispatchIndexTest {
+
+    @Mock MessageReceivedEvent event;
+    @Mock MessageChannelUnion channel;
+    @Mock Guild guild;
+    @Mock Message message;
+
+    // -- Dummy BotTask classes --
+
+    static class Task {
+        @OnChatMessage
+        public void everywhere(MessageReceivedEvent event) {}
+
+        @OnChatMessage(inChannelViaChannelId = "100")
+        public void inChannel(MessageReceivedEvent event) {}
+
+        @OnChatMessage(inChannelViaChannelId = "200")
+        public void otherChannel(MessageReceivedEvent event) {}
+
+        @OnChatMessage(onServerViaServerId = "10")
+        public void inGuild(MessageReceivedEvent event) {}
+
+        @OnChatMessage(onServerViaServerId = "20")
+        public void otherGuild(MessageReceivedEvent event) {}
+
+        @OnChatMessage(ifMsgContains = "hello")
+        public void hello(MessageReceivedEvent event) {}
+
+        @OnChatMessage(ifMsgContains = "Hello", ignoreCase = false)
+        public void helloCaseSensitive(MessageReceivedEvent event) {}
+
+        @OnChatMessage(ifMsgContains = "HELLO")
+        public void helloUpperCase(MessageReceivedEvent event) {}
+    }
+
+    static class TaskWithInvalidId {
+        @OnChatMessage(inChannelViaChannelId = "general")
+        public void invalid(MessageReceivedEvent event) {}
+    }
+
+    /**
+     * compiles the given methods of the task in exactly the given order,
+     * since getDeclaredMethods() does not guarantee any order
+     */
+    private static ChatMessageDispatchIndex index(Object task, String... methodNames) throws NoSuchMethodException {
+        List<CompiledHandler<ChatMessageContext>> handlers = new ArrayList<>();
+        for (String name : methodNames) {
+            handlers.add(ChatMessageInteractionInvoker.compile(task.getClass().getMethod(name, MessageReceivedEvent.class), task));
+        }
+        return ChatMessageDispatchIndex.build(handlers);
+    }
+
+    private static List<String> names(List<CompiledHandler<ChatMessageContext>> handlers) {
+        return handlers.stream().map(h -> h.getMethod().getName()).toList();
+    }
+
+    // -- Tests --
+
+    @Test
+    void returnsHandlersOfOwnChannelAndGuildInDeclarationOrder() throws NoSuchMethodException {
+        ChatMessageDispatchIndex index = index(new Task(),
+                "otherGuild", "inChannel", "everywhere", "otherChannel", "inGuild", "hello");
+
+        when(event.getChannel()).thenReturn(channel);
+        when(channel.getIdLong()).thenReturn(100L);
+        when(event.isFromGuild()).thenReturn(true);
+        when(event.getGuild()).thenReturn(guild);
+        when(guild.getIdLong()).thenReturn(10L);
+        when(event.getMessage()).thenReturn(message);
+        when(message.getContentRaw()).thenReturn("hey");
+
+        assertEquals(List.of("inChannel", "everywhere", "inGuild"), names(index.findMatching(new ChatMessageContext(event))));
+    }
+
+    @Test
+    void directMessagesOnlyReachGlobalHandlers() throws NoSuchMethodException {
+        ChatMessageDispatchIndex index = index(new Task(),
+                "hello", "inChannel", "inGuild", "everywhere");
+
+        when(event.getChannel()).thenReturn(channel);
+        when(channel.getIdLong()).thenReturn(300L);
+        when(event.isFromGuild()).thenReturn(false);
+        when(event.getMessage()).thenReturn(message);
+        when(message.getContentRaw()).thenReturn("HELLO there");
+
+        assertEquals(List.of("hello", "everywhere"), names(index.findMatching(new ChatMessageContext(event))));
+    }
+
+    @Test
+    void skipsIdLookupsWhenNoHandlerIsScoped() throws NoSuchMethodException {
+        ChatMessageDispatchIndex index = index(new Task(), "everywhere");
+
+        assertEquals(List.of("everywhere"), names(index.findMatching(new ChatMessageContext(event))));
+        verify(event, never()).getChannel();
+        verify(event, never()).getGuild();
+    }
+
+    @Test
+    void returnsEmptyListWhenNothingMatches() throws NoSuchMethodException {
+        ChatMessageDispatchIndex index = index(new Task(), "hello");
+
+        when(event.getMessage()).thenReturn(message);
+        when(message.getContentRaw()).thenReturn("bye");
+
+        assertTrue(index.findMatching(new ChatMessageContext(event)).isEmpty());
+    }
+
+    @Test
+    void contentFiltersAreMatchedPerIgnoreCaseMode() throws NoSuchMethodException {
+        ChatMessageDispatchIndex index = index(new Task(), "helloCaseSensitive", "hello", "helloUpperCase");
+
+        when(event.getMessage()).thenReturn(message);
+        when(message.getContentRaw()).thenReturn("oh hello");
+
+        assertEquals(List.of("hello", "helloUpperCase"), names(index.findMatching(new ChatMessageContext(event))));
+        verify(message, times(1)).getContentRaw();
+    }
+
+    @Test
+    void rejectsInvalidSnowflakeIds() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> index(new TaskWithInvalidId(), "invalid"));
+        assertTrue(ex.getMessage().contains("inChannelViaChannelId"));
+    }
+}
@@ -0,0 +1,62 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentMatcherTest {
+
+    private static List<Boolean> findAll(ContentMatcher matcher, String content) {
+        boolean[] found = matcher.findAll(content);
+        Boolean[] boxed = new Boolean[found.length];
+        for (int i = 0; i < found.length; i++) {
+            boxed[i] = found[i];
+        }
+        return List.of(boxed);
+    }
+
+    @Test
+    void findsAllNeedlesInOnePass() {
+        ContentMatcher matcher = ContentMatcher.compile(List.of("he", "she", "his", "hers"), false);
+        assertEquals(List.of(true, true, false, true), findAll(matcher, "ushers"));
+    }
+
+    @Test
+    void findsNeedlesThatAreSuffixesOfOtherNeedles() {
+        ContentMatcher matcher = ContentMatcher.compile(List.of("abcd", "bc", "c"), false);
+        assertEquals(List.of(false, true, true), findAll(matcher, "xabcx"));
+    }
+
+    @Test
+    void caseSensitiveModeRespectsCase() {
+        ContentMatcher matcher = ContentMatcher.compile(List.of("Hello"), false);
+        assertEquals(List.of(false), findAll(matcher, "hello world"));
+        assertEquals(List.of(true), findAll(matcher, "say Hello"));
+    }
+
+    @Test
+    void ignoreCaseModeFoldsNeedlesAndContent() {
+        ContentMatcher matcher = ContentMatcher.compile(List.of("HeLLo", "grüße"), true);
+        assertEquals(List.of(true, true), findAll(matcher, "HELLO and GRÜSSE... no, GRÜßE"));
+    }
+
+    @Test
+    void charsOutsideOfAllNeedlesResetTheMatch() {
+        ContentMatcher matcher = ContentMatcher.compile(List.of("ab"), false);
+        assertEquals(List.of(false), findAll(matcher, "a-b"));
+    }
+
+    @Test
+    void emptyMatcherFindsNothing() {
+        ContentMatcher matcher = ContentMatcher.compile(List.of(), true);
+        assertEquals(0, matcher.patternCount());
+        assertEquals(0, matcher.findAll("anything").length);
+    }
+
+    @Test
+    void rejectsEmptyNeedles() {
+        assertThrows(IllegalArgumentException.class, () -> ContentMatcher.compile(List.of(""), false));
+    }
+}
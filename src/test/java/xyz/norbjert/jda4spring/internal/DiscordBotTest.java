@@ -0,0 +1,76 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DiscordBotTest {
+
+    // -- Dummy BotTask classes --
+
+    static class Task {
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        @OnChatMessage
+        public void onAll(String content) {
+            received.add(content);
+        }
+    }
+
+    static class DuplicateCommandsTask {
+        @SlashCommand(command = "ping")
+        public void ping() {}
+
+        @SlashCommand(command = "ping")
+        public void pingAgain() {}
+    }
+
+    // -- Tests --
+
+    @Test
+    void buildsHandlerTablesBeforeLogin() {
+        Task task = new Task();
+        DiscordBot bot = new DiscordBot("token", List.of(task), null, List.of());
+        assertNull(bot.getJda());
+
+        MessageReceivedEvent event = mock(MessageReceivedEvent.class, Answers.RETURNS_DEEP_STUBS);
+        when(event.getMessage().getContentRaw()).thenReturn("hi");
+        bot.onMessageReceived(event);
+
+        assertEquals(List.of("hi"), task.received);
+    }
+
+    @Test
+    void reportsConfigErrorsWithoutConnecting() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiscordBot("token", List.of(new DuplicateCommandsTask()), null, List.of()));
+    }
+
+    @Test
+    void cannotLoginAfterShutdown() throws InterruptedException {
+        DiscordBot bot = new DiscordBot("token", List.of(new Task()), null, List.of());
+        bot.shutdown();
+
+        assertThrows(IllegalStateException.class, bot::login);
+        assertNull(bot.getJda());
+    }
+
+    @Test
+    void hasNoShardsBeforeLogin() {
+        DiscordBot bot = new DiscordBot("token", List.of(new Task()), null, List.of(),
+                BotSettings.defaults().withShards(ShardConfig.fromConfigValue("4")));
+
+        assertEquals(List.of(), bot.getJDAInstances());
+        assertEquals(Map.of(), bot.getShardStatus());
+        assertNull(bot.getShardManager());
+    }
+}
@@ -0,0 +1,34 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscordEndpointTest {
+
+    // -- Tests --
+
+    @Test
+    void noValuesMeanDiscord() {
+        assertSame(DiscordEndpoint.DISCORD, DiscordEndpoint.fromConfigValues(null, null));
+        assertSame(DiscordEndpoint.DISCORD, DiscordEndpoint.fromConfigValues(" ", ""));
+        assertTrue(DiscordEndpoint.DISCORD.isDiscord());
+    }
+
+    @Test
+    void parsesUrls() {
+        DiscordEndpoint endpoint = DiscordEndpoint.fromConfigValues(" http://127.0.0.1:8080/api/v10 ", "ws://127.0.0.1:8081/");
+
+        assertFalse(endpoint.isDiscord());
+        assertEquals("http://127.0.0.1:8080/api/v10/", endpoint.restUrl());
+        assertEquals("ws://127.0.0.1:8081/", endpoint.gatewayUrl());
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> DiscordEndpoint.fromConfigValues("http://localhost/api/v10/", null));
+        assertThrows(IllegalArgumentException.class, () -> DiscordEndpoint.fromConfigValues(null, "ws://localhost/"));
+        assertThrows(IllegalArgumentException.class, () -> DiscordEndpoint.fromConfigValues("ws://localhost/", "ws://localhost/"));
+        assertThrows(IllegalArgumentException.class, () -> DiscordEndpoint.fromConfigValues("http://localhost/", "http://localhost/"));
+    }
+}
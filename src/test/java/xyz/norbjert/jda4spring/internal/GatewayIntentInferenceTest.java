@@ -0,0 +1,85 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayIntentInferenceTest {
+
+    // -- Dummy BotTask classes --
+
+    static class SlashOnlyTask {
+        @SlashCommand(command = "ping")
+        public void ping(SlashCommandInteractionEvent event) {}
+    }
+
+    static class ChatTask {
+        @OnChatMessage
+        public void onAll(MessageReceivedEvent event) {}
+    }
+
+    static class ContentFilterTask {
+        @OnChatMessage(ifMsgContains = "hello")
+        public void hello(MessageReceivedEvent event) {}
+    }
+
+    static class ContentParameterTask {
+        @OnChatMessage
+        public void log(String content) {}
+    }
+
+    static class ContextParameterTask {
+        @OnChatMessage
+        public void log(ChatMessageContext context) {}
+    }
+
+    static class ServerOnlyTask {
+        @OnChatMessage(onServerViaServerId = "123")
+        public void onServer(MessageReceivedEvent event) {}
+    }
+
+    // -- Tests --
+
+    @Test
+    void interactionsNeedNoIntents() {
+        assertEquals(Set.of(), GatewayIntentInference.infer(List.of(new SlashOnlyTask()), CacheSettings.LIGHT));
+    }
+
+    @Test
+    void chatMessagesWithoutContent() {
+        assertEquals(EnumSet.of(GatewayIntent.GUILD_MESSAGES, GatewayIntent.DIRECT_MESSAGES),
+                GatewayIntentInference.infer(List.of(new ChatTask()), CacheSettings.LIGHT));
+    }
+
+    @Test
+    void contentOnlyWhenFilteredOrRead() {
+        Set<GatewayIntent> withContent = EnumSet.of(GatewayIntent.GUILD_MESSAGES, GatewayIntent.DIRECT_MESSAGES, GatewayIntent.MESSAGE_CONTENT);
+
+        assertEquals(withContent, GatewayIntentInference.infer(List.of(new ContentFilterTask()), CacheSettings.LIGHT));
+        assertEquals(withContent, GatewayIntentInference.infer(List.of(new ContentParameterTask()), CacheSettings.LIGHT));
+        assertEquals(withContent, GatewayIntentInference.infer(List.of(new ContextParameterTask()), CacheSettings.LIGHT));
+    }
+
+    @Test
+    void serverFilterNeedsNoDirectMessages() {
+        assertEquals(EnumSet.of(GatewayIntent.GUILD_MESSAGES),
+                GatewayIntentInference.infer(List.of(new ServerOnlyTask()), CacheSettings.LIGHT));
+    }
+
+    @Test
+    void addsIntentsOfTheCaches() {
+        CacheSettings cacheSettings = CacheSettings.fromConfigValues("all", null, null);
+
+        assertEquals(EnumSet.of(GatewayIntent.GUILD_MEMBERS), GatewayIntentInference.infer(List.of(new SlashOnlyTask()), cacheSettings));
+    }
+}
@@ -0,0 +1,107 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.internal.invokers.MethodInvoker;
+import xyz.norbjert.jda4spring.registry.BotTaskRegistry;
+import xyz.norbjert.jda4spring.registry.GeneratedHandler;
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedRegistriesTest {
+
+    // -- Dummy BotTask classes, with registries like the ones the processor generates --
+
+    static class TaskWithRegistry {
+        @OnChatMessage
+        public void listed(String content) {}
+
+        //not in the registry, to tell whether the registry or a scan was used
+        @OnChatMessage
+        public void unlisted(String content) {}
+    }
+
+    //named like the subclasses spring generates for CGLIB proxies
+    static class TaskWithRegistry$$SpringCGLIB$$0 extends TaskWithRegistry {
+    }
+
+    static final HandlerInvoker LISTED_INVOKER = (target, args) -> "direct call";
+
+    public static class TaskWithRegistry_Jda4SpringRegistry implements BotTaskRegistry {
+        @Override
+        public Class<?> botTaskType() {
+            return TaskWithRegistry.class;
+        }
+
+        @Override
+        public List<GeneratedHandler> handlers() {
+            return List.of(GeneratedHandler.chatMessage(
+                    GeneratedHandler.method(TaskWithRegistry.class, "listed", String.class), LISTED_INVOKER));
+        }
+    }
+
+    static class TaskWithStaleRegistry {
+        @SlashCommand(command = "renamed")
+        public void renamed() {}
+    }
+
+    public static class TaskWithStaleRegistry_Jda4SpringRegistry implements BotTaskRegistry {
+        @Override
+        public Class<?> botTaskType() {
+            return TaskWithStaleRegistry.class;
+        }
+
+        @Override
+        public List<GeneratedHandler> handlers() {
+            return List.of(GeneratedHandler.slashCommand(
+                    GeneratedHandler.method(TaskWithStaleRegistry.class, "removed"), null, "removed", null));
+        }
+    }
+
+    static class TaskWithoutRegistry {
+        @OnChatMessage
+        public void scanned(String content) {}
+    }
+
+    // -- Tests --
+
+    @Test
+    void usesRegistryOfTheClassBehindAProxy() {
+        List<Method> methods = AnnotationProcessor.findChatMsgAnnotations(List.of(new TaskWithRegistry$$SpringCGLIB$$0()));
+        assertEquals(1, methods.size());
+        assertEquals("listed", methods.get(0).getName());
+    }
+
+    @Test
+    void usesRegistryInsteadOfScanning() {
+        List<Method> methods = AnnotationProcessor.findChatMsgAnnotations(List.of(new TaskWithRegistry()));
+        assertEquals(1, methods.size());
+        assertEquals("listed", methods.get(0).getName());
+    }
+
+    @Test
+    void prefersGeneratedInvoker() throws Exception {
+        Method listed = TaskWithRegistry.class.getMethod("listed", String.class);
+        assertSame(LISTED_INVOKER, MethodInvoker.compile(listed));
+        assertEquals("direct call", MethodInvoker.invoke(listed, new TaskWithRegistry(), "hi"));
+    }
+
+    @Test
+    void fallsBackToScanningWithoutRegistry() {
+        List<Method> methods = AnnotationProcessor.findChatMsgAnnotations(List.of(new TaskWithoutRegistry()));
+        assertEquals(1, methods.size());
+        assertNull(GeneratedRegistries.findMethods(TaskWithoutRegistry.class, GeneratedHandler.Kind.CHAT_MESSAGE));
+    }
+
+    @Test
+    void fallsBackToScanningWithStaleRegistry() {
+        List<Method> methods = AnnotationProcessor.findSlashCommands(List.of(new TaskWithStaleRegistry()));
+        assertEquals(1, methods.size());
+        assertEquals("renamed", methods.get(0).getName());
+    }
+}
@@ -0,0 +1,160 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.annotations.Bulkhead;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerBulkheadTest {
+
+    // -- Dummy annotated methods to obtain @Bulkhead instances via reflection --
+
+    @Bulkhead(maxConcurrent = 1, queueSize = 1)
+    public void reject() {}
+
+    @Bulkhead(maxConcurrent = 1, queueSize = 1, policy = Bulkhead.Policy.DROP_OLDEST)
+    public void dropOldest() {}
+
+    @Bulkhead(maxConcurrent = 1, policy = Bulkhead.Policy.CALLER_RUNS)
+    public void callerRuns() {}
+
+    @Bulkhead(maxConcurrent = 0)
+    public void invalid() {}
+
+    private static HandlerBulkhead bulkhead(String methodName) throws NoSuchMethodException {
+        return new HandlerBulkhead(methodName, HandlerBulkheadTest.class.getMethod(methodName).getAnnotation(Bulkhead.class));
+    }
+
+    private static Supplier<CompletableFuture<?>> record(List<String> log, String name) {
+        return () -> {
+            log.add(name);
+            return CompiledHandler.DONE;
+        };
+    }
+
+    /**
+     * an executor that only runs its tasks when told to, so the tests can decide when a handler finishes
+     */
+    private static class ManualExecutor implements Executor {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    // -- Tests --
+
+    @Test
+    void queuesUpToQueueSizeAndRejectsTheRest() throws NoSuchMethodException {
+        HandlerBulkhead bulkhead = bulkhead("reject");
+        ManualExecutor executor = new ManualExecutor();
+        List<String> log = new ArrayList<>();
+
+        bulkhead.submit(record(log, "a"), () -> log.add("a rejected"), executor);
+        bulkhead.submit(record(log, "b"), () -> log.add("b rejected"), executor);
+        bulkhead.submit(record(log, "c"), () -> log.add("c rejected"), executor);
+
+        assertEquals(1, bulkhead.getRunning());
+        assertEquals(1, bulkhead.getQueueDepth());
+        assertEquals(1, bulkhead.getRejectedCount());
+        assertEquals(List.of("c rejected"), log);
+
+        executor.runAll();
+        assertEquals(List.of("c rejected", "a", "b"), log);
+        assertEquals(0, bulkhead.getRunning());
+        assertEquals(0, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    void dropOldestRejectsTheWaitingInvocation() throws NoSuchMethodException {
+        HandlerBulkhead bulkhead = bulkhead("dropOldest");
+        ManualExecutor executor = new ManualExecutor();
+        List<String> log = new ArrayList<>();
+
+        bulkhead.submit(record(log, "a"), () -> log.add("a rejected"), executor);
+        bulkhead.submit(record(log, "b"), () -> log.add("b rejected"), executor);
+        bulkhead.submit(record(log, "c"), () -> log.add("c rejected"), executor);
+        executor.runAll();
+
+        assertEquals(List.of("b rejected", "a", "c"), log);
+        assertEquals(1, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    void callerRunsRunsOnTheSubmittingThread() throws NoSuchMethodException {
+        HandlerBulkhead bulkhead = bulkhead("callerRuns");
+        ManualExecutor executor = new ManualExecutor();
+        List<String> log = new ArrayList<>();
+
+        bulkhead.submit(record(log, "a"), () -> log.add("a rejected"), executor);
+        bulkhead.submit(record(log, "b"), () -> log.add("b rejected"), executor);
+
+        assertEquals(List.of("b"), log);
+        assertEquals(1, bulkhead.getCallerRunsCount());
+        assertEquals(0, bulkhead.getRejectedCount());
+
+        executor.runAll();
+        assertEquals(List.of("b", "a"), log);
+    }
+
+    @Test
+    void asyncInvocationKeepsSlotUntilCompleted() throws NoSuchMethodException {
+        HandlerBulkhead bulkhead = bulkhead("reject");
+        ManualExecutor executor = new ManualExecutor();
+        List<String> log = new ArrayList<>();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        bulkhead.submit(() -> {
+            log.add("async");
+            return result;
+        }, () -> log.add("async rejected"), executor);
+        bulkhead.submit(record(log, "queued"), () -> log.add("queued rejected"), executor);
+        executor.runAll();
+
+        assertEquals(List.of("async"), log);
+        assertEquals(1, bulkhead.getRunning());
+        assertEquals(1, bulkhead.getQueueDepth());
+
+        result.complete(null);
+        //the queued invocation is started on the executor, not on the thread that completed the result
+        assertEquals(List.of("async"), log);
+        executor.runAll();
+        assertEquals(List.of("async", "queued"), log);
+        assertEquals(0, bulkhead.getRunning());
+    }
+
+    @Test
+    void releasesSlotWhenTaskThrows() throws NoSuchMethodException {
+        HandlerBulkhead bulkhead = bulkhead("reject");
+        ManualExecutor executor = new ManualExecutor();
+
+        bulkhead.submit(() -> {
+            throw new IllegalStateException("handler failed");
+        }, () -> {}, executor);
+        assertThrows(IllegalStateException.class, executor::runAll);
+
+        assertEquals(0, bulkhead.getRunning());
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> bulkhead("invalid"));
+    }
+}
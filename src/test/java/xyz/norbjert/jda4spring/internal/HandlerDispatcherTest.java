@@ -0,0 +1,160 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+import xyz.norbjert.jda4spring.internal.invokers.SlashCommandInteractionInvoker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerDispatcherTest {
+
+    // -- Dummy BotTask class --
+
+    static class Task {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Thread calledOn;
+
+        public void record() {
+            calledOn = Thread.currentThread();
+            done.countDown();
+        }
+
+        public void fail() {
+            throw new IllegalStateException("handler failed");
+        }
+
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final AtomicInteger serialCalls = new AtomicInteger();
+
+        public void serial() throws InterruptedException {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            serialCalls.incrementAndGet();
+            active.decrementAndGet();
+        }
+
+        public CompletableFuture<Void> async() {
+            return result;
+        }
+    }
+
+    private static CompiledHandler<SlashCommandInteractionEvent> handler(Task task, String name) throws NoSuchMethodException {
+        return SlashCommandInteractionInvoker.compile(Task.class.getMethod(name), task);
+    }
+
+    // -- Tests --
+
+    @Test
+    void parsesConfigValues() throws InterruptedException {
+        assertEquals(HandlerDispatcher.Mode.INLINE, HandlerDispatcher.fromConfigValue("bot", null).getMode());
+        assertEquals(HandlerDispatcher.Mode.INLINE, HandlerDispatcher.fromConfigValue("bot", " Inline ").getMode());
+
+        HandlerDispatcher virtual = HandlerDispatcher.fromConfigValue("bot", "VIRTUAL");
+        HandlerDispatcher pool = HandlerDispatcher.fromConfigValue("bot", "pool: 3");
+        assertEquals(HandlerDispatcher.Mode.VIRTUAL, virtual.getMode());
+        assertEquals(HandlerDispatcher.Mode.POOL, pool.getMode());
+        virtual.shutdown(1, TimeUnit.SECONDS);
+        pool.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rejectsUnknownConfigValues() {
+        for (String value : new String[]{"fast", "pool:0", "pool:many", "inline:2"}) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> HandlerDispatcher.fromConfigValue("bot", value));
+            assertTrue(ex.getMessage().contains("'bot'"));
+        }
+    }
+
+    @Test
+    void inlineRunsOnCallingThreadAndPassesErrorsOn() throws NoSuchMethodException {
+        Task task = new Task();
+        HandlerDispatcher dispatcher = HandlerDispatcher.inline();
+
+        dispatcher.dispatch(handler(task, "record"), null);
+        assertSame(Thread.currentThread(), task.calledOn);
+
+        assertThrows(RuntimeException.class, () -> dispatcher.dispatch(handler(task, "fail"), null));
+    }
+
+    @Test
+    void virtualRunsOnVirtualThread() throws Exception {
+        Task task = new Task();
+        HandlerDispatcher dispatcher = HandlerDispatcher.virtualThreads("bot");
+
+        dispatcher.dispatch(handler(task, "record"), null);
+        assertTrue(task.done.await(5, TimeUnit.SECONDS));
+        assertTrue(task.calledOn.isVirtual());
+        assertTrue(task.calledOn.getName().startsWith("jda4spring-bot-handler-"));
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void poolKeepsRunningAfterFailingHandler() throws Exception {
+        Task task = new Task();
+        HandlerDispatcher dispatcher = HandlerDispatcher.threadPool("bot", 1);
+
+        dispatcher.dispatch(handler(task, "fail"), null);
+        dispatcher.dispatch(handler(task, "record"), null);
+
+        assertTrue(task.done.await(5, TimeUnit.SECONDS));
+        assertFalse(task.calledOn.isVirtual());
+        assertEquals("jda4spring-bot-handler-0", task.calledOn.getName());
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void tracksAsyncHandlersUntilTheyComplete() throws Exception {
+        Task task = new Task();
+        HandlerDispatcher dispatcher = HandlerDispatcher.inline();
+
+        dispatcher.dispatch(handler(task, "async"), null);
+        dispatcher.dispatch(handler(task, "record"), null);
+        assertEquals(1, dispatcher.getPending().getPendingCount());
+        assertEquals(1, dispatcher.getPending().getCompletedCount());
+
+        task.result.complete(null);
+        assertEquals(0, dispatcher.getPending().getPendingCount());
+        assertEquals(2, dispatcher.getPending().getCompletedCount());
+    }
+
+    @Test
+    void shutdownStopsWaitingForAsyncHandlersAfterTimeout() throws Exception {
+        Task task = new Task();
+        HandlerDispatcher dispatcher = HandlerDispatcher.threadPool("bot", 1);
+
+        dispatcher.dispatch(handler(task, "async"), null);
+        dispatcher.shutdown(100, TimeUnit.MILLISECONDS);
+
+        //the future belongs to the handler, f.e. it could be shared with other code
+        assertFalse(task.result.isDone());
+        assertEquals(0, dispatcher.getPending().getPendingCount());
+        assertEquals(1, dispatcher.getPending().getFailedCount());
+
+        task.result.complete(null);
+        assertEquals(0, dispatcher.getPending().getCompletedCount());
+    }
+
+    @Test
+    void sequentialHandlersOfOneChannelNeverOverlap() throws Exception {
+        Task task = new Task();
+        HandlerDispatcher dispatcher = HandlerDispatcher.threadPool("bot", 4);
+        CompiledHandler<SlashCommandInteractionEvent> handler = handler(task, "serial");
+
+        for (int i = 0; i < 50; i++) {
+            dispatcher.dispatch(handler, null, null, () -> {}, 1234L);
+        }
+        dispatcher.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(50, task.serialCalls.get());
+        assertEquals(1, task.maxActive.get());
+    }
+}
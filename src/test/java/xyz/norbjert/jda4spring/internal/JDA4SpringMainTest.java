@@ -0,0 +1,71 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.env.StandardEnvironment;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.availability.BotReadinessState;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JDA4SpringMainTest {
+
+    private final ApplicationContext appContext = mock(ApplicationContext.class);
+    private final BlockingQueue<BotReadinessState> published = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void recordReadiness() {
+        when(appContext.getBeansWithAnnotation(BotTask.class)).thenReturn(Map.of());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof AvailabilityChangeEvent<?> event
+                    && event.getState() instanceof BotReadinessState state) {
+                published.add(state);
+            }
+            return null;
+        }).when(appContext).publishEvent(any(ApplicationEvent.class));
+    }
+
+    private BotReadinessState nextState() throws InterruptedException {
+        BotReadinessState state = published.poll(5, TimeUnit.SECONDS);
+        assertNotNull(state, "no readiness state published");
+        return state;
+    }
+
+    // -- Tests --
+
+    @Test
+    void publishesReadinessOnceStarted() throws InterruptedException {
+        JDA4SpringMain main = new JDA4SpringMain(appContext, new StandardEnvironment());
+        assertTrue(published.isEmpty(), "nothing should be started before the context is");
+
+        main.start();
+
+        assertTrue(main.isRunning());
+        assertEquals(BotReadinessState.STARTING, nextState());
+        assertEquals(BotReadinessState.READY, nextState());
+    }
+
+    @Test
+    void publishesStoppedOnStop() throws InterruptedException {
+        JDA4SpringMain main = new JDA4SpringMain(appContext, new StandardEnvironment());
+        main.start();
+        main.stop();
+
+        assertFalse(main.isRunning());
+        assertTrue(JDA4SpringMain.getBots().isEmpty());
+        List<BotReadinessState> states = List.of(nextState(), nextState(), nextState());
+        assertEquals(BotReadinessState.STARTING, states.get(0));
+        assertEquals(BotReadinessState.STOPPED, states.get(2));
+    }
+}
@@ -0,0 +1,55 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardConfigTest {
+
+    //a guild ID whose creation time part is 5, so it is on shard 5 % total
+    private static final long GUILD_ON_SHARD_5 = 5L << 22;
+
+    // -- Tests --
+
+    @Test
+    void noValueMeansNoSharding() {
+        assertNull(ShardConfig.fromConfigValue(null));
+        assertNull(ShardConfig.fromConfigValue(" "));
+    }
+
+    @Test
+    void parsesAuto() {
+        ShardConfig shards = ShardConfig.fromConfigValue(" AUTO ");
+
+        assertTrue(shards.isAuto());
+        assertFalse(shards.isPartial());
+        assertTrue(shards.handlesGuild(GUILD_ON_SHARD_5));
+    }
+
+    @Test
+    void parsesCount() {
+        ShardConfig shards = ShardConfig.fromConfigValue("4");
+
+        assertEquals(new ShardConfig(4, 0, 3), shards);
+        assertFalse(shards.isPartial());
+    }
+
+    @Test
+    void parsesRange() {
+        ShardConfig shards = ShardConfig.fromConfigValue("4-7 / 8");
+
+        assertEquals(new ShardConfig(8, 4, 7), shards);
+        assertTrue(shards.isPartial());
+        assertTrue(shards.handlesGuild(GUILD_ON_SHARD_5));
+        assertFalse(ShardConfig.fromConfigValue("0-3/8").handlesGuild(GUILD_ON_SHARD_5));
+        assertEquals(new ShardConfig(8, 2, 2), ShardConfig.fromConfigValue("2/8"));
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> ShardConfig.fromConfigValue("0"));
+        assertThrows(IllegalArgumentException.class, () -> ShardConfig.fromConfigValue("many"));
+        assertThrows(IllegalArgumentException.class, () -> ShardConfig.fromConfigValue("4-8/8"));
+        assertThrows(IllegalArgumentException.class, () -> ShardConfig.fromConfigValue("3-1/8"));
+    }
+}
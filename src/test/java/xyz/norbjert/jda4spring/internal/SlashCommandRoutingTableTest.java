@@ -0,0 +1,75 @@
+package xyz.norbjert.jda4spring.internal;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlashCommandRoutingTableTest {
+
+    // -- Dummy BotTask classes --
+
+    static class TaskA {
+        @SlashCommand(command = "ping", description = "test")
+        public void ping(SlashCommandInteractionEvent event) {}
+
+        @SlashCommand // no command= → routed by method name
+        public void myCommand(SlashCommandInteractionEvent event) {}
+    }
+
+    static class TaskB {
+        @SlashCommand(command = "pong", description = "test")
+        public void pong(SlashCommandInteractionEvent event) {}
+    }
+
+    static class TaskWithDuplicate {
+        @SlashCommand(command = "PING", description = "clashes with TaskA.ping after normalisation")
+        public void otherPing(SlashCommandInteractionEvent event) {}
+    }
+
+    // -- Tests --
+
+    @Test
+    void routesCommandToMethodAndDeclaringInstance() {
+        TaskA taskA = new TaskA();
+        TaskB taskB = new TaskB();
+        SlashCommandRoutingTable table = SlashCommandRoutingTable.build(List.of(taskA, taskB));
+
+        CompiledHandler<SlashCommandInteractionEvent> ping = table.find("ping");
+        assertEquals("ping", ping.getMethod().getName());
+        assertSame(taskA, ping.getTarget());
+
+        CompiledHandler<SlashCommandInteractionEvent> pong = table.find("pong");
+        assertEquals("pong", pong.getMethod().getName());
+        assertSame(taskB, pong.getTarget());
+    }
+
+    @Test
+    void routesDefaultNameViaLowerCaseMethodName() {
+        SlashCommandRoutingTable table = SlashCommandRoutingTable.build(List.of(new TaskA()));
+        assertEquals("myCommand", table.find("mycommand").getMethod().getName());
+    }
+
+    @Test
+    void lookupIsCaseInsensitive() {
+        SlashCommandRoutingTable table = SlashCommandRoutingTable.build(List.of(new TaskA()));
+        assertNotNull(table.find("PING"));
+    }
+
+    @Test
+    void returnsNullForUnknownCommand() {
+        SlashCommandRoutingTable table = SlashCommandRoutingTable.build(List.of(new TaskA()));
+        assertNull(table.find("unknown"));
+    }
+
+    @Test
+    void rejectsDuplicateCommandNames() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> SlashCommandRoutingTable.build(List.of(new TaskA(), new TaskWithDuplicate())));
+        assertTrue(ex.getMessage().contains("/ping"));
+    }
+}
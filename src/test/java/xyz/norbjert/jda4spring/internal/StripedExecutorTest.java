@@ -0,0 +1,125 @@
+package xyz.norbjert.jda4spring.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedExecutorTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    private static Supplier<CompletableFuture<?>> record(List<Integer> log, int value) {
+        return () -> {
+            log.add(value);
+            return CompiledHandler.DONE;
+        };
+    }
+
+    // -- Tests --
+
+    @Test
+    void runsTasksOfOneKeyInOrder() throws InterruptedException {
+        StripedExecutor lanes = new StripedExecutor(pool, 16);
+        List<Integer> log = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 0; i < 1000; i++) {
+            lanes.submit(42L, record(log, i));
+        }
+        lanes.submit(42L, () -> {
+            done.countDown();
+            return CompiledHandler.DONE;
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) log.get(i));
+        }
+    }
+
+    @Test
+    void runsDifferentLanesInParallel() throws InterruptedException {
+        StripedExecutor lanes = new StripedExecutor(pool, 16);
+        long first = 1L;
+        long second = 2L;
+        while ((StripedExecutor.spread(first) & 15) == (StripedExecutor.spread(second) & 15)) {
+            second++;
+        }
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        lanes.submit(first, () -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CompiledHandler.DONE;
+        });
+        lanes.submit(second, () -> {
+            otherRan.countDown();
+            return CompiledHandler.DONE;
+        });
+
+        assertTrue(otherRan.await(5, TimeUnit.SECONDS));
+        blocked.countDown();
+    }
+
+    @Test
+    void waitsForAsyncResultBeforeNextTask() throws InterruptedException {
+        StripedExecutor lanes = new StripedExecutor(pool, 16);
+        List<Integer> log = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        lanes.submit(7L, () -> {
+            log.add(1);
+            return result;
+        });
+        lanes.submit(7L, () -> {
+            log.add(2);
+            done.countDown();
+            return CompiledHandler.DONE;
+        });
+
+        assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(1), log);
+
+        result.complete(null);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), log);
+    }
+
+    @Test
+    void keepsGoingAfterFailingTask() throws InterruptedException {
+        StripedExecutor lanes = new StripedExecutor(pool, 1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        lanes.submit(1L, () -> {
+            throw new IllegalStateException("task failed");
+        });
+        lanes.submit(1L, () -> {
+            done.countDown();
+            return CompiledHandler.DONE;
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}
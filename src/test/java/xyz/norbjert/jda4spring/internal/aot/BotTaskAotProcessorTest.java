@@ -0,0 +1,96 @@
+package xyz.norbjert.jda4spring.internal.aot;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.annotations.OnChatMessage;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+import xyz.norbjert.jda4spring.registry.BotTaskRegistry;
+import xyz.norbjert.jda4spring.registry.GeneratedHandler;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BotTaskAotProcessorTest {
+
+    // -- Dummy BotTask classes --
+
+    @BotTask("TaskWithRegistry")
+    static class TaskWithRegistry {
+        @SlashCommand(command = "ping")
+        public void ping() {}
+
+        @OnChatMessage
+        private void hidden(String content) {}
+    }
+
+    public static class TaskWithRegistry_Jda4SpringRegistry implements BotTaskRegistry {
+        @Override
+        public Class<?> botTaskType() {
+            return TaskWithRegistry.class;
+        }
+
+        @Override
+        public List<GeneratedHandler> handlers() {
+            return List.of();
+        }
+    }
+
+    static class NotABotTask {
+        public void ping() {}
+    }
+
+    private static RuntimeHints process(DefaultListableBeanFactory beanFactory) {
+        BeanFactoryInitializationAotContribution contribution = new BotTaskAotProcessor().processAheadOfTime(beanFactory);
+        assertNotNull(contribution);
+
+        RuntimeHints hints = new RuntimeHints();
+        GenerationContext generationContext = mock(GenerationContext.class);
+        when(generationContext.getRuntimeHints()).thenReturn(hints);
+        contribution.applyTo(generationContext, mock(BeanFactoryInitializationCode.class));
+        return hints;
+    }
+
+    // -- Tests --
+
+    @Test
+    void registersHandlerMethodsOfBotTasks() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("TaskWithRegistry", new RootBeanDefinition(TaskWithRegistry.class));
+        beanFactory.registerBeanDefinition("other", new RootBeanDefinition(NotABotTask.class));
+
+        RuntimeHints hints = process(beanFactory);
+
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(TaskWithRegistry.class, "ping").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(TaskWithRegistry.class, "hidden").test(hints));
+        assertFalse(RuntimeHintsPredicates.reflection().onType(NotABotTask.class).test(hints));
+    }
+
+    @Test
+    void registersGeneratedRegistryConstructor() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("TaskWithRegistry", new RootBeanDefinition(TaskWithRegistry.class));
+
+        RuntimeHints hints = process(beanFactory);
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructorInvocation(TaskWithRegistry_Jda4SpringRegistry.class.getConstructors()[0]).test(hints));
+    }
+
+    @Test
+    void contributesNothingWithoutBotTasks() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("other", new RootBeanDefinition(NotABotTask.class));
+
+        assertNull(new BotTaskAotProcessor().processAheadOfTime(beanFactory));
+    }
+}
@@ -0,0 +1,50 @@
+package xyz.norbjert.jda4spring.internal.aot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import xyz.norbjert.jda4spring.annotations.BotTask;
+import xyz.norbjert.jda4spring.annotations.SlashCommand;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Jda4SpringRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void registerHints() {
+        hints = new RuntimeHints();
+        new Jda4SpringRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // -- Tests --
+
+    @Test
+    void registersAnnotationAttributes() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(SlashCommand.class, "command").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(BotTask.class, "value").test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(BotTask.class).test(hints));
+    }
+
+    @Test
+    void registersOptionalTypesLookedUpByName() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(org.reactivestreams.Publisher.class).test(hints));
+    }
+
+    @Test
+    void registersConfigFiles() {
+        for (String configFile : Jda4SpringRuntimeHints.CONFIG_FILES) {
+            assertTrue(RuntimeHintsPredicates.resource().forResource(configFile).test(hints), configFile);
+        }
+    }
+
+    @Test
+    void isListedInAotFactories() {
+        assertTrue(SpringFactoriesLoader.forResourceLocation("META-INF/spring/aot.factories")
+                .load(org.springframework.aot.hint.RuntimeHintsRegistrar.class).stream()
+                .anyMatch(Jda4SpringRuntimeHints.class::isInstance));
+    }
+}
@@ -0,0 +1,85 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandFingerprintsTest {
+
+    @TempDir
+    Path stateDirectory;
+
+    // -- Tests --
+
+    @Test
+    void canonicalJsonSortsKeysAndSkipsNulls() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("name", "ping");
+        first.put("options", List.of(Map.of("type", 3, "name", "target")));
+        first.put("default_member_permissions", null);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("options", List.of(Map.of("name", "target", "type", 3)));
+        second.put("name", "ping");
+
+        assertEquals("{\"name\":\"ping\",\"options\":[{\"name\":\"target\",\"type\":3}]}", CommandFingerprints.canonicalJson(first));
+        assertEquals(CommandFingerprints.canonicalJson(first), CommandFingerprints.canonicalJson(second));
+    }
+
+    @Test
+    void canonicalJsonKeepsArrayOrderAndEscapes() {
+        assertNotEquals(CommandFingerprints.canonicalJson(List.of("a", "b")), CommandFingerprints.canonicalJson(List.of("b", "a")));
+        assertEquals("\"say \\\"hi\\\"\\u000a\"", CommandFingerprints.canonicalJson("say \"hi\"\n"));
+    }
+
+    @Test
+    void sameCommandHasSameFingerprint() {
+        String first = CommandFingerprints.of(Commands.slash("ping", "pong").addOption(OptionType.STRING, "target", "who"));
+        String second = CommandFingerprints.of(Commands.slash("ping", "pong").addOption(OptionType.STRING, "target", "who"));
+        String changed = CommandFingerprints.of(Commands.slash("ping", "pong!").addOption(OptionType.STRING, "target", "who"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, changed);
+    }
+
+    @Test
+    void guildFingerprintIgnoresCommandOrder() {
+        String first = CommandFingerprints.ofAll(List.of(Commands.slash("ping", "pong"), Commands.slash("roll", "rolls a die")));
+        String second = CommandFingerprints.ofAll(List.of(Commands.slash("roll", "rolls a die"), Commands.slash("ping", "pong")));
+
+        assertEquals(first, second);
+        assertNotEquals(first, CommandFingerprints.ofAll(List.of(Commands.slash("ping", "pong"))));
+    }
+
+    @Test
+    void storesAndLoadsFingerprints() throws IOException {
+        Path file = stateDirectory.resolve("nested").resolve("42.commands");
+        Map<String, String> fingerprints = new HashMap<>(Map.of("ping", "abc", "roll", "def"));
+
+        CommandFingerprints.store(file, fingerprints);
+
+        assertEquals(fingerprints, CommandFingerprints.load(file));
+        assertTrue(Files.readString(file).startsWith("#"));
+        assertEquals(List.of(file), Arrays.stream(file.getParent().toFile().listFiles()).map(f -> f.toPath()).toList());
+    }
+
+    @Test
+    void missingOrBrokenFileLoadsAsNull() throws IOException {
+        assertNull(CommandFingerprints.load(stateDirectory.resolve("missing.commands")));
+
+        Path broken = stateDirectory.resolve("broken.commands");
+        Files.writeString(broken, "ping\n");
+        assertNull(CommandFingerprints.load(broken));
+    }
+}
@@ -0,0 +1,45 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandSyncPlanTest {
+
+    private static Map<String, String> fingerprints(String... nameAndFingerprint) {
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (int i = 0; i < nameAndFingerprint.length; i += 2) {
+            fingerprints.put(nameAndFingerprint[i], nameAndFingerprint[i + 1]);
+        }
+        return fingerprints;
+    }
+
+    // -- Tests --
+
+    @Test
+    void unchangedCommandsNeedNothing() {
+        CommandSyncPlan plan = CommandSyncPlan.compute(fingerprints("ping", "1", "roll", "2"), fingerprints("roll", "2", "ping", "1"));
+
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void upsertsNewAndChangedCommands() {
+        CommandSyncPlan plan = CommandSyncPlan.compute(fingerprints("ping", "1", "roll", "3", "new", "4"), fingerprints("ping", "1", "roll", "2"));
+
+        assertEquals(List.of("roll", "new"), plan.upserts());
+        assertEquals(List.of(), plan.deletes());
+    }
+
+    @Test
+    void deletesRemovedCommands() {
+        CommandSyncPlan plan = CommandSyncPlan.compute(fingerprints("ping", "1"), fingerprints("ping", "1", "old", "2"));
+
+        assertEquals(List.of(), plan.upserts());
+        assertEquals(List.of("old"), plan.deletes());
+    }
+}
@@ -0,0 +1,92 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuildCommandPlannerTest {
+
+    // -- Tests --
+
+    @Test
+    void onlyChangedGuildsAreUpdated() {
+        List<Long> guilds = GuildCommandPlanner.plan(Map.of(1L, "a", 2L, "b", 3L, "c"), Map.of(1L, "a", 2L, "old"), false);
+
+        assertEquals(List.of(2L, 3L), guilds);
+    }
+
+    @Test
+    void removedGuildsAreCleared() {
+        List<Long> guilds = GuildCommandPlanner.plan(Map.of(1L, "a"), Map.of(1L, "a", 5L, "b"), false);
+
+        assertEquals(List.of(5L), guilds);
+    }
+
+    @Test
+    void forceUpdatesEveryGuild() {
+        List<Long> guilds = GuildCommandPlanner.plan(Map.of(2L, "b", 1L, "a"), Map.of(1L, "a", 2L, "b"), true);
+
+        assertEquals(List.of(1L, 2L), guilds);
+    }
+
+    @Test
+    void limitsRequestsInFlight() {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        AtomicInteger sent = new AtomicInteger();
+        List<Long> guilds = List.of(1L, 2L, 3L, 4L, 5L);
+
+        CompletableFuture<List<Long>> done = GuildCommandPlanner.execute(guilds, 2, guildId -> {
+            sent.incrementAndGet();
+            CompletableFuture<Void> request = new CompletableFuture<>();
+            pending.add(request);
+            return request;
+        });
+
+        assertEquals(2, sent.get());
+        pending.get(0).complete(null);
+        assertEquals(3, sent.get());
+        for (int i = 1; i < guilds.size(); i++) {
+            pending.get(i).complete(null);
+        }
+        assertEquals(5, sent.get());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), done.join().stream().sorted().toList());
+    }
+
+    @Test
+    void failedGuildsAreLeftOut() {
+        CompletableFuture<List<Long>> done = GuildCommandPlanner.execute(List.of(1L, 2L, 3L), 1, guildId -> {
+            if (guildId == 2L) {
+                throw new IllegalStateException("not in guild");
+            }
+            return guildId == 3L ? CompletableFuture.failedFuture(new RuntimeException("rate limited")) : CompletableFuture.completedFuture(null);
+        });
+
+        assertEquals(List.of(1L), done.join());
+    }
+
+    @Test
+    void manyGuildsCompletingRightAwayDoNotRecurse() {
+        List<Long> guilds = new ArrayList<>();
+        for (long i = 1; i <= 100_000; i++) {
+            guilds.add(i);
+        }
+
+        List<Long> updated = GuildCommandPlanner.execute(guilds, 4, guildId -> CompletableFuture.completedFuture(null)).join();
+
+        assertEquals(guilds.size(), updated.size());
+    }
+
+    @Test
+    void parsesMaxInFlight() {
+        assertEquals(GuildCommandPlanner.DEFAULT_MAX_IN_FLIGHT, GuildCommandPlanner.maxInFlightFromConfigValue(null));
+        assertEquals(10, GuildCommandPlanner.maxInFlightFromConfigValue(" 10 "));
+        assertThrows(IllegalArgumentException.class, () -> GuildCommandPlanner.maxInFlightFromConfigValue("0"));
+        assertThrows(IllegalArgumentException.class, () -> GuildCommandPlanner.maxInFlightFromConfigValue("lots"));
+    }
+}
@@ -0,0 +1,225 @@
+package xyz.norbjert.jda4spring.internal.commands;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.CommandCreateAction;
+import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.interactions.command.CommandImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.norbjert.jda4spring.internal.ShardConfig;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SlashCommandSyncTest {
+
+    @TempDir
+    Path stateDirectory;
+
+    private JDA jda;
+    private RestAction<List<Command>> retrieveCommands;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void mockJda() {
+        jda = mock(JDA.class);
+        SelfUser selfUser = mock(SelfUser.class);
+        when(selfUser.getApplicationIdLong()).thenReturn(42L);
+        when(jda.getSelfUser()).thenReturn(selfUser);
+
+        retrieveCommands = mock(RestAction.class);
+        when(retrieveCommands.submit()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(jda.retrieveCommands()).thenReturn(retrieveCommands);
+
+        CommandCreateAction upsert = mock(CommandCreateAction.class);
+        when(upsert.submit()).thenReturn(CompletableFuture.completedFuture(null));
+        when(jda.upsertCommand(any())).thenReturn(upsert);
+    }
+
+    private Guild mockGuild(long guildId) {
+        Guild guild = mock(Guild.class);
+        CommandListUpdateAction update = mock(CommandListUpdateAction.class);
+        when(update.addCommands(anyCollection())).thenReturn(update);
+        when(update.submit()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(guild.updateCommands()).thenReturn(update);
+        when(jda.getGuildById(guildId)).thenReturn(guild);
+        return guild;
+    }
+
+    /**
+     * a slash command the way discord returns it from GET /applications/{id}/commands, after registering {@code Commands.slash(name, description)}
+     */
+    private static Command registered(long id, String name, String description) {
+        JDAImpl api = mock(JDAImpl.class);
+        SelfUser selfUser = mock(SelfUser.class);
+        when(selfUser.getApplicationIdLong()).thenReturn(42L);
+        when(api.getSelfUser()).thenReturn(selfUser);
+        DataObject json = DataObject.fromJson("""
+                {"id": "%d", "application_id": "42", "version": "%d", "type": 1, "name": "%s", "description": "%s",
+                 "default_member_permissions": null, "contexts": [0, 1], "integration_types": [0], "nsfw": false}
+                """.formatted(id, id, name, description));
+        return new CommandImpl(api, null, json);
+    }
+
+    private static List<SlashCommandData> commands(String pingDescription) {
+        return List.of(Commands.slash("ping", pingDescription), Commands.slash("roll", "rolls a die"));
+    }
+
+    // -- Tests --
+
+    @Test
+    void registersCommandsMissingOnDiscord() {
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+
+        sync.sync(jda, commands("pong")).join();
+
+        verify(jda, times(2)).upsertCommand(any());
+        assertEquals(CommandFingerprints.of(commands("pong")), CommandFingerprints.load(sync.stateFile(jda)));
+    }
+
+    @Test
+    void unchangedCommandsSendNothing() {
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+        sync.sync(jda, commands("pong")).join();
+        clearInvocations(jda, retrieveCommands);
+
+        sync.sync(jda, commands("pong")).join();
+
+        verify(jda, never()).retrieveCommands();
+        verify(jda, never()).upsertCommand(any());
+        verify(jda, never()).updateCommands();
+    }
+
+    @Test
+    void changedCommandsAreComparedWithDiscord() {
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+        sync.sync(jda, commands("pong")).join();
+        clearInvocations(jda, retrieveCommands);
+
+        sync.sync(jda, commands("pong!")).join();
+
+        verify(jda).retrieveCommands();
+        assertEquals(CommandFingerprints.of(commands("pong!")), CommandFingerprints.load(sync.stateFile(jda)));
+    }
+
+    @Test
+    void commandsFromDiscordHaveTheSameFingerprintAsLocalOnes() {
+        assertEquals(CommandFingerprints.of(Commands.slash("ping", "pong")),
+                CommandFingerprints.of(CommandData.fromCommand(registered(1L, "ping", "pong"))));
+    }
+
+    @Test
+    void commandsAlreadyOnDiscordAreNotSentAgain() {
+        when(retrieveCommands.submit()).thenReturn(CompletableFuture.completedFuture(
+                List.of(registered(1L, "ping", "pong"), registered(2L, "roll", "rolls a die"))));
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+
+        sync.sync(jda, commands("pong")).join();
+
+        verify(jda).retrieveCommands();
+        verify(jda, never()).upsertCommand(any());
+        verify(jda, never()).deleteCommandById(anyLong());
+        assertEquals(CommandFingerprints.of(commands("pong")), CommandFingerprints.load(sync.stateFile(jda)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void commandsRemovedFromTheCodeAreDeletedOnDiscord() {
+        RestAction<Void> delete = mock(RestAction.class);
+        when(delete.submit()).thenReturn(CompletableFuture.completedFuture(null));
+        when(jda.deleteCommandById(3L)).thenReturn(delete);
+        when(retrieveCommands.submit()).thenReturn(CompletableFuture.completedFuture(List.of(
+                registered(1L, "ping", "pong"), registered(2L, "roll", "rolls a die"), registered(3L, "stale", "not in the code anymore"))));
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+
+        sync.sync(jda, commands("pong")).join();
+
+        verify(jda).deleteCommandById(3L);
+        verify(jda, never()).upsertCommand(any());
+    }
+
+    @Test
+    void parsesConfigValues() {
+        assertNotNull(SlashCommandSync.fromConfigValues(null, null));
+        assertNotNull(SlashCommandSync.fromConfigValues(" Overwrite ", "/tmp/commands"));
+        assertThrows(IllegalArgumentException.class, () -> SlashCommandSync.fromConfigValues("sometimes", null));
+        assertThrows(IllegalArgumentException.class, () -> SlashCommandSync.fromConfigValues(null, null, "0"));
+    }
+
+    @Test
+    void unchangedGuildsSendNothing() {
+        Guild guild = mock(Guild.class);
+        CommandListUpdateAction update = mock(CommandListUpdateAction.class);
+        when(update.addCommands(anyCollection())).thenReturn(update);
+        when(update.submit()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(guild.updateCommands()).thenReturn(update);
+        when(jda.getGuildById(7L)).thenReturn(guild);
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+
+        sync.syncGuilds(jda, Map.of(7L, commands("pong"))).join();
+        sync.syncGuilds(jda, Map.of(7L, commands("pong"))).join();
+
+        verify(guild, times(1)).updateCommands();
+        assertEquals(Map.of("7", CommandFingerprints.ofAll(commands("pong"))), CommandFingerprints.load(sync.guildStateFile(jda)));
+    }
+
+    @Test
+    void guildsTheBotIsNotInAreTriedAgainNextTime() {
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+
+        sync.syncGuilds(jda, Map.of(7L, commands("pong"))).join();
+
+        assertEquals(Map.of(), CommandFingerprints.load(sync.guildStateFile(jda)));
+    }
+
+    @Test
+    void partialShardsKeepTheirOwnGuilds() {
+        long shardZeroGuild = 2L << 22;
+        long shardOneGuild = 3L << 22;
+        Guild zero = mockGuild(shardZeroGuild);
+        Guild one = mockGuild(shardOneGuild);
+        Map<Long, List<SlashCommandData>> commandsByGuild = Map.of(shardZeroGuild, commands("pong"), shardOneGuild, commands("pong"));
+        SlashCommandSync sync = SlashCommandSync.of(SlashCommandSync.Mode.DIFF, stateDirectory);
+        SlashCommandSync firstHalf = sync.withShards(new ShardConfig(2, 0, 0));
+        SlashCommandSync secondHalf = sync.withShards(new ShardConfig(2, 1, 1));
+
+        firstHalf.syncGuilds(jda, commandsByGuild).join();
+        secondHalf.syncGuilds(jda, commandsByGuild).join();
+        firstHalf.syncGuilds(jda, commandsByGuild).join();
+
+        verify(zero, times(1)).updateCommands();
+        verify(one, times(1)).updateCommands();
+        assertNotEquals(firstHalf.guildStateFile(jda), secondHalf.guildStateFile(jda));
+        assertEquals(sync.guildStateFile(jda), sync.withShards(new ShardConfig(2, 0, 1)).guildStateFile(jda));
+    }
+
+    @Test
+    void resolvesGuildIdsAndGroups() {
+        SlashCommandSync sync = SlashCommandSync.defaults().withGuildGroups(Map.of("premium", Set.of(1L, 2L)));
+
+        assertEquals(Set.of(), sync.resolveGuilds());
+        assertEquals(Set.of(1L, 2L, 3L), sync.resolveGuilds("premium", " 3 "));
+        assertEquals(Set.of(9L), sync.withCommandGuilds(Set.of(9L)).resolveGuilds());
+        assertThrows(IllegalArgumentException.class, () -> sync.resolveGuilds("vip"));
+        assertThrows(IllegalArgumentException.class, () -> sync.resolveGuilds("-3"));
+    }
+}
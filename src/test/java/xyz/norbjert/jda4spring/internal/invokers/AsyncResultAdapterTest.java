@@ -0,0 +1,201 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncResultAdapterTest {
+
+    // -- Dummy BotTask class --
+
+    static class Task {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final SubmissionPublisher<String> flowPublisher = new SubmissionPublisher<>(Runnable::run, 1);
+        TestPublisher publisher = new TestPublisher();
+
+        public void plain() {
+        }
+
+        public String returnsValue() {
+            return "ignored";
+        }
+
+        public CompletableFuture<String> returnsFuture() {
+            return future;
+        }
+
+        public CompletionStage<String> returnsStage() {
+            return future;
+        }
+
+        public CompletableFuture<String> returnsNull() {
+            return null;
+        }
+
+        public Flow.Publisher<String> returnsFlowPublisher() {
+            return flowPublisher;
+        }
+
+        public Publisher<String> returnsPublisher() {
+            return publisher;
+        }
+
+        public void fails() {
+            throw new IllegalStateException("handler failed");
+        }
+    }
+
+    /**
+     * remembers the invocations it was told about
+     */
+    static class RecordingObserver implements HandlerObserver {
+        final List<Throwable> errors = new ArrayList<>();
+        int invocations;
+
+        @Override
+        public void invocationFinished(long durationNanos, Throwable error) {
+            assertTrue(durationNanos >= 0);
+            invocations++;
+            if (error != null) {
+                errors.add(error);
+            }
+        }
+    }
+
+    /**
+     * a reactive streams publisher that lets the test decide when to complete
+     */
+    static class TestPublisher implements Publisher<String> {
+        Subscriber<? super String> subscriber;
+        long requested;
+        boolean cancelled;
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    requested = n;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static CompiledHandler<SlashCommandInteractionEvent> handler(Task task, String name) throws NoSuchMethodException {
+        return SlashCommandInteractionInvoker.compile(Task.class.getMethod(name), task);
+    }
+
+    // -- Tests --
+
+    @Test
+    void synchronousHandlersAreDoneRightAway() throws NoSuchMethodException {
+        Task task = new Task();
+        assertSame(CompiledHandler.DONE, handler(task, "plain").invoke(null));
+        assertSame(CompiledHandler.DONE, handler(task, "returnsValue").invoke(null));
+        assertSame(CompiledHandler.DONE, handler(task, "returnsNull").invoke(null));
+    }
+
+    @Test
+    void completesWithReturnedFuture() throws NoSuchMethodException {
+        Task task = new Task();
+        CompletableFuture<?> completion = handler(task, "returnsFuture").invoke(null);
+        CompletableFuture<?> stageCompletion = handler(task, "returnsStage").invoke(null);
+        assertFalse(completion.isDone());
+        assertFalse(stageCompletion.isDone());
+
+        task.future.complete("done");
+        assertTrue(completion.isDone());
+        assertTrue(stageCompletion.isDone());
+    }
+
+    @Test
+    void failedFutureCompletesExceptionally() throws NoSuchMethodException {
+        Task task = new Task();
+        CompletableFuture<?> completion = handler(task, "returnsFuture").invoke(null);
+
+        task.future.completeExceptionally(new IllegalStateException("rest action failed"));
+        assertTrue(completion.isCompletedExceptionally());
+    }
+
+    @Test
+    void completesWithFlowPublisher() throws NoSuchMethodException {
+        Task task = new Task();
+        CompletableFuture<?> completion = handler(task, "returnsFlowPublisher").invoke(null);
+
+        task.flowPublisher.submit("item");
+        assertFalse(completion.isDone());
+        task.flowPublisher.close();
+        assertTrue(completion.isDone());
+        assertFalse(completion.isCompletedExceptionally());
+    }
+
+    @Test
+    void completesWithReactiveStreamsPublisher() throws NoSuchMethodException {
+        Task task = new Task();
+        CompletableFuture<?> completion = handler(task, "returnsPublisher").invoke(null);
+        assertEquals(Long.MAX_VALUE, task.publisher.requested);
+        assertFalse(completion.isDone());
+
+        task.publisher.subscriber.onNext("item");
+        task.publisher.subscriber.onError(new IllegalStateException("stream failed"));
+        assertTrue(completion.isCompletedExceptionally());
+    }
+
+    @Test
+    void cancellingCancelsTheSubscription() throws NoSuchMethodException {
+        Task task = new Task();
+        CompletableFuture<?> completion = handler(task, "returnsPublisher").invoke(null);
+
+        completion.cancel(true);
+        assertTrue(task.publisher.cancelled);
+    }
+
+    @Test
+    void observerIsToldAboutSynchronousInvocations() throws NoSuchMethodException {
+        Task task = new Task();
+        RecordingObserver observer = new RecordingObserver();
+        CompiledHandler<SlashCommandInteractionEvent> plain = handler(task, "plain");
+        CompiledHandler<SlashCommandInteractionEvent> fails = handler(task, "fails");
+        plain.setObserver(observer);
+        fails.setObserver(observer);
+
+        plain.invoke(null);
+        assertThrows(RuntimeException.class, () -> fails.invoke(null));
+
+        assertEquals(2, observer.invocations);
+        assertEquals(1, observer.errors.size());
+        assertInstanceOf(IllegalStateException.class, observer.errors.get(0).getCause());
+    }
+
+    @Test
+    void observerWaitsForAsyncResult() throws NoSuchMethodException {
+        Task task = new Task();
+        RecordingObserver observer = new RecordingObserver();
+        CompiledHandler<SlashCommandInteractionEvent> handler = handler(task, "returnsFuture");
+        handler.setObserver(observer);
+
+        handler.invoke(null);
+        assertEquals(0, observer.invocations);
+
+        task.future.completeExceptionally(new IllegalStateException("rest action failed"));
+        assertEquals(1, observer.invocations);
+        assertEquals(1, observer.errors.size());
+    }
+}
@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import xyz.norbjert.jda4spring.annotations.Button;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ButtonInteractionInvokerTest {
@@ -21,6 +24,8 @@ class ButtonInteractionInvokerTest {
     static class Target {
         boolean noArgCalled;
         ButtonInteractionEvent capturedEvent;
+        String capturedId;
+        List<String> capturedSegments;
 
         public void noArgs() {
             this.noArgCalled = true;
@@ -32,7 +37,18 @@ class ButtonInteractionInvokerTest {
 
         public void withEventAndExtra(ButtonInteractionEvent event, String extra) {
             this.capturedEvent = event;
+            this.capturedId = extra;
         }
+
+        public void withUnsupportedParam(ButtonInteractionEvent event, Integer unsupported) {}
+
+        @Button("page:*")
+        public void withSegments(List<String> segments) {
+            this.capturedSegments = segments;
+        }
+
+        @Button("exact")
+        public void withSegmentsOnExactId(List<String> segments) {}
     }
 
     private Method method(String name) {
@@ -59,12 +75,39 @@ class ButtonInteractionInvokerTest {
     }
 
     @Test
-    void invokesMultiParamMethodWithEvent() throws InvocationTargetException, IllegalAccessException {
-        // Default case: passes event as first argument, which causes IllegalArgumentException
-        // since the method signature expects (ButtonInteractionEvent, String) but only event is passed.
-        // This is a known limitation captured in the existing TODO in ButtonInteractionInvoker.
+    void injectsComponentIdForStringParam() throws InvocationTargetException, IllegalAccessException {
+        when(event.getComponentId()).thenReturn("my-button");
+        Target target = new Target();
+        ButtonInteractionInvoker.invokeButtonInteractionMethod(method("withEventAndExtra"), target, event);
+        assertSame(event, target.capturedEvent);
+        assertEquals("my-button", target.capturedId);
+    }
+
+    @Test
+    void rejectsUnsupportedParamWhenCompiling() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ButtonInteractionInvoker.compile(method("withUnsupportedParam"), new Target()));
+    }
+
+    @Test
+    void injectsIdSegmentsAfterPrefix() throws InvocationTargetException, IllegalAccessException {
+        when(event.getComponentId()).thenReturn("page:42:user:123");
+        Target target = new Target();
+        ButtonInteractionInvoker.invokeButtonInteractionMethod(method("withSegments"), target, event);
+        assertEquals(List.of("42", "user", "123"), target.capturedSegments);
+    }
+
+    @Test
+    void injectsEmptySegmentsForBarePrefix() throws InvocationTargetException, IllegalAccessException {
+        when(event.getComponentId()).thenReturn("page:");
         Target target = new Target();
+        ButtonInteractionInvoker.invokeButtonInteractionMethod(method("withSegments"), target, event);
+        assertEquals(List.of(), target.capturedSegments);
+    }
+
+    @Test
+    void rejectsSegmentsForExactIdWhenCompiling() {
         assertThrows(IllegalArgumentException.class,
-                () -> ButtonInteractionInvoker.invokeButtonInteractionMethod(method("withEventAndExtra"), target, event));
+                () -> ButtonInteractionInvoker.compile(method("withSegmentsOnExactId"), new Target()));
     }
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import xyz.norbjert.jda4spring.context.ChatMessageContext;
 
 import java.lang.reflect.Method;
 
@@ -22,6 +23,7 @@ class ChatMessageInteractionInvokerTest {
 
     static class Target {
         MessageReceivedEvent capturedEvent;
+        ChatMessageContext capturedContext;
         String capturedContent;
         Object capturedUnknown;
         boolean noArgCalled;
@@ -34,6 +36,10 @@ class ChatMessageInteractionInvokerTest {
             this.capturedContent = content;
         }
 
+        public void withContext(ChatMessageContext context) {
+            this.capturedContext = context;
+        }
+
         public void noArgs() {
             this.noArgCalled = true;
         }
@@ -76,9 +82,52 @@ class ChatMessageInteractionInvokerTest {
     }
 
     @Test
-    void injectsNullForUnknownParameterType() {
+    void reusesCompiledHandlerOnlyForTheSameTarget() {
+        Target first = new Target();
+        Target second = new Target();
+        ChatMessageInteractionInvoker.invokeChatInteractionMethod(method("noArgs"), first, event);
+        ChatMessageInteractionInvoker.invokeChatInteractionMethod(method("noArgs"), second, event);
+        assertTrue(first.noArgCalled);
+        assertTrue(second.noArgCalled);
+    }
+
+    @Test
+    void rejectsUnknownParameterTypeWhenCompiling() {
+        Target target = new Target();
+        assertThrows(IllegalArgumentException.class,
+                () -> ChatMessageInteractionInvoker.compile(method("withUnknownParam"), target));
+    }
+
+    @Test
+    void compiledHandlerCanBeInvokedRepeatedly() {
+        Target target = new Target();
+        CompiledHandler<ChatMessageContext> handler = ChatMessageInteractionInvoker.compile(method("withEvent"), target);
+        handler.invoke(new ChatMessageContext(event));
+        handler.invoke(new ChatMessageContext(event));
+        assertSame(event, target.capturedEvent);
+    }
+
+    @Test
+    void injectsChatMessageContext() {
         Target target = new Target();
-        ChatMessageInteractionInvoker.invokeChatInteractionMethod(method("withUnknownParam"), target, event);
-        assertNull(target.capturedUnknown);
+        ChatMessageContext context = new ChatMessageContext(event);
+        ChatMessageInteractionInvoker.compile(method("withContext"), target).invoke(context);
+        assertSame(context, target.capturedContext);
+    }
+
+    @Test
+    void handlersSharingAContextResolveDisplayContentOnce() {
+        when(event.getMessage()).thenReturn(message);
+        when(message.getContentDisplay()).thenReturn("Hello @someone");
+        Target first = new Target();
+        Target second = new Target();
+        ChatMessageContext context = new ChatMessageContext(event);
+
+        ChatMessageInteractionInvoker.compile(method("withContent"), first).invoke(context);
+        ChatMessageInteractionInvoker.compile(method("withContent"), second).invoke(context);
+
+        assertEquals("Hello @someone", first.capturedContent);
+        assertEquals("Hello @someone", second.capturedContent);
+        verify(message, times(1)).getContentDisplay();
     }
 }
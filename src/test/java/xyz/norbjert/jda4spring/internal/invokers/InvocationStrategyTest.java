@@ -0,0 +1,209 @@
+package xyz.norbjert.jda4spring.internal.invokers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import xyz.norbjert.jda4spring.registry.HandlerInvoker;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvocationStrategyTest {
+
+    // -- Dummy target class --
+
+    static class Target {
+        String captured;
+        static boolean staticCalled;
+
+        public void withString(String value) {
+            this.captured = value;
+        }
+
+        public String returnsValue() {
+            return "result";
+        }
+
+        void packagePrivate(String value) {
+            this.captured = value;
+        }
+
+        public void throwing() {
+            throw new IllegalStateException("boom");
+        }
+
+        public void throwingChecked() throws IOException {
+            throw new IOException("boom");
+        }
+
+        public void throwingError() {
+            throw new AssertionError("boom");
+        }
+
+        public void throwingClassCast(String value) {
+            throw new ClassCastException(value);
+        }
+
+        public int withInt(int value) {
+            return value + 1;
+        }
+
+        public String withFour(String a, String b, String c, String d) {
+            return a + b + c + d;
+        }
+
+        public static void staticMethod() {
+            staticCalled = true;
+        }
+    }
+
+    private Method method(String name) {
+        for (Method m : Target.class.getDeclaredMethods()) {
+            if (m.getName().equals(name)) return m;
+        }
+        throw new RuntimeException("Method not found: " + name);
+    }
+
+    // -- Tests --
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void invokesMethodWithArguments(InvocationStrategy strategy) throws Exception {
+        Target target = new Target();
+        strategy.compile(method("withString")).invoke(target, new Object[]{"hello"});
+        assertEquals("hello", target.captured);
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void returnsValueOfMethod(InvocationStrategy strategy) throws Exception {
+        assertEquals("result", strategy.compile(method("returnsValue")).invoke(new Target(), new Object[0]));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void invokesNonPublicMethod(InvocationStrategy strategy) throws Exception {
+        Target target = new Target();
+        strategy.compile(method("packagePrivate")).invoke(target, new Object[]{"hidden"});
+        assertEquals("hidden", target.captured);
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void invokesStaticMethod(InvocationStrategy strategy) throws Exception {
+        Target.staticCalled = false;
+        strategy.compile(method("staticMethod")).invoke(null, new Object[0]);
+        assertTrue(Target.staticCalled);
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void wrapsExceptionOfInvokedMethod(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("throwing"));
+        InvocationTargetException ex = assertThrows(InvocationTargetException.class,
+                () -> invoker.invoke(new Target(), new Object[0]));
+        assertInstanceOf(IllegalStateException.class, ex.getTargetException());
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void rejectsWrongArgumentCount(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("withString"));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Target(), new Object[0]));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void wrapsCheckedExceptionOfInvokedMethod(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("throwingChecked"));
+        InvocationTargetException ex = assertThrows(InvocationTargetException.class,
+                () -> invoker.invoke(new Target(), new Object[0]));
+        assertInstanceOf(IOException.class, ex.getTargetException());
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void letsErrorsOfInvokedMethodThrough(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("throwingError"));
+        assertThrows(AssertionError.class, () -> invoker.invoke(new Target(), new Object[0]));
+        assertThrows(AssertionError.class, () -> invoker.invoke0(new Target()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void rejectsWrongArgumentType(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("withString"));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Target(), new Object[]{42}));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke1(new Target(), 42));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void wrapsClassCastExceptionOfInvokedMethod(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("throwingClassCast"));
+        InvocationTargetException ex = assertThrows(InvocationTargetException.class, () -> invoker.invoke1(new Target(), "boom"));
+        assertInstanceOf(ClassCastException.class, ex.getTargetException());
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void rejectsWrongArgumentCountOfFixedArityMethods(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("withString"));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke0(new Target()));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke2(new Target(), "a", "b"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void rejectsNullForPrimitiveParameter(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("withInt"));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Target(), new Object[]{null}));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void rejectsWrongTarget(InvocationStrategy strategy) {
+        HandlerInvoker invoker = strategy.compile(method("withString"));
+        assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Object(), new Object[]{"hello"}));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void invokesThroughFixedArityMethods(InvocationStrategy strategy) throws Exception {
+        Target target = new Target();
+        strategy.compile(method("withString")).invoke1(target, "fixed");
+        assertEquals("fixed", target.captured);
+        assertEquals(42, strategy.compile(method("withInt")).invoke1(target, 41));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    void invokesMethodWithMoreParametersThanFixedArities(InvocationStrategy strategy) throws Exception {
+        assertEquals("abcd", strategy.compile(method("withFour")).invoke(new Target(), new Object[]{"a", "b", "c", "d"}));
+    }
+
+    @Test
+    void methodHandleStrategyGeneratesDirectCallForInstanceMethods() {
+        assertInstanceOf(LambdaInvoker.class, InvocationStrategy.METHOD_HANDLE.compile(method("withString")));
+        assertInstanceOf(LambdaInvoker.class, InvocationStrategy.METHOD_HANDLE.compile(method("packagePrivate")));
+        assertFalse(InvocationStrategy.METHOD_HANDLE.compile(method("withFour")) instanceof LambdaInvoker);
+    }
+
+    @Test
+    void parsesConfigValues() {
+        assertEquals(InvocationStrategy.METHOD_HANDLE, InvocationStrategy.fromConfigValue("method-handle"));
+        assertEquals(InvocationStrategy.METHOD_HANDLE, InvocationStrategy.fromConfigValue("METHOD_HANDLE"));
+        assertEquals(InvocationStrategy.REFLECTION, InvocationStrategy.fromConfigValue(" reflection "));
+        assertThrows(IllegalArgumentException.class, () -> InvocationStrategy.fromConfigValue("bytecode"));
+    }
+
+    @Test
+    void methodInvokerRethrowsHandlerExceptionAsRuntimeException() {
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> MethodInvoker.invoke(method("throwing"), new Target()));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+    }
+}
@@ -22,6 +22,7 @@ class SlashCommandInteractionInvokerTest {
     @Mock SlashCommandInteractionEvent event;
     @Mock OptionMapping stringOption;
     @Mock OptionMapping booleanOption;
+    @Mock OptionMapping integerOption;
 
     // -- Dummy target class with public methods for invocation --
 
@@ -30,6 +31,7 @@ class SlashCommandInteractionInvokerTest {
         String capturedString;
         List<String> capturedList;
         Boolean capturedBool;
+        int capturedInt;
         boolean called;
 
         @SlashCommand(command = "test")
@@ -60,6 +62,20 @@ class SlashCommandInteractionInvokerTest {
         public void withBooleanOption(SlashCommandInteractionEvent event, Boolean enabled) {
             this.capturedBool = enabled;
         }
+
+        @SlashCommand(command = "test", options = {@SlashCommandArg(name = "amount", description = "number", optionType = OptionType.INTEGER)})
+        public void withIntOption(SlashCommandInteractionEvent event, int amount) {
+            this.capturedInt = amount;
+        }
+
+        @SlashCommand(command = "test")
+        public void withUnsupportedList(SlashCommandInteractionEvent event, List<Integer> numbers) {}
+
+        @SlashCommand(command = "test", options = {@SlashCommandArg(name = "amount", description = "number", optionType = OptionType.INTEGER)})
+        public void withMismatchedOptionType(SlashCommandInteractionEvent event, Boolean amount) {}
+
+        @SlashCommand(command = "test")
+        public void withUnsupportedType(SlashCommandInteractionEvent event, Object something) {}
     }
 
     private Method method(String name) {
@@ -124,4 +140,32 @@ class SlashCommandInteractionInvokerTest {
         assertThrows(IllegalArgumentException.class,
                 () -> SlashCommandInteractionInvoker.invokeSlashMethod(method("withMissingPrimitiveOption"), target, event));
     }
+
+    @Test
+    void convertsIntegerOptionToInt() {
+        when(event.getOption("amount")).thenReturn(integerOption);
+        when(integerOption.getType()).thenReturn(OptionType.INTEGER);
+        when(integerOption.getAsLong()).thenReturn(42L);
+        Target target = new Target();
+        SlashCommandInteractionInvoker.invokeSlashMethod(method("withIntOption"), target, event);
+        assertEquals(42, target.capturedInt);
+    }
+
+    @Test
+    void rejectsUnsupportedListTypeWhenCompiling() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SlashCommandInteractionInvoker.compile(method("withUnsupportedList"), new Target()));
+    }
+
+    @Test
+    void rejectsParameterTypeNotMatchingDeclaredOptionWhenCompiling() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SlashCommandInteractionInvoker.compile(method("withMismatchedOptionType"), new Target()));
+    }
+
+    @Test
+    void rejectsParameterTypeThatCannotBeAnOptionWhenCompiling() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SlashCommandInteractionInvoker.compile(method("withUnsupportedType"), new Target()));
+    }
 }
@@ -0,0 +1,120 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+import net.dv8tion.jda.api.utils.TimeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayHealthTest {
+
+    /**
+     * remembers what it was told about
+     */
+    static class RecordingObserver implements HealthObserver {
+        final List<Long> lags = new ArrayList<>();
+        final List<String> rateLimits = new ArrayList<>();
+        int resumes;
+        int recreates;
+
+        @Override
+        public void eventReceived(long lagMillis) {
+            lags.add(lagMillis);
+        }
+
+        @Override
+        public void reconnected(boolean resumed) {
+            if (resumed) {
+                resumes++;
+            } else {
+                recreates++;
+            }
+        }
+
+        @Override
+        public void rateLimited(String bucket, String type) {
+            rateLimits.add(bucket + ":" + type);
+        }
+    }
+
+    private static long snowflakeAt(long epochMillis) {
+        return (epochMillis - TimeUtil.DISCORD_EPOCH) << 22;
+    }
+
+    // -- Tests --
+
+    @Test
+    void hasNoValuesBeforeLogin() {
+        GatewayHealth health = new GatewayHealth(List::of);
+
+        assertEquals(-1, health.getGatewayPing());
+        assertEquals(-1, health.getRestPing());
+        assertEquals(0, health.getShards());
+        assertEquals(0, health.getConnectedShards());
+        assertEquals(-1, health.getLastEventLag());
+        assertTrue(health.getRateLimitHits().isEmpty());
+    }
+
+    @Test
+    void readsTimestampFromSnowflake() {
+        //the example from the discord docs
+        assertEquals(1462015105796L, GatewayHealth.createdAt(175928847299117063L));
+    }
+
+    @Test
+    void measuresEventLagFromSnowflake() {
+        GatewayHealth health = new GatewayHealth(List::of);
+        RecordingObserver observer = new RecordingObserver();
+        health.setObserver(observer);
+
+        health.eventReceived(snowflakeAt(System.currentTimeMillis() - 5000));
+
+        long lag = observer.lags.get(0);
+        assertTrue(lag >= 5000 && lag < 60_000, "lag was " + lag);
+        assertEquals(lag, health.getLastEventLag());
+    }
+
+    @Test
+    void eventsFromTheFutureHaveNoLag() {
+        GatewayHealth health = new GatewayHealth(List::of);
+
+        health.eventReceived(snowflakeAt(System.currentTimeMillis() + 5000));
+
+        assertEquals(0, health.getLastEventLag());
+    }
+
+    @Test
+    void countsRateLimitHitsByBucket() {
+        GatewayHealth health = new GatewayHealth(List::of);
+        RecordingObserver observer = new RecordingObserver();
+        health.setObserver(observer);
+
+        health.rateLimitHeaders(200, "abcd1234", "4", null);
+        health.rateLimitHeaders(429, "abcd1234", "0", "user");
+        health.rateLimitHeaders(429, "abcd1234", "0", "shared");
+        health.rateLimitHeaders(429, null, null, "global");
+        health.rateLimitHeaders(200, "ef567890", "0", null);
+
+        assertEquals(Map.of("abcd1234", 2L, "global", 1L), health.getRateLimitHits());
+        assertEquals(List.of("abcd1234:hit", "abcd1234:hit", "global:hit", "ef567890:exhausted"), observer.rateLimits);
+    }
+
+    @Test
+    void countsReconnects() {
+        GatewayHealth health = new GatewayHealth(List::of);
+        RecordingObserver observer = new RecordingObserver();
+        health.setObserver(observer);
+
+        health.onSessionResume(null);
+        health.onSessionResume(null);
+        health.onSessionRecreate(null);
+
+        assertEquals(2, health.getResumes());
+        assertEquals(1, health.getRecreates());
+        assertEquals(2, observer.resumes);
+        assertEquals(1, observer.recreates);
+    }
+}
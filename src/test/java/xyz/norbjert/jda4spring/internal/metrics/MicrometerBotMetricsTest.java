@@ -0,0 +1,116 @@
+package xyz.norbjert.jda4spring.internal.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import xyz.norbjert.jda4spring.annotations.Bulkhead;
+import xyz.norbjert.jda4spring.internal.HandlerBulkhead;
+import xyz.norbjert.jda4spring.internal.invokers.CompiledHandler;
+import xyz.norbjert.jda4spring.internal.invokers.HandlerObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerBotMetricsTest {
+
+    // -- Dummy annotated method to obtain a @Bulkhead instance via reflection --
+
+    @Bulkhead(maxConcurrent = 1, queueSize = 1)
+    public void bulkheaded() {}
+
+    // -- Tests --
+
+    @Test
+    void recordsInvocationsByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HandlerObserver observer = new MicrometerBotMetrics(registry, "TestBot")
+                .handlerObserver(BotMetrics.SLASH_COMMAND, "ExampleBot.ping", "ping");
+
+        observer.invocationFinished(TimeUnit.MILLISECONDS.toNanos(5), null);
+        observer.invocationFinished(TimeUnit.MILLISECONDS.toNanos(7), null);
+        observer.invocationFinished(TimeUnit.MILLISECONDS.toNanos(9), new IllegalStateException("failed"));
+
+        Timer succeeded = registry.get(MicrometerBotMetrics.HANDLER_TIMER)
+                .tags("bot", "TestBot", "type", "slash_command", "handler", "ExampleBot.ping", "command", "ping", "outcome", "success")
+                .timer();
+        assertEquals(2, succeeded.count());
+        assertEquals(12, succeeded.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get(MicrometerBotMetrics.HANDLER_TIMER).tag("outcome", "error").timer().count());
+        assertEquals(1, registry.get(MicrometerBotMetrics.HANDLER_ERRORS).tag("exception", "IllegalStateException").counter().count());
+    }
+
+    @Test
+    void handlersWithoutCommandAreTaggedNone() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MicrometerBotMetrics(registry, "TestBot").handlerObserver(BotMetrics.CHAT_MESSAGE, "ExampleBot.onHello", null);
+
+        assertNotNull(registry.find(MicrometerBotMetrics.HANDLER_TIMER).tags("type", "chat_message", "command", "none").timer());
+    }
+
+    @Test
+    void metersAreCreatedOncePerHandler() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HandlerObserver observer = new MicrometerBotMetrics(registry, "TestBot")
+                .handlerObserver(BotMetrics.BUTTON, "ExampleBot.onClick", null);
+        int meters = registry.getMeters().size();
+
+        for (int i = 0; i < 100; i++) {
+            observer.invocationFinished(1000, null);
+        }
+        assertEquals(meters, registry.getMeters().size());
+    }
+
+    @Test
+    void exceptionNameSkipsWrappers() {
+        IllegalArgumentException cause = new IllegalArgumentException("bad option");
+        //how MethodInvoker wraps the exceptions of handler methods
+        RuntimeException wrapped = new RuntimeException("Method invocation failed.", cause);
+
+        assertEquals("IllegalArgumentException", MicrometerBotMetrics.exceptionName(wrapped));
+        assertEquals("IllegalArgumentException", MicrometerBotMetrics.exceptionName(new CompletionException(wrapped)));
+        assertEquals("RuntimeException", MicrometerBotMetrics.exceptionName(new RuntimeException("no cause")));
+        assertEquals("IllegalStateException", MicrometerBotMetrics.exceptionName(new IllegalStateException("own", cause)));
+    }
+
+    @Test
+    void recordsGatewayHealth() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthObserver observer = new MicrometerBotMetrics(registry, "TestBot").healthObserver(new GatewayHealth(List::of));
+
+        observer.eventReceived(120);
+        observer.reconnected(true);
+        observer.reconnected(false);
+        observer.reconnected(false);
+        observer.rateLimited("abcd1234", GatewayHealth.RATE_LIMIT_HIT);
+
+        assertEquals(1, registry.get(MicrometerBotMetrics.EVENT_LAG).tag("bot", "TestBot").timer().count());
+        assertEquals(1, registry.get(MicrometerBotMetrics.RECONNECTS).tag("type", "resume").counter().count());
+        assertEquals(2, registry.get(MicrometerBotMetrics.RECONNECTS).tag("type", "recreate").counter().count());
+        assertEquals(1, registry.get(MicrometerBotMetrics.RATE_LIMITS).tags("bucket", "abcd1234", "type", "hit").counter().count());
+        //not logged in, so there is no ping and no shard yet
+        assertTrue(Double.isNaN(registry.get(MicrometerBotMetrics.GATEWAY_PING).gauge().value()));
+        assertEquals(0, registry.get(MicrometerBotMetrics.SHARDS).gauge().value());
+    }
+
+    @Test
+    void recordsBulkheadSaturation() throws NoSuchMethodException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HandlerBulkhead bulkhead = new HandlerBulkhead("ExampleBot.ping",
+                MicrometerBotMetricsTest.class.getMethod("bulkheaded").getAnnotation(Bulkhead.class));
+        new MicrometerBotMetrics(registry, "TestBot").bindBulkhead(BotMetrics.SLASH_COMMAND, "ExampleBot.ping", "ping", bulkhead);
+        //never runs the handlers, so the first one keeps the only slot
+        List<Runnable> started = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            bulkhead.submit(() -> CompiledHandler.DONE, () -> {}, started::add);
+        }
+
+        String[] tags = {"bot", "TestBot", "type", "slash_command", "handler", "ExampleBot.ping", "command", "ping"};
+        assertEquals(1, registry.get(MicrometerBotMetrics.BULKHEAD_QUEUE).tags(tags).gauge().value());
+        assertEquals(2, registry.get(MicrometerBotMetrics.BULKHEAD_REJECTIONS).tags(tags).functionCounter().count());
+    }
+}
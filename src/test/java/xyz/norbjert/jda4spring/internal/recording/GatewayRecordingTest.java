@@ -0,0 +1,140 @@
+package xyz.norbjert.jda4spring.internal.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayRecordingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] payload(int sequence) {
+        return ("{\"op\":0,\"t\":\"MESSAGE_CREATE\",\"s\":" + sequence + ",\"d\":{}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<GatewayRecord> readAll(GatewayRecordReader reader) throws IOException {
+        List<GatewayRecord> records = new ArrayList<>();
+        for (GatewayRecord record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    // -- Tests --
+
+    @Test
+    void readsWhatWasWritten() throws IOException {
+        Path file = tempDir.resolve("nested/bot.rec");
+        long before = System.currentTimeMillis();
+        try (GatewayRecordWriter writer = GatewayRecordWriter.open(file)) {
+            writer.append(0, payload(1));
+            writer.append(3, payload(2));
+        }
+
+        try (GatewayRecordReader reader = GatewayRecordReader.open(file)) {
+            assertTrue(reader.getStartEpochMillis() >= before);
+            List<GatewayRecord> records = readAll(reader);
+
+            assertEquals(2, records.size());
+            assertArrayEquals(payload(1), records.get(0).payloadBytes());
+            assertEquals(3, records.get(1).shardId());
+            assertArrayEquals(payload(2), records.get(1).payloadBytes());
+            assertTrue(records.get(1).offsetNanos() >= records.get(0).offsetNanos());
+        }
+    }
+
+    @Test
+    void recordsReachTheFileWithoutFurtherAppends() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("quiet.rec");
+        try (GatewayRecordWriter writer = GatewayRecordWriter.open(file)) {
+            writer.append(0, payload(1));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (Files.size(file) == GatewayRecordWriter.FILE_HEADER_BYTES && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertEquals(GatewayRecordWriter.FILE_HEADER_BYTES + GatewayRecordWriter.RECORD_HEADER_BYTES + payload(1).length, Files.size(file));
+        }
+    }
+
+    @Test
+    void readsRecordsAcrossMappedWindows() throws IOException {
+        Path file = tempDir.resolve("windows.rec");
+        try (GatewayRecordWriter writer = GatewayRecordWriter.open(file)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append(i % 4, payload(i));
+            }
+        }
+
+        //windows smaller than a record, and ones that end in the middle of a record
+        for (long windowBytes : new long[]{16, 100, 4096}) {
+            try (GatewayRecordReader reader = GatewayRecordReader.open(file, windowBytes)) {
+                List<GatewayRecord> records = readAll(reader);
+
+                assertEquals(1000, records.size(), "window of " + windowBytes + " bytes");
+                assertArrayEquals(payload(999), records.get(999).payloadBytes());
+                assertEquals(999 % 4, records.get(999).shardId());
+            }
+        }
+    }
+
+    @Test
+    void continuesAnExistingRecordingAfterACutOffRecord() throws IOException {
+        Path file = tempDir.resolve("crash.rec");
+        long startEpochMillis;
+        try (GatewayRecordWriter writer = GatewayRecordWriter.open(file)) {
+            startEpochMillis = writer.getStartEpochMillis();
+            writer.append(0, payload(1));
+            writer.append(0, payload(2));
+        }
+        //a crash in the middle of writing the second record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 5);
+        }
+        try (GatewayRecordReader reader = GatewayRecordReader.open(file)) {
+            assertEquals(1, readAll(reader).size());
+        }
+
+        try (GatewayRecordWriter writer = GatewayRecordWriter.open(file)) {
+            assertEquals(startEpochMillis, writer.getStartEpochMillis());
+            writer.append(1, payload(3));
+        }
+
+        try (GatewayRecordReader reader = GatewayRecordReader.open(file)) {
+            List<GatewayRecord> records = readAll(reader);
+
+            assertEquals(2, records.size());
+            assertArrayEquals(payload(1), records.get(0).payloadBytes());
+            assertArrayEquals(payload(3), records.get(1).payloadBytes());
+            assertEquals(Files.size(file), reader.position());
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNoRecording() throws IOException {
+        Path file = tempDir.resolve("other.txt");
+        Files.writeString(file, "definitely not a recording");
+
+        assertThrows(IOException.class, () -> GatewayRecordReader.open(file));
+        assertThrows(IOException.class, () -> GatewayRecordWriter.open(file));
+        assertEquals("definitely not a recording", Files.readString(file));
+    }
+
+    @Test
+    void configValue() {
+        assertNull(GatewayRecorder.fromConfigValue("bot", null));
+        assertNull(GatewayRecorder.fromConfigValue("bot", " "));
+        assertThrows(IllegalArgumentException.class, () -> GatewayRecorder.fromConfigValue("bot", tempDir.toString()));
+    }
+}
@@ -0,0 +1,108 @@
+package xyz.norbjert.jda4spring.fake;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Matches the answers of the bot to the events sent to it, for the latencies of the {@link LoadReport}.
+ * Interactions are matched by their ID (the callback URL contains it). Messages by the message they reply to,
+ * or otherwise to the oldest unanswered message of the channel: with several messages in flight in the same channel
+ * that can pair an answer with the wrong message, but the distribution of the latencies stays the same.
+ */
+final class AckTracker {
+
+    private final Map<Long, Long> pendingInteractions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pendingMessages = new ConcurrentHashMap<>();
+    private final Map<Long, Queue<Long>> pendingByChannel = new ConcurrentHashMap<>();
+    private long[] latencies = new long[1024];
+    private int latencyCount;
+    private volatile long lastAnswerNanos;
+
+    void interactionSent(long interactionId) {
+        pendingInteractions.put(interactionId, System.nanoTime());
+    }
+
+    void messageSent(long channelId, long messageId) {
+        pendingMessages.put(messageId, System.nanoTime());
+        pendingByChannel.computeIfAbsent(channelId, id -> new ConcurrentLinkedQueue<>()).add(messageId);
+    }
+
+    /**
+     * @param interactionId the interaction the bot called back for
+     */
+    void interactionAnswered(long interactionId) {
+        Long sentAt = pendingInteractions.remove(interactionId);
+        if (sentAt != null) {
+            record(System.nanoTime() - sentAt);
+        }
+    }
+
+    /**
+     * @param channelId the channel the bot sent a message to
+     * @param referencedMessageId the message it replied to, 0 if it is no reply
+     */
+    void messageAnswered(long channelId, long referencedMessageId) {
+        long now = System.nanoTime();
+        Long sentAt = referencedMessageId == 0 ? null : pendingMessages.remove(referencedMessageId);
+        Queue<Long> channelQueue = pendingByChannel.get(channelId);
+        if (sentAt == null && channelQueue != null) {
+            //oldest first, skipping the ones already answered by a reply
+            for (Long messageId = channelQueue.poll(); messageId != null && sentAt == null; messageId = channelQueue.poll()) {
+                sentAt = pendingMessages.remove(messageId);
+            }
+        } else if (sentAt != null && channelQueue != null) {
+            channelQueue.remove(referencedMessageId);
+        }
+        if (sentAt != null) {
+            record(now - sentAt);
+        }
+    }
+
+    /**
+     * @param eventId an event that could not be sent after all
+     */
+    void cancel(long eventId) {
+        pendingInteractions.remove(eventId);
+        pendingMessages.remove(eventId);
+    }
+
+    private synchronized void record(long latencyNanos) {
+        lastAnswerNanos = System.nanoTime();
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[latencyCount++] = latencyNanos;
+    }
+
+    /**
+     * @return the number of events still waiting for an answer
+     */
+    int pending() {
+        return pendingInteractions.size() + pendingMessages.size();
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} of the last answer, 0 if there was none since the last reset
+     */
+    long lastAnswerNanos() {
+        return lastAnswerNanos;
+    }
+
+    /**
+     * forgets everything, so the next load run starts from zero
+     *
+     * @return the latencies recorded so far, in nanoseconds
+     */
+    synchronized long[] reset() {
+        long[] recorded = Arrays.copyOf(latencies, latencyCount);
+        latencyCount = 0;
+        lastAnswerNanos = 0;
+        pendingInteractions.clear();
+        pendingMessages.clear();
+        pendingByChannel.clear();
+        return recorded;
+    }
+}
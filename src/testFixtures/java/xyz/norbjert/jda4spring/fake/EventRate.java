@@ -0,0 +1,73 @@
+package xyz.norbjert.jda4spring.fake;
+
+/**
+ * One kind of event {@link FakeDiscord#runLoad(java.time.Duration, EventRate...)} sends at a fixed rate,
+ * spread over all guilds of the fake discord.
+ *
+ * @param kind what kind of event is sent
+ * @param perSecond how many of them per second
+ * @param value the content of the messages, the name of the slash command or the custom ID of the button
+ */
+public record EventRate(Kind kind, double perSecond, String value) {
+
+    /**
+     * the kinds of events the fake discord can send
+     */
+    public enum Kind {
+        /**
+         * a MESSAGE_CREATE of a user, answered by a message of the bot in the same channel
+         */
+        MESSAGE,
+        /**
+         * an INTERACTION_CREATE of a slash command without options, answered by the interaction callback
+         */
+        SLASH_COMMAND,
+        /**
+         * an INTERACTION_CREATE of a button click, answered by the interaction callback
+         */
+        BUTTON
+    }
+
+    public EventRate {
+        if (kind == null || value == null) {
+            throw new IllegalArgumentException("kind and value of an event rate are required");
+        }
+        if (!(perSecond > 0)) {
+            throw new IllegalArgumentException("Invalid event rate: " + perSecond + ", has to be more than 0 per second");
+        }
+    }
+
+    /**
+     * @param perSecond how many messages per second
+     * @param content the content of the messages
+     * @return the event rate
+     */
+    public static EventRate messages(double perSecond, String content) {
+        return new EventRate(Kind.MESSAGE, perSecond, content);
+    }
+
+    /**
+     * @param perSecond how many slash commands per second
+     * @param command the name of the slash command
+     * @return the event rate
+     */
+    public static EventRate slashCommands(double perSecond, String command) {
+        return new EventRate(Kind.SLASH_COMMAND, perSecond, command);
+    }
+
+    /**
+     * @param perSecond how many button clicks per second
+     * @param customId the custom ID of the clicked button
+     * @return the event rate
+     */
+    public static EventRate buttonClicks(double perSecond, String customId) {
+        return new EventRate(Kind.BUTTON, perSecond, customId);
+    }
+
+    /**
+     * @return the time between two events, in nanoseconds
+     */
+    long periodNanos() {
+        return Math.max(1, (long) (1_000_000_000L / perSecond));
+    }
+}
@@ -0,0 +1,426 @@
+package xyz.norbjert.jda4spring.fake;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import xyz.norbjert.jda4spring.internal.recording.GatewayRecord;
+import xyz.norbjert.jda4spring.internal.recording.GatewayRecordReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A stand-in for discord that runs in the same JVM: a websocket gateway and a REST API on localhost that speak enough of the
+ * discord protocol for JDA to log in, see the guilds, receive messages, slash commands and button clicks, and answer them.
+ * A {@code DiscordBot} connects to it instead of discord with
+ * <pre>
+ * jda4spring.discord.rest-url = (getRestUrl())
+ * jda4spring.discord.gateway-url = (getGatewayUrl())
+ * </pre>
+ * or a {@code DiscordEndpoint} in its constructor. Any token is accepted.
+ * <p>
+ * Events are sent one by one ({@link #sendMessage(long, String)}, ...), at fixed rates for a while
+ * ({@link #runLoad(Duration, EventRate...)}) or replayed from a recording of real traffic ({@link #replay(Path, double)}),
+ * the last two measure how fast the bot answers them, see {@link LoadReport}.
+ * Every guild has one text channel, the fake user {@link #USER_ID} sends all messages and interactions.
+ * <p>
+ * Nothing is persisted and nothing is rate limited, and only the routes JDA needs for that are implemented:
+ * REST calls of handlers that do more (f.e. fetch members or add reactions) get a 404.
+ */
+public final class FakeDiscord implements AutoCloseable {
+
+    /**
+     * the start of the discord snowflake timestamps, 2015-01-01
+     */
+    public static final long DISCORD_EPOCH = 1420070400000L;
+    /**
+     * the ID of the (non bot) user that sends all messages and interactions
+     */
+    public static final long USER_ID = 86699011792191488L;
+    //answers still missing after the events are sent are waited for that long
+    private static final Duration ANSWER_TIMEOUT = Duration.ofSeconds(10);
+    private static final long ANSWER_POLL_MILLIS = 5;
+    //the guilds are created at consecutive milliseconds from here, so they spread evenly over the shards
+    private static final long FIRST_GUILD_TIMESTAMP = 1_600_000_000_000L;
+
+    private final int shardTotal;
+    private final List<Long> guildIds;
+    private final long applicationId;
+    private final AtomicLong idSequence = new AtomicLong();
+    private final Map<String, Long> commandIds = new ConcurrentHashMap<>();
+    private final AckTracker acks = new AckTracker();
+    private FakeGateway gateway;
+    private FakeRest rest;
+
+    private FakeDiscord(int guilds, int shardTotal) {
+        if (guilds < 1 || shardTotal < 1) {
+            throw new IllegalArgumentException("A fake discord needs at least one guild and one shard");
+        }
+        this.shardTotal = shardTotal;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < guilds; i++) {
+            ids.add((FIRST_GUILD_TIMESTAMP - DISCORD_EPOCH + i) << 22);
+        }
+        this.guildIds = List.copyOf(ids);
+        this.applicationId = nextId();
+    }
+
+    /**
+     * starts a fake discord for a bot that is not sharded
+     *
+     * @param guilds the number of guilds the bot is in
+     * @return the running fake discord, close it when done
+     * @throws IOException if the servers could not be started
+     */
+    public static FakeDiscord start(int guilds) throws IOException {
+        return start(guilds, 1);
+    }
+
+    /**
+     * @param guilds the number of guilds the bot is in
+     * @param shards the number of shards the bot has to connect with, what {@code GET /gateway/bot} recommends
+     * @return the running fake discord, close it when done
+     * @throws IOException if the servers could not be started
+     */
+    public static FakeDiscord start(int guilds, int shards) throws IOException {
+        FakeDiscord discord = new FakeDiscord(guilds, shards);
+        try {
+            discord.gateway = new FakeGateway(discord);
+            discord.rest = new FakeRest(discord, discord.acks);
+        } catch (IOException | RuntimeException e) {
+            discord.close();
+            throw e;
+        }
+        return discord;
+    }
+
+    /**
+     * @return the base url of the REST API, for jda4spring.discord.rest-url
+     */
+    public String getRestUrl() {
+        return rest.getUrl();
+    }
+
+    /**
+     * @return the url of the gateway, for jda4spring.discord.gateway-url
+     */
+    public String getGatewayUrl() {
+        return gateway.getUrl();
+    }
+
+    /**
+     * @return the number of shards bots have to connect with
+     */
+    public int getShardTotal() {
+        return shardTotal;
+    }
+
+    /**
+     * @return the number of shards that are logged in right now
+     */
+    public int getConnectedShards() {
+        return gateway.getConnectedShards();
+    }
+
+    /**
+     * @return the IDs of all guilds
+     */
+    public List<Long> getGuildIds() {
+        return guildIds;
+    }
+
+    /**
+     * @param guildId a guild
+     * @return the ID of the text channel of the guild
+     */
+    public long getChannelId(long guildId) {
+        return guildId + 1;
+    }
+
+    /**
+     * @return the ID of the application of the bot, the same as the ID of its user
+     */
+    public long getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * @return the ID of the bot user
+     */
+    public long getSelfUserId() {
+        return applicationId;
+    }
+
+    /**
+     * @return the names of the global slash commands the bot registered
+     */
+    public List<String> getCommandNames() {
+        return rest.getCommandNames(0);
+    }
+
+    /**
+     * @param guildId a guild
+     * @return the names of the slash commands the bot registered in the guild
+     */
+    public List<String> getCommandNames(long guildId) {
+        return rest.getCommandNames(guildId);
+    }
+
+    /**
+     * @return how often the bot called each REST route, like "POST interactions/{id}/{token}/callback"
+     */
+    public Map<String, Long> getRequestCounts() {
+        return rest.getRequestCounts();
+    }
+
+    /**
+     * @param guildId the guild to send the message in
+     * @param content the content of the message
+     * @return the ID of the message
+     * @throws IllegalStateException if the shard of the guild is not connected
+     */
+    public long sendMessage(long guildId, String content) {
+        long messageId = nextId();
+        long channelId = getChannelId(guildId);
+        acks.messageSent(channelId, messageId);
+        dispatch(messageId, guildId, "MESSAGE_CREATE", Payloads.messageCreate(messageId, guildId, channelId, content));
+        return messageId;
+    }
+
+    /**
+     * @param guildId the guild to run the command in
+     * @param command the name of the slash command
+     * @return the ID of the interaction
+     * @throws IllegalStateException if the shard of the guild is not connected
+     */
+    public long sendSlashCommand(long guildId, String command) {
+        return sendSlashCommand(guildId, command, Map.of());
+    }
+
+    /**
+     * @param guildId the guild to run the command in
+     * @param command the name of the slash command
+     * @param options the values of the options, by name. Strings, integers/longs, doubles and booleans
+     * @return the ID of the interaction
+     * @throws IllegalStateException if the shard of the guild is not connected
+     */
+    public long sendSlashCommand(long guildId, String command, Map<String, Object> options) {
+        long interactionId = nextId();
+        acks.interactionSent(interactionId);
+        dispatch(interactionId, guildId, "INTERACTION_CREATE", Payloads.slashCommand(this, interactionId, guildId, command, options));
+        return interactionId;
+    }
+
+    /**
+     * @param guildId the guild the message with the button is in
+     * @param customId the custom ID of the button
+     * @return the ID of the interaction
+     * @throws IllegalStateException if the shard of the guild is not connected
+     */
+    public long sendButtonClick(long guildId, String customId) {
+        long interactionId = nextId();
+        acks.interactionSent(interactionId);
+        dispatch(interactionId, guildId, "INTERACTION_CREATE", Payloads.buttonClick(this, interactionId, guildId, customId));
+        return interactionId;
+    }
+
+    private void dispatch(long eventId, long guildId, String type, DataObject data) {
+        if (!gateway.dispatch(guildId, type, data)) {
+            acks.cancel(eventId);
+            throw new IllegalStateException("The shard of guild " + guildId + " is not connected");
+        }
+    }
+
+    /**
+     * Sends events at the given rates for the given time, round-robin over the guilds, and waits for the bot to answer them
+     * (up to 10 seconds after the last one). The events are sent when they are due, no matter whether the bot keeps up,
+     * so an overloaded bot shows up as growing latencies instead of a slower sender.
+     *
+     * @param duration how long to send events
+     * @param rates what to send how often
+     * @return the sent and answered events and the latencies of the answers
+     * @throws InterruptedException if interrupted while sending or waiting for the answers
+     */
+    public LoadReport runLoad(Duration duration, EventRate... rates) throws InterruptedException {
+        acks.reset();
+        AtomicLong sent = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+        for (EventRate rate : rates) {
+            senders.execute(() -> {
+                int guild = 0;
+                for (long due = start; due < end && !Thread.currentThread().isInterrupted(); due += rate.periodNanos()) {
+                    LockSupport.parkNanos(due - System.nanoTime());
+                    long guildId = guildIds.get(guild++ % guildIds.size());
+                    try {
+                        send(rate, guildId);
+                        sent.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        //a shard that is reconnecting misses its events, like it would on discord
+                    }
+                }
+            });
+        }
+        senders.shutdown();
+        try {
+            senders.awaitTermination(duration.toMillis() + ANSWER_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            senders.shutdownNow();
+        }
+        return awaitAnswers(start, sent.get());
+    }
+
+    /**
+     * Replays a recording of {@code bots.<name>.record} (see {@code GatewayRecorder}): every dispatch is sent again
+     * at its recorded time (divided by the speed), to the shard of its guild. READY and RESUMED are left out, the bot has its
+     * own session here. The recorded GUILD_CREATEs get the fake bot user added as member, so JDA accepts the guilds,
+     * which means a recording should start with the login of the bot, otherwise the events of guilds it never saw are dropped by JDA.
+     * The recording is read from a memory mapped file, one event at a time.
+     *
+     * @param recording the recording file
+     * @param speed 1 for the original speed, 10 for ten times as fast, {@link Double#POSITIVE_INFINITY} for as fast as possible
+     * @return the replayed events, and the latencies of the messages and interactions the bot answered
+     * @throws IOException if the recording cannot be read
+     * @throws InterruptedException if interrupted while replaying or waiting for the answers
+     */
+    public LoadReport replay(Path recording, double speed) throws IOException, InterruptedException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Invalid replay speed: " + speed + ", has to be more than 0");
+        }
+        acks.reset();
+        long sent = 0;
+        long start = System.nanoTime();
+        try (GatewayRecordReader reader = GatewayRecordReader.open(recording)) {
+            for (GatewayRecord record = reader.next(); record != null; record = reader.next()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                DataObject payload = DataObject.fromJson(record.payloadBytes());
+                String type = payload.getString("t", null);
+                if (type == null || type.equals("READY") || type.equals("RESUMED")) {
+                    continue;
+                }
+                if (Double.isFinite(speed)) {
+                    LockSupport.parkNanos(start + (long) (record.offsetNanos() / speed) - System.nanoTime());
+                }
+                if (replay(record.shardId(), type, payload.getObject("d"))) {
+                    sent++;
+                }
+            }
+        }
+        return awaitAnswers(start, sent);
+    }
+
+    private boolean replay(int recordedShard, String type, DataObject data) {
+        long eventId = data.hasKey("id") ? parseId(data.getString("id")) : 0;
+        //the guild events carry the guild itself, all others reference it
+        long guildId = type.equals("GUILD_CREATE") || type.equals("GUILD_UPDATE") || type.equals("GUILD_DELETE") ? eventId : 0;
+        if (data.hasKey("guild_id") && !data.isNull("guild_id")) {
+            guildId = parseId(data.getString("guild_id"));
+        }
+        if (type.equals("GUILD_CREATE") && data.hasKey("members")) {
+            data.getArray("members").add(Payloads.member(Payloads.selfUser(this)));
+        } else if (type.equals("INTERACTION_CREATE")) {
+            acks.interactionSent(eventId);
+        } else if (type.equals("MESSAGE_CREATE") && !data.getObject("author").getBoolean("bot", false)) {
+            //only the messages of users, a bot doesn't answer its own
+            acks.messageSent(parseId(data.getString("channel_id")), eventId);
+        }
+        boolean sent = guildId != 0
+                ? gateway.dispatch(guildId, type, data)
+                : gateway.dispatchToShard(recordedShard % shardTotal, type, data);
+        if (!sent) {
+            acks.cancel(eventId);
+        }
+        return sent;
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseUnsignedLong(id);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    //waits up to ANSWER_TIMEOUT for the answers that are still missing
+    private LoadReport awaitAnswers(long start, long sent) throws InterruptedException {
+        long sendingDone = System.nanoTime();
+        long deadline = sendingDone + ANSWER_TIMEOUT.toNanos();
+        while (acks.pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(ANSWER_POLL_MILLIS);
+        }
+        long lastAnswer = acks.lastAnswerNanos();
+        Duration elapsed = Duration.ofNanos(Math.max(lastAnswer, sendingDone) - start);
+        return LoadReport.of(sent, acks.reset(), elapsed);
+    }
+
+    private void send(EventRate rate, long guildId) {
+        switch (rate.kind()) {
+            case MESSAGE -> sendMessage(guildId, rate.value());
+            case SLASH_COMMAND -> sendSlashCommand(guildId, rate.value());
+            case BUTTON -> sendButtonClick(guildId, rate.value());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (gateway != null) {
+            gateway.close();
+        }
+        if (rest != null) {
+            rest.close();
+        }
+    }
+
+    /**
+     * @return a new snowflake with the current time, unique within this fake discord
+     */
+    long nextId() {
+        return ((System.currentTimeMillis() - DISCORD_EPOCH) << 22) | (idSequence.getAndIncrement() & 0x3FFFFF);
+    }
+
+    /**
+     * @return the ID of the slash command with that name, the same one on every registration
+     */
+    long commandId(String name) {
+        return commandIds.computeIfAbsent(name, ignored -> nextId());
+    }
+
+    /**
+     * @return the guild the text channel belongs to
+     */
+    long guildOfChannel(long channelId) {
+        return channelId - 1;
+    }
+
+    /**
+     * @return the shard discord sends the events of the guild to
+     */
+    static int shardOf(long guildId, int shardTotal) {
+        return (int) ((guildId >>> 22) % shardTotal);
+    }
+
+    /**
+     * @return the creation time in the snowflake, in epoch milliseconds
+     */
+    static long timestampOf(long snowflake) {
+        return (snowflake >>> 22) + DISCORD_EPOCH;
+    }
+
+    /**
+     * @return the token of the interaction, the fake doesn't check it, but JDA puts it in the callback url
+     */
+    static String interactionToken(long interactionId) {
+        return "fake-token-" + interactionId;
+    }
+}
@@ -0,0 +1,203 @@
+package xyz.norbjert.jda4spring.fake;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The websocket gateway of the fake discord: says HELLO, answers IDENTIFY with READY and a GUILD_CREATE for every guild
+ * of the shard, acknowledges heartbeats and sends the dispatches of {@link FakeDiscord}.
+ * A RESUME is refused (INVALID_SESSION), so a reconnecting JDA identifies again.
+ * Every connection is handled on its own virtual thread.
+ */
+final class FakeGateway implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeGateway.class);
+
+    static final int OP_DISPATCH = 0;
+    static final int OP_HEARTBEAT = 1;
+    static final int OP_IDENTIFY = 2;
+    static final int OP_RESUME = 6;
+    static final int OP_INVALID_SESSION = 9;
+    static final int OP_HELLO = 10;
+    static final int OP_HEARTBEAT_ACK = 11;
+    //what discord sends, JDA heartbeats at that interval
+    static final int HEARTBEAT_INTERVAL_MILLIS = 41250;
+
+    private final FakeDiscord discord;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    //the identified sessions, by shard ID
+    private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+
+    FakeGateway(FakeDiscord discord) throws IOException {
+        this.discord = discord;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptConnections);
+    }
+
+    /**
+     * @return the url JDA connects to
+     */
+    String getUrl() {
+        return "ws://127.0.0.1:" + serverSocket.getLocalPort() + "/";
+    }
+
+    /**
+     * @return the number of shards that identified and are still connected
+     */
+    int getConnectedShards() {
+        sessions.values().removeIf(session -> session.connection.isClosed());
+        return sessions.size();
+    }
+
+    /**
+     * sends a dispatch to the session of the shard the guild belongs to
+     *
+     * @return whether a session for the guild is connected
+     */
+    boolean dispatch(long guildId, String type, DataObject data) {
+        for (Session session : sessions.values()) {
+            if (FakeDiscord.shardOf(guildId, session.shardTotal) == session.shardId) {
+                return session.dispatch(type, data);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * sends a dispatch to the session of a shard, for events that don't belong to a guild
+     *
+     * @return whether the shard is connected
+     */
+    boolean dispatchToShard(int shardId, String type, DataObject data) {
+        Session session = sessions.get(shardId);
+        return session != null && session.dispatch(type, data);
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Fake gateway could not accept a connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        Session session = null;
+        try (WebSocketConnection connection = WebSocketConnection.accept(socket)) {
+            session = new Session(connection);
+            session.send(OP_HELLO, DataObject.empty().put("heartbeat_interval", HEARTBEAT_INTERVAL_MILLIS));
+            for (String text = connection.readText(); text != null; text = connection.readText()) {
+                DataObject payload = DataObject.fromJson(text);
+                switch (payload.getInt("op")) {
+                    case OP_HEARTBEAT -> session.send(OP_HEARTBEAT_ACK, null);
+                    case OP_IDENTIFY -> identify(session, payload.getObject("d"));
+                    case OP_RESUME -> session.send(OP_INVALID_SESSION, false);
+                    default -> {
+                        //presence updates, member requests etc. don't change anything here
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Fake gateway connection closed: {}", e.getMessage());
+        } finally {
+            if (session != null && session.shardId >= 0) {
+                sessions.remove(session.shardId, session);
+            }
+        }
+    }
+
+    private void identify(Session session, DataObject identify) throws IOException {
+        int shardId = 0;
+        int shardTotal = 1;
+        if (identify.hasKey("shard") && !identify.isNull("shard")) {
+            DataArray shard = identify.getArray("shard");
+            shardId = shard.getInt(0);
+            shardTotal = shard.getInt(1);
+        }
+        if (shardTotal != discord.getShardTotal()) {
+            //like discord, which closes with 4011 (sharding required) or 4010 (invalid shard)
+            session.connection.close(4010, "Invalid shard");
+            return;
+        }
+        session.shardId = shardId;
+        session.shardTotal = shardTotal;
+        session.dispatch("READY", Payloads.ready(discord, session.sessionId, shardId, shardTotal));
+        for (long guildId : discord.getGuildIds()) {
+            if (FakeDiscord.shardOf(guildId, shardTotal) == shardId) {
+                session.dispatch("GUILD_CREATE", Payloads.guild(discord, guildId));
+            }
+        }
+        Session previous = sessions.put(shardId, session);
+        if (previous != null && previous != session) {
+            previous.connection.close(4009, "Session replaced");
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            //closing anyway
+        }
+        sessions.values().forEach(session -> session.connection.close(1001, "Fake gateway closed"));
+        sessions.clear();
+        connections.shutdownNow();
+    }
+
+    private static final class Session {
+
+        private final WebSocketConnection connection;
+        private final String sessionId = UUID.randomUUID().toString().replace("-", "");
+        //the sequence number has to grow in the order the dispatches are sent, so both happen under the lock
+        private long sequence;
+        private volatile int shardId = -1;
+        private volatile int shardTotal = 1;
+
+        private Session(WebSocketConnection connection) {
+            this.connection = connection;
+        }
+
+        private synchronized boolean dispatch(String type, DataObject data) {
+            try {
+                connection.sendText(DataObject.empty()
+                        .put("op", OP_DISPATCH)
+                        .put("t", type)
+                        .put("s", ++sequence)
+                        .put("d", data)
+                        .toString());
+                return true;
+            } catch (IOException e) {
+                logger.debug("Could not send {} to shard {}: {}", type, shardId, e.getMessage());
+                return false;
+            }
+        }
+
+        private synchronized void send(int op, Object data) throws IOException {
+            connection.sendText(DataObject.empty()
+                    .put("op", op)
+                    .put("d", data)
+                    .toString());
+        }
+    }
+}
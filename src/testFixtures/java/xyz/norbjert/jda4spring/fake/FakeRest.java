@@ -0,0 +1,263 @@
+package xyz.norbjert.jda4spring.fake;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The REST API of the fake discord, the routes JDA calls while logging in, registering slash commands and answering events:
+ * <ul>
+ *     <li>{@code users/@me}, {@code gateway} and {@code gateway/bot}</li>
+ *     <li>the global and guild slash commands of the application, kept in memory</li>
+ *     <li>interaction callbacks and messages sent to a channel or via the interaction webhook,
+ *     which are reported to the {@link AckTracker}</li>
+ * </ul>
+ * Everything else is answered with a 404, like discord does for unknown routes. No rate limits are applied.
+ */
+final class FakeRest implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeRest.class);
+    static final String BASE_PATH = "/api/v10/";
+
+    private final FakeDiscord discord;
+    private final AckTracker acks;
+    private final HttpServer server;
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    //the registered commands, by guild ID, 0 for the global ones
+    private final Map<Long, List<DataObject>> commands = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+
+    FakeRest(FakeDiscord discord, AckTracker acks) throws IOException {
+        this.discord = discord;
+        this.acks = acks;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 50);
+        server.setExecutor(requests);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the base url of the REST API, what JDA puts the routes behind
+     */
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    /**
+     * @return how often each route was called, like "POST interactions/{id}/{token}/callback"
+     */
+    Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        requestCounts.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    /**
+     * @param guildId the guild, 0 for the global commands
+     * @return the names of the slash commands the bot registered
+     */
+    List<String> getCommandNames(long guildId) {
+        List<String> names = new ArrayList<>();
+        for (DataObject command : commands.getOrDefault(guildId, List.of())) {
+            names.add(command.getString("name"));
+        }
+        return names;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (!path.startsWith(BASE_PATH)) {
+                respond(exchange, "unknown", 404, Payloads.error(0, "404: Not Found"));
+                return;
+            }
+            String[] route = path.substring(BASE_PATH.length()).split("/");
+            String method = exchange.getRequestMethod();
+            DataObject body = readBody(exchange);
+            route(exchange, method, route, body, exchange.getRequestURI().getRawQuery());
+        } catch (RuntimeException e) {
+            logger.warn("Fake REST API failed on {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String[] route, DataObject body, String query) throws IOException {
+        String first = route[0];
+        if (first.equals("users") && route.length == 2 && route[1].equals("@me") && method.equals("GET")) {
+            respond(exchange, "GET users/@me", 200, Payloads.selfUser(discord));
+        } else if (first.equals("gateway") && route.length == 1) {
+            respond(exchange, "GET gateway", 200, DataObject.empty().put("url", discord.getGatewayUrl()));
+        } else if (first.equals("gateway") && route.length == 2 && route[1].equals("bot")) {
+            respond(exchange, "GET gateway/bot", 200, DataObject.empty()
+                    .put("url", discord.getGatewayUrl())
+                    .put("shards", discord.getShardTotal())
+                    .put("session_start_limit", DataObject.empty()
+                            .put("total", 1000)
+                            .put("remaining", 1000)
+                            .put("reset_after", 0)
+                            .put("max_concurrency", 16)));
+        } else if (first.equals("applications") && route.length >= 3 && route[route.length - 1].equals("commands")) {
+            long guildId = route.length == 5 ? Long.parseLong(route[3]) : 0;
+            commands(exchange, method, guildId, body);
+        } else if (first.equals("applications") && route.length >= 4 && route[route.length - 2].equals("commands")) {
+            long guildId = route.length == 6 ? Long.parseLong(route[3]) : 0;
+            command(exchange, method, guildId, Long.parseLong(route[route.length - 1]), body);
+        } else if (first.equals("interactions") && route.length == 4 && route[3].equals("callback") && method.equals("POST")) {
+            callback(exchange, Long.parseLong(route[1]), body, query);
+        } else if (first.equals("channels") && route.length == 3 && route[2].equals("messages") && method.equals("POST")) {
+            long channelId = Long.parseLong(route[1]);
+            long referenced = body.hasKey("message_reference") && !body.isNull("message_reference")
+                    ? Long.parseLong(body.getObject("message_reference").getString("message_id", "0"))
+                    : 0;
+            acks.messageAnswered(channelId, referenced);
+            respond(exchange, "POST channels/{id}/messages", 200, botMessage(channelId, body));
+        } else if (first.equals("webhooks") && route.length >= 3) {
+            //followups and edits of the interaction responses
+            String template = route.length == 3 ? "webhooks/{id}/{token}" : "webhooks/{id}/{token}/messages/{id}";
+            if (method.equals("DELETE")) {
+                respond(exchange, method + " " + template, 204, null);
+            } else {
+                respond(exchange, method + " " + template, 200, botMessage(discord.getChannelId(discord.getGuildIds().get(0)), body));
+            }
+        } else {
+            respond(exchange, "unknown", 404, Payloads.error(0, "404: Not Found"));
+        }
+    }
+
+    private void commands(HttpExchange exchange, String method, long guildId, DataObject body) throws IOException {
+        String template = guildId == 0 ? "applications/{id}/commands" : "applications/{id}/guilds/{id}/commands";
+        switch (method) {
+            case "GET" -> respond(exchange, "GET " + template, 200, commandArray(guildId));
+            case "PUT" -> {
+                //the body is an array, which readBody wraps
+                List<DataObject> registered = new ArrayList<>();
+                DataArray array = body.getArray("array");
+                for (int i = 0; i < array.length(); i++) {
+                    registered.add(Payloads.command(discord, array.getObject(i), discord.commandId(array.getObject(i).getString("name")), guildId));
+                }
+                commands.put(guildId, registered);
+                respond(exchange, "PUT " + template, 200, commandArray(guildId));
+            }
+            case "POST" -> {
+                DataObject command = Payloads.command(discord, body, discord.commandId(body.getString("name")), guildId);
+                commands.compute(guildId, (id, existing) -> {
+                    List<DataObject> updated = new ArrayList<>(existing == null ? List.of() : existing);
+                    updated.removeIf(other -> other.getString("name").equals(command.getString("name")));
+                    updated.add(command);
+                    return updated;
+                });
+                respond(exchange, "POST " + template, 201, command);
+            }
+            default -> respond(exchange, method + " " + template, 405, Payloads.error(0, "405: Method Not Allowed"));
+        }
+    }
+
+    private void command(HttpExchange exchange, String method, long guildId, long commandId, DataObject body) throws IOException {
+        String template = (guildId == 0 ? "applications/{id}/commands" : "applications/{id}/guilds/{id}/commands") + "/{id}";
+        List<DataObject> registered = commands.getOrDefault(guildId, List.of());
+        DataObject existing = registered.stream()
+                .filter(command -> Long.parseLong(command.getString("id")) == commandId)
+                .findFirst().orElse(null);
+        if (existing == null) {
+            respond(exchange, method + " " + template, 404, Payloads.error(10063, "Unknown application command"));
+            return;
+        }
+        if (method.equals("DELETE")) {
+            commands.computeIfPresent(guildId, (id, list) -> {
+                List<DataObject> updated = new ArrayList<>(list);
+                updated.remove(existing);
+                return updated;
+            });
+            respond(exchange, "DELETE " + template, 204, null);
+        } else if (method.equals("PATCH")) {
+            body.toMap().forEach(existing::put);
+            respond(exchange, "PATCH " + template, 200, existing);
+        } else {
+            respond(exchange, method + " " + template, 200, existing);
+        }
+    }
+
+    private void callback(HttpExchange exchange, long interactionId, DataObject body, String query) throws IOException {
+        acks.interactionAnswered(interactionId);
+        String template = "POST interactions/{id}/{token}/callback";
+        if (query == null || !query.contains("with_response=true")) {
+            respond(exchange, template, 204, null);
+            return;
+        }
+        int type = body.getInt("type", 4);
+        boolean ephemeral = body.hasKey("data") && !body.isNull("data") && (body.getObject("data").getInt("flags", 0) & 64) != 0;
+        DataObject response = DataObject.empty()
+                .put("interaction", DataObject.empty()
+                        .put("id", Long.toString(interactionId))
+                        .put("type", 2)
+                        .put("activity_instance_id", null)
+                        .put("response_message_id", null)
+                        .put("response_message_loading", type == 5)
+                        .put("response_message_ephemeral", ephemeral))
+                .put("resource", DataObject.empty().put("type", type));
+        respond(exchange, template, 200, response);
+    }
+
+    private DataObject botMessage(long channelId, DataObject body) {
+        long guildId = discord.guildOfChannel(channelId);
+        return Payloads.message(discord.nextId(), guildId, channelId, Payloads.selfUser(discord), body.getString("content", ""));
+    }
+
+    private DataArray commandArray(long guildId) {
+        DataArray array = DataArray.empty();
+        for (DataObject command : commands.getOrDefault(guildId, List.of())) {
+            array.add(command);
+        }
+        return array;
+    }
+
+    private static DataObject readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readAllBytes();
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        //multipart bodies (messages with files) are not parsed, the fake doesn't need their content
+        if (bytes.length == 0 || contentType == null || !contentType.startsWith("application/json")) {
+            return DataObject.empty();
+        }
+        if (bytes[0] == '[') {
+            return DataObject.empty().put("array", DataArray.fromJson(new String(bytes, StandardCharsets.UTF_8)));
+        }
+        return DataObject.fromJson(bytes);
+    }
+
+    private void respond(HttpExchange exchange, String route, int status, Object body) throws IOException {
+        requestCounts.computeIfAbsent(route, key -> new LongAdder()).increment();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] json = body instanceof DataArray array ? array.toJson() : ((DataObject) body).toJson();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        requests.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package xyz.norbjert.jda4spring.fake;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The result of {@link FakeDiscord#runLoad(Duration, EventRate...)}: how many events were sent, how many the bot answered,
+ * and how long the answers took. The latency of an event is the time from sending its dispatch on the gateway
+ * until the first answer of the bot arrived at the REST API: the interaction callback for slash commands and buttons,
+ * a message in the same channel for chat messages. It includes JDA's parsing, the handler and the REST request,
+ * so it is what a user would see, minus the network.
+ *
+ * @param sent the number of events sent to the bot
+ * @param acked the number of events the bot answered in time
+ * @param elapsed the time from the first event until the last answer (or until giving up on the missing ones)
+ * @param p50 the median latency
+ * @param p99 the 99th percentile of the latencies
+ * @param max the highest latency
+ */
+public record LoadReport(long sent, long acked, Duration elapsed, Duration p50, Duration p99, Duration max) {
+
+    /**
+     * @param sent the number of events sent to the bot
+     * @param latencyNanos the latency of every answered event, in nanoseconds, in any order
+     * @param elapsed the time from the first event until the last answer
+     * @return the report
+     */
+    static LoadReport of(long sent, long[] latencyNanos, Duration elapsed) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return new LoadReport(sent, sorted.length, elapsed,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    //nearest rank, so every percentile is a latency that actually happened
+    static Duration percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(sorted.length, rank) - 1)]);
+    }
+
+    /**
+     * @return the answered events per second
+     */
+    public double throughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : acked * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d of %d event(s) answered in %.1f s (%.0f/s), latency p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                acked, sent, elapsed.toNanos() / 1e9, throughput(), p50.toNanos() / 1e6, p99.toNanos() / 1e6, max.toNanos() / 1e6);
+    }
+}
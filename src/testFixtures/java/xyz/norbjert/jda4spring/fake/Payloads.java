@@ -0,0 +1,307 @@
+package xyz.norbjert.jda4spring.fake;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * static helper class, the JSON objects of the fake discord. Only the fields JDA reads (and requires) are filled in,
+ * with the values a small, freshly created guild would have.
+ */
+final class Payloads {
+
+    static final String FAKE_USER_NAME = "load-tester";
+    //administrator, so JDA never refuses an action because of missing permissions
+    private static final String ALL_PERMISSIONS = "8";
+    private static final String JOINED_AT = OffsetDateTime.ofInstant(Instant.ofEpochMilli(FakeDiscord.DISCORD_EPOCH), ZoneOffset.UTC).toString();
+
+    /**
+     * static class, don't instantiate it pls thank you
+     */
+    private Payloads() {
+        throw new RuntimeException("Payloads is a static class and cannot be instanced");
+    }
+
+    static DataObject user(long id, String name, boolean bot) {
+        return DataObject.empty()
+                .put("id", Long.toString(id))
+                .put("username", name)
+                .put("global_name", null)
+                .put("discriminator", "0000")
+                .put("avatar", null)
+                .put("bot", bot)
+                .put("system", false)
+                .put("flags", 0)
+                .put("public_flags", 0);
+    }
+
+    static DataObject selfUser(FakeDiscord discord) {
+        return user(discord.getSelfUserId(), "fake-bot", true)
+                .put("verified", true)
+                .put("mfa_enabled", false);
+    }
+
+    /**
+     * @param user the user of the member, {@code null} for the member of a message (where the user is the author)
+     */
+    static DataObject member(DataObject user) {
+        DataObject member = DataObject.empty();
+        if (user != null) {
+            member.put("user", user);
+        }
+        return member
+                .put("roles", DataArray.empty())
+                .put("joined_at", JOINED_AT)
+                .put("nick", null)
+                .put("avatar", null)
+                .put("premium_since", null)
+                .put("communication_disabled_until", null)
+                .put("pending", false)
+                .put("deaf", false)
+                .put("mute", false)
+                .put("flags", 0);
+    }
+
+    /**
+     * @return the READY dispatch for a session, all guilds of the shard are unavailable until their GUILD_CREATE
+     */
+    static DataObject ready(FakeDiscord discord, String sessionId, int shardId, int shardTotal) {
+        DataArray guilds = DataArray.empty();
+        for (long guildId : discord.getGuildIds()) {
+            if (FakeDiscord.shardOf(guildId, shardTotal) == shardId) {
+                guilds.add(DataObject.empty().put("id", Long.toString(guildId)).put("unavailable", true));
+            }
+        }
+        return DataObject.empty()
+                .put("v", 10)
+                .put("user", selfUser(discord))
+                .put("guilds", guilds)
+                .put("private_channels", DataArray.empty())
+                .put("relationships", DataArray.empty())
+                .put("presences", DataArray.empty())
+                .put("session_id", sessionId)
+                .put("session_type", "normal")
+                .put("resume_gateway_url", discord.getGatewayUrl())
+                .put("shard", DataArray.empty().add(shardId).add(shardTotal))
+                .put("application", DataObject.empty()
+                        .put("id", Long.toString(discord.getApplicationId()))
+                        .put("flags", 0));
+    }
+
+    /**
+     * @return a guild with an @everyone role, one text channel and the bot as its only cached member
+     */
+    static DataObject guild(FakeDiscord discord, long guildId) {
+        DataObject everyone = DataObject.empty()
+                .put("id", Long.toString(guildId))
+                .put("name", "@everyone")
+                .put("color", 0)
+                .put("colors", DataObject.empty().put("primary_color", 0).put("secondary_color", null).put("tertiary_color", null))
+                .put("hoist", false)
+                .put("icon", null)
+                .put("unicode_emoji", null)
+                .put("position", 0)
+                .put("permissions", ALL_PERMISSIONS)
+                .put("managed", false)
+                .put("mentionable", false)
+                .put("flags", 0);
+        DataObject channel = textChannel(guildId, discord.getChannelId(guildId));
+        return DataObject.empty()
+                .put("id", Long.toString(guildId))
+                .put("name", "fake guild " + guildId)
+                .put("icon", null)
+                .put("splash", null)
+                .put("discovery_splash", null)
+                .put("banner", null)
+                .put("description", null)
+                .put("vanity_url_code", null)
+                .put("owner_id", Long.toString(FakeDiscord.USER_ID))
+                .put("afk_channel_id", null)
+                .put("afk_timeout", 300)
+                .put("system_channel_id", null)
+                .put("system_channel_flags", 0)
+                .put("rules_channel_id", null)
+                .put("public_updates_channel_id", null)
+                .put("safety_alerts_channel_id", null)
+                .put("verification_level", 0)
+                .put("default_message_notifications", 0)
+                .put("explicit_content_filter", 0)
+                .put("mfa_level", 0)
+                .put("nsfw_level", 0)
+                .put("premium_tier", 0)
+                .put("premium_subscription_count", 0)
+                .put("premium_progress_bar_enabled", false)
+                .put("preferred_locale", "en-US")
+                .put("max_members", 500000)
+                .put("member_count", 2)
+                .put("large", false)
+                .put("unavailable", false)
+                .put("joined_at", JOINED_AT)
+                .put("features", DataArray.empty())
+                .put("roles", DataArray.empty().add(everyone))
+                .put("channels", DataArray.empty().add(channel))
+                .put("threads", DataArray.empty())
+                .put("members", DataArray.empty().add(member(selfUser(discord))))
+                .put("voice_states", DataArray.empty())
+                .put("presences", DataArray.empty())
+                .put("emojis", DataArray.empty())
+                .put("stickers", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("stage_instances", DataArray.empty())
+                .put("soundboard_sounds", DataArray.empty());
+    }
+
+    static DataObject textChannel(long guildId, long channelId) {
+        return DataObject.empty()
+                .put("id", Long.toString(channelId))
+                .put("type", 0)
+                .put("guild_id", Long.toString(guildId))
+                .put("name", "general")
+                .put("position", 0)
+                .put("permission_overwrites", DataArray.empty())
+                .put("topic", null)
+                .put("nsfw", false)
+                .put("last_message_id", null)
+                .put("rate_limit_per_user", 0)
+                .put("parent_id", null)
+                .put("flags", 0);
+    }
+
+    /**
+     * @return a message in the text channel of the guild, without the member (which MESSAGE_CREATE adds)
+     */
+    static DataObject message(long messageId, long guildId, long channelId, DataObject author, String content) {
+        return DataObject.empty()
+                .put("id", Long.toString(messageId))
+                .put("channel_id", Long.toString(channelId))
+                .put("guild_id", Long.toString(guildId))
+                .put("author", author)
+                .put("content", content)
+                .put("timestamp", OffsetDateTime.ofInstant(Instant.ofEpochMilli(FakeDiscord.timestampOf(messageId)), ZoneOffset.UTC).toString())
+                .put("edited_timestamp", null)
+                .put("tts", false)
+                .put("mention_everyone", false)
+                .put("mentions", DataArray.empty())
+                .put("mention_roles", DataArray.empty())
+                .put("mention_channels", DataArray.empty())
+                .put("attachments", DataArray.empty())
+                .put("embeds", DataArray.empty())
+                .put("reactions", DataArray.empty())
+                .put("components", DataArray.empty())
+                .put("sticker_items", DataArray.empty())
+                .put("pinned", false)
+                .put("type", 0)
+                .put("flags", 0);
+    }
+
+    /**
+     * @return the MESSAGE_CREATE dispatch of a message from the fake user
+     */
+    static DataObject messageCreate(long messageId, long guildId, long channelId, String content) {
+        return message(messageId, guildId, channelId, user(FakeDiscord.USER_ID, FAKE_USER_NAME, false), content)
+                .put("member", member(null));
+    }
+
+    /**
+     * @return the INTERACTION_CREATE dispatch of a slash command the fake user ran
+     */
+    static DataObject slashCommand(FakeDiscord discord, long interactionId, long guildId, String command, Map<String, Object> options) {
+        DataArray optionArray = DataArray.empty();
+        for (Map.Entry<String, Object> option : options.entrySet()) {
+            optionArray.add(DataObject.empty()
+                    .put("name", option.getKey())
+                    .put("type", optionType(option.getValue()))
+                    .put("value", option.getValue()));
+        }
+        DataObject data = DataObject.empty()
+                .put("id", Long.toString(discord.commandId(command)))
+                .put("name", command)
+                .put("type", 1)
+                .put("options", optionArray);
+        return interaction(discord, interactionId, guildId, 2, data);
+    }
+
+    /**
+     * @return the INTERACTION_CREATE dispatch of a click on a button of a message of the bot
+     */
+    static DataObject buttonClick(FakeDiscord discord, long interactionId, long guildId, String customId) {
+        long channelId = discord.getChannelId(guildId);
+        DataObject button = DataObject.empty()
+                .put("type", 2)
+                .put("style", 1)
+                .put("label", customId)
+                .put("custom_id", customId)
+                .put("disabled", false);
+        DataObject message = message(discord.nextId(), guildId, channelId, selfUser(discord), "")
+                .put("components", DataArray.empty().add(DataObject.empty().put("type", 1).put("components", DataArray.empty().add(button))));
+        DataObject data = DataObject.empty()
+                .put("component_type", 2)
+                .put("custom_id", customId);
+        return interaction(discord, interactionId, guildId, 3, data)
+                .put("message", message);
+    }
+
+    private static DataObject interaction(FakeDiscord discord, long interactionId, long guildId, int type, DataObject data) {
+        long channelId = discord.getChannelId(guildId);
+        return DataObject.empty()
+                .put("id", Long.toString(interactionId))
+                .put("application_id", Long.toString(discord.getApplicationId()))
+                .put("type", type)
+                .put("token", FakeDiscord.interactionToken(interactionId))
+                .put("version", 1)
+                .put("guild_id", Long.toString(guildId))
+                .put("channel_id", Long.toString(channelId))
+                .put("channel", textChannel(guildId, channelId).put("permissions", ALL_PERMISSIONS))
+                .put("member", member(user(FakeDiscord.USER_ID, FAKE_USER_NAME, false)).put("permissions", ALL_PERMISSIONS))
+                .put("app_permissions", ALL_PERMISSIONS)
+                .put("locale", "en-US")
+                .put("guild_locale", "en-US")
+                .put("entitlements", DataArray.empty())
+                .put("authorizing_integration_owners", DataObject.empty().put("0", Long.toString(guildId)))
+                .put("context", 0)
+                .put("attachment_size_limit", 10485760)
+                .put("data", data);
+    }
+
+    //the option types of discord, see OptionType
+    private static int optionType(Object value) {
+        if (value instanceof Boolean) {
+            return 5;
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return 4;
+        }
+        if (value instanceof Number) {
+            return 10;
+        }
+        return 3;
+    }
+
+    /**
+     * @return a slash command as discord returns it after registering it, with the fields of the registered one
+     */
+    static DataObject command(FakeDiscord discord, DataObject registered, long commandId, long guildId) {
+        DataObject command = DataObject.fromJson(registered.toJson());
+        command.put("id", Long.toString(commandId))
+                .put("application_id", Long.toString(discord.getApplicationId()))
+                .put("version", Long.toString(commandId));
+        if (!command.hasKey("type")) {
+            command.put("type", 1);
+        }
+        if (!command.hasKey("description")) {
+            command.put("description", "");
+        }
+        if (guildId != 0) {
+            command.put("guild_id", Long.toString(guildId));
+        }
+        return command;
+    }
+
+    static DataObject error(int code, String message) {
+        return DataObject.empty().put("code", code).put("message", message);
+    }
+}
@@ -0,0 +1,284 @@
+package xyz.norbjert.jda4spring.fake;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The server side of a websocket connection (RFC 6455), just as much of it as the gateway needs:
+ * the handshake, text frames (also fragmented ones), ping/pong and close. No extensions, so no permessage-deflate,
+ * and no TLS, the fake gateway only listens on localhost.
+ */
+final class WebSocketConnection implements Closeable {
+
+    static final int OP_CONTINUATION = 0x0;
+    static final int OP_TEXT = 0x1;
+    static final int OP_BINARY = 0x2;
+    static final int OP_CLOSE = 0x8;
+    static final int OP_PING = 0x9;
+    static final int OP_PONG = 0xA;
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    //the gateway never sends more than that in one payload, anything bigger is a broken client
+    private static final int MAX_PAYLOAD = 16 * 1024 * 1024;
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private volatile boolean closed;
+
+    private WebSocketConnection(Socket socket, InputStream in, OutputStream out) {
+        this.socket = socket;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * reads the upgrade request from the socket and answers it
+     *
+     * @param socket a freshly accepted socket
+     * @return the websocket connection
+     * @throws IOException if the socket broke, or the request is not a websocket upgrade (the socket is closed then)
+     */
+    static WebSocketConnection accept(Socket socket) throws IOException {
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+        String requestLine = readLine(in);
+        Map<String, String> headers = new HashMap<>();
+        for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        String key = headers.get("sec-websocket-key");
+        if (!requestLine.startsWith("GET ") || key == null || !"websocket".equalsIgnoreCase(headers.get("upgrade"))) {
+            out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            socket.close();
+            throw new IOException("Not a websocket upgrade: " + requestLine);
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+        return new WebSocketConnection(socket, in, out);
+    }
+
+    /**
+     * @param key the Sec-WebSocket-Key of the client
+     * @return the Sec-WebSocket-Accept the client expects for it
+     */
+    static String acceptKey(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * Reads the next text message, answering pings and closes along the way.
+     *
+     * @return the text, or {@code null} once the client closed the connection
+     * @throws IOException if the connection broke
+     */
+    String readText() throws IOException {
+        ByteArrayOutputStream fragments = null;
+        while (true) {
+            Frame frame;
+            try {
+                frame = readFrame(in);
+            } catch (EOFException e) {
+                return null;
+            }
+            switch (frame.opcode()) {
+                case OP_PING -> send(OP_PONG, frame.payload());
+                case OP_PONG -> {
+                    //unsolicited pongs are allowed, nothing to do
+                }
+                case OP_CLOSE -> {
+                    //echo the status code, that completes the closing handshake
+                    close(frame.payload());
+                    return null;
+                }
+                case OP_TEXT, OP_BINARY -> {
+                    if (frame.fin()) {
+                        return new String(frame.payload(), StandardCharsets.UTF_8);
+                    }
+                    fragments = new ByteArrayOutputStream();
+                    fragments.write(frame.payload());
+                }
+                case OP_CONTINUATION -> {
+                    if (fragments == null) {
+                        throw new IOException("Continuation frame without a message to continue");
+                    }
+                    fragments.write(frame.payload());
+                    if (frame.fin()) {
+                        return fragments.toString(StandardCharsets.UTF_8);
+                    }
+                }
+                default -> throw new IOException("Unknown websocket opcode " + frame.opcode());
+            }
+        }
+    }
+
+    /**
+     * @param text the message to send as one text frame
+     * @throws IOException if the connection broke
+     */
+    void sendText(String text) throws IOException {
+        send(OP_TEXT, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * closes the connection with a close frame, like discord does f.e. with 4004 for an invalid token
+     *
+     * @param code the close code
+     * @param reason the reason, short enough for a control frame
+     */
+    void close(int code, String reason) {
+        byte[] text = reason.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[2 + text.length];
+        payload[0] = (byte) (code >> 8);
+        payload[1] = (byte) code;
+        System.arraycopy(text, 0, payload, 2, text.length);
+        close(payload);
+    }
+
+    @Override
+    public void close() {
+        close(1000, "");
+    }
+
+    private void close(byte[] payload) {
+        if (closed) {
+            return;
+        }
+        try {
+            send(OP_CLOSE, payload);
+        } catch (IOException ignored) {
+            //the client is gone already
+        }
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            //nothing left to clean up
+        }
+    }
+
+    /**
+     * @return whether the connection has been closed by either side
+     */
+    boolean isClosed() {
+        return closed || socket.isClosed();
+    }
+
+    private synchronized void send(int opcode, byte[] payload) throws IOException {
+        if (closed) {
+            throw new IOException("Connection is closed");
+        }
+        writeFrame(out, opcode, payload);
+        out.flush();
+    }
+
+    /**
+     * writes a single unmasked frame, servers never mask
+     */
+    static void writeFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+        out.write(0x80 | opcode);
+        if (payload.length < 126) {
+            out.write(payload.length);
+        } else if (payload.length <= 0xFFFF) {
+            out.write(126);
+            out.write(payload.length >> 8);
+            out.write(payload.length);
+        } else {
+            out.write(127);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) ((long) payload.length >> shift));
+            }
+        }
+        out.write(payload);
+    }
+
+    /**
+     * reads a single frame and unmasks it, clients always mask
+     */
+    static Frame readFrame(InputStream in) throws IOException {
+        int first = readByte(in);
+        int second = readByte(in);
+        long length = second & 0x7F;
+        if (length == 126) {
+            length = ((long) readByte(in) << 8) | readByte(in);
+        } else if (length == 127) {
+            length = 0;
+            for (int i = 0; i < 8; i++) {
+                length = (length << 8) | readByte(in);
+            }
+        }
+        if (length > MAX_PAYLOAD) {
+            throw new IOException("Websocket frame of " + length + " bytes is too big");
+        }
+        byte[] mask = null;
+        if ((second & 0x80) != 0) {
+            mask = in.readNBytes(4);
+            if (mask.length < 4) {
+                throw new EOFException();
+            }
+        }
+        byte[] payload = in.readNBytes((int) length);
+        if (payload.length < length) {
+            throw new EOFException();
+        }
+        if (mask != null) {
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i & 3];
+            }
+        }
+        return new Frame((first & 0x80) != 0, first & 0x0F, payload);
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int b = readByte(in); b != '\n'; b = readByte(in)) {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * @param fin whether this is the last frame of a message
+     * @param opcode the opcode, see the OP_ constants
+     * @param payload the unmasked payload
+     */
+    record Frame(boolean fin, int opcode, byte[] payload) {
+    }
+}